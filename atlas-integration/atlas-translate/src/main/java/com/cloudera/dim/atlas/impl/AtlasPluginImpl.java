@@ -33,6 +33,8 @@ import com.cloudera.dim.atlas.types.VersionEntityDef;
 import com.cloudera.dim.atlas.types.VersionStateEntityDef;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Predicate;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
@@ -74,7 +76,9 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -87,6 +91,13 @@ public class AtlasPluginImpl implements AtlasPlugin {
 
     private static final String ERR_NO_URLS_PROVIDED = "List of Atlas host URLs is empty.";
 
+    /** Maximum number of entities of each kind which are cached. */
+    public static final String ENTITY_CACHE_SIZE_PARAM = "atlas.entity.cache.size";
+    /** Seconds after which cached entities expire, as they may be modified by other registry instances. */
+    public static final String ENTITY_CACHE_EXPIRY_SECS_PARAM = "atlas.entity.cache.expiry.secs";
+    private static final long DEFAULT_ENTITY_CACHE_SIZE = 1000L;
+    private static final long DEFAULT_ENTITY_CACHE_EXPIRY_SECS = 30L;
+
     private final SchemaMetadataTranslator schemaMetadataTranslator = new SchemaMetadataTranslator();
     private final SchemaVersionTranslator schemaVersionTranslator = new SchemaVersionTranslator();
     private final SchemaVersionInfoTranslator schemaVersionInfoTranslator = new SchemaVersionInfoTranslator();
@@ -94,23 +105,44 @@ public class AtlasPluginImpl implements AtlasPlugin {
     private final SerdesInfoTranslator serdesInfoTranslator = new SerdesInfoTranslator();
     private final Map<String, IdGenerator> idGenerators = new HashMap<>();
 
+    // entities with their relationship attributes, which are invalidated when their relationships are modified
+    private Cache<String, AtlasEntity> metaEntitiesByName = createEntityCache(DEFAULT_ENTITY_CACHE_SIZE, DEFAULT_ENTITY_CACHE_EXPIRY_SECS);
+    private Cache<Long, AtlasEntity> metaEntitiesById = createEntityCache(DEFAULT_ENTITY_CACHE_SIZE, DEFAULT_ENTITY_CACHE_EXPIRY_SECS);
+    private Cache<Long, AtlasEntity> branchEntitiesById = createEntityCache(DEFAULT_ENTITY_CACHE_SIZE, DEFAULT_ENTITY_CACHE_EXPIRY_SECS);
+    private Cache<Long, AtlasEntity> versionEntitiesById = createEntityCache(DEFAULT_ENTITY_CACHE_SIZE, DEFAULT_ENTITY_CACHE_EXPIRY_SECS);
+    // versions related to other entities, which are only converted with their own attributes
+    private Cache<String, AtlasEntity> versionEntitiesByGuid = createEntityCache(DEFAULT_ENTITY_CACHE_SIZE, DEFAULT_ENTITY_CACHE_EXPIRY_SECS);
+
     AtlasClientV2 atlasClient;
 
     public void initialize(Map<String, Object> config) {
         LOG.debug("Initializing the Atlas plugin");
         try {
-            atlasClient = new AtlasClientV2(getAtlasHosts(config));
-
-            idGenerators.put(MetadataEntityDef.SCHEMA_METADATA_INFO, new IdGenerator());
-            idGenerators.put(VersionEntityDef.SCHEMA_VERSION_INFO, new IdGenerator());
-            idGenerators.put(VersionStateEntityDef.SCHEMA_VERSION_STATE, new IdGenerator());
-            idGenerators.put(BranchEntityDef.SCHEMA_BRANCH, new IdGenerator());
-            idGenerators.put(SerdesEntityDef.SCHEMA_SERDES_INFO, new IdGenerator());
+            initialize(new AtlasClientV2(getAtlasHosts(config)), config);
         } catch (Throwable ex) {
             throw new AtlasUncheckedException("Could not initialize the Atlas plugin implementation", ex);
         }
     }
 
+    @VisibleForTesting
+    void initialize(AtlasClientV2 atlasClient, Map<String, Object> config) {
+        this.atlasClient = atlasClient;
+
+        long cacheSize = getLongParam(config, ENTITY_CACHE_SIZE_PARAM, DEFAULT_ENTITY_CACHE_SIZE);
+        long cacheExpirySecs = getLongParam(config, ENTITY_CACHE_EXPIRY_SECS_PARAM, DEFAULT_ENTITY_CACHE_EXPIRY_SECS);
+        metaEntitiesByName = createEntityCache(cacheSize, cacheExpirySecs);
+        metaEntitiesById = createEntityCache(cacheSize, cacheExpirySecs);
+        branchEntitiesById = createEntityCache(cacheSize, cacheExpirySecs);
+        versionEntitiesById = createEntityCache(cacheSize, cacheExpirySecs);
+        versionEntitiesByGuid = createEntityCache(cacheSize, cacheExpirySecs);
+
+        idGenerators.put(MetadataEntityDef.SCHEMA_METADATA_INFO, new IdGenerator());
+        idGenerators.put(VersionEntityDef.SCHEMA_VERSION_INFO, new IdGenerator());
+        idGenerators.put(VersionStateEntityDef.SCHEMA_VERSION_STATE, new IdGenerator());
+        idGenerators.put(BranchEntityDef.SCHEMA_BRANCH, new IdGenerator());
+        idGenerators.put(SerdesEntityDef.SCHEMA_SERDES_INFO, new IdGenerator());
+    }
+
     @Override
     public void setupAtlasModel() {
         try {
@@ -127,6 +159,15 @@ public class AtlasPluginImpl implements AtlasPlugin {
         }
     }
 
+    private static <K> Cache<K, AtlasEntity> createEntityCache(long size, long expirySecs) {
+        return CacheBuilder.newBuilder().maximumSize(size).expireAfterWrite(expirySecs, TimeUnit.SECONDS).build();
+    }
+
+    private static long getLongParam(Map<String, Object> config, String name, long defaultValue) {
+        Object value = config.get(name);
+        return value != null ? Long.parseLong(value.toString()) : defaultValue;
+    }
+
     /** AtlasClient requires an array of host names to connect to. */
     @SuppressWarnings("unchecked")
     private String[] getAtlasHosts(Map<String, Object> config) {
@@ -197,6 +238,8 @@ public class AtlasPluginImpl implements AtlasPlugin {
 
                 } catch (AtlasServiceException asex) {
                     throw new AtlasUncheckedException("Error creating new schema meta with id " + metaId, asex);
+                } finally {
+                    invalidateMeta(schemaMetadata.getName());
                 }
 
                 return ids;
@@ -208,6 +251,8 @@ public class AtlasPluginImpl implements AtlasPlugin {
         checkNotNull(schemaMetadata, "SchemaMetadata was null");
         checkNotNull(schemaMetadata.getName(), "Please provide the name of the schema");
         try {
+            // the entity is modified in place, so it is not taken from the cache
+            invalidateMeta(schemaMetadata.getName());
             AtlasEntity metaEntity = getSchemaMetadataInfoAtlasEntity(schemaMetadata.getName());
             if (LOG.isTraceEnabled()) {
                 LOG.trace("Updating schema metadata from {} to {}", metaEntity.getAttributes(), schemaMetadata);
@@ -232,6 +277,8 @@ public class AtlasPluginImpl implements AtlasPlugin {
                 return Optional.empty();
             }
             throw new AtlasUncheckedException(asex);
+        } finally {
+            invalidateMeta(schemaMetadata.getName());
         }
 
         return Optional.empty();
@@ -248,40 +295,34 @@ public class AtlasPluginImpl implements AtlasPlugin {
         LOG.debug("Add schema version to schema {}", schemaName);
 
         try {
+            // the number of existing versions must be up to date, so the meta is not taken from the cache
+            invalidateMeta(schemaName);
             final AtlasEntity metaAtlasEntity = getSchemaMetadataInfoAtlasEntity(schemaName);
             int existingCount = getExistingVersionsCount(metaAtlasEntity);
             LOG.debug("Found {} existing versions.", existingCount);
 
             SchemaMetadataInfo schemaMetadataInfo = schemaMetadataTranslator.fromAtlasIntoInfo(metaAtlasEntity);
 
+            final AtlasEntity branchAtlasEntity = getBranchAtlasEntity(schemaBranch.getId());
+            if (branchAtlasEntity == null) {
+                throw new AtlasUncheckedException("Schema branch with id " + schemaBranch.getId() + " does not exist");
+            }
+
             long vid = withRetry(
                     randomize -> generateUniqueId(VersionEntityDef.SCHEMA_VERSION_INFO, randomize),
                     versionId -> {
                         try {
                             AtlasEntity versionEntity = schemaVersionTranslator.toAtlas(versionId, schemaVersion, schemaMetadataInfo, schemaName, existingCount + 1, fingerprint);
+                            // the relations with the meta and the branch are created in the same request as the version
+                            schemaVersionTranslator.setRelationshipWithMeta(versionEntity, metaAtlasEntity);
+                            branchTranslator.setRelationshipWithBranch(versionEntity, branchAtlasEntity);
+
                             AtlasEntity.AtlasEntitiesWithExtInfo entitiesWithExtInfo = new AtlasEntity.AtlasEntitiesWithExtInfo();
                             entitiesWithExtInfo.addEntity(versionEntity);
                             EntityMutationResponse entities = atlasClient.createEntities(entitiesWithExtInfo);
+                            checkNotNull(entities, "Atlas returned an empty response for version %s of schema %s", versionId, schemaName);
 
-                            // get back the guid of the new entity
-                            String versionGuid = entities.getGuidAssignments().get(versionEntity.getGuid());
-                            versionEntity.setGuid(versionGuid);
-
-                            // set up a relation between the version and the meta
-                            AtlasEntity.AtlasEntityWithExtInfo versionInfo = atlasClient.getEntityByGuid(versionGuid);
-                            AtlasRelationship metaRel = schemaVersionTranslator.createRelationship(metaAtlasEntity, versionInfo.getEntity());
-                            metaRel.setVersion(versionId);
-                            AtlasRelationship relResponse = atlasClient.createRelationship(metaRel);
-
-                            LOG.debug("Meta relationship GUID: {}", relResponse.getGuid());
-
-                            // set up a relation between the version and the branch
-                            AtlasEntity.AtlasEntityWithExtInfo branchEntity = atlasClient.getEntityByAttribute(BranchEntityDef.SCHEMA_BRANCH,
-                                    ImmutableMap.of(BranchEntityDef.ID, String.valueOf(schemaBranch.getId())));
-                            AtlasRelationship branchRel = branchTranslator.createRelationshipWithVersion(versionEntity, branchEntity.getEntity());
-                            AtlasRelationship branchResponse = atlasClient.createRelationship(branchRel);
-
-                            LOG.debug("Branch relationship GUID: {}", branchResponse.getGuid());
+                            LOG.debug("Created version entity with GUID: {}", entities.getGuidAssignments().get(versionEntity.getGuid()));
 
                             return versionId;
                         } catch (AtlasServiceException asex) {
@@ -294,6 +335,9 @@ public class AtlasPluginImpl implements AtlasPlugin {
             throw snfex;
         } catch (Exception ex) {
             throw new AtlasUncheckedException(ex);
+        } finally {
+            invalidateMeta(schemaName);
+            branchEntitiesById.invalidate(schemaBranch.getId());
         }
     }
 
@@ -338,6 +382,9 @@ public class AtlasPluginImpl implements AtlasPlugin {
                     atlasClient.createRelationship(relationshipWithVersion);
                 } catch (AtlasServiceException asex) {
                     throw new AtlasUncheckedException("Could not create branch " + branchName + " for schema " + metaName, asex);
+                } finally {
+                    invalidateMeta(metaName);
+                    versionEntitiesById.invalidate(schemaVersion.getId());
                 }
 
                 return branchId;
@@ -378,13 +425,12 @@ public class AtlasPluginImpl implements AtlasPlugin {
     @Override
     public Optional<SchemaBranch> getSchemaBranchById(Long branchId) {
         try {
-            AtlasEntity.AtlasEntityWithExtInfo branchEntity = atlasClient.getEntityByAttribute(
-                    BranchEntityDef.SCHEMA_BRANCH, ImmutableMap.of(BranchEntityDef.ID, String.valueOf(branchId)));
-            if (branchEntity == null || branchEntity.getEntity() == null) {
+            AtlasEntity branchEntity = getBranchAtlasEntity(branchId);
+            if (branchEntity == null) {
                 return Optional.empty();
             }
 
-            return Optional.ofNullable(branchTranslator.fromAtlas(branchEntity.getEntity()));
+            return Optional.ofNullable(branchTranslator.fromAtlas(branchEntity));
         } catch (AtlasServiceException asex) {
             if (asex.getStatus() == ClientResponse.Status.NOT_FOUND) {
                 return Optional.empty();
@@ -438,6 +484,7 @@ public class AtlasPluginImpl implements AtlasPlugin {
             AtlasRelationship relationship = serdesInfoTranslator.createRelationship(metaEntity, serdesEntity);
             LOG.debug("Creating relationship {}", relationship.getTypeName());
             atlasClient.createRelationship(relationship);
+            invalidateMeta(schemaName);
         } catch (AtlasServiceException asex) {
             LOG.error("111", asex);
             if (asex.getStatus() == ClientResponse.Status.NOT_FOUND) {
@@ -501,31 +548,86 @@ public class AtlasPluginImpl implements AtlasPlugin {
 
     @Nonnull
     private AtlasEntity getSchemaMetadataInfoAtlasEntity(@Nonnull String schemaName) throws AtlasServiceException, SchemaNotFoundException {
+        AtlasEntity cachedEntity = metaEntitiesByName.getIfPresent(schemaName);
+        if (cachedEntity != null) {
+            return cachedEntity;
+        }
         AtlasEntity.AtlasEntityWithExtInfo metaEntityInfo = atlasClient.getEntityByAttribute(
                 MetadataEntityDef.SCHEMA_METADATA_INFO, ImmutableMap.of(MetadataEntityDef.NAME, schemaName));
         if (metaEntityInfo == null || metaEntityInfo.getEntity() == null) {
             throw new SchemaNotFoundException("Schema meta entity for name \""+schemaName+"\" was null");
         }
+        cacheMeta(metaEntityInfo.getEntity());
         return metaEntityInfo.getEntity();
     }
 
     @Nonnull
     private AtlasEntity getSchemaMetadataInfoAtlasEntity(Long id) throws AtlasServiceException, SchemaNotFoundException {
+        AtlasEntity cachedEntity = metaEntitiesById.getIfPresent(id);
+        if (cachedEntity != null) {
+            return cachedEntity;
+        }
         AtlasEntity.AtlasEntityWithExtInfo metaEntityInfo = atlasClient.getEntityByAttribute(
                 MetadataEntityDef.SCHEMA_METADATA_INFO, ImmutableMap.of(MetadataEntityDef.SCHEMA_METADATA_ID, String.valueOf(id)));
         if (metaEntityInfo == null || metaEntityInfo.getEntity() == null) {
             throw new SchemaNotFoundException("Schema meta entity for id \""+id+"\" was null");
         }
+        cacheMeta(metaEntityInfo.getEntity());
         return metaEntityInfo.getEntity();
     }
 
+    private void cacheMeta(AtlasEntity metaEntity) {
+        Object name = metaEntity.getAttribute(MetadataEntityDef.NAME);
+        Object id = metaEntity.getAttribute(MetadataEntityDef.SCHEMA_METADATA_ID);
+        if (name != null) {
+            metaEntitiesByName.put(name.toString(), metaEntity);
+        }
+        if (id instanceof Number) {
+            metaEntitiesById.put(((Number) id).longValue(), metaEntity);
+        }
+    }
+
+    private void invalidateMeta(String schemaName) {
+        metaEntitiesByName.invalidate(schemaName);
+        metaEntitiesById.asMap().values().removeIf(metaEntity -> schemaName.equals(metaEntity.getAttribute(MetadataEntityDef.NAME)));
+    }
+
+    @Nullable
+    private AtlasEntity getBranchAtlasEntity(Long branchId) throws AtlasServiceException {
+        AtlasEntity cachedEntity = branchEntitiesById.getIfPresent(branchId);
+        if (cachedEntity != null) {
+            return cachedEntity;
+        }
+        AtlasEntity.AtlasEntityWithExtInfo entityInfo = atlasClient.getEntityByAttribute(
+                BranchEntityDef.SCHEMA_BRANCH, ImmutableMap.of(BranchEntityDef.ID, String.valueOf(branchId)));
+        if (entityInfo == null || entityInfo.getEntity() == null) {
+            return null;
+        }
+        branchEntitiesById.put(branchId, entityInfo.getEntity());
+        return entityInfo.getEntity();
+    }
+
     @Nonnull
     private AtlasEntity getVersionAtlasEntity(Long versionId) throws AtlasServiceException {
+        AtlasEntity entity = findVersionAtlasEntity(versionId);
+        if (entity == null) {
+            throw new SerDesException("Schema version with given ID " + versionId + " does not exist");
+        }
+        return entity;
+    }
+
+    @Nullable
+    private AtlasEntity findVersionAtlasEntity(Long versionId) throws AtlasServiceException {
+        AtlasEntity cachedEntity = versionEntitiesById.getIfPresent(versionId);
+        if (cachedEntity != null) {
+            return cachedEntity;
+        }
         AtlasEntity.AtlasEntityWithExtInfo entityInfo = atlasClient.getEntityByAttribute(
                 VersionEntityDef.SCHEMA_VERSION_INFO, ImmutableMap.of(VersionEntityDef.ID, String.valueOf(versionId)));
         if (entityInfo == null || entityInfo.getEntity() == null) {
-            throw new SerDesException("Schema version with given ID " + versionId + " does not exist");
+            return null;
         }
+        versionEntitiesById.put(versionId, entityInfo.getEntity());
         return entityInfo.getEntity();
     }
 
@@ -603,11 +705,11 @@ public class AtlasPluginImpl implements AtlasPlugin {
     public Optional<SchemaVersionInfo> getSchemaVersionById(Long versionId) {
         checkNotNull(versionId, "versionId");
         try {
-            AtlasEntity.AtlasEntityWithExtInfo atlasEntity = atlasClient.getEntityByAttribute(VersionEntityDef.SCHEMA_VERSION_INFO, ImmutableMap.of(VersionEntityDef.ID, String.valueOf(versionId)));
-            if (atlasEntity == null || atlasEntity.getEntity() == null) {
+            AtlasEntity atlasEntity = findVersionAtlasEntity(versionId);
+            if (atlasEntity == null) {
                 return Optional.empty();
             }
-            return Optional.ofNullable(schemaVersionInfoTranslator.fromAtlas(atlasEntity.getEntity()));
+            return Optional.ofNullable(schemaVersionInfoTranslator.fromAtlas(atlasEntity));
         } catch (AtlasServiceException asex) {
             if (asex.getStatus() == ClientResponse.Status.NOT_FOUND) {
                 return Optional.empty();
@@ -620,12 +722,12 @@ public class AtlasPluginImpl implements AtlasPlugin {
     public List<SchemaVersionInfo> getSchemaVersionsByBranchId(Long branchId) throws SchemaBranchNotFoundException {
         checkNotNull(branchId, "branchId");
         try {
-            AtlasEntity.AtlasEntityWithExtInfo atlasEntity = atlasClient.getEntityByAttribute(BranchEntityDef.SCHEMA_BRANCH, ImmutableMap.of(BranchEntityDef.ID, String.valueOf(branchId)));
-            if (atlasEntity == null || atlasEntity.getEntity() == null) {
+            AtlasEntity atlasEntity = getBranchAtlasEntity(branchId);
+            if (atlasEntity == null) {
                 throw new SchemaBranchNotFoundException("Did not find branch with id " + branchId);
             }
 
-            Object versions = atlasEntity.getEntity().getRelationshipAttributes().get(VersionBranchRelationshipDef.REL_MANY);
+            Object versions = atlasEntity.getRelationshipAttributes().get(VersionBranchRelationshipDef.REL_MANY);
             if (versions instanceof Collection) {
                 return new ArrayList<>(extractSchemaVersionsFromAtlas((Collection<?>) versions, null));
             }
@@ -644,12 +746,12 @@ public class AtlasPluginImpl implements AtlasPlugin {
     public Collection<SchemaBranch> getSchemaBranchesByVersionId(Long versionId) throws SchemaBranchNotFoundException {
         checkNotNull(versionId, "versionId");
         try {
-            AtlasEntity.AtlasEntityWithExtInfo atlasEntity = atlasClient.getEntityByAttribute(VersionEntityDef.SCHEMA_VERSION_INFO, ImmutableMap.of(VersionEntityDef.ID, String.valueOf(versionId)));
-            if (atlasEntity == null || atlasEntity.getEntity() == null) {
+            AtlasEntity atlasEntity = findVersionAtlasEntity(versionId);
+            if (atlasEntity == null) {
                 throw new SchemaBranchNotFoundException("Did not find schema version with ID " + versionId);
             }
 
-            Object branches = atlasEntity.getEntity().getRelationshipAttributes().get(VersionBranchRelationshipDef.REL_ONE);
+            Object branches = atlasEntity.getRelationshipAttributes().get(VersionBranchRelationshipDef.REL_ONE);
             if (branches instanceof Collection) {
                 return extractSchemaBranchesFromAtlas((Collection<?>) branches, null);
             }
@@ -738,8 +840,24 @@ public class AtlasPluginImpl implements AtlasPlugin {
             return ImmutableList.of();
         }
 
-        AtlasEntity.AtlasEntitiesWithExtInfo entitiesByGuids = atlasClient.getEntitiesByGuids(guids);
-        return entitiesByGuids.getEntities().stream().map(converter).collect(Collectors.toList());
+        if (!VersionEntityDef.SCHEMA_VERSION_INFO.equals(requiredType)) {
+            AtlasEntity.AtlasEntitiesWithExtInfo entitiesByGuids = atlasClient.getEntitiesByGuids(guids);
+            return entitiesByGuids.getEntities().stream().map(converter).collect(Collectors.toList());
+        }
+
+        // versions are converted only with their own attributes, which are not modified, so they are fetched once
+        Map<String, AtlasEntity> versionEntities = new HashMap<>(versionEntitiesByGuid.getAllPresent(guids));
+        List<String> missingGuids = guids.stream().filter(guid -> !versionEntities.containsKey(guid)).collect(Collectors.toList());
+        if (!missingGuids.isEmpty()) {
+            AtlasEntity.AtlasEntitiesWithExtInfo entitiesByGuids = atlasClient.getEntitiesByGuids(missingGuids);
+            if (entitiesByGuids != null && entitiesByGuids.getEntities() != null) {
+                for (AtlasEntity entity : entitiesByGuids.getEntities()) {
+                    versionEntities.put(entity.getGuid(), entity);
+                    versionEntitiesByGuid.put(entity.getGuid(), entity);
+                }
+            }
+        }
+        return guids.stream().map(versionEntities::get).filter(Objects::nonNull).map(converter).collect(Collectors.toList());
     }
 
     @Override
@@ -26,6 +26,7 @@ import org.apache.atlas.model.instance.AtlasStruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
@@ -91,4 +92,18 @@ public class BranchTranslator implements AtlasTranslator<SchemaBranch> {
         relationship.setAttribute(BranchEntityDef.NAME, branch.getAttribute(BranchEntityDef.NAME));
         return relationship;
     }
+
+    /**
+     * Sets the same relationship with the branch as {@link #createRelationshipWithVersion(AtlasEntity, AtlasEntity)}
+     * as a relationship attribute of the version entity, so it is created together with the version.
+     */
+    public void setRelationshipWithBranch(AtlasEntity version, AtlasEntity branch) {
+        checkNotNull(version, "version");
+        checkNotNull(branch, "branch");
+
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        attributes.put(BranchEntityDef.NAME, branch.getAttribute(BranchEntityDef.NAME));
+        version.setRelationshipAttribute(VersionBranchRelationshipDef.REL_ONE, Collections.singletonList(
+                RelationshipHelper.createRelatedObjectId(branch, VersionBranchRelationshipDef.RELATIONSHIP_NAME, attributes)));
+    }
 }
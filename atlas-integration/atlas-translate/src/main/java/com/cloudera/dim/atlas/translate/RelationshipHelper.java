@@ -16,7 +16,11 @@ package com.cloudera.dim.atlas.translate;
 
 import org.apache.atlas.model.instance.AtlasEntity;
 import org.apache.atlas.model.instance.AtlasObjectId;
+import org.apache.atlas.model.instance.AtlasRelatedObjectId;
 import org.apache.atlas.model.instance.AtlasRelationship;
+import org.apache.atlas.model.instance.AtlasStruct;
+
+import java.util.Map;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
@@ -33,4 +37,20 @@ public class RelationshipHelper {
 
         return relationship;
     }
+
+    /**
+     * Creates a reference to the given entity with which a relationship of the given type is created when it is set as
+     * a relationship attribute of an entity, so that the entity and its relationships are created in the same request.
+     */
+    public static AtlasRelatedObjectId createRelatedObjectId(AtlasEntity end, String name, Map<String, Object> attributes) {
+        checkNotNull(end, "end");
+
+        AtlasRelatedObjectId relatedObjectId = new AtlasRelatedObjectId();
+        relatedObjectId.setGuid(end.getGuid());
+        relatedObjectId.setTypeName(end.getTypeName());
+        relatedObjectId.setRelationshipType(name);
+        relatedObjectId.setRelationshipAttributes(new AtlasStruct(name, attributes));
+
+        return relatedObjectId;
+    }
 }
@@ -99,4 +99,20 @@ public class SchemaVersionTranslator implements AtlasTranslator<SchemaVersion> {
         return relationship;
     }
 
+    /**
+     * Sets the same relationship with the meta as {@link #createRelationship(AtlasEntity, AtlasEntity)} as a
+     * relationship attribute of the version entity, so it is created together with the version.
+     */
+    public void setRelationshipWithMeta(AtlasEntity versionInfo, AtlasEntity meta) {
+        checkNotNull(meta, "meta");
+        checkNotNull(versionInfo, "versionInfo");
+
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        attributes.put(ID, versionInfo.getAttribute(ID));
+        attributes.put(VERSION, versionInfo.getAttribute(VERSION));
+        attributes.put(FINGERPRINT, versionInfo.getAttribute(FINGERPRINT));
+        versionInfo.setRelationshipAttribute(SchemaVersionRelationshipDef.REL_MANY,
+                RelationshipHelper.createRelatedObjectId(meta, SchemaVersionRelationshipDef.RELATIONSHIP_NAME, attributes));
+    }
+
 }
@@ -14,19 +14,98 @@
  **/
 package com.cloudera.dim.atlas.impl;
 
+import com.cloudera.dim.atlas.translate.BranchTranslator;
+import com.cloudera.dim.atlas.translate.SchemaMetadataTranslator;
+import com.cloudera.dim.atlas.translate.SchemaVersionInfoTranslator;
+import com.cloudera.dim.atlas.translate.SerdesInfoTranslator;
+import com.cloudera.dim.atlas.types.BranchEntityDef;
+import com.cloudera.dim.atlas.types.MetadataEntityDef;
+import com.cloudera.dim.atlas.types.SchemaVersionRelationshipDef;
+import com.cloudera.dim.atlas.types.SerdesEntityDef;
+import com.cloudera.dim.atlas.types.VersionBranchRelationshipDef;
+import com.cloudera.dim.atlas.types.VersionEntityDef;
+import com.hortonworks.registries.schemaregistry.SchemaBranch;
+import com.hortonworks.registries.schemaregistry.SchemaCompatibility;
+import com.hortonworks.registries.schemaregistry.SchemaIdVersion;
+import com.hortonworks.registries.schemaregistry.SchemaMetadata;
+import com.hortonworks.registries.schemaregistry.SchemaVersion;
+import com.hortonworks.registries.schemaregistry.SchemaVersionInfo;
+import com.hortonworks.registries.schemaregistry.SerDesInfo;
+import com.hortonworks.registries.schemaregistry.SerDesPair;
+import com.hortonworks.registries.schemaregistry.state.SchemaVersionLifecycleStates;
+import org.apache.atlas.AtlasClientV2;
+import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.model.instance.AtlasEntityHeader;
+import org.apache.atlas.model.instance.EntityMutationResponse;
+import org.apache.atlas.model.instance.EntityMutations;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 public class AtlasPluginImplTest {
 
+    private static final String SCHEMA_NAME = "foo";
+    private static final long META_ID = 1L;
+    private static final long BRANCH_ID = 2L;
+    private static final long VERSION_ID = 3L;
+    private static final long SERDES_ID = 4L;
+
     private AtlasPluginImpl atlasPlugin;
+    private AtlasClientV2 atlasClient;
+    private AtlasEntity metaEntity;
+    private AtlasEntity branchEntity;
+    private AtlasEntity versionEntity;
+    private SchemaVersionInfo schemaVersionInfo;
 
     @Before
-    public void setUp() {
+    public void setUp() throws Exception {
+        atlasClient = mock(AtlasClientV2.class);
         atlasPlugin = new AtlasPluginImpl();
+        atlasPlugin.initialize(atlasClient, Collections.emptyMap());
+
+        SchemaMetadata schemaMetadata = new SchemaMetadata.Builder(SCHEMA_NAME)
+                .type("avro")
+                .schemaGroup("kafka")
+                .compatibility(SchemaCompatibility.BACKWARD)
+                .build();
+        metaEntity = new SchemaMetadataTranslator().toAtlas(schemaMetadata, META_ID);
+        metaEntity.setGuid("meta-guid");
+        branchEntity = new BranchTranslator().toAtlas(new SchemaBranch(BRANCH_ID, SchemaBranch.MASTER_BRANCH, SCHEMA_NAME, "master", 0L));
+        branchEntity.setGuid("branch-guid");
+        schemaVersionInfo = new SchemaVersionInfo(VERSION_ID, SCHEMA_NAME, 1, META_ID, "schema-text", 0L, "desc",
+                                                  SchemaVersionLifecycleStates.ENABLED.getId());
+        versionEntity = new SchemaVersionInfoTranslator().toAtlas(schemaVersionInfo);
+        versionEntity.setGuid("version-guid");
+        AtlasEntity serdesEntity = new SerdesInfoTranslator().toAtlas(
+                new SerDesInfo(SERDES_ID, 0L, new SerDesPair("serdes", "desc", "file", "serializer", "deserializer")));
+        serdesEntity.setGuid("serdes-guid");
+
+        when(atlasClient.getEntityByAttribute(eq(MetadataEntityDef.SCHEMA_METADATA_INFO), anyMap()))
+                .thenAnswer(invocation -> new AtlasEntity.AtlasEntityWithExtInfo(metaEntity));
+        when(atlasClient.getEntityByAttribute(eq(BranchEntityDef.SCHEMA_BRANCH), anyMap()))
+                .thenAnswer(invocation -> new AtlasEntity.AtlasEntityWithExtInfo(branchEntity));
+        when(atlasClient.getEntityByAttribute(eq(VersionEntityDef.SCHEMA_VERSION_INFO), anyMap()))
+                .thenAnswer(invocation -> new AtlasEntity.AtlasEntityWithExtInfo(versionEntity));
+        when(atlasClient.getEntityByAttribute(eq(SerdesEntityDef.SCHEMA_SERDES_INFO), anyMap()))
+                .thenAnswer(invocation -> new AtlasEntity.AtlasEntityWithExtInfo(serdesEntity));
     }
 
     @Test
@@ -41,6 +120,106 @@ public class AtlasPluginImplTest {
         fail("Test should have failed in the previous step.");
     }
 
+    @Test
+    public void testAddSchemaVersionCreatesVersionWithItsRelationshipsInOneRequest() throws Exception {
+        EntityMutationResponse response = new EntityMutationResponse();
+        response.setGuidAssignments(new HashMap<>());
+        when(atlasClient.createEntities(any(AtlasEntity.AtlasEntitiesWithExtInfo.class)))
+                .thenThrow(new IllegalStateException("id is already used"))
+                .thenReturn(response);
+        SchemaBranch schemaBranch = new SchemaBranch(BRANCH_ID, SchemaBranch.MASTER_BRANCH, SCHEMA_NAME, "master", 0L);
+
+        SchemaIdVersion schemaIdVersion = atlasPlugin.addSchemaVersion(SCHEMA_NAME, new SchemaVersion("schema-text", "desc"),
+                                                                       "fingerprint", schemaBranch);
+
+        assertEquals(Integer.valueOf(1), schemaIdVersion.getVersion());
+        ArgumentCaptor<AtlasEntity.AtlasEntitiesWithExtInfo> captor = ArgumentCaptor.forClass(AtlasEntity.AtlasEntitiesWithExtInfo.class);
+        // one request for each attempt, the first one failed
+        verify(atlasClient, times(2)).createEntities(captor.capture());
+        verify(atlasClient, never()).createRelationship(any());
+        Set<Object> versionIds = new HashSet<>();
+        for (AtlasEntity.AtlasEntitiesWithExtInfo entities : captor.getAllValues()) {
+            assertEquals(1, entities.getEntities().size());
+            AtlasEntity createdVersion = entities.getEntities().get(0);
+            assertNotNull(createdVersion.getRelationshipAttribute(SchemaVersionRelationshipDef.REL_MANY));
+            assertNotNull(createdVersion.getRelationshipAttribute(VersionBranchRelationshipDef.REL_ONE));
+            versionIds.add(createdVersion.getAttribute(VersionEntityDef.ID));
+        }
+        assertEquals(2, versionIds.size());
+        assertEquals(schemaIdVersion.getSchemaVersionId(), captor.getValue().getEntities().get(0).getAttribute(VersionEntityDef.ID));
+
+        // the meta and the branch are fetched again with their new relationships
+        atlasPlugin.getSchemaMetadataInfo(SCHEMA_NAME);
+        atlasPlugin.getSchemaBranchById(BRANCH_ID);
+        verify(atlasClient, times(2)).getEntityByAttribute(eq(MetadataEntityDef.SCHEMA_METADATA_INFO), anyMap());
+        verify(atlasClient, times(2)).getEntityByAttribute(eq(BranchEntityDef.SCHEMA_BRANCH), anyMap());
+    }
+
+    @Test
+    public void testCreateBranchInvalidatesMetaAndVersion() throws Exception {
+        EntityMutationResponse response = new EntityMutationResponse();
+        response.setGuidAssignments(new HashMap<>());
+        when(atlasClient.createEntity(any(AtlasEntity.AtlasEntityWithExtInfo.class))).thenReturn(response);
+        assertCached();
+
+        atlasPlugin.createBranch(schemaVersionInfo, "branch");
+
+        atlasPlugin.getSchemaMetadataInfo(SCHEMA_NAME);
+        atlasPlugin.getSchemaVersionById(VERSION_ID);
+        verify(atlasClient, times(2)).getEntityByAttribute(eq(MetadataEntityDef.SCHEMA_METADATA_INFO), anyMap());
+        verify(atlasClient, times(2)).getEntityByAttribute(eq(VersionEntityDef.SCHEMA_VERSION_INFO), anyMap());
+    }
+
+    @Test
+    public void testMapSchemaWithSerdesInvalidatesMeta() throws Exception {
+        assertCached();
+
+        atlasPlugin.mapSchemaWithSerdes(SCHEMA_NAME, SERDES_ID);
+
+        // the meta cached by its id is dropped as well, fetching it caches it by its name again
+        atlasPlugin.getSchemaMetadataInfo(META_ID);
+        atlasPlugin.getSchemaMetadataInfo(SCHEMA_NAME);
+        verify(atlasClient, times(2)).getEntityByAttribute(eq(MetadataEntityDef.SCHEMA_METADATA_INFO), anyMap());
+    }
+
+    @Test
+    public void testUpdateMetaInvalidatesMeta() throws Exception {
+        AtlasEntityHeader header = new AtlasEntityHeader(MetadataEntityDef.SCHEMA_METADATA_INFO);
+        header.setGuid(metaEntity.getGuid());
+        List<AtlasEntityHeader> headers = Collections.singletonList(header);
+        EntityMutationResponse response = new EntityMutationResponse(
+                Collections.singletonMap(EntityMutations.EntityOperation.UPDATE, headers));
+        when(atlasClient.updateEntity(any(AtlasEntity.AtlasEntityWithExtInfo.class))).thenReturn(response);
+        assertCached();
+
+        SchemaMetadata updated = new SchemaMetadata.Builder(SCHEMA_NAME)
+                .type("avro")
+                .schemaGroup("kafka")
+                .description("updated")
+                .compatibility(SchemaCompatibility.BOTH)
+                .build();
+        assertEquals("updated", atlasPlugin.updateMeta(updated).get().getSchemaMetadata().getDescription());
+        // the meta is fetched for the update, as the cached one is not modified in place
+        verify(atlasClient, times(2)).getEntityByAttribute(eq(MetadataEntityDef.SCHEMA_METADATA_INFO), anyMap());
+
+        atlasPlugin.getSchemaMetadataInfo(META_ID);
+        atlasPlugin.getSchemaMetadataInfo(SCHEMA_NAME);
+        verify(atlasClient, times(3)).getEntityByAttribute(eq(MetadataEntityDef.SCHEMA_METADATA_INFO), anyMap());
+    }
+
+    /**
+     * Fetches the meta by its name and id and the version, and checks that they are fetched from Atlas only once.
+     */
+    private void assertCached() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            assertEquals(Long.valueOf(META_ID), atlasPlugin.getSchemaMetadataInfo(SCHEMA_NAME).get().getId());
+            assertEquals(Long.valueOf(META_ID), atlasPlugin.getSchemaMetadataInfo(META_ID).get().getId());
+            assertEquals(schemaVersionInfo.getId(), atlasPlugin.getSchemaVersionById(VERSION_ID).get().getId());
+        }
+        verify(atlasClient, times(1)).getEntityByAttribute(eq(MetadataEntityDef.SCHEMA_METADATA_INFO), anyMap());
+        verify(atlasClient, times(1)).getEntityByAttribute(eq(VersionEntityDef.SCHEMA_VERSION_INFO), anyMap());
+    }
+
     private int getIfOddNumber(int number) {
         if (number % 2 == 1) {
             return number;
@@ -0,0 +1,111 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package com.hortonworks.registries.benchmarks;
+
+import com.hortonworks.registries.schemaregistry.SchemaMetadata;
+import com.hortonworks.registries.schemaregistry.client.ISchemaRegistryClient;
+import com.hortonworks.registries.schemaregistry.client.MockSchemaRegistryClient;
+import com.hortonworks.registries.schemaregistry.serdes.avro.AbstractAvroSnapshotDeserializer;
+import com.hortonworks.registries.schemaregistry.serdes.avro.AbstractAvroSnapshotSerializer;
+import com.hortonworks.registries.schemaregistry.serdes.avro.AvroSnapshotDeserializer;
+import com.hortonworks.registries.schemaregistry.serdes.avro.AvroSnapshotSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link AvroSnapshotSerializer} and {@link AvroSnapshotDeserializer} for each protocol registered in
+ * {@link com.hortonworks.registries.schemaregistry.serdes.avro.SerDesProtocolHandlerRegistry}, with generic and
+ * specific records. Schemas are registered during setup, so the measured paths hit the serializer and deserializer
+ * caches.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AvroSerDesBenchmark {
+
+    @Param({"0", "1", "2", "3"})
+    public byte protocolId;
+
+    @Param({"GENERIC", "SPECIFIC"})
+    public RecordType recordType;
+
+    private AvroSnapshotSerializer serializer;
+    private AvroSnapshotDeserializer deserializer;
+    private SchemaMetadata schemaMetadata;
+    private Object record;
+    private byte[] payload;
+
+    public enum RecordType {
+        GENERIC,
+        SPECIFIC
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        ISchemaRegistryClient schemaRegistryClient = new MockSchemaRegistryClient();
+
+        Map<String, Object> serializerConfig = new HashMap<>();
+        serializerConfig.put(AbstractAvroSnapshotSerializer.SERDES_PROTOCOL_VERSION, protocolId);
+        serializer = new AvroSnapshotSerializer(schemaRegistryClient);
+        serializer.init(serializerConfig);
+
+        Map<String, Object> deserializerConfig = new HashMap<>();
+        deserializerConfig.put(AbstractAvroSnapshotDeserializer.SPECIFIC_AVRO_READER, recordType == RecordType.SPECIFIC);
+        deserializer = new AvroSnapshotDeserializer(schemaRegistryClient);
+        deserializer.init(deserializerConfig);
+
+        schemaMetadata = BenchmarkData.schemaMetadata("avro-serdes-" + protocolId);
+        record = recordType == RecordType.SPECIFIC ? BenchmarkData.specificRecord() : BenchmarkData.genericRecord();
+        payload = serializer.serialize(record, schemaMetadata);
+        deserializer.deserialize(new ByteArrayInputStream(payload), null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        serializer.close();
+        deserializer.close();
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(record, schemaMetadata);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return deserializer.deserialize(new ByteArrayInputStream(payload), null);
+    }
+}
@@ -0,0 +1,92 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package com.hortonworks.registries.benchmarks;
+
+import com.hortonworks.registries.schemaregistry.SchemaCompatibility;
+import com.hortonworks.registries.schemaregistry.SchemaMetadata;
+import com.hortonworks.registries.schemaregistry.avro.AvroSchemaProvider;
+import com.hortonworks.registries.schemaregistry.serdes.avro.TestRecord;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.generic.GenericRecordBuilder;
+
+/**
+ * Schemas and records shared by the benchmarks.
+ */
+final class BenchmarkData {
+
+    static final String SCHEMA_GROUP = "benchmarks";
+
+    private BenchmarkData() {
+    }
+
+    static SchemaMetadata schemaMetadata(String name) {
+        return new SchemaMetadata.Builder(name)
+                .type(AvroSchemaProvider.TYPE)
+                .schemaGroup(SCHEMA_GROUP)
+                .compatibility(SchemaCompatibility.BACKWARD)
+                .build();
+    }
+
+    /**
+     * @return generic record with the schema of {@link TestRecord}
+     */
+    static GenericRecord genericRecord() {
+        return new GenericRecordBuilder(TestRecord.getClassSchema())
+                .set("field1", "some value")
+                .set("field2", "some other value")
+                .build();
+    }
+
+    static TestRecord specificRecord() {
+        TestRecord record = new TestRecord();
+        record.setField1("some value");
+        record.setField2("some other value");
+        return record;
+    }
+
+    /**
+     * @return record schema with the given number of optional string fields
+     */
+    static Schema wideSchema(String name, int fieldCount) {
+        SchemaBuilder.FieldAssembler<Schema> fields = SchemaBuilder.record(name).namespace(SCHEMA_GROUP).fields();
+        for (int i = 0; i < fieldCount; i++) {
+            fields = fields.optionalString("field" + i);
+        }
+        return fields.endRecord();
+    }
+
+    /**
+     * @return record schema with records nested to the given depth, each level having a long field and an optional
+     * string field with the given name
+     */
+    static Schema deepSchema(String name, int depth, String optionalFieldName) {
+        Schema schema = SchemaBuilder.record(name + depth).namespace(SCHEMA_GROUP).fields()
+                                     .requiredLong("id")
+                                     .endRecord();
+        for (int level = depth - 1; level >= 0; level--) {
+            SchemaBuilder.FieldAssembler<Schema> fields = SchemaBuilder.record(name + level).namespace(SCHEMA_GROUP).fields()
+                                                                       .requiredLong("id");
+            if (optionalFieldName != null) {
+                fields = fields.optionalString(optionalFieldName);
+            }
+            schema = fields.name("child").type(schema).noDefault().endRecord();
+        }
+        return schema;
+    }
+}
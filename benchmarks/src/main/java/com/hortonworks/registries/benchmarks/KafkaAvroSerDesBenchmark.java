@@ -0,0 +1,101 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package com.hortonworks.registries.benchmarks;
+
+import com.hortonworks.registries.schemaregistry.client.ISchemaRegistryClient;
+import com.hortonworks.registries.schemaregistry.client.MockSchemaRegistryClient;
+import com.hortonworks.registries.schemaregistry.serdes.avro.AbstractAvroSnapshotDeserializer;
+import com.hortonworks.registries.schemaregistry.serdes.avro.kafka.KafkaAvroDeserializer;
+import com.hortonworks.registries.schemaregistry.serdes.avro.kafka.KafkaAvroSerializer;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link KafkaAvroSerializer} and {@link KafkaAvroDeserializer} with the schema version stored in the
+ * payload or in the record headers. The deserialize benchmark measures the cache-hit path, as the schema of the
+ * payload is resolved during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KafkaAvroSerDesBenchmark {
+    private static final String TOPIC = "benchmark-topic";
+
+    @Param({"false", "true"})
+    public boolean schemaVersionIdInHeader;
+
+    private KafkaAvroSerializer serializer;
+    private KafkaAvroDeserializer deserializer;
+    private GenericRecord record;
+    private Headers headers;
+    private byte[] payload;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        ISchemaRegistryClient schemaRegistryClient = new MockSchemaRegistryClient();
+
+        Map<String, Object> config = new HashMap<>();
+        config.put(KafkaAvroSerializer.STORE_SCHEMA_VERSION_ID_IN_HEADER, Boolean.toString(schemaVersionIdInHeader));
+        config.put(AbstractAvroSnapshotDeserializer.SPECIFIC_AVRO_READER, false);
+        serializer = new KafkaAvroSerializer(schemaRegistryClient);
+        serializer.configure(config, false);
+        deserializer = new KafkaAvroDeserializer(schemaRegistryClient);
+        deserializer.configure(config, false);
+
+        record = BenchmarkData.genericRecord();
+        headers = new RecordHeaders();
+        payload = serializer.serialize(TOPIC, headers, record);
+        deserializer.deserialize(TOPIC, headers, payload);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        serializer.close();
+        deserializer.close();
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(TOPIC, new RecordHeaders(), record);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return deserializer.deserialize(TOPIC, headers, payload);
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package com.hortonworks.registries.benchmarks;
+
+import com.hortonworks.registries.schemaregistry.CompatibilityResult;
+import com.hortonworks.registries.schemaregistry.SchemaCompatibility;
+import com.hortonworks.registries.schemaregistry.avro.AvroSchemaProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of backward compatibility checks of {@link AvroSchemaProvider}, which parses both schemas and runs
+ * {@link com.hortonworks.registries.schemaregistry.avro.AvroSchemaValidator}, between a schema and its evolution
+ * adding optional fields. Wide schemas have the given number of fields and deep schemas nest records to the given
+ * depth. Memoization of parsed schemas and compatibility results can be disabled to measure the validation itself.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SchemaCompatibilityBenchmark {
+
+    @Param({"WIDE", "DEEP"})
+    public Shape shape;
+
+    @Param({"10", "100"})
+    public int size;
+
+    @Param({"false", "true"})
+    public boolean memoized;
+
+    private AvroSchemaProvider schemaProvider;
+    private String writerSchemaText;
+    private String readerSchemaText;
+
+    public enum Shape {
+        WIDE,
+        DEEP
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Map<String, Object> config = new HashMap<>();
+        if (!memoized) {
+            config.put(AvroSchemaProvider.PARSED_SCHEMA_CACHE_SIZE_CONFIG, 0);
+            config.put(AvroSchemaProvider.COMPATIBILITY_RESULT_CACHE_SIZE_CONFIG, 0);
+        }
+        schemaProvider = new AvroSchemaProvider();
+        schemaProvider.init(config);
+
+        if (shape == Shape.WIDE) {
+            writerSchemaText = BenchmarkData.wideSchema("Wide", size).toString();
+            readerSchemaText = BenchmarkData.wideSchema("Wide", size + 1).toString();
+        } else {
+            writerSchemaText = BenchmarkData.deepSchema("Deep", size, null).toString();
+            readerSchemaText = BenchmarkData.deepSchema("Deep", size, "note").toString();
+        }
+
+        CompatibilityResult result = checkBackwardCompatibility();
+        if (!result.isCompatible()) {
+            throw new IllegalStateException("Benchmark schemas are expected to be compatible: " + result);
+        }
+    }
+
+    @Benchmark
+    public CompatibilityResult checkBackwardCompatibility() {
+        return schemaProvider.checkCompatibility(readerSchemaText, writerSchemaText, SchemaCompatibility.BACKWARD);
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package com.hortonworks.registries.benchmarks;
+
+import com.hortonworks.registries.schemaregistry.SchemaIdVersion;
+import com.hortonworks.registries.schemaregistry.SchemaVersionInfo;
+import com.hortonworks.registries.schemaregistry.SchemaVersionKey;
+import com.hortonworks.registries.schemaregistry.SchemaVersionRetriever;
+import com.hortonworks.registries.schemaregistry.cache.SchemaVersionInfoCache;
+import com.hortonworks.registries.schemaregistry.errors.SchemaNotFoundException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the cache-hit paths of {@link SchemaVersionInfoCache}, which serve the schema lookups of both the client
+ * and the server, by schema name and version and by schema version id.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SchemaVersionInfoCacheBenchmark {
+    private static final String SCHEMA_NAME = "cache-benchmark";
+
+    @Param({"100", "10000"})
+    public int versionCount;
+
+    private SchemaVersionInfoCache cache;
+    private SchemaVersionInfoCache.Key[] nameVersionKeys;
+    private SchemaVersionInfoCache.Key[] idKeys;
+
+    @Setup(Level.Trial)
+    public void setup() throws SchemaNotFoundException {
+        SchemaVersionRetriever retriever = new SchemaVersionRetriever() {
+            @Override
+            public SchemaVersionInfo retrieveSchemaVersion(SchemaVersionKey key) {
+                return createSchemaVersionInfo(key.getVersion().longValue(), key.getVersion());
+            }
+
+            @Override
+            public SchemaVersionInfo retrieveSchemaVersion(SchemaIdVersion key) {
+                return createSchemaVersionInfo(key.getSchemaVersionId(), key.getSchemaVersionId().intValue());
+            }
+        };
+        cache = new SchemaVersionInfoCache(retriever, versionCount * 2, TimeUnit.HOURS.toMillis(1));
+
+        nameVersionKeys = new SchemaVersionInfoCache.Key[versionCount];
+        idKeys = new SchemaVersionInfoCache.Key[versionCount];
+        for (int i = 0; i < versionCount; i++) {
+            nameVersionKeys[i] = SchemaVersionInfoCache.Key.of(new SchemaVersionKey(SCHEMA_NAME, i + 1));
+            idKeys[i] = SchemaVersionInfoCache.Key.of(new SchemaIdVersion((long) i + 1));
+            cache.getSchema(nameVersionKeys[i]);
+            cache.getSchema(idKeys[i]);
+        }
+    }
+
+    private static SchemaVersionInfo createSchemaVersionInfo(Long id, Integer version) {
+        return new SchemaVersionInfo(id, SCHEMA_NAME, version, 1L, "\"string\"", System.currentTimeMillis(), null, null);
+    }
+
+    @Benchmark
+    public SchemaVersionInfo getByNameAndVersion() throws SchemaNotFoundException {
+        return cache.getSchema(nameVersionKeys[ThreadLocalRandom.current().nextInt(versionCount)]);
+    }
+
+    @Benchmark
+    public SchemaVersionInfo getById() throws SchemaNotFoundException {
+        return cache.getSchema(idKeys[ThreadLocalRandom.current().nextInt(versionCount)]);
+    }
+}
@@ -0,0 +1,211 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package com.hortonworks.registries.benchmarks;
+
+import com.hortonworks.registries.common.QueryParam;
+import com.hortonworks.registries.common.Schema;
+import com.hortonworks.registries.storage.PrimaryKey;
+import com.hortonworks.registries.storage.StorageManager;
+import com.hortonworks.registries.storage.catalog.AbstractStorable;
+import com.hortonworks.registries.storage.impl.jdbc.JdbcStorageManager;
+import com.hortonworks.registries.storage.impl.jdbc.config.ExecutionConfig;
+import com.hortonworks.registries.storage.impl.jdbc.config.HikariBasicConfig;
+import com.hortonworks.registries.storage.impl.jdbc.connection.HikariCPConnectionBuilder;
+import com.hortonworks.registries.storage.impl.jdbc.provider.mysql.factory.MySqlExecutor;
+import com.hortonworks.registries.storage.impl.memory.InMemoryStorageManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Round trips through the {@link StorageManager} implementations, i.e. the in-memory storage manager and the jdbc
+ * storage manager with its query executors and result set mapping against an embedded H2 database in MySQL mode.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StorageBenchmark {
+    private static final int ROW_COUNT = 10_000;
+    private static final int NAME_COUNT = 100;
+    private static final int FIND_IN_SIZE = 10;
+
+    @Param({"IN_MEMORY", "H2"})
+    public StorageType storageType;
+
+    private StorageManager storageManager;
+    private HikariCPConnectionBuilder connectionBuilder;
+    private final AtomicLong nextId = new AtomicLong(ROW_COUNT + 1);
+
+    public enum StorageType {
+        IN_MEMORY,
+        H2
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        if (storageType == StorageType.H2) {
+            connectionBuilder = new HikariCPConnectionBuilder(HikariBasicConfig.getH2HikariConfig());
+            executeStatement("CREATE TABLE IF NOT EXISTS " + BenchmarkStorable.NAME_SPACE + " ("
+                                     + "id BIGINT NOT NULL, name VARCHAR(255) NOT NULL, description VARCHAR(4000), "
+                                     + "timestamp BIGINT, PRIMARY KEY (id))");
+            executeStatement("CREATE INDEX IF NOT EXISTS idx_benchmark_entity_name ON " + BenchmarkStorable.NAME_SPACE + " (name)");
+            storageManager = new JdbcStorageManager(new MySqlExecutor(new ExecutionConfig(-1), connectionBuilder));
+        } else {
+            storageManager = new InMemoryStorageManager();
+        }
+        storageManager.registerStorables(Collections.singletonList(BenchmarkStorable.class));
+
+        for (long id = 1; id <= ROW_COUNT; id++) {
+            storageManager.add(new BenchmarkStorable(id, "name-" + (id % NAME_COUNT)));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        if (connectionBuilder != null) {
+            executeStatement("DROP TABLE " + BenchmarkStorable.NAME_SPACE);
+            connectionBuilder.cleanup();
+        }
+    }
+
+    private void executeStatement(String sql) throws SQLException {
+        try (Connection connection = connectionBuilder.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    @Benchmark
+    public BenchmarkStorable get() {
+        return storageManager.get(new BenchmarkStorable(randomId(), null).getStorableKey());
+    }
+
+    @Benchmark
+    public Collection<BenchmarkStorable> findByName() {
+        String name = "name-" + ThreadLocalRandom.current().nextInt(NAME_COUNT);
+        return storageManager.find(BenchmarkStorable.NAME_SPACE, Collections.singletonList(new QueryParam(BenchmarkStorable.NAME, name)));
+    }
+
+    @Benchmark
+    public Collection<BenchmarkStorable> findIn() {
+        List<Long> ids = new ArrayList<>(FIND_IN_SIZE);
+        for (int i = 0; i < FIND_IN_SIZE; i++) {
+            ids.add(randomId());
+        }
+        return storageManager.findIn(BenchmarkStorable.NAME_SPACE, BenchmarkStorable.ID, ids, Collections.emptyList());
+    }
+
+    @Benchmark
+    public BenchmarkStorable addAndRemove() {
+        BenchmarkStorable storable = new BenchmarkStorable(nextId.getAndIncrement(), "added");
+        storageManager.add(storable);
+        return storageManager.remove(storable.getStorableKey());
+    }
+
+    private static long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, ROW_COUNT + 1);
+    }
+
+    public static class BenchmarkStorable extends AbstractStorable {
+        public static final String NAME_SPACE = "benchmark_entity";
+        public static final String ID = "id";
+        public static final String NAME = "name";
+
+        private Long id;
+        private String name;
+        private String description;
+        private Long timestamp;
+
+        public BenchmarkStorable() {
+        }
+
+        public BenchmarkStorable(Long id, String name) {
+            this.id = id;
+            this.name = name;
+            this.description = name != null ? "description of " + name : null;
+            this.timestamp = System.currentTimeMillis();
+        }
+
+        @Override
+        public String getNameSpace() {
+            return NAME_SPACE;
+        }
+
+        @Override
+        public PrimaryKey getPrimaryKey() {
+            return new PrimaryKey(Collections.singletonMap(new Schema.Field(ID, Schema.Type.LONG), id));
+        }
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public void setDescription(String description) {
+            this.description = description;
+        }
+
+        public Long getTimestamp() {
+            return timestamp;
+        }
+
+        public void setTimestamp(Long timestamp) {
+            this.timestamp = timestamp;
+        }
+    }
+}
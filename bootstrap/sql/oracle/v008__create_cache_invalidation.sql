@@ -0,0 +1,27 @@
+-- Copyright 2018-2019 Cloudera, Inc.;
+-- ;
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.;
+-- You may obtain a copy of the License at;
+-- ;
+--    http://www.apache.org/licenses/LICENSE-2.0;
+-- ;
+-- Unless required by applicable law or agreed to in writing, software;
+-- distributed under the License is distributed on an "AS IS" BASIS,;
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.;
+-- See the License for the specific language governing permissions and;
+-- limitations under the License.;
+-- ;
+
+CREATE TABLE "cache_invalidation" (
+  "id"                   NUMBER(19,0)        NOT NULL,
+  "nodeId"               VARCHAR2(255)       NOT NULL,
+  "cacheType"            VARCHAR2(255)       NOT NULL,
+  "cacheKey"             VARCHAR2(4000),
+  "timestamp"            NUMBER(19,0)        NOT NULL,
+  CONSTRAINT cache_invalidation_pk PRIMARY KEY ("id")
+);
+
+CREATE INDEX idx_cache_invalidation_ts ON "cache_invalidation" ("timestamp");
+
+CREATE SEQUENCE "CACHE_INVALIDATION" START WITH 1 INCREMENT BY 1 MAXVALUE 10000000000000000000;
@@ -0,0 +1,21 @@
+-- Copyright 2016-2019 Cloudera, Inc.;
+-- ;
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.;
+-- You may obtain a copy of the License at;
+-- ;
+--    http://www.apache.org/licenses/LICENSE-2.0;
+-- ;
+-- Unless required by applicable law or agreed to in writing, software;
+-- distributed under the License is distributed on an "AS IS" BASIS,;
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.;
+-- See the License for the specific language governing permissions and;
+-- limitations under the License.;
+-- ;
+-- Each value of these sequences reserves the block of ids ending with it, which registry nodes hand out from memory.;
+-- The block size of a sequence is its increment, which registry nodes read together with each value.;
+-- The increment can be raised while registry nodes are running. Lower it only while all registry nodes are stopped,;
+-- as a node could otherwise read the previous increment with a value of the lowered one and reuse handed out ids.;
+
+ALTER SEQUENCE "SCHEMA_FIELD_INFO" INCREMENT BY 50;
+ALTER SEQUENCE "SCHEMA_VERSION_STATE" INCREMENT BY 20;
@@ -0,0 +1,25 @@
+-- Copyright 2018-2019 Cloudera, Inc.;
+-- ;
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.;
+-- You may obtain a copy of the License at;
+-- ;
+--    http://www.apache.org/licenses/LICENSE-2.0;
+-- ;
+-- Unless required by applicable law or agreed to in writing, software;
+-- distributed under the License is distributed on an "AS IS" BASIS,;
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.;
+-- See the License for the specific language governing permissions and;
+-- limitations under the License.;
+-- ;
+
+CREATE TABLE "cache_invalidation" (
+  "id"                   SERIAL          NOT NULL,
+  "nodeId"               VARCHAR(255)    NOT NULL,
+  "cacheType"            VARCHAR(255)    NOT NULL,
+  "cacheKey"             TEXT,
+  "timestamp"            BIGINT          NOT NULL,
+  PRIMARY KEY ("id")
+);
+
+CREATE INDEX "idx_cache_invalidation_timestamp" ON "cache_invalidation" ("timestamp");
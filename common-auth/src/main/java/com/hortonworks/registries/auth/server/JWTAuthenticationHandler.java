@@ -35,6 +35,7 @@ import com.hortonworks.registries.auth.util.Utils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWSObject;
@@ -68,6 +69,12 @@ import com.nimbusds.jose.crypto.RSASSAVerifier;
  * null which indicates that all audiences will be accepted.</li>
  * <li>jwt.cookie.name: the name of the cookie that contains the JWT token.
  * Default value is "hadoop-jwt".</li>
+ * <li>jwt.verified.cache.size: maximum number of verified tokens which are
+ * cached, so that the signature of a token is verified only once while it is
+ * valid. Default value is 1000, 0 disables the cache.</li>
+ * <li>jwt.verified.cache.max.ttl.ms: maximum time in milliseconds for which a
+ * verified token is cached, tokens are never cached beyond their expiration
+ * time. Default value is 300000.</li>
  * </ul>
  */
 public class JWTAuthenticationHandler implements AuthenticationHandler {
@@ -80,9 +87,16 @@ public class JWTAuthenticationHandler implements AuthenticationHandler {
     public static final String PUBLIC_KEY_PEM = "public.key.pem";
     public static final String EXPECTED_JWT_AUDIENCES = "expected.jwt.audiences";
     public static final String JWT_COOKIE_NAME = "jwt.cookie.name";
+    public static final String VERIFIED_CACHE_SIZE = "jwt.verified.cache.size";
+    public static final String VERIFIED_CACHE_MAX_TTL_MS = "jwt.verified.cache.max.ttl.ms";
+    private static final int DEFAULT_VERIFIED_CACHE_SIZE = 1000;
+    private static final long DEFAULT_VERIFIED_CACHE_MAX_TTL_MS = 5 * 60 * 1000L;
     private static final String ORIGINAL_URL_QUERY_PARAM = "originalUrl=";
     private String authenticationProviderUrl = null;
     private RSAPublicKey publicKey = null;
+    private JWSVerifier verifier = null;
+    private VerifiedTokenCache verifiedTokenCache =
+            new VerifiedTokenCache(DEFAULT_VERIFIED_CACHE_SIZE, DEFAULT_VERIFIED_CACHE_MAX_TTL_MS);
     private List<String> audiences = null;
     private String cookieName = "hadoop-jwt";
     private String[] nonBrowserUserAgents;
@@ -95,6 +109,22 @@ public class JWTAuthenticationHandler implements AuthenticationHandler {
      */
     public void setPublicKey(RSAPublicKey pk) {
         publicKey = pk;
+        verifier = new RSASSAVerifier(pk);
+        verifiedTokenCache.clear();
+    }
+
+    /**
+     * @return number of requests whose token was found in the cache of verified tokens
+     */
+    public long getVerifiedTokenCacheHitCount() {
+        return verifiedTokenCache.getHitCount();
+    }
+
+    /**
+     * @return number of requests whose token had to be verified
+     */
+    public long getVerifiedTokenCacheMissCount() {
+        return verifiedTokenCache.getMissCount();
     }
 
     @Override
@@ -132,7 +162,7 @@ public class JWTAuthenticationHandler implements AuthenticationHandler {
                 throw new ServletException(
                         "Public key for signature validation must be provisioned.");
             }
-            publicKey = CertificateUtil.parseRSAPublicKey(pemPublicKey);
+            setPublicKey(CertificateUtil.parseRSAPublicKey(pemPublicKey));
         }
         // setup the list of valid audiences for token validation
         String auds = config.getProperty(EXPECTED_JWT_AUDIENCES);
@@ -152,11 +182,15 @@ public class JWTAuthenticationHandler implements AuthenticationHandler {
         }
         nonBrowserUserAgents = Utils.getNonBrowserUserAgents(config.getProperty(
                 NON_BROWSER_USER_AGENTS, NON_BROWSER_USER_AGENTS_DEFAULT));
+
+        verifiedTokenCache = new VerifiedTokenCache(
+                Integer.parseInt(config.getProperty(VERIFIED_CACHE_SIZE, String.valueOf(DEFAULT_VERIFIED_CACHE_SIZE))),
+                Long.parseLong(config.getProperty(VERIFIED_CACHE_MAX_TTL_MS, String.valueOf(DEFAULT_VERIFIED_CACHE_MAX_TTL_MS))));
     }
 
     @Override
     public void destroy() {
-
+        verifiedTokenCache.clear();
     }
 
     @Override
@@ -178,21 +212,29 @@ public class JWTAuthenticationHandler implements AuthenticationHandler {
             LOG.info("sending redirect to: " + loginURL);
             ((HttpServletResponse) response).sendRedirect(loginURL);
         } else {
-            String userName = null;
+            // a token which was already verified is valid until it expires
+            String userName = verifiedTokenCache.get(serializedJWT);
             SignedJWT jwtToken = null;
-            boolean valid = false;
-            try {
-                jwtToken = SignedJWT.parse(serializedJWT);
-                valid = validateToken(jwtToken);
-                if (valid) {
-                    userName = jwtToken.getJWTClaimsSet().getSubject();
-                    LOG.info("USERNAME: " + userName);
-                } else {
-                    LOG.warn("jwtToken failed validation: " + jwtToken.serialize());
+            boolean valid = userName != null;
+            if (valid) {
+                LOG.debug("JWT token of user {} was already verified", userName);
+            } else {
+                try {
+                    jwtToken = SignedJWT.parse(serializedJWT);
+                    valid = validateToken(jwtToken);
+                    if (valid) {
+                        JWTClaimsSet claimsSet = jwtToken.getJWTClaimsSet();
+                        userName = claimsSet.getSubject();
+                        LOG.info("USERNAME: " + userName);
+                        Date expires = claimsSet.getExpirationTime();
+                        verifiedTokenCache.put(serializedJWT, userName, expires != null ? expires.getTime() : null);
+                    } else {
+                        LOG.warn("jwtToken failed validation: " + jwtToken.serialize());
+                    }
+                } catch(ParseException pe) {
+                    // unable to parse the token let's try and get another one
+                    LOG.warn("Unable to parse the JWT token", pe);
                 }
-            } catch(ParseException pe) {
-                // unable to parse the token let's try and get another one
-                LOG.warn("Unable to parse the JWT token", pe);
             }
             if (valid) {
                 LOG.debug("Issuing AuthenticationToken for user.");
@@ -304,7 +346,6 @@ public class JWTAuthenticationHandler implements AuthenticationHandler {
             if (jwtToken.getSignature() != null) {
                 LOG.debug("JWT token signature is not null");
                 try {
-                    JWSVerifier verifier = new RSASSAVerifier(publicKey);
                     if (jwtToken.verify(verifier)) {
                         valid = true;
                         LOG.debug("JWT token has been successfully verified");
@@ -0,0 +1,133 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. See accompanying LICENSE file.
+ */
+package com.hortonworks.registries.auth.server;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of the user names of already verified serialized JWTs, keyed by a SHA-256 digest of the token so that
+ * the tokens themselves are not retained. An entry expires with the token, or earlier after the configured maximum
+ * time to live. When the cache is full, expired entries are evicted and if none are expired the new token is not
+ * cached.
+ */
+class VerifiedTokenCache {
+
+    private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("It should not happen, " + e.getMessage(), e);
+        }
+    });
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final long maxTtlMs;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    VerifiedTokenCache(int maxSize, long maxTtlMs) {
+        this.maxSize = maxSize;
+        this.maxTtlMs = maxTtlMs;
+    }
+
+    /**
+     * @return the user name of the given token if it was verified and it is not expired, otherwise null
+     */
+    String get(String serializedJWT) {
+        if (maxSize <= 0) {
+            return null;
+        }
+        String key = digest(serializedJWT);
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt > System.currentTimeMillis()) {
+            hits.incrementAndGet();
+            return entry.userName;
+        }
+        if (entry != null) {
+            entries.remove(key, entry);
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Caches the user name of the given verified token until the given expiration time, which is null for tokens
+     * without an expiration time.
+     */
+    void put(String serializedJWT, String userName, Long expirationTime) {
+        if (maxSize <= 0 || userName == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long expiresAt = expirationTime != null ? Math.min(expirationTime, now + maxTtlMs) : now + maxTtlMs;
+        if (expiresAt <= now) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            evictExpired(now);
+            if (entries.size() >= maxSize) {
+                return;
+            }
+        }
+        entries.put(digest(serializedJWT), new Entry(userName, expiresAt));
+    }
+
+    long getHitCount() {
+        return hits.get();
+    }
+
+    long getMissCount() {
+        return misses.get();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    void clear() {
+        entries.clear();
+    }
+
+    private void evictExpired(long now) {
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getValue().expiresAt <= now) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private static String digest(String serializedJWT) {
+        byte[] digest = DIGEST.get().digest(serializedJWT.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(digest);
+    }
+
+    private static final class Entry {
+        private final String userName;
+        private final long expiresAt;
+
+        private Entry(String userName, long expiresAt) {
+            this.userName = userName;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -14,17 +14,26 @@
 package com.hortonworks.registries.auth.util;
 
 
-import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Base64;
 
 /**
- * Signs strings and verifies signed strings using a SHA digest.
+ * Signs strings and verifies signed strings using a SHA digest. Instances are thread safe and lock free, each thread
+ * uses a digest of its own.
  */
 public class Signer {
     private static final String SIGNATURE = "&s=";
 
+    private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new RuntimeException("It should not happen, " + ex.getMessage(), ex);
+        }
+    });
+
     private SignerSecretProvider secretProvider;
 
     /**
@@ -47,7 +56,7 @@ public class Signer {
      *
      * @return the signed string.
      */
-    public synchronized String sign(String str) {
+    public String sign(String str) {
         if (str == null || str.length() == 0) {
             throw new IllegalArgumentException("NULL or empty string to sign");
         }
@@ -85,15 +94,12 @@ public class Signer {
      * @return the signature for the string.
      */
     protected String computeSignature(byte[] secret, String str) {
-        try {
-            MessageDigest md = MessageDigest.getInstance("SHA");
-            md.update(str.getBytes(Charset.forName("UTF-8")));
-            md.update(secret);
-            byte[] digest = md.digest();
-            return Base64.getEncoder().encodeToString(digest);
-        } catch (NoSuchAlgorithmException ex) {
-            throw new RuntimeException("It should not happen, " + ex.getMessage(), ex);
-        }
+        MessageDigest md = DIGEST.get();
+        md.reset();
+        md.update(str.getBytes(StandardCharsets.UTF_8));
+        md.update(secret);
+        byte[] digest = md.digest();
+        return Base64.getEncoder().encodeToString(digest);
     }
 
     protected void checkSignatures(String rawValue, String originalSignature)
@@ -379,6 +379,35 @@ public class TestJWTAuthenticationHandler extends
         }
     }
 
+    @Test
+    public void testVerifiedJWTIsCached() throws Exception {
+        handler.setPublicKey(publicKey);
+        handler.init(getProperties());
+
+        SignedJWT jwt = getJWT("alice", new Date(new Date().getTime() + 5000), privateKey);
+        for (int i = 0; i < 3; i++) {
+            HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+            Mockito.when(request.getCookies()).thenReturn(new Cookie[] {new Cookie("hadoop-jwt", jwt.serialize())});
+            AuthenticationToken token = handler.authenticate(request, Mockito.mock(HttpServletResponse.class));
+            Assert.assertEquals("alice", token.getUserName());
+        }
+        Assert.assertEquals(1, handler.getVerifiedTokenCacheMissCount());
+        Assert.assertEquals(2, handler.getVerifiedTokenCacheHitCount());
+
+        // tokens failing verification are not cached
+        KeyPairGenerator kpg = KeyPairGenerator.getInstance("RSA");
+        kpg.initialize(2048);
+        SignedJWT forged = getJWT("alice", new Date(new Date().getTime() + 5000),
+                (RSAPrivateKey) kpg.genKeyPair().getPrivate());
+        for (int i = 0; i < 2; i++) {
+            HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+            Mockito.when(request.getCookies()).thenReturn(new Cookie[] {new Cookie("hadoop-jwt", forged.serialize())});
+            Mockito.when(request.getRequestURL()).thenReturn(new StringBuffer(SERVICE_URL));
+            Assert.assertNull(handler.authenticate(request, Mockito.mock(HttpServletResponse.class)));
+        }
+        Assert.assertEquals(3, handler.getVerifiedTokenCacheMissCount());
+    }
+
     @Test
     public void testOrigURLWithQueryString() throws Exception {
         handler.setPublicKey(publicKey);
@@ -13,7 +13,12 @@
  */
 package com.hortonworks.registries.auth.util;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import javax.servlet.ServletContext;
 
 import com.hortonworks.registries.auth.server.AuthenticationFilter;
@@ -91,6 +96,25 @@ public class TestSigner {
         }
     }
 
+    @Test
+    public void testConcurrentSignatures() throws Exception {
+        Signer signer = new Signer(createStringSignerSecretProvider());
+        String expected = signer.sign("test");
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                futures.add(executorService.submit(() -> signer.verifyAndExtract(signer.sign("test"))));
+            }
+            for (Future<String> future : futures) {
+                Assert.assertEquals("test", future.get());
+            }
+        } finally {
+            executorService.shutdown();
+        }
+        Assert.assertEquals(expected, signer.sign("test"));
+    }
+
     private StringSignerSecretProvider createStringSignerSecretProvider() throws Exception {
         StringSignerSecretProvider secretProvider = new StringSignerSecretProvider();
         Properties secretProviderProps = new Properties();
@@ -38,4 +38,10 @@ public interface ModuleRegistration {
      * @return list of resources to register with the web service module to handle end points for this module
      */
     List<Object> getResources ();
+
+    /**
+     * Releases the resources held by the module when the web service module is stopped
+     */
+    default void close () {
+    }
 }
@@ -0,0 +1,97 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.common.util;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Iterates over a result which is fetched page by page with keyset pagination, so that only one page of it is held in
+ * memory at a time. Each page is fetched with the key of the last entity of the previous page and the iteration ends
+ * after a page which is smaller than requested.
+ * <p>
+ * The entities of each page are mapped before they are iterated, e.g. to leave out the ones which are not authorized.
+ * The given limit applies to the mapped entities, so pages are fetched until the limit is reached or the result ends.
+ *
+ * @param <K> type of the keys
+ * @param <T> type of the fetched entities
+ * @param <R> type of the iterated entities
+ */
+public class KeysetPageIterator<K, T, R> implements Iterator<R> {
+
+    private final BiFunction<K, Integer, List<T>> pageFetcher;
+    private final Function<T, K> keyExtractor;
+    private final Function<List<T>, ? extends Collection<R>> pageMapper;
+    private final int pageSize;
+    private long remaining;
+    private K lastKey;
+    private boolean lastPage;
+    private Iterator<R> current = Collections.emptyIterator();
+
+    /**
+     * @param pageFetcher  fetches the page after the given key, or the first page for a null key, with at most the
+     *                     given number of entities
+     * @param keyExtractor returns the key of a fetched entity
+     * @param pageMapper   maps the entities of a fetched page to the iterated ones
+     * @param afterKey     key after which the iteration starts, null to start from the first page
+     * @param pageSize     maximum number of entities fetched at once
+     * @param limit        maximum number of entities to iterate over
+     */
+    public KeysetPageIterator(BiFunction<K, Integer, List<T>> pageFetcher,
+                              Function<T, K> keyExtractor,
+                              Function<List<T>, ? extends Collection<R>> pageMapper,
+                              K afterKey,
+                              int pageSize,
+                              long limit) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("pageSize should be positive: " + pageSize);
+        }
+        this.pageFetcher = pageFetcher;
+        this.keyExtractor = keyExtractor;
+        this.pageMapper = pageMapper;
+        this.lastKey = afterKey;
+        this.pageSize = pageSize;
+        this.remaining = limit;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!current.hasNext() && !lastPage && remaining > 0) {
+            int size = (int) Math.min(pageSize, remaining);
+            List<T> page = pageFetcher.apply(lastKey, size);
+            lastPage = page.size() < size;
+            if (!page.isEmpty()) {
+                lastKey = keyExtractor.apply(page.get(page.size() - 1));
+                current = pageMapper.apply(page).iterator();
+            }
+        }
+        return current.hasNext() && remaining > 0;
+    }
+
+    @Override
+    public R next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        remaining--;
+        return current.next();
+    }
+}
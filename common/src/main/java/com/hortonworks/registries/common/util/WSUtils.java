@@ -15,6 +15,8 @@
  **/
 package com.hortonworks.registries.common.util;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.io.ByteStreams;
 import com.hortonworks.registries.common.CollectionResponse;
 import com.hortonworks.registries.common.QueryParam;
@@ -31,12 +33,16 @@ import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 
 /**
  * Utility methods for the webservice.
  */
 public final class WSUtils {
+    private static final ObjectMapper STREAMING_OBJECT_MAPPER = new ObjectMapper()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
     private WSUtils() {
     }
 
@@ -46,6 +52,17 @@ public final class WSUtils {
                 .build();
     }
 
+    /**
+     * Responds with the same body as {@link #respondEntities(Collection, Response.Status)}, but the entities are written
+     * while they are iterated. Combined with a {@link KeysetPageIterator}, only a page of them is held in memory at a
+     * time however large the result is.
+     */
+    public static Response respondEntities(Iterator<?> entities, Response.Status status) {
+        return Response.status(status)
+                .entity(wrapWithStreamingOutput(entities, true))
+                .build();
+    }
+
     public static Response respondEntity(Object entity, Response.Status status) {
         return Response.status(status)
                 .entity(entity)
@@ -83,6 +100,31 @@ public final class WSUtils {
         };
     }
 
+    /**
+     * @param entities             entities to be written as a JSON array
+     * @param asCollectionResponse whether the array is wrapped like the entities of a {@link CollectionResponse}
+     */
+    public static StreamingOutput wrapWithStreamingOutput(final Iterator<?> entities, final boolean asCollectionResponse) {
+        return new StreamingOutput() {
+            public void write(OutputStream os) throws IOException, WebApplicationException {
+                JsonGenerator generator = STREAMING_OBJECT_MAPPER.getFactory().createGenerator(os);
+                if (asCollectionResponse) {
+                    generator.writeStartObject();
+                    generator.writeFieldName("entities");
+                }
+                generator.writeStartArray();
+                while (entities.hasNext()) {
+                    generator.writeObject(entities.next());
+                }
+                generator.writeEndArray();
+                if (asCollectionResponse) {
+                    generator.writeEndObject();
+                }
+                generator.close();
+            }
+        };
+    }
+
     public static List<QueryParam> buildQueryParameters(MultivaluedMap<String, String> params) {
         if (params == null || params.isEmpty()) {
             return Collections.<QueryParam>emptyList();
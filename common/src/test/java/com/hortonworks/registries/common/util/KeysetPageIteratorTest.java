@@ -0,0 +1,67 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.common.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+public class KeysetPageIteratorTest {
+
+    private final List<Long> fetchedKeys = new ArrayList<>();
+
+    @Test
+    public void testIterateAllPages() {
+        Iterator<Long> iterator = new KeysetPageIterator<Long, Long, Long>(this::fetch, Function.identity(), x -> x, null, 3, Long.MAX_VALUE);
+
+        Assert.assertEquals(LongStream.rangeClosed(1, 10).boxed().collect(Collectors.toList()), toList(iterator));
+        Assert.assertEquals(Arrays.asList(null, 3L, 6L, 9L), fetchedKeys);
+    }
+
+    @Test
+    public void testLimitAndPageMapper() {
+        // only even keys are iterated, so more pages are fetched to reach the limit
+        Iterator<Long> iterator = new KeysetPageIterator<Long, Long, Long>(this::fetch,
+                                                                           Function.identity(),
+                                                                           page -> page.stream().filter(x -> x % 2 == 0).collect(Collectors.toList()),
+                                                                           2L,
+                                                                           4,
+                                                                           3);
+
+        Assert.assertEquals(Arrays.asList(4L, 6L, 8L), toList(iterator));
+        Assert.assertEquals(Arrays.asList(2L, 5L, 7L), fetchedKeys);
+    }
+
+    // keys from 1 to 10
+    private List<Long> fetch(Long afterKey, int size) {
+        fetchedKeys.add(afterKey);
+        long start = afterKey != null ? afterKey + 1 : 1;
+        return LongStream.rangeClosed(start, 10).limit(size).boxed().collect(Collectors.toList());
+    }
+
+    private static List<Long> toList(Iterator<Long> iterator) {
+        List<Long> result = new ArrayList<>();
+        iterator.forEachRemaining(result::add);
+        return result;
+    }
+}
@@ -28,12 +28,14 @@ import org.xml.sax.SAXException;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
+import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
 import javax.ws.rs.POST;
 import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.xml.bind.JAXBException;
@@ -54,12 +56,18 @@ public final class MLModelRegistryResource {
         this.modelRegistryService = modelRegistryService;
     }
 
+    /**
+     * List all the model infos, without their pmml contents when includePmml is false
+     * <p>
+     * curl -sS -X GET http://localhost:8080/api/v1/catalog/ml/models?includePmml=false
+     * </p>
+     */
     @GET
     @Path("ml/models")
     @Produces(MediaType.APPLICATION_JSON)
     @Timed
-    public Response listModelInfos() {
-        return WSUtils.respondEntities(modelRegistryService.listModelInfos(), OK);
+    public Response listModelInfos(@QueryParam("includePmml") @DefaultValue("true") final boolean includePmml) {
+        return WSUtils.respondEntities(modelRegistryService.listModelInfos(includePmml), OK);
     }
 
     /**
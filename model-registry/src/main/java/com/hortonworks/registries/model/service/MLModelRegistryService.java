@@ -16,6 +16,10 @@
 
 package com.hortonworks.registries.model.service;
 
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.hortonworks.registries.common.QueryParam;
 import com.hortonworks.registries.common.exception.service.exception.request.EntityNotFoundException;
 import com.hortonworks.registries.model.data.MLModel;
@@ -44,20 +48,55 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 
 public final class MLModelRegistryService {
     private static final Logger LOG = LoggerFactory.getLogger(MLModelRegistryService.class);
     private static final String ML_MODEL_NAME_SPACE = new MLModel().getNameSpace();
+    private static final int DEFAULT_MODEL_FIELDS_CACHE_SIZE = 100;
     private final StorageManager storageManager;
+    // fields of the models keyed by id and timestamp, as the timestamp is updated with the pmml of a model
+    private final Cache<String, ModelFields> modelFieldsCache;
 
     public MLModelRegistryService(StorageManager storageManager) {
+        this(storageManager, DEFAULT_MODEL_FIELDS_CACHE_SIZE);
+    }
+
+    public MLModelRegistryService(StorageManager storageManager, int modelFieldsCacheSize) {
         this.storageManager = storageManager;
+        this.modelFieldsCache = CacheBuilder.newBuilder().maximumSize(modelFieldsCacheSize).build();
     }
 
     public Collection<MLModel> listModelInfos() {
         return storageManager.list(ML_MODEL_NAME_SPACE);
     }
 
+    /**
+     * @param includePmml whether the pmml contents of the models are returned, which can be large
+     * @return all the models
+     */
+    public Collection<MLModel> listModelInfos(boolean includePmml) {
+        Collection<MLModel> modelInfos = listModelInfos();
+        if (includePmml) {
+            return modelInfos;
+        }
+        List<MLModel> result = new ArrayList<>(modelInfos.size());
+        for (MLModel modelInfo : modelInfos) {
+            result.add(withoutPmml(modelInfo));
+        }
+        return result;
+    }
+
+    // stored models are not modified as they may be the instances held by the storage
+    private static MLModel withoutPmml(MLModel modelInfo) {
+        MLModel result = new MLModel();
+        result.setId(modelInfo.getId());
+        result.setName(modelInfo.getName());
+        result.setTimestamp(modelInfo.getTimestamp());
+        result.setUploadedFileName(modelInfo.getUploadedFileName());
+        return result;
+    }
+
     public Collection<MLModel> listModelInfo(List<QueryParam> params) {
         return storageManager.find(ML_MODEL_NAME_SPACE, params);
     }
@@ -73,8 +112,9 @@ public final class MLModelRegistryService {
         modelInfo.setPmml(IOUtils.toString(pmmlInputStream, Charset.defaultCharset()));
         modelInfo.setUploadedFileName(fileName);
 
-        validateModelInfo(modelInfo);
+        ModelFields modelFields = validateModelInfo(modelInfo);
         this.storageManager.add(modelInfo);
+        modelFieldsCache.put(getModelFieldsKey(modelInfo), modelFields);
         return modelInfo;
     }
 
@@ -87,8 +127,9 @@ public final class MLModelRegistryService {
         modelInfo.setPmml(IOUtils.toString(pmmlInputStream, Charset.defaultCharset()));
         modelInfo.setUploadedFileName(fileName);
 
-        validateModelInfo(modelInfo);
+        ModelFields modelFields = validateModelInfo(modelInfo);
         this.storageManager.addOrUpdate(modelInfo);
+        modelFieldsCache.put(getModelFieldsKey(modelInfo), modelFields);
         return modelInfo;
     }
 
@@ -119,57 +160,87 @@ public final class MLModelRegistryService {
         if (removedModelInfo == null) {
             throw EntityNotFoundException.byId(modelId.toString());
         }
+        modelFieldsCache.invalidate(getModelFieldsKey(removedModelInfo));
 
         return removedModelInfo;
     }
 
     public List<MLModelField> getModelOutputFields(MLModel modelInfo) throws IOException, SAXException, JAXBException {
-        return doGetOutputFieldsForPMMLStream(modelInfo.getPmml());
+        return getModelFields(modelInfo).outputFields;
+    }
+
+    public List<MLModelField> getModelInputFields(MLModel modelInfo) throws IOException, SAXException, JAXBException {
+        return getModelFields(modelInfo).inputFields;
+    }
+
+    private ModelFields getModelFields(MLModel modelInfo) throws SAXException, JAXBException {
+        if (modelInfo.getId() == null || modelInfo.getTimestamp() == null) {
+            return parseModelFields(modelInfo.getPmml());
+        }
+        try {
+            return modelFieldsCache.get(getModelFieldsKey(modelInfo), () -> parseModelFields(modelInfo.getPmml()));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SAXException) {
+                throw (SAXException) cause;
+            } else if (cause instanceof JAXBException) {
+                throw (JAXBException) cause;
+            }
+            Throwables.throwIfUnchecked(cause);
+            throw new RuntimeException(cause);
+        }
+    }
+
+    private static String getModelFieldsKey(MLModel modelInfo) {
+        return modelInfo.getId() + "-" + modelInfo.getTimestamp();
     }
 
-    private List<MLModelField> doGetOutputFieldsForPMMLStream(String pmmlContents) throws SAXException, JAXBException {
-        List<MLModelField> fieldNames = new ArrayList<>();
+    // unmarshalling the pmml is the expensive part, so all the fields are extracted with the same evaluator
+    private ModelFields parseModelFields(String pmmlContents) throws SAXException, JAXBException {
         PMMLManager pmmlManager = new PMMLManager(IOUtil.unmarshal(new ByteArrayInputStream(pmmlContents.getBytes())));
         Evaluator modelEvaluator = (ModelEvaluator<?>) pmmlManager.getModelManager(null, ModelEvaluatorFactory.getInstance());
-        modelEvaluator.getPredictedFields().forEach((f) -> fieldNames.add(getModelField(modelEvaluator.getDataField(f))));
 
+        List<MLModelField> inputFields = new ArrayList<>();
+        for (FieldName predictedField : modelEvaluator.getActiveFields()) {
+            inputFields.add(getModelField(modelEvaluator.getDataField(predictedField)));
+        }
+
+        List<MLModelField> outputFields = new ArrayList<>();
+        modelEvaluator.getPredictedFields().forEach((f) -> outputFields.add(getModelField(modelEvaluator.getDataField(f))));
         modelEvaluator.getOutputFields().forEach((f) -> {
             OutputField outputField = modelEvaluator.getOutputField(f);
             ResultFeatureType resultFeatureType = outputField.getFeature();
             if (resultFeatureType != ResultFeatureType.PREDICTED_VALUE &&
                     resultFeatureType != ResultFeatureType.PREDICTED_DISPLAY_VALUE) {
-                fieldNames.add(getModelField(outputField));
+                outputFields.add(getModelField(outputField));
             }
         });
 
-        return fieldNames;
-    }
-
-    public List<MLModelField> getModelInputFields(MLModel modelInfo) throws IOException, SAXException, JAXBException {
-        return doGetInputFieldsFromPMMLStream(modelInfo.getPmml());
-    }
-
-    private List<MLModelField> doGetInputFieldsFromPMMLStream(String pmmlContents) throws SAXException, JAXBException {
-        final List<MLModelField> fieldNames = new ArrayList<>();
-        PMMLManager pmmlManager = new PMMLManager(IOUtil.unmarshal(new ByteArrayInputStream(pmmlContents.getBytes())));
-        Evaluator modelEvaluator = (ModelEvaluator<?>) pmmlManager.getModelManager(null, ModelEvaluatorFactory.getInstance());
-        for (FieldName predictedField : modelEvaluator.getActiveFields()) {
-            fieldNames.add(getModelField(modelEvaluator.getDataField(predictedField)));
-        }
-        return fieldNames;
+        return new ModelFields(inputFields, outputFields);
     }
 
     private MLModelField getModelField(Field dataField) {
         return new MLModelField(dataField.getName().getValue(), dataField.getDataType().toString());
     }
 
-    private void validateModelInfo(MLModel modelInfo) throws SAXException, JAXBException {
-        List<MLModelField> outputFields = doGetOutputFieldsForPMMLStream(modelInfo.getPmml());
-        if (outputFields.isEmpty()) {
+    private ModelFields validateModelInfo(MLModel modelInfo) throws SAXException, JAXBException {
+        ModelFields modelFields = parseModelFields(modelInfo.getPmml());
+        if (modelFields.outputFields.isEmpty()) {
             throw new RuntimeException(
                     String.format("PMML File %s does not support empty output", modelInfo.getUploadedFileName()));
         }
         StorageUtils.ensureUnique(modelInfo, this::listModelInfo, QueryParam.params(
                 MLModel.NAME, modelInfo.getName()));
+        return modelFields;
+    }
+
+    private static final class ModelFields {
+        private final List<MLModelField> inputFields;
+        private final List<MLModelField> outputFields;
+
+        private ModelFields(List<MLModelField> inputFields, List<MLModelField> outputFields) {
+            this.inputFields = Collections.unmodifiableList(inputFields);
+            this.outputFields = Collections.unmodifiableList(outputFields);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,149 @@
+/**
+ * Copyright 2017-2019 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package com.hortonworks.registries.model.service;
+
+import com.hortonworks.registries.model.data.MLModel;
+import com.hortonworks.registries.storage.impl.memory.InMemoryStorageManager;
+import org.apache.commons.io.IOUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class MLModelRegistryServiceTest {
+    private static final String INVALID_PMML = "not a pmml";
+
+    private MLModelRegistryService modelRegistryService;
+
+    @Before
+    public void setup() {
+        modelRegistryService = new MLModelRegistryService(new InMemoryStorageManager());
+    }
+
+    @Test
+    public void testModelFieldsAreCachedByIdAndTimestamp() throws Exception {
+        MLModel addedModel = modelRegistryService.addModelInfo(model("linear"), pmml("x", "y"), "linear.pmml");
+
+        MLModel storedModel = modelRegistryService.getModelInfo(addedModel.getId());
+        List<MLModelField> inputFields = modelRegistryService.getModelInputFields(storedModel);
+        List<MLModelField> outputFields = modelRegistryService.getModelOutputFields(storedModel);
+        Assert.assertEquals(Arrays.asList("x"), names(inputFields));
+        Assert.assertEquals(Arrays.asList("y"), names(outputFields));
+
+        // the pmml of a model with the same id and timestamp is not parsed again
+        MLModel sameModel = model(addedModel.getId(), addedModel.getTimestamp(), INVALID_PMML);
+        Assert.assertSame(inputFields, modelRegistryService.getModelInputFields(sameModel));
+        Assert.assertSame(outputFields, modelRegistryService.getModelOutputFields(sameModel));
+    }
+
+    @Test
+    public void testReuploadedModelFieldsAreExtractedAgain() throws Exception {
+        MLModel addedModel = modelRegistryService.addModelInfo(model("linear"), pmml("x", "y"), "linear.pmml");
+        Assert.assertEquals(Arrays.asList("y"), names(modelRegistryService.getModelOutputFields(addedModel)));
+
+        MLModel reuploadedModel = model(addedModel.getId(), addedModel.getTimestamp() + 1, toString(pmml("a", "b")));
+        Assert.assertEquals(Arrays.asList("a"), names(modelRegistryService.getModelInputFields(reuploadedModel)));
+        Assert.assertEquals(Arrays.asList("b"), names(modelRegistryService.getModelOutputFields(reuploadedModel)));
+
+        modelRegistryService.addOrUpdateModelInfo(addedModel.getId(), model("linear"), pmml("c", "d"), "linear.pmml");
+        MLModel storedModel = modelRegistryService.getModelInfo(addedModel.getId());
+        Assert.assertEquals(Arrays.asList("c"), names(modelRegistryService.getModelInputFields(storedModel)));
+        Assert.assertEquals(Arrays.asList("d"), names(modelRegistryService.getModelOutputFields(storedModel)));
+    }
+
+    @Test
+    public void testModelFieldsAreInvalidatedOnRemove() throws Exception {
+        MLModel addedModel = modelRegistryService.addModelInfo(model("linear"), pmml("x", "y"), "linear.pmml");
+        Assert.assertEquals(Arrays.asList("y"), names(modelRegistryService.getModelOutputFields(addedModel)));
+
+        modelRegistryService.removeModelInfo(addedModel.getId());
+
+        MLModel modelWithSameKey = model(addedModel.getId(), addedModel.getTimestamp(), toString(pmml("a", "b")));
+        Assert.assertEquals(Arrays.asList("b"), names(modelRegistryService.getModelOutputFields(modelWithSameKey)));
+    }
+
+    @Test
+    public void testListModelInfosWithoutPmml() throws Exception {
+        MLModel addedModel = modelRegistryService.addModelInfo(model("linear"), pmml("x", "y"), "linear.pmml");
+
+        Collection<MLModel> modelInfos = modelRegistryService.listModelInfos(false);
+        Assert.assertEquals(1, modelInfos.size());
+        MLModel modelInfo = modelInfos.iterator().next();
+        Assert.assertNull(modelInfo.getPmml());
+        Assert.assertEquals(addedModel.getId(), modelInfo.getId());
+        Assert.assertEquals("linear", modelInfo.getName());
+        Assert.assertEquals(addedModel.getTimestamp(), modelInfo.getTimestamp());
+        Assert.assertEquals("linear.pmml", modelInfo.getUploadedFileName());
+
+        // the stored model keeps its pmml
+        Assert.assertEquals(addedModel.getPmml(), modelRegistryService.listModelInfos(true).iterator().next().getPmml());
+        Assert.assertEquals(addedModel.getPmml(), modelRegistryService.getModelInfo(addedModel.getId()).getPmml());
+    }
+
+    private static MLModel model(String name) {
+        MLModel modelInfo = new MLModel();
+        modelInfo.setName(name);
+        return modelInfo;
+    }
+
+    private static MLModel model(Long id, Long timestamp, String pmml) {
+        MLModel modelInfo = model("linear");
+        modelInfo.setId(id);
+        modelInfo.setTimestamp(timestamp);
+        modelInfo.setPmml(pmml);
+        return modelInfo;
+    }
+
+    private static List<String> names(List<MLModelField> fields) {
+        return fields.stream().map(MLModelField::getName).collect(Collectors.toList());
+    }
+
+    private static String toString(InputStream inputStream) throws Exception {
+        return IOUtils.toString(inputStream, Charset.defaultCharset());
+    }
+
+    /**
+     * @return a linear regression model predicting the given output field from the given input field
+     */
+    private static InputStream pmml(String inputField, String outputField) {
+        String pmml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                "<PMML xmlns=\"http://www.dmg.org/PMML-4_1\" version=\"4.1\">\n" +
+                "  <Header description=\"linear regression\"/>\n" +
+                "  <DataDictionary numberOfFields=\"2\">\n" +
+                "    <DataField name=\"" + inputField + "\" optype=\"continuous\" dataType=\"double\"/>\n" +
+                "    <DataField name=\"" + outputField + "\" optype=\"continuous\" dataType=\"double\"/>\n" +
+                "  </DataDictionary>\n" +
+                "  <RegressionModel functionName=\"regression\" modelName=\"linear\">\n" +
+                "    <MiningSchema>\n" +
+                "      <MiningField name=\"" + inputField + "\"/>\n" +
+                "      <MiningField name=\"" + outputField + "\" usageType=\"predicted\"/>\n" +
+                "    </MiningSchema>\n" +
+                "    <RegressionTable intercept=\"1.0\">\n" +
+                "      <NumericPredictor name=\"" + inputField + "\" coefficient=\"2.0\"/>\n" +
+                "    </RegressionTable>\n" +
+                "  </RegressionModel>\n" +
+                "</PMML>\n";
+        return new ByteArrayInputStream(pmml.getBytes(Charset.defaultCharset()));
+    }
+}
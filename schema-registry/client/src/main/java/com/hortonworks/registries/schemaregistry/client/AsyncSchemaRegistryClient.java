@@ -0,0 +1,163 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.schemaregistry.client;
+
+import com.google.common.base.Preconditions;
+import com.hortonworks.registries.schemaregistry.SchemaIdVersion;
+import com.hortonworks.registries.schemaregistry.SchemaMetadata;
+import com.hortonworks.registries.schemaregistry.SchemaMetadataInfo;
+import com.hortonworks.registries.schemaregistry.SchemaVersion;
+import com.hortonworks.registries.schemaregistry.SchemaVersionInfo;
+import com.hortonworks.registries.schemaregistry.SchemaVersionKey;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * {@link IAsyncSchemaRegistryClient} which runs the calls of a blocking {@link ISchemaRegistryClient} on its own
+ * threads, so that callers are not blocked while schemas are fetched.
+ * <p>
+ * Calls with the same arguments which are made while an earlier one is still in flight share its result, so a burst of
+ * lookups for the same unknown schema version, e.g. when a consumer group rebalances, takes a single request and a
+ * single thread. Lookups of different schemas run concurrently on the threads of this client, over the connections
+ * which are kept alive by the underlying HTTP client. Completed results are not retained here, the caches of the
+ * blocking client serve them afterwards.
+ */
+public class AsyncSchemaRegistryClient implements IAsyncSchemaRegistryClient {
+
+    private static final AtomicInteger CLIENT_COUNT = new AtomicInteger();
+
+    private final ISchemaRegistryClient schemaRegistryClient;
+    private final Executor executor;
+    private final ExecutorService ownedExecutorService;
+
+    private final ConcurrentMap<SchemaIdVersion, CompletableFuture<SchemaVersionInfo>> versionsByIdVersion = new ConcurrentHashMap<>();
+    private final ConcurrentMap<SchemaVersionKey, CompletableFuture<SchemaVersionInfo>> versionsByKey = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, CompletableFuture<SchemaMetadataInfo>> metadataByName = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, CompletableFuture<SchemaMetadataInfo>> metadataById = new ConcurrentHashMap<>();
+    private final ConcurrentMap<List<Object>, CompletableFuture<SchemaIdVersion>> addedVersions = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a client with its own pool of the given number of daemon threads, which is shut down on {@link #close()}.
+     *
+     * @param schemaRegistryClient blocking client which runs the requests
+     * @param threads              maximum number of concurrent requests
+     */
+    public AsyncSchemaRegistryClient(ISchemaRegistryClient schemaRegistryClient, int threads) {
+        this(schemaRegistryClient, createExecutorService(threads), true);
+    }
+
+    /**
+     * @param schemaRegistryClient blocking client which runs the requests
+     * @param executor             executor running the requests, which is owned by the caller
+     */
+    public AsyncSchemaRegistryClient(ISchemaRegistryClient schemaRegistryClient, Executor executor) {
+        this(schemaRegistryClient, executor, false);
+    }
+
+    private AsyncSchemaRegistryClient(ISchemaRegistryClient schemaRegistryClient, Executor executor, boolean ownsExecutor) {
+        Preconditions.checkNotNull(schemaRegistryClient, "schemaRegistryClient can not be null");
+        Preconditions.checkNotNull(executor, "executor can not be null");
+        this.schemaRegistryClient = schemaRegistryClient;
+        this.executor = executor;
+        this.ownedExecutorService = ownsExecutor ? (ExecutorService) executor : null;
+    }
+
+    private static ExecutorService createExecutorService(int threads) {
+        Preconditions.checkArgument(threads > 0, "threads should be positive: %s", threads);
+        String namePrefix = "schema-registry-async-client-" + CLIENT_COUNT.incrementAndGet() + "-";
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public CompletableFuture<SchemaVersionInfo> getSchemaVersionInfo(SchemaIdVersion schemaIdVersion) {
+        return coalesce(versionsByIdVersion, schemaIdVersion, () -> schemaRegistryClient.getSchemaVersionInfo(schemaIdVersion));
+    }
+
+    @Override
+    public CompletableFuture<SchemaVersionInfo> getSchemaVersionInfo(SchemaVersionKey schemaVersionKey) {
+        return coalesce(versionsByKey, schemaVersionKey, () -> schemaRegistryClient.getSchemaVersionInfo(schemaVersionKey));
+    }
+
+    @Override
+    public CompletableFuture<SchemaMetadataInfo> getSchemaMetadataInfo(String schemaName) {
+        return coalesce(metadataByName, schemaName, () -> schemaRegistryClient.getSchemaMetadataInfo(schemaName));
+    }
+
+    @Override
+    public CompletableFuture<SchemaMetadataInfo> getSchemaMetadataInfo(Long schemaMetadataId) {
+        return coalesce(metadataById, schemaMetadataId, () -> schemaRegistryClient.getSchemaMetadataInfo(schemaMetadataId));
+    }
+
+    @Override
+    public CompletableFuture<SchemaIdVersion> addSchemaVersion(String schemaBranchName,
+                                                               SchemaMetadata schemaMetadata,
+                                                               SchemaVersion schemaVersion,
+                                                               boolean disableCanonicalCheck) {
+        // same as the blocking client, versions with the same text are the same version whatever their description is
+        List<Object> key = Arrays.asList(schemaBranchName, schemaMetadata, schemaVersion.getSchemaText(), disableCanonicalCheck);
+        return coalesce(addedVersions, key,
+                        () -> schemaRegistryClient.addSchemaVersion(schemaBranchName, schemaMetadata, schemaVersion, disableCanonicalCheck));
+    }
+
+    @Override
+    public void close() {
+        if (ownedExecutorService != null) {
+            ownedExecutorService.shutdown();
+        }
+    }
+
+    /**
+     * @return a future of the request with the given key which is in flight, or of a new request with the given call
+     */
+    private <K, V> CompletableFuture<V> coalesce(ConcurrentMap<K, CompletableFuture<V>> inFlight, K key, Callable<V> call) {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, future);
+        if (existing == null) {
+            future.whenComplete((result, error) -> inFlight.remove(key, future));
+            try {
+                executor.execute(() -> {
+                    try {
+                        future.complete(call.call());
+                    } catch (Throwable e) {
+                        future.completeExceptionally(e);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                future.completeExceptionally(e);
+            }
+            existing = future;
+        }
+
+        // callers get their own dependent future, so that completing or cancelling it does not affect the other callers
+        return existing.thenApply(Function.identity());
+    }
+}
@@ -110,10 +110,14 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -139,6 +143,7 @@ import static com.hortonworks.registries.schemaregistry.client.SchemaRegistryCli
  * - {@link Configuration#SCHEMA_VERSION_CACHE_EXPIRY_INTERVAL_SECS}.
  * - {@link Configuration#SCHEMA_TEXT_CACHE_SIZE}.
  * - {@link Configuration#SCHEMA_TEXT_CACHE_EXPIRY_INTERVAL_SECS}.
+ * - {@link Configuration#SCHEMA_VERSION_SNAPSHOT_PATH}.
  *
  * and many other properties like {@link ClientProperties}
  * </pre>
@@ -182,6 +187,10 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
     private final Configuration configuration;
     private final ClassLoaderCache classLoaderCache;
     private final SchemaVersionInfoCache schemaVersionInfoCache;
+    private final SchemaVersionSnapshot schemaVersionSnapshot;
+    private final ExecutorService snapshotRevalidator;
+    private final Set<Long> revalidatedVersionIds = ConcurrentHashMap.newKeySet();
+    private final Set<String> revalidatedSchemaNames = ConcurrentHashMap.newKeySet();
     private final SchemaMetadataCache schemaMetadataCache;
     private final Cache<SchemaDigestEntry, SchemaIdVersion> schemaTextCache;
 
@@ -238,6 +247,9 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
 
         classLoaderCache = new ClassLoaderCache(this);
 
+        schemaVersionSnapshot = createSchemaVersionSnapshot();
+        snapshotRevalidator = schemaVersionSnapshot != null ? createSnapshotRevalidator() : null;
+
         schemaVersionInfoCache = createSchemaVersionInfoCache();
 
         schemaMetadataCache = createSchemaMetadataCache();
@@ -318,14 +330,23 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
     private SchemaVersionInfoCache createSchemaVersionInfoCache() {
         return new SchemaVersionInfoCache(
                 new SchemaVersionRetriever() {
+                    // a schema name and version, like a schema metadata id and version, may refer to another
+                    // version later, when the schema or the version is deleted and created again, so only
+                    // lookups by version id, which is never reused, are served from the snapshot.
                     @Override
                     public SchemaVersionInfo retrieveSchemaVersion(SchemaVersionKey key) throws SchemaNotFoundException {
-                        return doGetSchemaVersionInfo(key);
+                        SchemaVersionInfo schemaVersionInfo = doGetSchemaVersionInfo(key);
+                        return schemaVersionSnapshot != null ? addToSnapshot(schemaVersionInfo) : schemaVersionInfo;
                     }
 
                     @Override
                     public SchemaVersionInfo retrieveSchemaVersion(SchemaIdVersion key) throws SchemaNotFoundException {
-                        return doGetSchemaVersionInfo(key);
+                        if (schemaVersionSnapshot == null) {
+                            return doGetSchemaVersionInfo(key);
+                        }
+                        SchemaVersionInfo schemaVersionInfo =
+                                key.getSchemaVersionId() != null ? schemaVersionSnapshot.get(key.getSchemaVersionId()) : null;
+                        return schemaVersionInfo != null ? revalidate(schemaVersionInfo) : addToSnapshot(doGetSchemaVersionInfo(key));
                     }
                 },
                 ((Number) configuration.getValue(Configuration.SCHEMA_VERSION_CACHE_SIZE.name())).intValue(),
@@ -333,6 +354,119 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
         );
     }
 
+    private SchemaVersionSnapshot createSchemaVersionSnapshot() {
+        String snapshotPath = configuration.getValue(Configuration.SCHEMA_VERSION_SNAPSHOT_PATH.name());
+        if (snapshotPath == null) {
+            return null;
+        }
+
+        File snapshotDir = new File(snapshotPath);
+        if (!snapshotDir.exists() && !snapshotDir.mkdirs()) {
+            LOG.error("Could not create given schema version snapshot dir: [{}]", snapshotDir.getAbsolutePath());
+            return null;
+        }
+
+        // schema version ids are only unique within a registry, so each registry gets its own file.
+        String registryUrl = configuration.getValue(SCHEMA_REGISTRY_URL.name());
+        File snapshotFile = new File(snapshotDir, "schema-versions-" + Integer.toHexString(registryUrl.hashCode()) + ".snapshot");
+        try {
+            return new SchemaVersionSnapshot(snapshotFile);
+        } catch (IOException e) {
+            LOG.error("Could not open schema version snapshot [{}], schema versions are only fetched from the registry",
+                      snapshotFile.getAbsolutePath(), e);
+            return null;
+        }
+    }
+
+    private static ExecutorService createSnapshotRevalidator() {
+        return Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "schema-registry-client-snapshot-revalidator");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private SchemaVersionInfo addToSnapshot(SchemaVersionInfo schemaVersionInfo) {
+        if (schemaVersionInfo != null) {
+            schemaVersionSnapshot.put(schemaVersionInfo);
+            revalidatedVersionIds.add(schemaVersionInfo.getId());
+        }
+        return schemaVersionInfo;
+    }
+
+    /**
+     * Schema text of a version never changes, but its state does and the version can be deleted. So a version loaded
+     * from the snapshot is served right away and fetched once in the background, which updates or removes it when it
+     * has changed in the registry.
+     */
+    private SchemaVersionInfo revalidate(SchemaVersionInfo schemaVersionInfo) {
+        Long versionId = schemaVersionInfo.getId();
+        if (revalidatedVersionIds.add(versionId)) {
+            try {
+                snapshotRevalidator.execute(() -> {
+                    try {
+                        SchemaVersionInfo latest = doGetSchemaIdVersionInfo(versionId);
+                        if (!Objects.equals(latest.getStateId(), schemaVersionInfo.getStateId())) {
+                            schemaVersionSnapshot.put(latest);
+                            schemaVersionInfoCache.invalidateSchema(SchemaVersionInfoCache.Key.of(new SchemaIdVersion(versionId)));
+                        }
+                    } catch (NotFoundException e) {
+                        LOG.info("Schema version [{}] does not exist anymore, it is removed from the snapshot", versionId);
+                        schemaVersionSnapshot.remove(versionId);
+                        schemaVersionInfoCache.invalidateSchema(SchemaVersionInfoCache.Key.of(new SchemaIdVersion(versionId)));
+                    } catch (Exception e) {
+                        LOG.warn("Failed to revalidate schema version [{}] of the snapshot, it is retried on its next lookup", versionId, e);
+                        revalidatedVersionIds.remove(versionId);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // client is closed
+                revalidatedVersionIds.remove(versionId);
+            }
+        }
+        return schemaVersionInfo;
+    }
+
+    private SchemaMetadataInfo addToSnapshot(SchemaMetadataInfo schemaMetadataInfo) {
+        if (schemaMetadataInfo != null) {
+            schemaVersionSnapshot.putSchemaMetadata(schemaMetadataInfo);
+            revalidatedSchemaNames.add(schemaMetadataInfo.getSchemaMetadata().getName());
+        }
+        return schemaMetadataInfo;
+    }
+
+    /**
+     * Schema metadata can be updated, and a schema can be deleted and created again with the same name. So, like a
+     * version, metadata loaded from the snapshot is served right away and fetched once in the background.
+     */
+    private SchemaMetadataInfo revalidate(SchemaMetadataInfo schemaMetadataInfo) {
+        String schemaName = schemaMetadataInfo.getSchemaMetadata().getName();
+        if (revalidatedSchemaNames.add(schemaName)) {
+            try {
+                snapshotRevalidator.execute(() -> {
+                    try {
+                        SchemaMetadataInfo latest = doGetSchemaMetadataInfo(schemaName);
+                        if (!latest.equals(schemaMetadataInfo)) {
+                            schemaVersionSnapshot.putSchemaMetadata(latest);
+                            schemaMetadataCache.invalidateSchemaMetadata(SchemaMetadataCache.Key.of(schemaName));
+                        }
+                    } catch (NotFoundException e) {
+                        LOG.info("Schema [{}] does not exist anymore, it is removed from the snapshot", schemaName);
+                        schemaVersionSnapshot.removeSchemaMetadata(schemaName);
+                        schemaMetadataCache.invalidateSchemaMetadata(SchemaMetadataCache.Key.of(schemaName));
+                    } catch (Exception e) {
+                        LOG.warn("Failed to revalidate schema [{}] of the snapshot, it is retried on its next lookup", schemaName, e);
+                        revalidatedSchemaNames.remove(schemaName);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // client is closed
+                revalidatedSchemaNames.remove(schemaName);
+            }
+        }
+        return schemaMetadataInfo;
+    }
+
     @SuppressWarnings("unchecked")
     private BackoffPolicy createRetryPolicy(String retryPolicyClass, Map<String, Object> retryPolicyProps) {
         ClassLoader classLoader = this.getClass().getClassLoader();
@@ -481,9 +615,11 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
             @Override
             public SchemaMetadataInfo fetch(String name) throws SchemaNotFoundException {
                 try {
-                    return runRetryableBlock((SchemaRegistryTargets targets) -> {
-                        return getEntity(targets.schemasTarget.path(name), SchemaMetadataInfo.class);
-                    });
+                    if (schemaVersionSnapshot == null) {
+                        return doGetSchemaMetadataInfo(name);
+                    }
+                    SchemaMetadataInfo schemaMetadataInfo = schemaVersionSnapshot.getSchemaMetadata(name);
+                    return schemaMetadataInfo != null ? revalidate(schemaMetadataInfo) : addToSnapshot(doGetSchemaMetadataInfo(name));
                 } catch (NotFoundException e) {
                     throw new SchemaNotFoundException(e);
                 }
@@ -502,6 +638,12 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
         };
     }
 
+    private SchemaMetadataInfo doGetSchemaMetadataInfo(String schemaName) {
+        return runRetryableBlock((SchemaRegistryTargets targets) -> {
+            return getEntity(targets.schemasTarget.path(schemaName), SchemaMetadataInfo.class);
+        });
+    }
+
     protected ClientConfig createClientConfig(Map<String, ?> conf) {
         ClientConfig config = new ClientConfig();
         config.property(ClientProperties.CONNECT_TIMEOUT, DEFAULT_CONNECTION_TIMEOUT);
@@ -549,6 +691,9 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
         });
         if (schemaMetadataInfo != null) {
             schemaMetadataCache.put(SchemaMetadataCache.Key.of(schemaName), schemaMetadataInfo);
+            if (schemaVersionSnapshot != null) {
+                schemaVersionSnapshot.putSchemaMetadata(schemaMetadataInfo);
+            }
         }
         return schemaMetadataInfo;
     }
@@ -583,10 +728,16 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
     public void deleteSchema(String schemaName) throws SchemaNotFoundException {
         Collection<SchemaVersionInfo> schemaVersionInfos = getAllVersions(schemaName);
         schemaMetadataCache.invalidateSchemaMetadata(SchemaMetadataCache.Key.of(schemaName));
+        if (schemaVersionSnapshot != null) {
+            schemaVersionSnapshot.removeSchemaMetadata(schemaName);
+        }
         if (schemaVersionInfos != null) {
             for (SchemaVersionInfo schemaVersionInfo: schemaVersionInfos) {
                 SchemaIdVersion schemaIdVersion = new SchemaIdVersion(schemaVersionInfo.getId());
                 schemaVersionInfoCache.invalidateSchema(SchemaVersionInfoCache.Key.of(schemaIdVersion));
+                if (schemaVersionSnapshot != null) {
+                    schemaVersionSnapshot.remove(schemaVersionInfo.getId());
+                }
             }
         }
 
@@ -732,6 +883,13 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
 
     @Override
     public void deleteSchemaVersion(SchemaVersionKey schemaVersionKey) throws SchemaNotFoundException, SchemaLifecycleException {
+        if (schemaVersionSnapshot != null) {
+            // a version which is not cached is removed from the snapshot when it is revalidated
+            SchemaVersionInfo schemaVersionInfo = schemaVersionInfoCache.getSchemaIfPresent(new SchemaVersionInfoCache.Key(schemaVersionKey));
+            if (schemaVersionInfo != null) {
+                schemaVersionSnapshot.remove(schemaVersionInfo.getId());
+            }
+        }
         schemaVersionInfoCache.invalidateSchema(new SchemaVersionInfoCache.Key(schemaVersionKey));
 
         Response response = runRetryableBlock((SchemaRegistryTargets targets) -> {
@@ -1090,6 +1248,9 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
 
         // invalidate this entry from cache.
         schemaVersionInfoCache.invalidateSchema(SchemaVersionInfoCache.Key.of(new SchemaIdVersion(schemaVersionId)));
+        if (schemaVersionSnapshot != null) {
+            schemaVersionSnapshot.remove(schemaVersionId);
+        }
 
         return result;
     }
@@ -1276,6 +1437,14 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
     @Override
     public void close() {
         client.close();
+        if (schemaVersionSnapshot != null) {
+            snapshotRevalidator.shutdownNow();
+            try {
+                schemaVersionSnapshot.close();
+            } catch (IOException e) {
+                LOG.warn("Failed to close schema version snapshot", e);
+            }
+        }
     }
 
     public SchemaRegistryVersion clientVersion() {
@@ -1590,6 +1759,19 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
                         ConfigEntry.StringConverter.get(),
                         ConfigEntry.NonEmptyStringValidator.get());
 
+        /**
+         * Local directory path in which the schema versions and the schema metadata fetched by this client are kept, so
+         * that they are not fetched again after a restart. For ex: /tmp/schema-registry/snapshots. They are only kept in
+         * memory when it is not set.
+         */
+        public static final ConfigEntry<String> SCHEMA_VERSION_SNAPSHOT_PATH =
+                ConfigEntry.optional("schema.registry.client.schema.version.snapshot.path",
+                                     String.class,
+                                     "Local directory path in which fetched schema versions and schema metadata are kept across restarts.",
+                                     null,
+                                     ConfigEntry.StringConverter.get(),
+                                     ConfigEntry.NonEmptyStringValidator.get());
+
         // connection properties
         /**
          * Default connection timeout on connections created while connecting to schema registry.
@@ -0,0 +1,428 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.schemaregistry.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hortonworks.registries.schemaregistry.SchemaMetadataInfo;
+import com.hortonworks.registries.schemaregistry.SchemaVersionInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Local file of the schema versions and schema metadata fetched by a client, which lets a restarted client serve the
+ * schema versions it has already seen, and the metadata of their schemas, without a request to the registry.
+ * <p>
+ * The file is append only. It starts with a header and each record holds the JSON of a {@link SchemaVersionInfo} with
+ * its version id or of a {@link SchemaMetadataInfo} with its schema name, or only the key for a removed one. A later
+ * record of a key supersedes the earlier ones. The file is memory mapped and scanned once when the snapshot is opened,
+ * and a truncated record at the end, e.g. from a crashed process, is dropped. Only the offsets of the current records
+ * are kept in memory, a record is read from the file when it is looked up.
+ * <p>
+ * When the superseded and removed records outnumber the current ones on load, the current records are copied into a
+ * new file which then replaces the snapshot file.
+ * <p>
+ * Only the client holding the lock of the file appends to it, any other one, e.g. a second client of the same registry
+ * in the same process, only reads it and keeps the records it adds in memory.
+ * <p>
+ * Versions are only looked up by their version id, which is never reused by the registry. A schema name or schema
+ * metadata id with a version may refer to another version after the schema or the version is deleted and created
+ * again, so they are not kept here. Schema metadata is looked up by schema name, so the client revalidates the
+ * metadata it serves from here.
+ */
+class SchemaVersionSnapshot implements Closeable {
+    private static final Logger LOG = LoggerFactory.getLogger(SchemaVersionSnapshot.class);
+
+    private static final int MAGIC = 0x53525653;
+    private static final int FORMAT_VERSION = 2;
+    private static final int HEADER_SIZE = 8;
+    // payload length, record type and key length
+    private static final int RECORD_HEADER_SIZE = 7;
+    private static final int REMOVED = -1;
+
+    private static final byte SCHEMA_VERSION = 0;
+    private static final byte SCHEMA_METADATA = 1;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final File file;
+    private FileChannel channel;
+    private FileLock lock;
+    private long end;
+
+    // offsets of the current records in the file by key
+    private Map<RecordKey, Long> offsetsByKey = new HashMap<>();
+    // records added to a snapshot which is opened as read only
+    private final Map<RecordKey, Object> unsavedValuesByKey = new HashMap<>();
+
+    SchemaVersionSnapshot(File file) throws IOException {
+        this.file = file;
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        lock = tryLock(channel);
+        if (lock == null) {
+            LOG.info("Schema version snapshot [{}] is used by another client, it is opened as read only", file);
+        }
+
+        try {
+            load();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static FileLock tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            return null;
+        }
+    }
+
+    private void load() throws IOException {
+        long size = channel.size();
+        if (size < HEADER_SIZE) {
+            end = 0;
+            if (lock != null) {
+                writeHeader();
+            }
+            return;
+        }
+
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+            LOG.warn("Schema version snapshot [{}] has an unknown format, it is discarded", file);
+            end = 0;
+            if (lock != null) {
+                writeHeader();
+            }
+            return;
+        }
+
+        int records = 0;
+        while (buffer.remaining() >= RECORD_HEADER_SIZE) {
+            int start = buffer.position();
+            int length = buffer.getInt();
+            byte type = buffer.get();
+            int keyLength = buffer.getShort();
+            int payloadLength = length == REMOVED ? 0 : length;
+            if (payloadLength < 0 || keyLength < 0 || keyLength + payloadLength > buffer.remaining()) {
+                buffer.position(start);
+                break;
+            }
+            byte[] key = new byte[keyLength];
+            buffer.get(key);
+            buffer.position(buffer.position() + payloadLength);
+
+            RecordKey recordKey = new RecordKey(type, new String(key, StandardCharsets.UTF_8));
+            if (length == REMOVED) {
+                offsetsByKey.remove(recordKey);
+            } else {
+                offsetsByKey.put(recordKey, (long) start);
+            }
+            records++;
+        }
+
+        end = buffer.position();
+        if (end < size && lock != null) {
+            channel.truncate(end);
+        }
+        LOG.info("Loaded {} schema versions and schema metadata from {} records of schema version snapshot [{}]",
+                 offsetsByKey.size(), records, file);
+
+        if (lock != null && records - offsetsByKey.size() > offsetsByKey.size()) {
+            compact();
+        }
+    }
+
+    private void writeHeader() throws IOException {
+        channel.truncate(0);
+        end = write(channel, header(), 0);
+    }
+
+    private static ByteBuffer header() {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(FORMAT_VERSION).flip();
+        return header;
+    }
+
+    /**
+     * Copies the current records into a new file, which then replaces the snapshot file. The new file is locked before
+     * it replaces the previous one, so no other client can start to write it. The previous file is kept when the new
+     * one cannot be written or moved.
+     */
+    private void compact() throws IOException {
+        File compactedFile = new File(file.getPath() + ".compacting");
+        FileChannel compactedChannel = FileChannel.open(compactedFile.toPath(),
+                                                        StandardOpenOption.CREATE,
+                                                        StandardOpenOption.TRUNCATE_EXISTING,
+                                                        StandardOpenOption.READ,
+                                                        StandardOpenOption.WRITE);
+        FileLock compactedLock = null;
+        Map<RecordKey, Long> compactedOffsetsByKey = new HashMap<>();
+        long compactedEnd;
+        try {
+            compactedLock = tryLock(compactedChannel);
+            if (compactedLock == null) {
+                throw new IOException("Could not lock " + compactedFile);
+            }
+
+            // records are copied in the order of the file
+            List<Map.Entry<RecordKey, Long>> records = new ArrayList<>(offsetsByKey.entrySet());
+            records.sort(Map.Entry.comparingByValue());
+            compactedEnd = write(compactedChannel, header(), 0);
+            for (Map.Entry<RecordKey, Long> record : records) {
+                long offset = record.getValue();
+                long length = recordLength(readRecordHeader(offset));
+                compactedChannel.position(compactedEnd);
+                for (long copied = 0; copied < length; ) {
+                    copied += channel.transferTo(offset + copied, length - copied, compactedChannel);
+                }
+                compactedOffsetsByKey.put(record.getKey(), compactedEnd);
+                compactedEnd += length;
+            }
+            compactedChannel.force(true);
+            Files.move(compactedFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            LOG.warn("Failed to compact schema version snapshot [{}], it is kept as it is", file, e);
+            if (compactedLock != null) {
+                compactedLock.release();
+            }
+            compactedChannel.close();
+            Files.deleteIfExists(compactedFile.toPath());
+            return;
+        }
+
+        LOG.info("Compacted schema version snapshot [{}] from {} to {} bytes", file, end, compactedEnd);
+        FileChannel previousChannel = channel;
+        FileLock previousLock = lock;
+        channel = compactedChannel;
+        lock = compactedLock;
+        offsetsByKey = compactedOffsetsByKey;
+        end = compactedEnd;
+        try {
+            previousLock.release();
+            previousChannel.close();
+        } catch (IOException e) {
+            LOG.warn("Failed to close the replaced file of schema version snapshot [{}]", file, e);
+        }
+    }
+
+    synchronized SchemaVersionInfo get(Long versionId) {
+        return get(RecordKey.ofSchemaVersion(versionId), SchemaVersionInfo.class);
+    }
+
+    /**
+     * Adds the given schema version, unless the same one is already in the snapshot.
+     */
+    synchronized void put(SchemaVersionInfo schemaVersionInfo) {
+        put(RecordKey.ofSchemaVersion(schemaVersionInfo.getId()), schemaVersionInfo);
+    }
+
+    synchronized void remove(Long versionId) {
+        remove(RecordKey.ofSchemaVersion(versionId));
+    }
+
+    synchronized SchemaMetadataInfo getSchemaMetadata(String schemaName) {
+        return get(RecordKey.ofSchemaMetadata(schemaName), SchemaMetadataInfo.class);
+    }
+
+    /**
+     * Adds the given schema metadata, unless the same one is already in the snapshot.
+     */
+    synchronized void putSchemaMetadata(SchemaMetadataInfo schemaMetadataInfo) {
+        put(RecordKey.ofSchemaMetadata(schemaMetadataInfo.getSchemaMetadata().getName()), schemaMetadataInfo);
+    }
+
+    synchronized void removeSchemaMetadata(String schemaName) {
+        remove(RecordKey.ofSchemaMetadata(schemaName));
+    }
+
+    /**
+     * @return the number of schema versions and schema metadata in the snapshot
+     */
+    synchronized int size() {
+        int size = offsetsByKey.size();
+        for (RecordKey key : unsavedValuesByKey.keySet()) {
+            if (!offsetsByKey.containsKey(key)) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (lock != null) {
+            lock.release();
+        }
+        channel.close();
+    }
+
+    private <T> T get(RecordKey key, Class<T> valueClass) {
+        Object value = unsavedValuesByKey.get(key);
+        if (value != null) {
+            return valueClass.cast(value);
+        }
+        Long offset = offsetsByKey.get(key);
+        if (offset == null) {
+            return null;
+        }
+        try {
+            return read(offset, valueClass);
+        } catch (IOException e) {
+            LOG.warn("Failed to read [{}] from snapshot [{}], it is fetched again", key, file, e);
+            offsetsByKey.remove(key);
+            return null;
+        }
+    }
+
+    private void put(RecordKey key, Object value) {
+        Object existing = get(key, value.getClass());
+        if (value.equals(existing)) {
+            return;
+        }
+        if (lock == null) {
+            unsavedValuesByKey.put(key, value);
+            return;
+        }
+        try {
+            byte[] payload = objectMapper.writeValueAsBytes(value);
+            offsetsByKey.put(key, append(payload.length, key, payload));
+        } catch (IOException e) {
+            LOG.warn("Failed to add [{}] to snapshot [{}]", key, file, e);
+            offsetsByKey.remove(key);
+        }
+    }
+
+    private void remove(RecordKey key) {
+        unsavedValuesByKey.remove(key);
+        if (offsetsByKey.remove(key) != null && lock != null) {
+            try {
+                append(REMOVED, key, new byte[0]);
+            } catch (IOException e) {
+                LOG.warn("Failed to remove [{}] from snapshot [{}]", key, file, e);
+            }
+        }
+    }
+
+    private <T> T read(long offset, Class<T> valueClass) throws IOException {
+        ByteBuffer recordHeader = readRecordHeader(offset);
+        int length = recordHeader.getInt(0);
+        int keyLength = recordHeader.getShort(5);
+        ByteBuffer payload = ByteBuffer.allocate(length);
+        read(payload, offset + RECORD_HEADER_SIZE + keyLength);
+        return objectMapper.readValue(payload.array(), valueClass);
+    }
+
+    private ByteBuffer readRecordHeader(long offset) throws IOException {
+        ByteBuffer recordHeader = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+        read(recordHeader, offset);
+        recordHeader.flip();
+        return recordHeader;
+    }
+
+    private static long recordLength(ByteBuffer recordHeader) {
+        int length = recordHeader.getInt(0);
+        return RECORD_HEADER_SIZE + recordHeader.getShort(5) + (length == REMOVED ? 0 : length);
+    }
+
+    private void read(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException(String.format("Unexpected end of schema version snapshot [%s] at [%d]", file, position));
+            }
+        }
+    }
+
+    /**
+     * @return the offset of the appended record
+     */
+    private long append(int length, RecordKey key, byte[] payload) throws IOException {
+        byte[] keyBytes = key.key.getBytes(StandardCharsets.UTF_8);
+        if (keyBytes.length > Short.MAX_VALUE) {
+            throw new IOException("Key is too long: " + key);
+        }
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + keyBytes.length + payload.length);
+        record.putInt(length).put(key.type).putShort((short) keyBytes.length).put(keyBytes).put(payload).flip();
+        long offset = end;
+        end = write(channel, record, end);
+        return offset;
+    }
+
+    /**
+     * @return the position after the written buffer
+     */
+    private static long write(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        return position;
+    }
+
+    private static final class RecordKey {
+        private final byte type;
+        private final String key;
+
+        private RecordKey(byte type, String key) {
+            this.type = type;
+            this.key = key;
+        }
+
+        static RecordKey ofSchemaVersion(Long versionId) {
+            return new RecordKey(SCHEMA_VERSION, String.valueOf(versionId));
+        }
+
+        static RecordKey ofSchemaMetadata(String schemaName) {
+            return new RecordKey(SCHEMA_METADATA, schemaName);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            RecordKey recordKey = (RecordKey) o;
+            return type == recordKey.type && key.equals(recordKey.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, key);
+        }
+
+        @Override
+        public String toString() {
+            return (type == SCHEMA_VERSION ? "schema version " : "schema metadata ") + key;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.schemaregistry.client;
+
+import com.hortonworks.registries.schemaregistry.SchemaIdVersion;
+import com.hortonworks.registries.schemaregistry.SchemaVersionInfo;
+import com.hortonworks.registries.schemaregistry.errors.SchemaNotFoundException;
+import mockit.Expectations;
+import mockit.Mocked;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+public class AsyncSchemaRegistryClientTest {
+
+    @Mocked
+    private ISchemaRegistryClient schemaRegistryClient;
+
+    // requests are run only when the test runs them, so that they are still in flight until then
+    private final List<Runnable> requests = new ArrayList<>();
+
+    @Test
+    public void testRequestsInFlightAreCoalesced() throws Exception {
+        SchemaIdVersion first = new SchemaIdVersion(1L);
+        SchemaIdVersion second = new SchemaIdVersion(2L);
+        SchemaVersionInfo firstVersion = new SchemaVersionInfo(1L, "foo", 1, "schema-text-1", 0L, "desc");
+        SchemaVersionInfo secondVersion = new SchemaVersionInfo(2L, "foo", 2, "schema-text-2", 0L, "desc");
+
+        new Expectations() {{
+            schemaRegistryClient.getSchemaVersionInfo(first);
+            result = firstVersion;
+            times = 2;
+
+            schemaRegistryClient.getSchemaVersionInfo(second);
+            result = secondVersion;
+            times = 1;
+        }};
+
+        AsyncSchemaRegistryClient asyncClient = new AsyncSchemaRegistryClient(schemaRegistryClient, requests::add);
+        CompletableFuture<SchemaVersionInfo> future1 = asyncClient.getSchemaVersionInfo(first);
+        CompletableFuture<SchemaVersionInfo> future2 = asyncClient.getSchemaVersionInfo(first);
+        CompletableFuture<SchemaVersionInfo> future3 = asyncClient.getSchemaVersionInfo(second);
+        Assert.assertEquals(2, requests.size());
+
+        // cancelling the future of a caller does not affect the others
+        future2.cancel(false);
+        runRequests();
+        Assert.assertEquals(firstVersion, future1.get());
+        Assert.assertEquals(secondVersion, future3.get());
+
+        // completed requests are not shared anymore
+        CompletableFuture<SchemaVersionInfo> future4 = asyncClient.getSchemaVersionInfo(first);
+        Assert.assertEquals(1, requests.size());
+        runRequests();
+        Assert.assertEquals(firstVersion, future4.get());
+    }
+
+    @Test
+    public void testFailures() throws Exception {
+        SchemaIdVersion schemaIdVersion = new SchemaIdVersion(1L);
+        new Expectations() {{
+            schemaRegistryClient.getSchemaVersionInfo(schemaIdVersion);
+            result = new SchemaNotFoundException("not found");
+        }};
+
+        AsyncSchemaRegistryClient asyncClient = new AsyncSchemaRegistryClient(schemaRegistryClient, requests::add);
+        CompletableFuture<SchemaVersionInfo> future = asyncClient.getSchemaVersionInfo(schemaIdVersion);
+        runRequests();
+        try {
+            future.get();
+            Assert.fail("Getting a schema version which does not exist should fail");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof SchemaNotFoundException);
+        }
+    }
+
+    private void runRequests() {
+        List<Runnable> toRun = new ArrayList<>(requests);
+        requests.clear();
+        toRun.forEach(Runnable::run);
+    }
+}
@@ -15,17 +15,40 @@
  **/
 package com.hortonworks.registries.schemaregistry.client;
 
+import com.hortonworks.registries.auth.Login;
 import com.hortonworks.registries.schemaregistry.SchemaBranch;
+import com.hortonworks.registries.schemaregistry.SchemaCompatibility;
 import com.hortonworks.registries.schemaregistry.SchemaIdVersion;
 import com.hortonworks.registries.schemaregistry.SchemaMetadata;
+import com.hortonworks.registries.schemaregistry.SchemaMetadataInfo;
 import com.hortonworks.registries.schemaregistry.SchemaVersion;
+import com.hortonworks.registries.schemaregistry.SchemaVersionInfo;
+import com.hortonworks.registries.schemaregistry.state.SchemaVersionLifecycleStates;
 import mockit.Expectations;
+import mockit.Mock;
+import mockit.MockUp;
 import mockit.Tested;
+import org.apache.commons.io.FileUtils;
+import org.junit.Assert;
 import org.junit.Test;
 
+import javax.ws.rs.NotFoundException;
+import javax.security.auth.login.LoginContext;
+import javax.ws.rs.core.Response;
+import java.io.File;
+import java.nio.file.Files;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 
+import static mockit.Deencapsulation.getField;
 import static mockit.Deencapsulation.invoke;
+import static mockit.Deencapsulation.setField;
 
 /**
  *
@@ -58,4 +81,251 @@ public class SchemaRegistryClientTest {
         schemaRegistryClient.addSchemaVersion(schemaMetaData, schemaVersion);
         schemaRegistryClient.addSchemaVersion(schemaName, schemaVersion);
     }
+
+    @Test
+    public void testSnapshotIsServedWithoutRequestAfterRestart() throws Exception {
+        SnapshotRegistry registry = new SnapshotRegistry();
+        SchemaVersionInfo schemaVersionInfo = registry.addSchemaVersion(1L, SchemaVersionLifecycleStates.ENABLED.getId());
+        SchemaMetadataInfo schemaMetadataInfo = registry.addSchema("foo", SchemaCompatibility.BACKWARD);
+        File snapshotDir = Files.createTempDirectory("schema-registry-client-snapshot").toFile();
+        try {
+            SchemaRegistryClient client = createClient(snapshotDir);
+            try {
+                Assert.assertEquals(schemaVersionInfo, client.getSchemaVersionInfo(new SchemaIdVersion(1L)));
+                Assert.assertEquals(schemaMetadataInfo, client.getSchemaMetadataInfo("foo"));
+                Assert.assertEquals(2, registry.requestsFrom(Thread.currentThread()));
+            } finally {
+                client.close();
+            }
+
+            client = createClient(snapshotDir);
+            try {
+                registry.clearRequests();
+                Assert.assertEquals(schemaVersionInfo, client.getSchemaVersionInfo(new SchemaIdVersion(1L)));
+                Assert.assertEquals(schemaMetadataInfo, client.getSchemaMetadataInfo("foo"));
+                Assert.assertEquals(0, registry.requestsFrom(Thread.currentThread()));
+
+                // each of them is revalidated once in the background
+                awaitRevalidation(client);
+                Assert.assertEquals(schemaVersionInfo, client.getSchemaVersionInfo(new SchemaIdVersion(1L)));
+                Assert.assertEquals(schemaMetadataInfo, client.getSchemaMetadataInfo("foo"));
+                Assert.assertEquals(0, registry.requestsFrom(Thread.currentThread()));
+                Assert.assertEquals(2, registry.requests.size());
+            } finally {
+                client.close();
+            }
+        } finally {
+            FileUtils.deleteQuietly(snapshotDir);
+        }
+    }
+
+    @Test
+    public void testChangedSchemaVersionAndMetadataAreUpdatedInSnapshot() throws Exception {
+        SnapshotRegistry registry = new SnapshotRegistry();
+        registry.addSchemaVersion(1L, SchemaVersionLifecycleStates.ENABLED.getId());
+        registry.addSchema("foo", SchemaCompatibility.BACKWARD);
+        File snapshotDir = Files.createTempDirectory("schema-registry-client-snapshot").toFile();
+        try {
+            SchemaRegistryClient client = createClient(snapshotDir);
+            try {
+                client.getSchemaVersionInfo(new SchemaIdVersion(1L));
+                client.getSchemaMetadataInfo("foo");
+            } finally {
+                client.close();
+            }
+
+            SchemaVersionInfo disabled = registry.addSchemaVersion(1L, SchemaVersionLifecycleStates.DISABLED.getId());
+            SchemaMetadataInfo updated = registry.addSchema("foo", SchemaCompatibility.NONE);
+            client = createClient(snapshotDir);
+            try {
+                // the snapshot is served until it is revalidated, which invalidates the cached entries
+                Assert.assertEquals(SchemaVersionLifecycleStates.ENABLED.getId(),
+                                    client.getSchemaVersionInfo(new SchemaIdVersion(1L)).getStateId());
+                Assert.assertEquals(SchemaCompatibility.BACKWARD,
+                                    client.getSchemaMetadataInfo("foo").getSchemaMetadata().getCompatibility());
+                awaitRevalidation(client);
+
+                registry.clearRequests();
+                Assert.assertEquals(disabled, client.getSchemaVersionInfo(new SchemaIdVersion(1L)));
+                Assert.assertEquals(updated, client.getSchemaMetadataInfo("foo"));
+                Assert.assertTrue(registry.requests.isEmpty());
+
+                SchemaVersionSnapshot snapshot = getField(client, "schemaVersionSnapshot");
+                Assert.assertEquals(disabled, snapshot.get(1L));
+                Assert.assertEquals(updated, snapshot.getSchemaMetadata("foo"));
+            } finally {
+                client.close();
+            }
+        } finally {
+            FileUtils.deleteQuietly(snapshotDir);
+        }
+    }
+
+    @Test
+    public void testDeletedSchemaVersionAndSchemaAreRemovedFromSnapshotOnRevalidation() throws Exception {
+        SnapshotRegistry registry = new SnapshotRegistry();
+        registry.addSchemaVersion(1L, SchemaVersionLifecycleStates.ENABLED.getId());
+        registry.addSchema("foo", SchemaCompatibility.BACKWARD);
+        File snapshotDir = Files.createTempDirectory("schema-registry-client-snapshot").toFile();
+        try {
+            SchemaRegistryClient client = createClient(snapshotDir);
+            try {
+                client.getSchemaVersionInfo(new SchemaIdVersion(1L));
+                client.getSchemaMetadataInfo("foo");
+            } finally {
+                client.close();
+            }
+
+            registry.versions.remove(1L);
+            registry.schemas.remove("foo");
+            client = createClient(snapshotDir);
+            try {
+                client.getSchemaVersionInfo(new SchemaIdVersion(1L));
+                client.getSchemaMetadataInfo("foo");
+                awaitRevalidation(client);
+
+                SchemaVersionSnapshot snapshot = getField(client, "schemaVersionSnapshot");
+                Assert.assertNull(snapshot.get(1L));
+                Assert.assertNull(snapshot.getSchemaMetadata("foo"));
+                Assert.assertNull(client.getSchemaMetadataInfo("foo"));
+            } finally {
+                client.close();
+            }
+        } finally {
+            FileUtils.deleteQuietly(snapshotDir);
+        }
+    }
+
+    @Test
+    public void testDeletedSchemaVersionIsRemovedFromSnapshot() throws Exception {
+        SnapshotRegistry registry = new SnapshotRegistry();
+        registry.addSchemaVersion(1L, SchemaVersionLifecycleStates.ENABLED.getId());
+        File snapshotDir = Files.createTempDirectory("schema-registry-client-snapshot").toFile();
+        try {
+            SchemaRegistryClient client = createClient(snapshotDir);
+            try {
+                client.getSchemaVersionInfo(new SchemaIdVersion(1L));
+                setField(client, "login", new NoRequestLogin());
+                client.deleteSchemaVersion(1L);
+
+                SchemaVersionSnapshot snapshot = getField(client, "schemaVersionSnapshot");
+                Assert.assertNull(snapshot.get(1L));
+            } finally {
+                client.close();
+            }
+
+            client = createClient(snapshotDir);
+            try {
+                SchemaVersionSnapshot snapshot = getField(client, "schemaVersionSnapshot");
+                Assert.assertEquals(0, snapshot.size());
+            } finally {
+                client.close();
+            }
+        } finally {
+            FileUtils.deleteQuietly(snapshotDir);
+        }
+    }
+
+    private static SchemaRegistryClient createClient(File snapshotDir) {
+        Map<String, Object> conf = new HashMap<>();
+        conf.put(SchemaRegistryClient.Configuration.SCHEMA_REGISTRY_URL.name(), "some-url");
+        conf.put(SchemaRegistryClient.Configuration.SCHEMA_VERSION_SNAPSHOT_PATH.name(), snapshotDir.getAbsolutePath());
+        return new SchemaRegistryClient(conf);
+    }
+
+    private static void awaitRevalidation(SchemaRegistryClient client) throws Exception {
+        // the revalidator runs the tasks one after the other
+        ExecutorService snapshotRevalidator = getField(client, "snapshotRevalidator");
+        snapshotRevalidator.submit(() -> { }).get();
+    }
+
+    /**
+     * Schema versions and schemas of a registry, which the client fetches instead of sending requests. State
+     * transitions of schema versions are accepted.
+     */
+    private static class SnapshotRegistry {
+        private final Map<Long, SchemaVersionInfo> versions = new ConcurrentHashMap<>();
+        private final Map<String, SchemaMetadataInfo> schemas = new ConcurrentHashMap<>();
+        private final List<Thread> requests = Collections.synchronizedList(new ArrayList<>());
+
+        SnapshotRegistry() {
+            SnapshotRegistry registry = this;
+            new MockUp<SchemaRegistryClient>() {
+                @Mock
+                SchemaVersionInfo doGetSchemaIdVersionInfo(Long versionId) {
+                    registry.requests.add(Thread.currentThread());
+                    SchemaVersionInfo schemaVersionInfo = registry.versions.get(versionId);
+                    if (schemaVersionInfo == null) {
+                        throw new NotFoundException();
+                    }
+                    return schemaVersionInfo;
+                }
+
+                @Mock
+                SchemaMetadataInfo doGetSchemaMetadataInfo(String schemaName) {
+                    registry.requests.add(Thread.currentThread());
+                    SchemaMetadataInfo schemaMetadataInfo = registry.schemas.get(schemaName);
+                    if (schemaMetadataInfo == null) {
+                        throw new NotFoundException();
+                    }
+                    return schemaMetadataInfo;
+                }
+
+                @Mock
+                boolean handleSchemaLifeCycleResponse(Response response) {
+                    return true;
+                }
+            };
+        }
+
+        SchemaVersionInfo addSchemaVersion(Long id, Byte stateId) {
+            SchemaVersionInfo schemaVersionInfo = new SchemaVersionInfo(id, "foo", 1, 10L, "schema-text", 0L, "desc", stateId);
+            versions.put(id, schemaVersionInfo);
+            return schemaVersionInfo;
+        }
+
+        SchemaMetadataInfo addSchema(String name, SchemaCompatibility compatibility) {
+            SchemaMetadata schemaMetadata = new SchemaMetadata.Builder(name)
+                    .type("avro")
+                    .schemaGroup("kafka")
+                    .compatibility(compatibility)
+                    .build();
+            SchemaMetadataInfo schemaMetadataInfo = new SchemaMetadataInfo(schemaMetadata, 10L, 100L);
+            schemas.put(name, schemaMetadataInfo);
+            return schemaMetadataInfo;
+        }
+
+        long requestsFrom(Thread thread) {
+            synchronized (requests) {
+                return requests.stream().filter(thread::equals).count();
+            }
+        }
+
+        void clearRequests() {
+            requests.clear();
+        }
+    }
+
+    /**
+     * Login of a client whose requests are not sent.
+     */
+    private static class NoRequestLogin implements Login {
+        @Override
+        public void configure(Map<String, ?> configs, String loginContextName) {
+        }
+
+        @Override
+        public LoginContext login() {
+            return null;
+        }
+
+        @Override
+        public <T> T doAction(PrivilegedAction<T> action) {
+            return null;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
 }
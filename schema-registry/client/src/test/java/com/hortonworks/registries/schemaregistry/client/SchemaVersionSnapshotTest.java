@@ -0,0 +1,202 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.schemaregistry.client;
+
+import com.hortonworks.registries.schemaregistry.SchemaCompatibility;
+import com.hortonworks.registries.schemaregistry.SchemaMetadata;
+import com.hortonworks.registries.schemaregistry.SchemaMetadataInfo;
+import com.hortonworks.registries.schemaregistry.SchemaVersionInfo;
+import com.hortonworks.registries.schemaregistry.state.SchemaVersionLifecycleStates;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+
+public class SchemaVersionSnapshotTest {
+
+    private File dir;
+    private File file;
+
+    @Before
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("schema-version-snapshot").toFile();
+        file = new File(dir, "schema-versions.snapshot");
+    }
+
+    @After
+    public void tearDown() {
+        FileUtils.deleteQuietly(dir);
+    }
+
+    @Test
+    public void testSchemaVersionsAreKeptAcrossRestarts() throws Exception {
+        SchemaVersionInfo first = createSchemaVersionInfo(1L, 1, SchemaVersionLifecycleStates.ENABLED.getId());
+        SchemaVersionInfo second = createSchemaVersionInfo(2L, 2, SchemaVersionLifecycleStates.ENABLED.getId());
+        SchemaVersionInfo disabledSecond = createSchemaVersionInfo(2L, 2, SchemaVersionLifecycleStates.DISABLED.getId());
+        SchemaVersionInfo third = createSchemaVersionInfo(3L, 3, SchemaVersionLifecycleStates.ENABLED.getId());
+
+        try (SchemaVersionSnapshot snapshot = new SchemaVersionSnapshot(file)) {
+            snapshot.put(first);
+            snapshot.put(second);
+            snapshot.put(disabledSecond);
+            snapshot.put(third);
+            snapshot.remove(3L);
+        }
+
+        try (SchemaVersionSnapshot snapshot = new SchemaVersionSnapshot(file)) {
+            Assert.assertEquals(2, snapshot.size());
+            Assert.assertEquals(first, snapshot.get(1L));
+            Assert.assertEquals(disabledSecond, snapshot.get(2L));
+            Assert.assertNull(snapshot.get(3L));
+        }
+    }
+
+    @Test
+    public void testTruncatedRecordIsDropped() throws Exception {
+        SchemaVersionInfo first = createSchemaVersionInfo(1L, 1, SchemaVersionLifecycleStates.ENABLED.getId());
+        SchemaVersionInfo second = createSchemaVersionInfo(2L, 2, SchemaVersionLifecycleStates.ENABLED.getId());
+
+        long lengthWithFirst;
+        try (SchemaVersionSnapshot snapshot = new SchemaVersionSnapshot(file)) {
+            snapshot.put(first);
+            lengthWithFirst = file.length();
+            snapshot.put(second);
+        }
+
+        // a process which crashed while appending the second record
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            randomAccessFile.setLength(file.length() - 5);
+        }
+
+        try (SchemaVersionSnapshot snapshot = new SchemaVersionSnapshot(file)) {
+            Assert.assertEquals(1, snapshot.size());
+            Assert.assertEquals(first, snapshot.get(1L));
+            Assert.assertEquals(lengthWithFirst, file.length());
+
+            snapshot.put(second);
+        }
+
+        try (SchemaVersionSnapshot snapshot = new SchemaVersionSnapshot(file)) {
+            Assert.assertEquals(2, snapshot.size());
+            Assert.assertEquals(second, snapshot.get(2L));
+        }
+    }
+
+    @Test
+    public void testSnapshotInUseIsReadOnly() throws Exception {
+        SchemaVersionInfo first = createSchemaVersionInfo(1L, 1, SchemaVersionLifecycleStates.ENABLED.getId());
+        SchemaVersionInfo second = createSchemaVersionInfo(2L, 2, SchemaVersionLifecycleStates.ENABLED.getId());
+
+        try (SchemaVersionSnapshot snapshot = new SchemaVersionSnapshot(file)) {
+            snapshot.put(first);
+            try (SchemaVersionSnapshot readOnlySnapshot = new SchemaVersionSnapshot(file)) {
+                Assert.assertEquals(first, readOnlySnapshot.get(1L));
+                readOnlySnapshot.put(second);
+                Assert.assertEquals(second, readOnlySnapshot.get(2L));
+            }
+        }
+
+        try (SchemaVersionSnapshot snapshot = new SchemaVersionSnapshot(file)) {
+            Assert.assertEquals(1, snapshot.size());
+        }
+    }
+
+    @Test
+    public void testSnapshotIsCompactedOnLoad() throws Exception {
+        SchemaVersionInfo first = createSchemaVersionInfo(1L, 1, SchemaVersionLifecycleStates.ENABLED.getId());
+        SchemaVersionInfo second = createSchemaVersionInfo(2L, 2, SchemaVersionLifecycleStates.ENABLED.getId());
+        SchemaVersionInfo disabledSecond = createSchemaVersionInfo(2L, 2, SchemaVersionLifecycleStates.DISABLED.getId());
+        SchemaVersionInfo third = createSchemaVersionInfo(3L, 3, SchemaVersionLifecycleStates.ENABLED.getId());
+
+        long lengthWithFirst;
+        try (SchemaVersionSnapshot snapshot = new SchemaVersionSnapshot(file)) {
+            snapshot.put(first);
+            lengthWithFirst = file.length();
+            for (int i = 0; i < 5; i++) {
+                snapshot.put(second);
+                snapshot.put(disabledSecond);
+            }
+            snapshot.put(third);
+            snapshot.remove(3L);
+        }
+        long length = file.length();
+
+        try (SchemaVersionSnapshot snapshot = new SchemaVersionSnapshot(file)) {
+            Assert.assertTrue(file.length() < length);
+            Assert.assertFalse(new File(file.getPath() + ".compacting").exists());
+            Assert.assertEquals(2, snapshot.size());
+            Assert.assertEquals(first, snapshot.get(1L));
+            Assert.assertEquals(disabledSecond, snapshot.get(2L));
+            Assert.assertNull(snapshot.get(3L));
+
+            // the compacted snapshot is still appended to
+            snapshot.put(third);
+            Assert.assertEquals(third, snapshot.get(3L));
+        }
+
+        try (SchemaVersionSnapshot snapshot = new SchemaVersionSnapshot(file)) {
+            Assert.assertEquals(3, snapshot.size());
+            Assert.assertEquals(first, snapshot.get(1L));
+            Assert.assertEquals(disabledSecond, snapshot.get(2L));
+            Assert.assertEquals(third, snapshot.get(3L));
+        }
+        Assert.assertTrue(file.length() > lengthWithFirst);
+    }
+
+    @Test
+    public void testSchemaMetadataIsKeptAcrossRestarts() throws Exception {
+        SchemaVersionInfo first = createSchemaVersionInfo(1L, 1, SchemaVersionLifecycleStates.ENABLED.getId());
+        SchemaMetadataInfo foo = createSchemaMetadataInfo(10L, "foo", SchemaCompatibility.BACKWARD);
+        SchemaMetadataInfo fooWithNoCompatibility = createSchemaMetadataInfo(10L, "foo", SchemaCompatibility.NONE);
+        SchemaMetadataInfo bar = createSchemaMetadataInfo(11L, "bar", SchemaCompatibility.BACKWARD);
+        SchemaMetadataInfo baz = createSchemaMetadataInfo(12L, "baz", SchemaCompatibility.BACKWARD);
+
+        try (SchemaVersionSnapshot snapshot = new SchemaVersionSnapshot(file)) {
+            snapshot.put(first);
+            snapshot.putSchemaMetadata(foo);
+            snapshot.putSchemaMetadata(fooWithNoCompatibility);
+            snapshot.putSchemaMetadata(bar);
+            snapshot.putSchemaMetadata(baz);
+            snapshot.removeSchemaMetadata("baz");
+        }
+
+        try (SchemaVersionSnapshot snapshot = new SchemaVersionSnapshot(file)) {
+            Assert.assertEquals(3, snapshot.size());
+            Assert.assertEquals(first, snapshot.get(1L));
+            Assert.assertEquals(fooWithNoCompatibility, snapshot.getSchemaMetadata("foo"));
+            Assert.assertEquals(bar, snapshot.getSchemaMetadata("bar"));
+            Assert.assertNull(snapshot.getSchemaMetadata("baz"));
+        }
+    }
+
+    private static SchemaMetadataInfo createSchemaMetadataInfo(Long id, String name, SchemaCompatibility compatibility) {
+        SchemaMetadata schemaMetadata = new SchemaMetadata.Builder(name)
+                .type("avro")
+                .schemaGroup("kafka")
+                .compatibility(compatibility)
+                .build();
+        return new SchemaMetadataInfo(schemaMetadata, id, 100L);
+    }
+
+    private static SchemaVersionInfo createSchemaVersionInfo(Long id, Integer version, Byte stateId) {
+        return new SchemaVersionInfo(id, "foo", version, 10L, "schema-text-" + version, 0L, "desc", stateId);
+    }
+}
@@ -16,6 +16,11 @@ package com.hortonworks.registries.schemaregistry.avro;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Joiner;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
 import com.hortonworks.registries.schemaregistry.AbstractSchemaProvider;
 import com.hortonworks.registries.schemaregistry.CompatibilityResult;
 import com.hortonworks.registries.schemaregistry.SchemaCompatibility;
@@ -25,11 +30,13 @@ import com.hortonworks.registries.schemaregistry.errors.SchemaNotFoundException;
 import org.apache.avro.Schema;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -40,6 +47,35 @@ public class AvroSchemaProvider extends AbstractSchemaProvider {
 
     public static final String TYPE = "avro";
 
+    public static final String PARSED_SCHEMA_CACHE_SIZE_CONFIG = "parsedSchemaCacheSize";
+    public static final String COMPATIBILITY_RESULT_CACHE_SIZE_CONFIG = "compatibilityResultCacheSize";
+    private static final int DEFAULT_PARSED_SCHEMA_CACHE_SIZE = 1000;
+    private static final int DEFAULT_COMPATIBILITY_RESULT_CACHE_SIZE = 10000;
+
+    // parsing is a pure function of the schema text, so parsed schemas and compatibility results are memoized by it.
+    // Compatibility results are keyed by digests of the schema texts, so that their keys do not hold the texts.
+    private static final HashFunction SCHEMA_TEXT_DIGEST = Hashing.sha256();
+    private Cache<String, Schema> parsedSchemaCache = createCache(DEFAULT_PARSED_SCHEMA_CACHE_SIZE);
+    private Cache<CompatibilityKey, CompatibilityResult> compatibilityResultCache = createCache(DEFAULT_COMPATIBILITY_RESULT_CACHE_SIZE);
+
+    @Override
+    public void init(Map<String, Object> config) {
+        super.init(config);
+        parsedSchemaCache = createCache(getIntConfig(config, PARSED_SCHEMA_CACHE_SIZE_CONFIG, DEFAULT_PARSED_SCHEMA_CACHE_SIZE));
+        compatibilityResultCache = createCache(getIntConfig(config,
+                                                            COMPATIBILITY_RESULT_CACHE_SIZE_CONFIG,
+                                                            DEFAULT_COMPATIBILITY_RESULT_CACHE_SIZE));
+    }
+
+    private static <K, V> Cache<K, V> createCache(int size) {
+        return CacheBuilder.newBuilder().maximumSize(size).build();
+    }
+
+    private static int getIntConfig(Map<String, Object> config, String name, int defaultValue) {
+        Object value = config.get(name);
+        return value != null ? Integer.parseInt(value.toString()) : defaultValue;
+    }
+
     @Override
     public String getName() {
         return "Avro schema provider";
@@ -59,17 +95,38 @@ public class AvroSchemaProvider extends AbstractSchemaProvider {
     public CompatibilityResult checkCompatibility(String toSchemaText,
                                                   String existingSchemaText,
                                                   SchemaCompatibility existingSchemaCompatibility) {
-        return AvroSchemaValidator
-                .of(existingSchemaCompatibility)
-                .validate(new Schema.Parser().parse(toSchemaText),
-                          new Schema.Parser().parse(existingSchemaText));
+        CompatibilityKey key = new CompatibilityKey(digest(toSchemaText), digest(existingSchemaText), existingSchemaCompatibility);
+        CompatibilityResult compatibilityResult = compatibilityResultCache.getIfPresent(key);
+        if (compatibilityResult == null) {
+            compatibilityResult = AvroSchemaValidator
+                    .of(existingSchemaCompatibility)
+                    .validate(parse(toSchemaText), parse(existingSchemaText));
+            compatibilityResultCache.put(key, compatibilityResult);
+        }
+        return compatibilityResult;
+    }
+
+    private static HashCode digest(String schemaText) {
+        return SCHEMA_TEXT_DIGEST.hashString(schemaText, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the parsed schema of the given schema text, parsed schemas are shared and they should not be modified.
+     */
+    private Schema parse(String schemaText) {
+        Schema schema = parsedSchemaCache.getIfPresent(schemaText);
+        if (schema == null) {
+            schema = new Schema.Parser().parse(schemaText);
+            parsedSchemaCache.put(schemaText, schema);
+        }
+        return schema;
     }
 
     @Override
     public byte[] getFingerprint(String schemaText) throws InvalidSchemaException, SchemaNotFoundException {
         try {
             // generates fingerprint of canonical form of the given schema.
-            Schema schema = new Schema.Parser().parse(getResultantSchema(schemaText));
+            Schema schema = parse(getResultantSchema(schemaText));
             return MessageDigest.getInstance(getHashFunction()).digest(normalize(schema).getBytes());
         } catch (IOException e) {
             throw new InvalidSchemaException("Given schema is invalid", e);
@@ -87,7 +144,7 @@ public class AvroSchemaProvider extends AbstractSchemaProvider {
     @Override
     public List<SchemaFieldInfo> generateFields(String schemaText) throws InvalidSchemaException, SchemaNotFoundException {
         AvroFieldsGenerator avroFieldsGenerator = new AvroFieldsGenerator();
-        return avroFieldsGenerator.generateFields(new Schema.Parser().parse(getResultantSchema(schemaText)));
+        return avroFieldsGenerator.generateFields(parse(getResultantSchema(schemaText)));
     }
 
     public String normalize(Schema schema) throws IOException {
@@ -201,4 +258,31 @@ public class AvroSchemaProvider extends AbstractSchemaProvider {
         return this.config;
     }
 
+    private static final class CompatibilityKey {
+        private final HashCode readerSchemaDigest;
+        private final HashCode writerSchemaDigest;
+        private final SchemaCompatibility compatibility;
+
+        private CompatibilityKey(HashCode readerSchemaDigest, HashCode writerSchemaDigest, SchemaCompatibility compatibility) {
+            this.readerSchemaDigest = readerSchemaDigest;
+            this.writerSchemaDigest = writerSchemaDigest;
+            this.compatibility = compatibility;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            CompatibilityKey that = (CompatibilityKey) o;
+            return Objects.equals(readerSchemaDigest, that.readerSchemaDigest) &&
+                    Objects.equals(writerSchemaDigest, that.writerSchemaDigest) &&
+                    compatibility == that.compatibility;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(readerSchemaDigest, writerSchemaDigest, compatibility);
+        }
+    }
+
 }
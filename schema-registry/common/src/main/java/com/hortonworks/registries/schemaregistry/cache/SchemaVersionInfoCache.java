@@ -116,6 +116,16 @@ public class SchemaVersionInfoCache implements AbstractCache {
         return loadingCache.getIfPresent(key);
     }
 
+    /**
+     * Adds the given schema version, which is already loaded from the target service, to this cache.
+     * It is cached with its version id as key, so that bulk loaded versions need not be loaded one by one.
+     */
+    public void putSchema(SchemaVersionInfo schemaVersionInfo) {
+        LOG.debug("Adding entry to cache {}", schemaVersionInfo);
+        updateCacheInvalidationEntries(schemaVersionInfo);
+        loadingCache.put(Key.of(new SchemaIdVersion(schemaVersionInfo.getId())), schemaVersionInfo);
+    }
+
     public void invalidateSchema(SchemaVersionInfoCache.Key key) {
         LOG.debug("Invalidating cache entry for key [{}]", key);
         loadingCache.invalidate(key);
@@ -176,6 +186,25 @@ public class SchemaVersionInfoCache implements AbstractCache {
 
         }
 
+        /**
+         * @return true if this key refers to the given schema version
+         */
+        public boolean matches(SchemaVersionInfo schemaVersionInfo) {
+            if (schemaVersionKey != null) {
+                return schemaVersionKey.getSchemaName().equals(schemaVersionInfo.getName())
+                        && schemaVersionKey.getVersion().equals(schemaVersionInfo.getVersion());
+            }
+            if (schemaIdVersion != null) {
+                if (schemaIdVersion.getSchemaVersionId() != null) {
+                    return schemaIdVersion.getSchemaVersionId().equals(schemaVersionInfo.getId());
+                }
+                return schemaIdVersion.getSchemaMetadataId() != null
+                        && schemaIdVersion.getSchemaMetadataId().equals(schemaVersionInfo.getSchemaMetadataId())
+                        && schemaIdVersion.getVersion().equals(schemaVersionInfo.getVersion());
+            }
+            return false;
+        }
+
         @Override
         public String toString() {
             return "Key {" +
@@ -0,0 +1,77 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.schemaregistry.client;
+
+import com.hortonworks.registries.schemaregistry.SchemaBranch;
+import com.hortonworks.registries.schemaregistry.SchemaIdVersion;
+import com.hortonworks.registries.schemaregistry.SchemaMetadata;
+import com.hortonworks.registries.schemaregistry.SchemaMetadataInfo;
+import com.hortonworks.registries.schemaregistry.SchemaVersion;
+import com.hortonworks.registries.schemaregistry.SchemaVersionInfo;
+import com.hortonworks.registries.schemaregistry.SchemaVersionKey;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non blocking variant of the read paths and of registering schema versions of {@link ISchemaRegistryClient}, which
+ * lets callers like stream processors fetch schemas without blocking their own threads.
+ * <p>
+ * The returned futures complete with the same results as the respective blocking methods, or exceptionally with the
+ * exceptions thrown by them, e.g. {@link com.hortonworks.registries.schemaregistry.errors.SchemaNotFoundException}.
+ * Concurrent calls with the same arguments share a single request to the registry.
+ */
+public interface IAsyncSchemaRegistryClient extends AutoCloseable {
+
+    /**
+     * @see ISchemaRegistryClient#getSchemaVersionInfo(SchemaIdVersion)
+     */
+    CompletableFuture<SchemaVersionInfo> getSchemaVersionInfo(SchemaIdVersion schemaIdVersion);
+
+    /**
+     * @see ISchemaRegistryClient#getSchemaVersionInfo(SchemaVersionKey)
+     */
+    CompletableFuture<SchemaVersionInfo> getSchemaVersionInfo(SchemaVersionKey schemaVersionKey);
+
+    /**
+     * @see ISchemaRegistryClient#getSchemaMetadataInfo(String)
+     */
+    CompletableFuture<SchemaMetadataInfo> getSchemaMetadataInfo(String schemaName);
+
+    /**
+     * @see ISchemaRegistryClient#getSchemaMetadataInfo(Long)
+     */
+    CompletableFuture<SchemaMetadataInfo> getSchemaMetadataInfo(Long schemaMetadataId);
+
+    /**
+     * @see ISchemaRegistryClient#addSchemaVersion(SchemaMetadata, SchemaVersion)
+     */
+    default CompletableFuture<SchemaIdVersion> addSchemaVersion(SchemaMetadata schemaMetadata, SchemaVersion schemaVersion) {
+        return addSchemaVersion(SchemaBranch.MASTER_BRANCH, schemaMetadata, schemaVersion, false);
+    }
+
+    /**
+     * @see ISchemaRegistryClient#addSchemaVersion(String, SchemaMetadata, SchemaVersion, boolean)
+     */
+    CompletableFuture<SchemaIdVersion> addSchemaVersion(String schemaBranchName,
+                                                        SchemaMetadata schemaMetadata,
+                                                        SchemaVersion schemaVersion,
+                                                        boolean disableCanonicalCheck);
+
+    /**
+     * Releases the threads of this client. The underlying blocking client is not closed.
+     */
+    @Override
+    void close();
+}
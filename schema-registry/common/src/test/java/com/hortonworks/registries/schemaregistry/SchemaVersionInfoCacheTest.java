@@ -121,4 +121,38 @@ public class SchemaVersionInfoCacheTest {
         }
 
     }
+
+    @Test
+    public void testPutSchemaAndKeyMatches() throws Exception {
+        SchemaVersionInfo schemaVersionInfo = new SchemaVersionInfo(3L, "schema-1", 2, 1L, "schema-text", System
+                .currentTimeMillis(), "schema-description", SchemaVersionLifecycleStates.ENABLED.getId());
+
+        SchemaVersionRetriever schemaRetriever = new SchemaVersionRetriever() {
+            @Override
+            public SchemaVersionInfo retrieveSchemaVersion(SchemaVersionKey key) throws SchemaNotFoundException {
+                throw new SchemaNotFoundException("Not expected to be loaded: " + key);
+            }
+
+            @Override
+            public SchemaVersionInfo retrieveSchemaVersion(SchemaIdVersion key) throws SchemaNotFoundException {
+                throw new SchemaNotFoundException("Not expected to be loaded: " + key);
+            }
+        };
+
+        SchemaVersionInfoCache schemaVersionInfoCache = new SchemaVersionInfoCache(schemaRetriever, 32, 60 * 1000L);
+        schemaVersionInfoCache.putSchema(schemaVersionInfo);
+
+        SchemaVersionInfoCache.Key idKey = SchemaVersionInfoCache.Key.of(new SchemaIdVersion(3L));
+        Assert.assertEquals(schemaVersionInfo, schemaVersionInfoCache.getSchemaIfPresent(idKey));
+
+        // invalidating with another kind of key should also remove the entry which was put
+        schemaVersionInfoCache.invalidateSchema(SchemaVersionInfoCache.Key.of(new SchemaVersionKey("schema-1", 2)));
+        Assert.assertNull(schemaVersionInfoCache.getSchemaIfPresent(idKey));
+
+        Assert.assertTrue(idKey.matches(schemaVersionInfo));
+        Assert.assertTrue(SchemaVersionInfoCache.Key.of(new SchemaIdVersion(1L, 2)).matches(schemaVersionInfo));
+        Assert.assertTrue(SchemaVersionInfoCache.Key.of(new SchemaVersionKey("schema-1", 2)).matches(schemaVersionInfo));
+        Assert.assertFalse(SchemaVersionInfoCache.Key.of(new SchemaIdVersion(4L)).matches(schemaVersionInfo));
+        Assert.assertFalse(SchemaVersionInfoCache.Key.of(new SchemaVersionKey("schema-1", 3)).matches(schemaVersionInfo));
+    }
 }
@@ -0,0 +1,199 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.schemaregistry;
+
+import com.google.common.collect.Lists;
+import com.hortonworks.registries.schemaregistry.state.SchemaVersionLifecycleStates;
+import com.hortonworks.registries.schemaregistry.state.details.InitializedStateDetails;
+import com.hortonworks.registries.schemaregistry.state.details.MergeInfo;
+import com.hortonworks.registries.schemaregistry.utils.ObjectMapperUtils;
+import com.hortonworks.registries.storage.StorageManager;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Builds {@link AggregatedSchemaMetadataInfo}s of many schemas at once. Branches, branch version mappings, versions,
+ * their {@code INITIATED} state details and serdes are each fetched with one set based query for all the given
+ * schemas, and the aggregated infos are assembled in memory. The result is the same as aggregating each schema on its
+ * own with {@link ISchemaRegistry#getAggregatedSchemaBranch(String)} and {@link ISchemaRegistry#getSerDes(String)}.
+ */
+class AggregatedSchemaMetadataLoader {
+
+    private final StorageManager storageManager;
+
+    AggregatedSchemaMetadataLoader(StorageManager storageManager) {
+        this.storageManager = storageManager;
+    }
+
+    /**
+     * @return the aggregated infos of the given schemas, in the same order
+     */
+    List<AggregatedSchemaMetadataInfo> load(Collection<SchemaMetadataInfo> schemaMetadataInfos) {
+        if (schemaMetadataInfos.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Set<Long> schemaMetadataIds = new TreeSet<>();
+        Set<String> schemaNames = new TreeSet<>();
+        for (SchemaMetadataInfo schemaMetadataInfo : schemaMetadataInfos) {
+            schemaMetadataIds.add(schemaMetadataInfo.getId());
+            schemaNames.add(schemaMetadataInfo.getSchemaMetadata().getName());
+        }
+
+        Map<String, List<SchemaBranch>> branchesBySchemaName = new HashMap<>();
+        Collection<SchemaBranchStorable> branchStorables = storageManager.findIn(SchemaBranchStorable.NAME_SPACE,
+                                                                                 SchemaBranchStorable.SCHEMA_METADATA_NAME,
+                                                                                 schemaNames,
+                                                                                 Collections.emptyList());
+        List<Long> branchIds = new ArrayList<>();
+        for (SchemaBranchStorable branchStorable : branchStorables) {
+            branchesBySchemaName.computeIfAbsent(branchStorable.getSchemaMetadataName(), x -> new ArrayList<>())
+                                .add(branchStorable.toSchemaBranch());
+            branchIds.add(branchStorable.getId());
+        }
+
+        // version ids of each branch in ascending order, which is the order of the versions on the branch
+        Map<Long, Set<Long>> versionIdsByBranchId = new HashMap<>();
+        Set<Long> versionIds = new TreeSet<>();
+        Collection<SchemaBranchVersionMapping> mappings = storageManager.findIn(SchemaBranchVersionMapping.NAMESPACE,
+                                                                                SchemaBranchVersionMapping.SCHEMA_BRANCH_ID,
+                                                                                branchIds,
+                                                                                Collections.emptyList());
+        for (SchemaBranchVersionMapping mapping : mappings) {
+            versionIdsByBranchId.computeIfAbsent(mapping.getSchemaBranchId(), x -> new TreeSet<>()).add(mapping.getSchemaVersionInfoId());
+            versionIds.add(mapping.getSchemaVersionInfoId());
+        }
+
+        Map<Long, SchemaVersionInfo> versionsById = new HashMap<>();
+        Collection<SchemaVersionStorable> versionStorables = storageManager.findIn(SchemaVersionStorable.NAME_SPACE,
+                                                                                   SchemaVersionStorable.ID,
+                                                                                   versionIds,
+                                                                                   Collections.emptyList());
+        for (SchemaVersionStorable versionStorable : versionStorables) {
+            versionsById.put(versionStorable.getId(), versionStorable.toSchemaVersionInfo());
+        }
+
+        setMergeInfos(versionsById);
+
+        Map<Long, List<SerDesInfo>> serDesInfosBySchemaId = getSerDesInfos(schemaMetadataIds);
+
+        List<AggregatedSchemaMetadataInfo> result = new ArrayList<>(schemaMetadataInfos.size());
+        for (SchemaMetadataInfo schemaMetadataInfo : schemaMetadataInfos) {
+            List<AggregatedSchemaBranch> aggregatedBranches = new ArrayList<>();
+            List<SchemaBranch> schemaBranches = branchesBySchemaName.getOrDefault(schemaMetadataInfo.getSchemaMetadata().getName(),
+                                                                                  Collections.emptyList());
+            schemaBranches.sort(Comparator.comparing(SchemaBranch::getId));
+            for (SchemaBranch schemaBranch : schemaBranches) {
+                List<SchemaVersionInfo> sortedVersions = new ArrayList<>();
+                for (Long versionId : versionIdsByBranchId.getOrDefault(schemaBranch.getId(), Collections.emptySet())) {
+                    SchemaVersionInfo schemaVersionInfo = versionsById.get(versionId);
+                    if (schemaVersionInfo != null) {
+                        sortedVersions.add(schemaVersionInfo);
+                    }
+                }
+                // branches are only reachable through their versions, so the ones without versions are not listed
+                if (sortedVersions.isEmpty()) {
+                    continue;
+                }
+                Long rootVersion = SchemaBranch.MASTER_BRANCH.equals(schemaBranch.getName()) ? null : sortedVersions.get(0).getId();
+                aggregatedBranches.add(new AggregatedSchemaBranch(schemaBranch, rootVersion, Lists.reverse(sortedVersions)));
+            }
+
+            result.add(new AggregatedSchemaMetadataInfo(schemaMetadataInfo.getSchemaMetadata(),
+                                                        schemaMetadataInfo.getId(),
+                                                        schemaMetadataInfo.getTimestamp(),
+                                                        aggregatedBranches,
+                                                        serDesInfosBySchemaId.getOrDefault(schemaMetadataInfo.getId(),
+                                                                                           Collections.emptyList())));
+        }
+
+        return result;
+    }
+
+    /**
+     * Sets the merge info of each version from the details of its latest {@code INITIATED} state, if there is one.
+     */
+    private void setMergeInfos(Map<Long, SchemaVersionInfo> versionsById) {
+        Collection<SchemaVersionStateStorable> stateStorables = storageManager.findIn(SchemaVersionStateStorable.NAME_SPACE,
+                                                                                      SchemaVersionStateStorable.SCHEMA_VERSION_ID,
+                                                                                      versionsById.keySet(),
+                                                                                      Arrays.asList(SchemaVersionStateStorable.ID,
+                                                                                                    SchemaVersionStateStorable.SCHEMA_VERSION_ID,
+                                                                                                    SchemaVersionStateStorable.STATE,
+                                                                                                    SchemaVersionStateStorable.SEQUENCE,
+                                                                                                    SchemaVersionStateStorable.DETAILS));
+        Byte initiatedStateId = SchemaVersionLifecycleStates.INITIATED.getId();
+        Map<Long, SchemaVersionStateStorable> initiatedStates = new HashMap<>();
+        for (SchemaVersionStateStorable stateStorable : stateStorables) {
+            if (initiatedStateId.equals(stateStorable.getStateId())) {
+                initiatedStates.merge(stateStorable.getSchemaVersionId(), stateStorable,
+                                      (x, y) -> x.getSequence() >= y.getSequence() ? x : y);
+            }
+        }
+
+        for (SchemaVersionInfo schemaVersionInfo : versionsById.values()) {
+            SchemaVersionStateStorable stateStorable = initiatedStates.get(schemaVersionInfo.getId());
+            MergeInfo mergeInfo = null;
+            if (stateStorable != null && stateStorable.getDetails() != null) {
+                try {
+                    mergeInfo = ObjectMapperUtils.deserialize(stateStorable.getDetails(), InitializedStateDetails.class).getMergeInfo();
+                } catch (IOException e) {
+                    throw new RuntimeException(String.format("Failed to serialize state details of schema version : '%s'", schemaVersionInfo.getId()), e);
+                }
+            }
+            schemaVersionInfo.setMergeInfo(mergeInfo);
+        }
+    }
+
+    private Map<Long, List<SerDesInfo>> getSerDesInfos(Collection<Long> schemaMetadataIds) {
+        Collection<SchemaSerDesMapping> serDesMappings = storageManager.findIn(SchemaSerDesMapping.NAMESPACE,
+                                                                               SchemaSerDesMapping.SCHEMA_METADATA_ID,
+                                                                               schemaMetadataIds,
+                                                                               Collections.emptyList());
+        if (serDesMappings.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Set<Long> serDesIds = serDesMappings.stream().map(SchemaSerDesMapping::getSerDesId).collect(Collectors.toCollection(TreeSet::new));
+        Map<Long, SerDesInfo> serDesInfosById = new HashMap<>();
+        Collection<SerDesInfoStorable> serDesInfoStorables = storageManager.findIn(SerDesInfoStorable.NAME_SPACE,
+                                                                                   SerDesInfoStorable.ID,
+                                                                                   serDesIds,
+                                                                                   Collections.emptyList());
+        for (SerDesInfoStorable serDesInfoStorable : serDesInfoStorables) {
+            serDesInfosById.put(serDesInfoStorable.getId(), serDesInfoStorable.toSerDesInfo());
+        }
+
+        Map<Long, List<SerDesInfo>> serDesInfosBySchemaId = new LinkedHashMap<>();
+        for (SchemaSerDesMapping serDesMapping : serDesMappings) {
+            serDesInfosBySchemaId.computeIfAbsent(serDesMapping.getSchemaMetadataId(), x -> new ArrayList<>())
+                                 .add(serDesInfosById.get(serDesMapping.getSerDesId()));
+        }
+        return serDesInfosBySchemaId;
+    }
+}
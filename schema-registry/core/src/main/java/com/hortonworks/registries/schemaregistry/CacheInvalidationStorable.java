@@ -0,0 +1,119 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package com.hortonworks.registries.schemaregistry;
+
+import com.hortonworks.registries.common.Schema;
+import com.hortonworks.registries.schemaregistry.cache.CacheInvalidationEvent;
+import com.hortonworks.registries.schemaregistry.cache.SchemaRegistryCacheType;
+import com.hortonworks.registries.storage.PrimaryKey;
+import com.hortonworks.registries.storage.catalog.AbstractStorable;
+
+import java.util.Collections;
+
+/**
+ * Entry of the change log through which registry nodes notify each other about invalidated cache entries.
+ */
+public class CacheInvalidationStorable extends AbstractStorable {
+    public static final String NAME_SPACE = "cache_invalidation";
+
+    public static final String ID = "id";
+    public static final String TIMESTAMP = "timestamp";
+
+    private Long id;
+    private String nodeId;
+    private String cacheType;
+    private String cacheKey;
+    private Long timestamp;
+
+    public CacheInvalidationStorable() {
+    }
+
+    public CacheInvalidationStorable(Long id, CacheInvalidationEvent event, Long timestamp) {
+        this.id = id;
+        this.nodeId = event.getNodeId();
+        this.cacheType = event.getCacheType().name();
+        this.cacheKey = event.getKey();
+        this.timestamp = timestamp;
+    }
+
+    @Override
+    public String getNameSpace() {
+        return NAME_SPACE;
+    }
+
+    @Override
+    public PrimaryKey getPrimaryKey() {
+        return new PrimaryKey(Collections.singletonMap(new Schema.Field(ID, Schema.Type.LONG), id));
+    }
+
+    public CacheInvalidationEvent toCacheInvalidationEvent() {
+        return new CacheInvalidationEvent(nodeId, SchemaRegistryCacheType.valueOf(cacheType), cacheKey);
+    }
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public void setNodeId(String nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    public String getCacheType() {
+        return cacheType;
+    }
+
+    public void setCacheType(String cacheType) {
+        this.cacheType = cacheType;
+    }
+
+    public String getCacheKey() {
+        return cacheKey;
+    }
+
+    public void setCacheKey(String cacheKey) {
+        this.cacheKey = cacheKey;
+    }
+
+    public Long getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(Long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheInvalidationStorable{" +
+                "id=" + id +
+                ", nodeId='" + nodeId + '\'' +
+                ", cacheType='" + cacheType + '\'' +
+                ", cacheKey='" + cacheKey + '\'' +
+                ", timestamp=" + timestamp +
+                '}';
+    }
+}
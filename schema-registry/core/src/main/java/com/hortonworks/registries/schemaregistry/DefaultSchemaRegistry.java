@@ -17,6 +17,10 @@ package com.hortonworks.registries.schemaregistry;
 import com.google.common.annotations.VisibleForTesting;
 import com.hortonworks.registries.common.QueryParam;
 import com.hortonworks.registries.common.util.FileStorage;
+import com.hortonworks.registries.schemaregistry.cache.CacheInvalidationBus;
+import com.hortonworks.registries.schemaregistry.cache.CacheInvalidationEvent;
+import com.hortonworks.registries.schemaregistry.cache.CacheInvalidationPublisher;
+import com.hortonworks.registries.schemaregistry.cache.LoopbackCacheInvalidationBus;
 import com.hortonworks.registries.schemaregistry.cache.SchemaBranchCache;
 import com.hortonworks.registries.schemaregistry.cache.SchemaRegistryCacheType;
 import com.hortonworks.registries.schemaregistry.cache.SchemaVersionInfoCache;
@@ -41,6 +45,7 @@ import com.hortonworks.registries.storage.OrderByField;
 import com.hortonworks.registries.storage.Storable;
 import com.hortonworks.registries.storage.StorableKey;
 import com.hortonworks.registries.storage.StorageManager;
+import com.hortonworks.registries.storage.StorageManagerAware;
 import com.hortonworks.registries.storage.search.OrderBy;
 import com.hortonworks.registries.storage.search.SearchQuery;
 import com.hortonworks.registries.storage.search.WhereClause;
@@ -56,6 +61,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -80,12 +86,16 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
     private final StorageManager storageManager;
     private final FileStorage fileStorage;
     private final Collection<Map<String, Object>> schemaProvidersConfig;
+    private final AggregatedSchemaMetadataLoader aggregatedSchemaMetadataLoader;
 
     private Map<String, SchemaProvider> schemaTypeWithProviders;
     private List<SchemaProviderInfo> schemaProviderInfos;
     private SchemaVersionLifecycleManager schemaVersionLifecycleManager;
     private SchemaBranchCache schemaBranchCache;
     private SchemaLockManager schemaLockManager;
+    private CacheInvalidationBus cacheInvalidationBus;
+    private CacheInvalidationPublisher cacheInvalidationPublisher;
+    private SchemaMetadataSearchIndex schemaMetadataSearchIndex;
 
     public DefaultSchemaRegistry(StorageManager storageManager,
                                  FileStorage fileStorage,
@@ -95,6 +105,7 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
         this.fileStorage = fileStorage;
         this.schemaProvidersConfig = schemaProvidersConfig;
         this.schemaLockManager = schemaLockManager;
+        this.aggregatedSchemaMetadataLoader = new AggregatedSchemaMetadataLoader(storageManager);
     }
 
     @Override
@@ -110,18 +121,28 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
                         SchemaSerDesMapping.class,
                         SchemaBranchStorable.class,
                         SchemaBranchVersionMapping.class,
-                        SchemaLockStorable.class));
+                        SchemaLockStorable.class,
+                        CacheInvalidationStorable.class));
+
+        cacheInvalidationBus = createCacheInvalidationBus(props);
+        cacheInvalidationPublisher = new CacheInvalidationPublisher(UUID.randomUUID().toString(), cacheInvalidationBus);
 
         Options options = new Options(props);
         schemaBranchCache = new SchemaBranchCache(options.getMaxSchemaCacheSize(),
                                                   options.getSchemaExpiryInSecs(),
                                                   createSchemaBranchFetcher());
+        if (options.isCacheEnabled()) {
+            schemaMetadataSearchIndex = new SchemaMetadataSearchIndex(
+                    TimeUnit.SECONDS.toMillis(options.getSchemaSearchIndexRefreshIntervalInSecs()),
+                    options.isSchemaSearchCaseSensitive());
+        }
 
         SchemaMetadataFetcher schemaMetadataFetcher = createSchemaMetadataFetcher();
         schemaVersionLifecycleManager = new DefaultSchemaVersionLifecycleManager(storageManager,
                                                                           props,
                                                                           schemaMetadataFetcher,
-                                                                          schemaBranchCache);
+                                                                          schemaBranchCache,
+                                                                          cacheInvalidationPublisher);
 
         Collection<? extends SchemaProvider> schemaProviders = initSchemaProviders(schemaProvidersConfig,
                                                                                    schemaVersionLifecycleManager.getSchemaVersionRetriever());
@@ -144,6 +165,45 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
                                                                       schemaProvider
                                                                               .getDefaultDeserializerClassName()))
                                .collect(Collectors.toList()));
+
+        cacheInvalidationBus.subscribe(this::applyCacheInvalidation);
+    }
+
+    @SuppressWarnings("unchecked")
+    private CacheInvalidationBus createCacheInvalidationBus(Map<String, Object> props) {
+        Map<String, Object> busConfig = (Map<String, Object>) props.get(CACHE_INVALIDATION);
+        if (busConfig == null) {
+            return new LoopbackCacheInvalidationBus();
+        }
+
+        String className = (String) busConfig.get("className");
+        CacheInvalidationBus bus;
+        try {
+            bus = (CacheInvalidationBus) Class.forName(className, true, Thread.currentThread().getContextClassLoader()).newInstance();
+        } catch (InstantiationException | IllegalAccessException | ClassNotFoundException e) {
+            throw new IllegalArgumentException(String.format("Failed to create cache invalidation bus : '%s'", className), e);
+        }
+        if (bus instanceof StorageManagerAware) {
+            ((StorageManagerAware) bus).setStorageManager(storageManager);
+        }
+        bus.init((Map<String, Object>) busConfig.getOrDefault("config", Collections.emptyMap()));
+        return bus;
+    }
+
+    private void applyCacheInvalidation(CacheInvalidationEvent event) {
+        if (cacheInvalidationPublisher.isRemote(event)) {
+            LOG.debug("Applying cache invalidation from another node : {}", event);
+            invalidateCache(event.getCacheType(), event.getKey());
+        }
+    }
+
+    /**
+     * Stops receiving the cache invalidations of the other nodes, to be called when the registry is shut down.
+     */
+    public void close() {
+        if (cacheInvalidationBus != null) {
+            cacheInvalidationBus.close();
+        }
     }
 
 
@@ -258,6 +318,7 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
         givenSchemaMetadataStorable.setId(nextId);
         givenSchemaMetadataStorable.setTimestamp(System.currentTimeMillis());
         storageManager.add(givenSchemaMetadataStorable);
+        updateSearchIndex(schemaMetadata.getName());
 
         // Add a schema branch for this metadata
         SchemaBranchStorable schemaBranchStorable = new SchemaBranchStorable(SchemaBranch.MASTER_BRANCH, schemaMetadata.getName(), String.format(SchemaBranch.MASTER_BRANCH_DESC, schemaMetadata.getName()), System.currentTimeMillis());
@@ -296,6 +357,8 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
         if (schemaVersionInfos != null) {
             for (SchemaVersionInfo schemaVersionInfo: schemaVersionInfos) {
                 schemaMetadataId = schemaVersionInfo.getSchemaMetadataId();
+                schemaVersionLifecycleManager.invalidateSchemaVersionCacheInCluster(
+                        SchemaVersionInfoCache.Key.of(new SchemaIdVersion(schemaVersionInfo.getId())));
                 List<QueryParam> queryParams = new ArrayList<>();
                 queryParams.add(new QueryParam(SchemaVersionStateStorable.SCHEMA_VERSION_ID, schemaVersionInfo.getId().toString()));
                 Collection<SchemaVersionStateStorable> schemaVersionStateStorables = storageManager.find(SchemaVersionStateStorable.NAME_SPACE, queryParams);
@@ -321,6 +384,38 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
 
         SchemaLockStorable schemaLockStorable = new SchemaLockStorable(SchemaMetadataStorable.NAME_SPACE, schemaName);
         storageManager.remove(schemaLockStorable.getStorableKey());
+
+        updateSearchIndex(schemaName);
+    }
+
+    /**
+     * Applies the update of the given schema to the search index of this node once the current transaction ends, and
+     * invalidates the index of the other nodes. The schema is read again after the transaction, so an update which is
+     * rolled back leaves the index as it was.
+     *
+     * @param schemaName the name of the updated schema
+     */
+    private void updateSearchIndex(String schemaName) {
+        if (schemaMetadataSearchIndex == null) {
+            return;
+        }
+        schemaVersionLifecycleManager.runAfterTransaction(() -> refreshSearchIndex(schemaName));
+        cacheInvalidationPublisher.publish(SchemaRegistryCacheType.SCHEMA_SEARCH_INDEX, schemaName);
+    }
+
+    /**
+     * Reads the schema with the given name again into the search index of this node, after it was updated by this or
+     * another node.
+     */
+    private void refreshSearchIndex(String schemaName) {
+        SchemaMetadataStorable givenSchemaMetadataStorable = new SchemaMetadataStorable();
+        givenSchemaMetadataStorable.setName(schemaName);
+        SchemaMetadataStorable schemaMetadataStorable = storageManager.get(givenSchemaMetadataStorable.getStorableKey());
+        if (schemaMetadataStorable != null) {
+            schemaMetadataSearchIndex.put(schemaMetadataStorable);
+        } else {
+            schemaMetadataSearchIndex.remove(schemaName);
+        }
     }
 
     @Override
@@ -336,16 +431,12 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
     public Collection<AggregatedSchemaMetadataInfo> findAggregatedSchemaMetadata(Map<String, String> props)
             throws SchemaBranchNotFoundException, SchemaNotFoundException {
 
-        return findSchemaMetadata(props)
-                .stream()
-                .map(schemaMetadataInfo -> {
-                    try {
-                        return buildAggregatedSchemaMetadataInfo(schemaMetadataInfo);
-                    } catch (SchemaNotFoundException | SchemaBranchNotFoundException e) {
-                        throw new RuntimeException(e);
-                    }
-                })
-                .collect(Collectors.toList());
+        return getAggregatedSchemaMetadataInfos(findSchemaMetadata(props));
+    }
+
+    @Override
+    public Collection<AggregatedSchemaMetadataInfo> getAggregatedSchemaMetadataInfos(Collection<SchemaMetadataInfo> schemaMetadataInfos) {
+        return aggregatedSchemaMetadataLoader.load(schemaMetadataInfos);
     }
 
     @Override
@@ -360,6 +451,7 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
         if (schemaMetadataStorable != null) {
             schemaMetadataStorable = SchemaMetadataStorable.updateSchemaMetadata(schemaMetadataStorable, schemaMetadata);
             storageManager.update(schemaMetadataStorable);
+            updateSearchIndex(schemaName);
             return schemaMetadataStorable.toSchemaMetadataInfo();
         } else {
             return null;
@@ -397,6 +489,15 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
         return result;
     }
 
+    @Override
+    public List<SchemaMetadataInfo> listSchemaMetadata(Long afterId, int limit) {
+        List<SchemaMetadataStorable> storables = storageManager.listPage(SchemaMetadataStorable.NAME_SPACE,
+                                                                         SchemaMetadataStorable.ID,
+                                                                         afterId,
+                                                                         limit);
+        return storables.stream().map(SchemaMetadataStorable::toSchemaMetadataInfo).collect(Collectors.toList());
+    }
+
     private List<OrderByField> getOrderByFields(List<QueryParam> queryParams) {
         if (queryParams == null || queryParams.isEmpty()) {
             return Collections.emptyList();
@@ -434,40 +535,67 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
         List<QueryParam> queryParams = buildQueryParam(schemaFieldQuery);
 
         Collection<SchemaFieldInfoStorable> fieldInfos = storageManager.find(SchemaFieldInfoStorable.STORABLE_NAME_SPACE, queryParams);
-        Collection<SchemaVersionKey> schemaVersionKeys;
-        if (fieldInfos != null && !fieldInfos.isEmpty()) {
-            List<Long> schemaIds = new ArrayList<>();
-            for (SchemaFieldInfoStorable fieldInfo : fieldInfos) {
-                schemaIds.add(fieldInfo.getSchemaInstanceId());
+        return toSchemaVersionKeys(fieldInfos);
+    }
+
+    @Override
+    public List<SchemaVersionKey> findSchemasByFields(SchemaFieldQuery schemaFieldQuery, int offset, int limit) {
+        SearchQuery searchQuery = SearchQuery.searchFrom(SchemaFieldInfoStorable.STORABLE_NAME_SPACE);
+        List<QueryParam> queryParams = buildQueryParam(schemaFieldQuery);
+        if (!queryParams.isEmpty()) {
+            WhereClauseCombiner whereClauseCombiner = null;
+            for (QueryParam queryParam : queryParams) {
+                whereClauseCombiner = (whereClauseCombiner == null ? WhereClause.begin() : whereClauseCombiner.and())
+                        .eq(queryParam.getName(), queryParam.getValue());
             }
+            searchQuery.where(whereClauseCombiner.combine());
+        }
+        searchQuery.orderBy(OrderBy.asc(SchemaFieldInfo.ID)).offset(offset).limit(limit);
 
-            // todo get only few selected columns instead of getting the whole row.
-            // add OR query to find items from store
-            schemaVersionKeys = new ArrayList<>();
-            for (Long schemaId : schemaIds) {
-                SchemaVersionKey schemaVersionKey = getSchemaKey(schemaId);
-                if (schemaVersionKey != null) {
-                    schemaVersionKeys.add(schemaVersionKey);
-                }
+        return toSchemaVersionKeys(storageManager.<SchemaFieldInfoStorable>search(searchQuery));
+    }
+
+    /**
+     * @return the keys of the schema versions of the given fields, in the order of the fields
+     */
+    private List<SchemaVersionKey> toSchemaVersionKeys(Collection<SchemaFieldInfoStorable> fieldInfos) {
+        if (fieldInfos == null || fieldInfos.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Long> schemaIds = new ArrayList<>(fieldInfos.size());
+        for (SchemaFieldInfoStorable fieldInfo : fieldInfos) {
+            schemaIds.add(fieldInfo.getSchemaInstanceId());
+        }
+
+        Map<Long, SchemaVersionKey> schemaVersionKeysById = getSchemaKeys(schemaIds);
+        List<SchemaVersionKey> schemaVersionKeys = new ArrayList<>(schemaIds.size());
+        for (Long schemaId : schemaIds) {
+            SchemaVersionKey schemaVersionKey = schemaVersionKeysById.get(schemaId);
+            if (schemaVersionKey != null) {
+                schemaVersionKeys.add(schemaVersionKey);
             }
-        } else {
-            schemaVersionKeys = Collections.emptyList();
         }
 
         return schemaVersionKeys;
     }
 
-    private SchemaVersionKey getSchemaKey(Long schemaId) {
-        SchemaVersionKey schemaVersionKey = null;
-
-        List<QueryParam> queryParams = Collections.singletonList(new QueryParam(SchemaVersionStorable.ID, schemaId.toString()));
-        Collection<SchemaVersionStorable> versionedSchemas = storageManager.find(SchemaVersionStorable.NAME_SPACE, queryParams);
-        if (versionedSchemas != null && !versionedSchemas.isEmpty()) {
-            SchemaVersionStorable storable = versionedSchemas.iterator().next();
-            schemaVersionKey = new SchemaVersionKey(storable.getName(), storable.getVersion());
+    /**
+     * Resolves the given schema version ids in batches, fetching only the columns needed for the keys.
+     */
+    private Map<Long, SchemaVersionKey> getSchemaKeys(Collection<Long> schemaIds) {
+        Collection<SchemaVersionStorable> versionedSchemas =
+                storageManager.findIn(SchemaVersionStorable.NAME_SPACE,
+                                      SchemaVersionStorable.ID,
+                                      schemaIds,
+                                      Arrays.asList(SchemaVersionStorable.ID, SchemaVersionStorable.NAME, SchemaVersionStorable.VERSION));
+
+        Map<Long, SchemaVersionKey> schemaVersionKeys = new HashMap<>();
+        for (SchemaVersionStorable storable : versionedSchemas) {
+            schemaVersionKeys.put(storable.getId(), new SchemaVersionKey(storable.getName(), storable.getVersion()));
         }
 
-        return schemaVersionKey;
+        return schemaVersionKeys;
     }
 
     private List<QueryParam> buildQueryParam(SchemaFieldQuery schemaFieldQuery) {
@@ -642,6 +770,9 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
                     throw new RuntimeException(String.format("Failed to deserialize keyString : [%s]", keyAsString),e);
                 }
                 schemaBranchCache.invalidateSchemaBranch(schemaBranchKey);
+                if (schemaBranchKey.getId() != null) {
+                    schemaVersionLifecycleManager.invalidateSortedSchemaVersions(schemaBranchKey.getId());
+                }
                 break;
             case SCHEMA_VERSION_CACHE:
                 SchemaVersionInfoCache.Key schemaVersionKey;
@@ -652,9 +783,23 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
                 }
                 schemaVersionLifecycleManager.invalidateSchemaVersionCache(schemaVersionKey);
                 break;
+            case SCHEMA_SEARCH_INDEX:
+                if (schemaMetadataSearchIndex != null) {
+                    String schemaName;
+                    try {
+                        schemaName = ObjectMapperUtils.deserialize(keyAsString, String.class);
+                    } catch (IOException e) {
+                        throw new RuntimeException(String.format("Failed to deserialize keyString : [%s]", keyAsString),e);
+                    }
+                    refreshSearchIndex(schemaName);
+                }
+                break;
             case ALL:
                 schemaBranchCache.invalidateAll();
                 schemaVersionLifecycleManager.invalidateAllSchemaVersionCache();
+                if (schemaMetadataSearchIndex != null) {
+                    schemaMetadataSearchIndex.invalidate();
+                }
                 break;
             default:
                 throw new RuntimeException(String.format("Invalid cache type : '%s'",schemaRegistryCacheType.name()));
@@ -711,6 +856,7 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
 
         SchemaBranchVersionMapping schemaBranchVersionMapping = new SchemaBranchVersionMapping(persistedSchemaBranch.getId(), schemaVersionInfo.getId());
         storageManager.add(schemaBranchVersionMapping);
+        schemaVersionLifecycleManager.invalidateSortedSchemaVersionsInCluster(persistedSchemaBranch.getId());
 
         return persistedSchemaBranch;
     }
@@ -739,6 +885,7 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
 
         SchemaBranchCache.Key keyOfSchemaBranchToDelete = SchemaBranchCache.Key.of(schemaBranchId);
         schemaBranchCache.invalidateSchemaBranch(keyOfSchemaBranchToDelete);
+        schemaVersionLifecycleManager.invalidateSortedSchemaVersionsInCluster(schemaBranchId);
 
         List<QueryParam> schemaVersionMappingStorableQueryParams = new ArrayList<>();
         schemaVersionMappingStorableQueryParams.add(new QueryParam(SchemaBranchVersionMapping.SCHEMA_BRANCH_ID, schemaBranch.getId().toString()));
@@ -933,9 +1080,54 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
 
     @Override
     public Collection<SchemaMetadataInfo> searchSchemas(MultivaluedMap<String, String> queryParameters, Optional<String> orderBy) {
-        WhereClause whereClause = getWhereClause(queryParameters);
         List<OrderBy> orderByFields = getOrderByFields(orderBy.orElse(""));
-        return searchSchemas(whereClause, orderByFields);
+        if (schemaMetadataSearchIndex == null) {
+            return searchSchemas(getWhereClause(queryParameters), orderByFields);
+        }
+
+        schemaMetadataSearchIndex.loadIfNeeded(() -> storageManager.list(SchemaMetadataStorable.NAME_SPACE));
+        String description = queryParameters.getFirst(SchemaMetadataStorable.DESCRIPTION);
+        List<SchemaMetadataStorable> storables = schemaMetadataSearchIndex.search(queryParameters.getFirst(SchemaMetadataStorable.NAME),
+                                                                                  isNotBlank(description) ? description : null);
+        // the sort is stable, so the schemas which are equal for the given fields are kept in the order of their rank
+        sort(storables, orderByFields);
+        return storables.stream()
+                        .map(SchemaMetadataStorable::toSchemaMetadataInfo)
+                        .collect(Collectors.toList());
+    }
+
+    private static void sort(List<SchemaMetadataStorable> storables, List<OrderBy> orderByFields) {
+        if (orderByFields.isEmpty() || storables.size() < 2) {
+            return;
+        }
+        Map<SchemaMetadataStorable, Map<String, Object>> fieldValues = new IdentityHashMap<>();
+        for (SchemaMetadataStorable storable : storables) {
+            fieldValues.put(storable, storable.toMap());
+        }
+        storables.sort((storable1, storable2) -> {
+            for (OrderBy orderBy : orderByFields) {
+                int result = compareFieldValues(fieldValues.get(storable1).get(orderBy.getFieldName()),
+                                                fieldValues.get(storable2).get(orderBy.getFieldName()));
+                if (result != 0) {
+                    return orderBy.isAsc() ? result : -result;
+                }
+            }
+            return 0;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compareFieldValues(Object value1, Object value2) {
+        if (value1 == value2) {
+            return 0;
+        } else if (value1 == null) {
+            return -1;
+        } else if (value2 == null) {
+            return 1;
+        }
+        return value1 instanceof Comparable
+               ? ((Comparable<Object>) value1).compareTo(value2)
+               : value1.toString().compareTo(value2.toString());
     }
 
     @VisibleForTesting
@@ -952,6 +1144,9 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
 
     private List<OrderBy> getOrderByFields(String value) {
         List<OrderBy> orderByList = new ArrayList<>();
+        if (value.trim().isEmpty()) {
+            return orderByList;
+        }
         // _orderByFields=[<field-name>,<a/d>,]*
         // example can be : _orderByFields=foo,a,bar,d
         // order by foo with ascending then bar with descending
@@ -983,22 +1178,11 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
 
     public AggregatedSchemaMetadataInfo getAggregatedSchemaMetadataInfo(String schemaName) throws SchemaNotFoundException, SchemaBranchNotFoundException {
         SchemaMetadataInfo schemaMetadataInfo = getSchemaMetadataInfo(schemaName);
-        return buildAggregatedSchemaMetadataInfo(schemaMetadataInfo);
-    }
-
-    private AggregatedSchemaMetadataInfo buildAggregatedSchemaMetadataInfo(SchemaMetadataInfo schemaMetadataInfo) throws SchemaNotFoundException, SchemaBranchNotFoundException {
-
         if (schemaMetadataInfo == null) {
             return null;
         }
 
-        List<SerDesInfo> serDesInfos = getSerDesInfos(schemaMetadataInfo.getSchemaMetadata().getName());
-
-        return new AggregatedSchemaMetadataInfo(schemaMetadataInfo.getSchemaMetadata(),
-                                                schemaMetadataInfo.getId(),
-                                                schemaMetadataInfo.getTimestamp(),
-                                                getAggregatedSchemaBranch(schemaMetadataInfo.getSchemaMetadata().getName()),
-                                                serDesInfos);
+        return aggregatedSchemaMetadataLoader.load(Collections.singletonList(schemaMetadataInfo)).get(0);
     }
 
     private SchemaBranch getSchemaBranch(SchemaBranchKey schemaBranchKey) throws SchemaBranchNotFoundException {
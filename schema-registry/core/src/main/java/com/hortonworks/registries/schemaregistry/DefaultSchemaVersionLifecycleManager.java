@@ -19,6 +19,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
 import com.hortonworks.registries.common.QueryParam;
+import com.hortonworks.registries.schemaregistry.cache.CacheInvalidationPublisher;
 import com.hortonworks.registries.schemaregistry.cache.SchemaBranchCache;
 import com.hortonworks.registries.schemaregistry.cache.SchemaVersionInfoCache;
 import com.hortonworks.registries.schemaregistry.errors.IncompatibleSchemaException;
@@ -42,6 +43,7 @@ import com.hortonworks.registries.storage.OrderByField;
 import com.hortonworks.registries.storage.Storable;
 import com.hortonworks.registries.storage.StorableKey;
 import com.hortonworks.registries.storage.StorageManager;
+import com.hortonworks.registries.storage.TransactionManager;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.Logger;
@@ -52,6 +54,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -74,12 +77,29 @@ public class DefaultSchemaVersionLifecycleManager extends SchemaVersionLifecycle
                                          Map<String, Object> props,
                                          DefaultSchemaRegistry.SchemaMetadataFetcher schemaMetadataFetcher,
                                          SchemaBranchCache schemaBranchCache) {
-        super(props, schemaBranchCache);
+        this(storageManager, props, schemaMetadataFetcher, schemaBranchCache, CacheInvalidationPublisher.local());
+    }
+
+    public DefaultSchemaVersionLifecycleManager(StorageManager storageManager,
+                                         Map<String, Object> props,
+                                         DefaultSchemaRegistry.SchemaMetadataFetcher schemaMetadataFetcher,
+                                         SchemaBranchCache schemaBranchCache,
+                                         CacheInvalidationPublisher cacheInvalidationPublisher) {
+        super(props, schemaBranchCache, cacheInvalidationPublisher);
 
         this.storageManager = storageManager;
         this.schemaMetadataFetcher = schemaMetadataFetcher;
     }
 
+    @Override
+    protected void runAfterTransaction(Runnable action) {
+        if (storageManager instanceof TransactionManager) {
+            ((TransactionManager) storageManager).runAfterTransaction(action);
+        } else {
+            action.run();
+        }
+    }
+
     @Override @Nonnull
     protected SchemaVersionInfo createSchemaVersion(String schemaBranchName,
                                                   SchemaMetadata schemaMetadata,
@@ -135,16 +155,20 @@ public class DefaultSchemaVersionLifecycleManager extends SchemaVersionLifecycle
 
         SchemaBranchVersionMapping schemaBranchVersionMapping = new SchemaBranchVersionMapping(schemaBranch.getId(), schemaInstanceId);
         storageManager.add(schemaBranchVersionMapping);
+        invalidateSortedSchemaVersionsInCluster(schemaBranch.getId());
 
-        String storableNamespace = new SchemaFieldInfoStorable().getNameSpace();
         List<SchemaFieldInfo> schemaFieldInfos = getSchemaProvider(type).generateFields(schemaVersionStorable.getSchemaText());
+        List<SchemaFieldInfoStorable> schemaFieldInfoStorables = new ArrayList<>(schemaFieldInfos.size());
+        long timestamp = System.currentTimeMillis();
         for (SchemaFieldInfo schemaFieldInfo : schemaFieldInfos) {
-            final Long fieldInstanceId = storageManager.nextId(storableNamespace);
-            SchemaFieldInfoStorable schemaFieldInfoStorable = SchemaFieldInfoStorable.fromSchemaFieldInfo(schemaFieldInfo, fieldInstanceId);
+            SchemaFieldInfoStorable schemaFieldInfoStorable = SchemaFieldInfoStorable.fromSchemaFieldInfo(schemaFieldInfo, null);
             schemaFieldInfoStorable.setSchemaInstanceId(schemaInstanceId);
-            schemaFieldInfoStorable.setTimestamp(System.currentTimeMillis());
-            storageManager.add(schemaFieldInfoStorable);
+            schemaFieldInfoStorable.setTimestamp(timestamp);
+            schemaFieldInfoStorables.add(schemaFieldInfoStorable);
         }
+        // fields are inserted in batches instead of a round trip for each of them, which matters for wide schemas,
+        // and get their ids from addAll, either generated by the database or reserved together
+        storageManager.addAll(schemaFieldInfoStorables);
 
         return schemaVersionStorable.toSchemaVersionInfo();
     }
@@ -269,7 +293,7 @@ public class DefaultSchemaVersionLifecycleManager extends SchemaVersionLifecycle
     public void deleteSchemaVersion(SchemaVersionKey schemaVersionKey) throws SchemaNotFoundException, SchemaLifecycleException {
         SchemaVersionInfoCache.Key schemaVersionCacheKey = new SchemaVersionInfoCache.Key(schemaVersionKey);
         SchemaVersionInfo schemaVersionInfo = schemaVersionInfoCache.getSchema(schemaVersionCacheKey);
-        invalidateSchemaVersionCache(schemaVersionCacheKey);
+        invalidateSchemaVersionCacheInCluster(schemaVersionCacheKey);
         storageManager.remove(createSchemaVersionStorableKey(schemaVersionInfo.getId()));
         deleteSchemaVersionBranchMapping(schemaVersionInfo.getId());
     }
@@ -462,7 +486,7 @@ public class DefaultSchemaVersionLifecycleManager extends SchemaVersionLifecycle
 
         // invalidate schema version from cache
         SchemaVersionInfoCache.Key schemaVersionCacheKey = SchemaVersionInfoCache.Key.of(new SchemaIdVersion(schemaVersionId));
-        invalidateSchemaVersionCache(schemaVersionCacheKey);
+        invalidateSchemaVersionCacheInCluster(schemaVersionCacheKey);
     }
 
     @Override
@@ -479,7 +503,7 @@ public class DefaultSchemaVersionLifecycleManager extends SchemaVersionLifecycle
 
     protected void doDeleteSchemaVersion(Long schemaVersionId) throws SchemaNotFoundException, SchemaLifecycleException {
         SchemaVersionInfoCache.Key schemaVersionCacheKey = SchemaVersionInfoCache.Key.of(new SchemaIdVersion(schemaVersionId));
-        invalidateSchemaVersionCache(schemaVersionCacheKey);
+        invalidateSchemaVersionCacheInCluster(schemaVersionCacheKey);
         storageManager.remove(createSchemaVersionStorableKey(schemaVersionId));
         deleteSchemaVersionBranchMapping(schemaVersionId);
     }
@@ -607,6 +631,12 @@ public class DefaultSchemaVersionLifecycleManager extends SchemaVersionLifecycle
 
     @Override
     protected List<SchemaVersionInfo> getSortedSchemaVersions(Long schemaBranchId) throws SchemaNotFoundException, SchemaBranchNotFoundException {
+        List<SchemaVersionInfo> cachedSchemaVersionInfos = sortedSchemaVersionsCache.getIfPresent(schemaBranchId);
+        if (cachedSchemaVersionInfos != null) {
+            return cachedSchemaVersionInfos;
+        }
+        long invalidations = getSortedSchemaVersionsInvalidations();
+
         List<QueryParam> schemaVersionMappingStorableQueryParams = Lists.newArrayList();
         schemaVersionMappingStorableQueryParams.add(new QueryParam(SchemaBranchVersionMapping.SCHEMA_BRANCH_ID, schemaBranchId
                 .toString()));
@@ -624,11 +654,42 @@ public class DefaultSchemaVersionLifecycleManager extends SchemaVersionLifecycle
                 throw new InvalidSchemaBranchVersionMapping(String.format("No schema versions are attached to the schema branch id : '%s'", schemaBranchId));
         }
 
+        // versions which are not yet cached are loaded with a single query instead of one query for each of them
+        Map<Long, SchemaVersionInfo> schemaVersionInfoMap = new HashMap<>();
+        List<Long> missingSchemaVersionIds = new ArrayList<>();
         for (SchemaBranchVersionMapping storable : storables) {
-            SchemaIdVersion schemaIdVersion = new SchemaIdVersion(storable.getSchemaVersionInfoId());
-            schemaVersionInfos.add(schemaVersionInfoCache.getSchema(SchemaVersionInfoCache.Key.of(schemaIdVersion)));
+            Long schemaVersionId = storable.getSchemaVersionInfoId();
+            SchemaVersionInfo schemaVersionInfo =
+                    schemaVersionInfoCache.getSchemaIfPresent(SchemaVersionInfoCache.Key.of(new SchemaIdVersion(schemaVersionId)));
+            if (schemaVersionInfo != null) {
+                schemaVersionInfoMap.put(schemaVersionId, schemaVersionInfo);
+            } else {
+                missingSchemaVersionIds.add(schemaVersionId);
+            }
+        }
+
+        if (!missingSchemaVersionIds.isEmpty()) {
+            Collection<SchemaVersionStorable> schemaVersionStorables =
+                    storageManager.findIn(SchemaVersionStorable.NAME_SPACE, SchemaVersionStorable.ID,
+                                          missingSchemaVersionIds, Collections.emptyList());
+            for (SchemaVersionStorable schemaVersionStorable : schemaVersionStorables) {
+                SchemaVersionInfo schemaVersionInfo = schemaVersionStorable.toSchemaVersionInfo();
+                schemaVersionInfoCache.putSchema(schemaVersionInfo);
+                schemaVersionInfoMap.put(schemaVersionInfo.getId(), schemaVersionInfo);
+            }
         }
 
+        for (SchemaBranchVersionMapping storable : storables) {
+            SchemaVersionInfo schemaVersionInfo = schemaVersionInfoMap.get(storable.getSchemaVersionInfoId());
+            if (schemaVersionInfo == null) {
+                throw new SchemaNotFoundException("No Schema version exists with id " + storable.getSchemaVersionInfoId());
+            }
+            schemaVersionInfos.add(schemaVersionInfo);
+        }
+
+        schemaVersionInfos = Collections.unmodifiableList(schemaVersionInfos);
+        cacheSortedSchemaVersions(schemaBranchId, schemaVersionInfos, invalidations);
+
         return schemaVersionInfos;
     }
 
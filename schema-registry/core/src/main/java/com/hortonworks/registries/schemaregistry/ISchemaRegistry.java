@@ -21,10 +21,15 @@ import com.hortonworks.registries.schemaregistry.errors.SchemaBranchNotFoundExce
 import com.hortonworks.registries.schemaregistry.errors.SchemaNotFoundException;
 
 import javax.ws.rs.core.MultivaluedMap;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 /**
  *
@@ -35,6 +40,12 @@ public interface ISchemaRegistry extends ISchemaRegistryService {
 
     String AUTHORIZATION = "authorization";
 
+    /**
+     * Configuration of the {@link com.hortonworks.registries.schemaregistry.cache.CacheInvalidationBus} shared by the
+     * nodes of a cluster, with "className" of the implementation and its "config".
+     */
+    String CACHE_INVALIDATION = "cacheInvalidation";
+
     String DEFAULT_SCHEMA_VERSION_MERGE_STRATEGY = "OPTIMISTIC";
 
     /**
@@ -122,6 +133,25 @@ public interface ISchemaRegistry extends ISchemaRegistryService {
      */
     AggregatedSchemaMetadataInfo getAggregatedSchemaMetadataInfo(String schemaName) throws SchemaNotFoundException, SchemaBranchNotFoundException;
 
+    /**
+     * @param schemaMetadataInfos schemas to be aggregated
+     *
+     * @return {@link AggregatedSchemaMetadataInfo}s of the given schemas in the same order, schemas which
+     * are not registered anymore may be left out.
+     */
+    default Collection<AggregatedSchemaMetadataInfo> getAggregatedSchemaMetadataInfos(Collection<SchemaMetadataInfo> schemaMetadataInfos)
+            throws SchemaNotFoundException, SchemaBranchNotFoundException {
+        List<AggregatedSchemaMetadataInfo> aggregatedSchemaMetadataInfos = new ArrayList<>(schemaMetadataInfos.size());
+        for (SchemaMetadataInfo schemaMetadataInfo : schemaMetadataInfos) {
+            AggregatedSchemaMetadataInfo aggregatedSchemaMetadataInfo =
+                    getAggregatedSchemaMetadataInfo(schemaMetadataInfo.getSchemaMetadata().getName());
+            if (aggregatedSchemaMetadataInfo != null) {
+                aggregatedSchemaMetadataInfos.add(aggregatedSchemaMetadataInfo);
+            }
+        }
+        return aggregatedSchemaMetadataInfos;
+    }
+
     /**
      * @param props properties
      *
@@ -129,6 +159,41 @@ public interface ISchemaRegistry extends ISchemaRegistryService {
      */
     Collection<SchemaMetadataInfo> findSchemaMetadata(Map<String, String> props);
 
+    /**
+     * Lists the schemas page by page in the order of their ids, the next page starts after the id of the last schema of
+     * the previous page.
+     *
+     * @param afterId id after which the page starts, null for the first page
+     * @param limit   maximum number of schemas in the page
+     *
+     * @return the schemas of the page, which are fewer than the limit only on the last page
+     */
+    default List<SchemaMetadataInfo> listSchemaMetadata(Long afterId, int limit) {
+        return findSchemaMetadata(Collections.emptyMap()).stream()
+                                                         .filter(x -> afterId == null || x.getId() > afterId)
+                                                         .sorted(Comparator.comparing(SchemaMetadataInfo::getId))
+                                                         .limit(limit)
+                                                         .collect(Collectors.toList());
+    }
+
+    /**
+     * Finds a page of the schema versions containing the fields matching the given query. The matching fields are
+     * ordered by their ids, so that consecutive pages neither overlap nor miss any field.
+     *
+     * @param schemaFieldQuery {@link SchemaFieldQuery} instance to be run
+     * @param offset           number of matching fields to skip
+     * @param limit            maximum number of matching fields in the page
+     *
+     * @return the schema versions of the matching fields of the page, one for each field
+     */
+    default List<SchemaVersionKey> findSchemasByFields(SchemaFieldQuery schemaFieldQuery, int offset, int limit)
+            throws SchemaBranchNotFoundException, SchemaNotFoundException {
+        return findSchemasByFields(schemaFieldQuery).stream()
+                                                    .skip(offset)
+                                                    .limit(limit)
+                                                    .collect(Collectors.toList());
+    }
+
     /**
      * @param serDesId id
      *
@@ -219,6 +284,10 @@ public interface ISchemaRegistry extends ISchemaRegistryService {
         public static final String SCHEMA_CACHE_EXPIRY_INTERVAL_SECS = "schemaCacheExpiryInterval";
         public static final int DEFAULT_SCHEMA_CACHE_SIZE = 10000;
         public static final long DEFAULT_SCHEMA_CACHE_EXPIRY_INTERVAL_SECS = 60 * 60L;
+        public static final String SCHEMA_SEARCH_INDEX_REFRESH_INTERVAL_SECS = "schemaSearchIndexRefreshInterval";
+        public static final long DEFAULT_SCHEMA_SEARCH_INDEX_REFRESH_INTERVAL_SECS = 5 * 60L;
+        public static final String SCHEMA_SEARCH_CASE_SENSITIVE = "schemaSearchCaseSensitive";
+        public static final boolean DEFAULT_SCHEMA_SEARCH_CASE_SENSITIVE = false;
 
         private final Map<String, ?> config;
 
@@ -249,6 +318,24 @@ public interface ISchemaRegistry extends ISchemaRegistryService {
             return Long.valueOf(getPropertyValue(SCHEMA_CACHE_EXPIRY_INTERVAL_SECS, DEFAULT_SCHEMA_CACHE_EXPIRY_INTERVAL_SECS)
                     .toString());
         }
+
+        /**
+         * @return seconds after which the in memory schema search index is reloaded, to pick up the updates which were
+         * rolled back or which were not published by other nodes
+         */
+        public long getSchemaSearchIndexRefreshIntervalInSecs() {
+            return Long.valueOf(getPropertyValue(SCHEMA_SEARCH_INDEX_REFRESH_INTERVAL_SECS, DEFAULT_SCHEMA_SEARCH_INDEX_REFRESH_INTERVAL_SECS)
+                    .toString());
+        }
+
+        /**
+         * @return true if the in memory schema search index matches names and descriptions case sensitively. It is
+         * case insensitive by default, like {@code LIKE} on MySQL, and it should be set to true with PostgreSQL or
+         * Oracle to keep the case sensitive results of {@code LIKE} on those databases
+         */
+        public boolean isSchemaSearchCaseSensitive() {
+            return Boolean.parseBoolean(getPropertyValue(SCHEMA_SEARCH_CASE_SENSITIVE, DEFAULT_SCHEMA_SEARCH_CASE_SENSITIVE).toString());
+        }
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,269 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.schemaregistry;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * In memory trigram index over the names and descriptions of all the schemas, which answers the substring searches of
+ * {@link DefaultSchemaRegistry#searchSchemas} without a {@code LIKE '%x%'} scan of the schema metadata table.
+ * <p>
+ * Candidates are the schemas having all the trigrams of the searched text, which are then checked to contain the text.
+ * Texts shorter than a trigram are checked against all the schemas. Unless the index is case sensitive, texts are
+ * indexed and compared in lower case, like {@code LIKE} with the default collations of MySQL. {@code LIKE} is case
+ * sensitive on PostgreSQL and Oracle, so an index for those databases should be case sensitive to return the same
+ * schemas as the database search.
+ * <p>
+ * The index is loaded with all the schemas at once and it is kept up to date by the registry with the updates of each
+ * schema, its own ones once their transaction ends and the ones published by other nodes. As the updates of another
+ * node may not be published when it fails meanwhile, the index is also reloaded when it is older than the given refresh
+ * interval or after it is invalidated. The schemas are read without holding the lock of the index, so searches keep using the previous
+ * index while it is reloaded, and the updates of single schemas done meanwhile are applied again on the reloaded one.
+ */
+class SchemaMetadataSearchIndex {
+
+    private static final int GRAM_LENGTH = 3;
+
+    private final Map<String, SchemaMetadataStorable> schemasByName = new HashMap<>();
+    private final Map<String, Set<String>> namesByNameGram = new HashMap<>();
+    private final Map<String, Set<String>> namesByDescriptionGram = new HashMap<>();
+    private final long refreshIntervalMs;
+    private final boolean caseSensitive;
+    // held while the schemas are read for a reload, so that only one thread reads them
+    private final Object loadLock = new Object();
+    private long loadedAt;
+    private boolean loaded;
+    private boolean loading;
+    // incremented by invalidate, a reload which was started before is not fresh
+    private int generation;
+    // updates of single schemas done during a reload, a null value for a removed schema
+    private Map<String, SchemaMetadataStorable> updatesDuringLoad;
+
+    SchemaMetadataSearchIndex(long refreshIntervalMs, boolean caseSensitive) {
+        this.refreshIntervalMs = refreshIntervalMs;
+        this.caseSensitive = caseSensitive;
+    }
+
+    /**
+     * Loads the index with the given schemas if it is not loaded yet, or it is older than the refresh interval. A
+     * thread finding an index which was loaded before returns without waiting for the reload of another thread.
+     */
+    void loadIfNeeded(Supplier<Collection<SchemaMetadataStorable>> schemasSupplier) {
+        synchronized (this) {
+            if (loaded && (loading || isFresh())) {
+                return;
+            }
+        }
+
+        synchronized (loadLock) {
+            long startedAt;
+            int startedGeneration;
+            synchronized (this) {
+                if (loaded && isFresh()) {
+                    return;
+                }
+                startedAt = System.currentTimeMillis();
+                startedGeneration = generation;
+                loading = true;
+                updatesDuringLoad = new LinkedHashMap<>();
+            }
+
+            Collection<SchemaMetadataStorable> schemas = null;
+            try {
+                schemas = schemasSupplier.get();
+            } finally {
+                synchronized (this) {
+                    if (schemas != null) {
+                        reload(schemas);
+                        loaded = startedGeneration == generation;
+                        loadedAt = startedAt;
+                    }
+                    loading = false;
+                    updatesDuringLoad = null;
+                }
+            }
+        }
+    }
+
+    private boolean isFresh() {
+        return System.currentTimeMillis() - loadedAt < refreshIntervalMs;
+    }
+
+    private void reload(Collection<SchemaMetadataStorable> schemas) {
+        Map<String, SchemaMetadataStorable> updates = updatesDuringLoad;
+        updatesDuringLoad = null;
+        schemasByName.clear();
+        namesByNameGram.clear();
+        namesByDescriptionGram.clear();
+        for (SchemaMetadataStorable schema : schemas) {
+            put(schema);
+        }
+        for (Map.Entry<String, SchemaMetadataStorable> update : updates.entrySet()) {
+            if (update.getValue() != null) {
+                put(update.getValue());
+            } else {
+                remove(update.getKey());
+            }
+        }
+    }
+
+    synchronized void invalidate() {
+        loaded = false;
+        generation++;
+    }
+
+    synchronized void put(SchemaMetadataStorable schema) {
+        removeFromIndex(schema.getName());
+        schemasByName.put(schema.getName(), schema);
+        addGrams(namesByNameGram, schema.getName(), schema.getName());
+        addGrams(namesByDescriptionGram, schema.getDescription(), schema.getName());
+        if (updatesDuringLoad != null) {
+            updatesDuringLoad.put(schema.getName(), schema);
+        }
+    }
+
+    synchronized void remove(String schemaName) {
+        removeFromIndex(schemaName);
+        if (updatesDuringLoad != null) {
+            updatesDuringLoad.put(schemaName, null);
+        }
+    }
+
+    private void removeFromIndex(String schemaName) {
+        SchemaMetadataStorable schema = schemasByName.remove(schemaName);
+        if (schema != null) {
+            removeGrams(namesByNameGram, schema.getName(), schemaName);
+            removeGrams(namesByDescriptionGram, schema.getDescription(), schemaName);
+        }
+    }
+
+    /**
+     * @param name        text contained by the names of the returned schemas, no schema is matched by name if it is null
+     * @param description text contained by the descriptions of the returned schemas, no schema is matched by
+     *                    description if it is null
+     * @return the schemas matching either of the given texts. Schemas with the exact name come first, then the ones with
+     * a name starting with the text, then the ones with a name containing it and finally the ones matched by
+     * description, each ordered by name.
+     */
+    synchronized List<SchemaMetadataStorable> search(String name, String description) {
+        Map<String, Integer> ranks = new HashMap<>();
+        if (name != null) {
+            String text = normalize(name);
+            for (String schemaName : find(namesByNameGram, text, SchemaMetadataStorable::getName)) {
+                String normalizedName = normalize(schemaName);
+                ranks.put(schemaName, normalizedName.equals(text) ? 0 : normalizedName.startsWith(text) ? 1 : 2);
+            }
+        }
+        if (description != null) {
+            for (String schemaName : find(namesByDescriptionGram, normalize(description), SchemaMetadataStorable::getDescription)) {
+                ranks.putIfAbsent(schemaName, 3);
+            }
+        }
+
+        List<String> schemaNames = new ArrayList<>(ranks.keySet());
+        schemaNames.sort(Comparator.<String>comparingInt(ranks::get).thenComparing(Comparator.naturalOrder()));
+        List<SchemaMetadataStorable> result = new ArrayList<>(schemaNames.size());
+        for (String schemaName : schemaNames) {
+            result.add(schemasByName.get(schemaName));
+        }
+        return result;
+    }
+
+    synchronized int size() {
+        return schemasByName.size();
+    }
+
+    /**
+     * @param text normalized text to find
+     */
+    private Collection<String> find(Map<String, Set<String>> namesByGram,
+                                    String text,
+                                    Function<SchemaMetadataStorable, String> field) {
+        Collection<String> candidates = schemasByName.keySet();
+        if (text.length() >= GRAM_LENGTH) {
+            // starting with the least frequent trigram keeps the intersection small
+            List<Set<String>> postings = new ArrayList<>();
+            for (String gram : grams(text)) {
+                Set<String> names = namesByGram.get(gram);
+                if (names == null) {
+                    return Collections.emptyList();
+                }
+                postings.add(names);
+            }
+            postings.sort(Comparator.comparingInt(Set::size));
+            Set<String> intersection = new HashSet<>(postings.get(0));
+            for (int i = 1; i < postings.size() && !intersection.isEmpty(); i++) {
+                intersection.retainAll(postings.get(i));
+            }
+            candidates = intersection;
+        }
+
+        List<String> result = new ArrayList<>();
+        for (String schemaName : candidates) {
+            String value = field.apply(schemasByName.get(schemaName));
+            if (value != null && normalize(value).contains(text)) {
+                result.add(schemaName);
+            }
+        }
+        return result;
+    }
+
+    private String normalize(String text) {
+        return caseSensitive ? text : text.toLowerCase(Locale.ROOT);
+    }
+
+    private void addGrams(Map<String, Set<String>> namesByGram, String text, String schemaName) {
+        if (text != null) {
+            for (String gram : grams(normalize(text))) {
+                namesByGram.computeIfAbsent(gram, x -> new HashSet<>()).add(schemaName);
+            }
+        }
+    }
+
+    private void removeGrams(Map<String, Set<String>> namesByGram, String text, String schemaName) {
+        if (text != null) {
+            for (String gram : grams(normalize(text))) {
+                Set<String> names = namesByGram.get(gram);
+                if (names != null) {
+                    names.remove(schemaName);
+                    if (names.isEmpty()) {
+                        namesByGram.remove(gram);
+                    }
+                }
+            }
+        }
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+}
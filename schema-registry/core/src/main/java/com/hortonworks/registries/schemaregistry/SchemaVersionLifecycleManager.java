@@ -16,8 +16,13 @@
 package com.hortonworks.registries.schemaregistry;
 
 import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
 import com.google.common.collect.Lists;
+import com.hortonworks.registries.schemaregistry.cache.CacheInvalidationPublisher;
 import com.hortonworks.registries.schemaregistry.cache.SchemaBranchCache;
+import com.hortonworks.registries.schemaregistry.cache.SchemaRegistryCacheType;
 import com.hortonworks.registries.schemaregistry.cache.SchemaVersionInfoCache;
 import com.hortonworks.registries.schemaregistry.errors.IncompatibleSchemaException;
 import com.hortonworks.registries.schemaregistry.errors.InvalidSchemaException;
@@ -37,11 +42,15 @@ import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
 import java.util.Collection;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -56,16 +65,37 @@ public abstract class SchemaVersionLifecycleManager {
     protected final SchemaBranchCache schemaBranchCache;
     protected final SchemaVersionRetriever schemaVersionRetriever;
     protected final SchemaVersionInfoCache schemaVersionInfoCache;
+    // sorted versions of a schema branch keyed by branch id, kept consistent with schemaVersionInfoCache on invalidation.
+    // Entries expire after write, so an entry which is read all the time is still reloaded eventually.
+    protected final Cache<Long, List<SchemaVersionInfo>> sortedSchemaVersionsCache;
+    // incremented before sorted versions are invalidated, so that versions loaded before are not cached afterwards
+    private final AtomicLong sortedSchemaVersionsInvalidations = new AtomicLong();
+    // ids of the branches whose cached sorted versions contain a schema version, by each key which refers to that
+    // version. It is only changed along with sortedSchemaVersionsCache while holding its lock.
+    private final Map<SchemaVersionInfoCache.Key, Set<Long>> sortedSchemaVersionsBranchIds = new HashMap<>();
     protected final CustomSchemaStateExecutor customSchemaStateExecutor;
+    protected final CacheInvalidationPublisher cacheInvalidationPublisher;
 
     public SchemaVersionLifecycleManager(Map<String, Object> props, SchemaBranchCache schemaBranchCache) {
+        this(props, schemaBranchCache, CacheInvalidationPublisher.local());
+    }
+
+    public SchemaVersionLifecycleManager(Map<String, Object> props,
+                                         SchemaBranchCache schemaBranchCache,
+                                         CacheInvalidationPublisher cacheInvalidationPublisher) {
         this.schemaBranchCache = schemaBranchCache;
+        this.cacheInvalidationPublisher = cacheInvalidationPublisher;
         schemaVersionRetriever = createSchemaVersionRetriever();
         ISchemaRegistry.Options options = new ISchemaRegistry.Options(props);
         schemaVersionInfoCache = new SchemaVersionInfoCache(
                 schemaVersionRetriever,
                 options.getMaxSchemaCacheSize(),
                 options.getSchemaExpiryInSecs() * 1000L);
+        sortedSchemaVersionsCache = CacheBuilder.newBuilder()
+                                                .maximumSize(options.getMaxSchemaCacheSize())
+                                                .expireAfterWrite(options.getSchemaExpiryInSecs(), TimeUnit.SECONDS)
+                                                .removalListener(this::onSortedSchemaVersionsRemoval)
+                                                .build();
 
         SchemaVersionLifecycleStateMachine.Builder builder = SchemaVersionLifecycleStateMachine.newBuilder();
         customSchemaStateExecutor = createSchemaReviewExecutor(props, builder);
@@ -543,10 +573,128 @@ public abstract class SchemaVersionLifecycleManager {
 
     public void invalidateAllSchemaVersionCache() {
         schemaVersionInfoCache.invalidateAll();
+        synchronized (sortedSchemaVersionsBranchIds) {
+            sortedSchemaVersionsInvalidations.incrementAndGet();
+            sortedSchemaVersionsCache.invalidateAll();
+        }
     }
 
     public void invalidateSchemaVersionCache(SchemaVersionInfoCache.Key key) {
         schemaVersionInfoCache.invalidateSchema(key);
+        // drop the sorted versions of any branch containing this version
+        synchronized (sortedSchemaVersionsBranchIds) {
+            sortedSchemaVersionsInvalidations.incrementAndGet();
+            Set<Long> schemaBranchIds = sortedSchemaVersionsBranchIds.get(key);
+            if (schemaBranchIds != null) {
+                // copied, as the removal of the sorted versions also removes their branch ids from the index
+                sortedSchemaVersionsCache.invalidateAll(new ArrayList<>(schemaBranchIds));
+            }
+        }
+    }
+
+    public void invalidateSortedSchemaVersions(Long schemaBranchId) {
+        synchronized (sortedSchemaVersionsBranchIds) {
+            sortedSchemaVersionsInvalidations.incrementAndGet();
+            sortedSchemaVersionsCache.invalidate(schemaBranchId);
+        }
+    }
+
+    /**
+     * @return the number of invalidations of sorted versions so far, to be given to
+     * {@link #cacheSortedSchemaVersions} with the versions loaded after it was taken
+     */
+    protected long getSortedSchemaVersionsInvalidations() {
+        return sortedSchemaVersionsInvalidations.get();
+    }
+
+    /**
+     * Caches the given sorted versions of a schema branch, unless sorted versions were invalidated since they started
+     * to be loaded, as they may be from before the invalidated update then.
+     */
+    protected void cacheSortedSchemaVersions(Long schemaBranchId, List<SchemaVersionInfo> schemaVersionInfos, long invalidations) {
+        synchronized (sortedSchemaVersionsBranchIds) {
+            if (sortedSchemaVersionsInvalidations.get() != invalidations) {
+                return;
+            }
+            for (SchemaVersionInfo schemaVersionInfo : schemaVersionInfos) {
+                for (SchemaVersionInfoCache.Key key : keysOf(schemaVersionInfo)) {
+                    sortedSchemaVersionsBranchIds.computeIfAbsent(key, k -> new HashSet<>()).add(schemaBranchId);
+                }
+            }
+            sortedSchemaVersionsCache.put(schemaBranchId, schemaVersionInfos);
+        }
+    }
+
+    /**
+     * Removes the branch of the removed sorted versions from the index of the versions which are not in the sorted
+     * versions cached for it now, if any. Removals of expired or evicted entries may be notified to any thread which
+     * uses the cache, so the lock is taken here as well.
+     */
+    private void onSortedSchemaVersionsRemoval(RemovalNotification<Long, List<SchemaVersionInfo>> notification) {
+        Long schemaBranchId = notification.getKey();
+        List<SchemaVersionInfo> removedSchemaVersionInfos = notification.getValue();
+        if (schemaBranchId == null || removedSchemaVersionInfos == null) {
+            return;
+        }
+        synchronized (sortedSchemaVersionsBranchIds) {
+            List<SchemaVersionInfo> cachedSchemaVersionInfos = sortedSchemaVersionsCache.asMap().get(schemaBranchId);
+            for (SchemaVersionInfo schemaVersionInfo : removedSchemaVersionInfos) {
+                if (cachedSchemaVersionInfos != null && cachedSchemaVersionInfos.contains(schemaVersionInfo)) {
+                    continue;
+                }
+                for (SchemaVersionInfoCache.Key key : keysOf(schemaVersionInfo)) {
+                    sortedSchemaVersionsBranchIds.computeIfPresent(key, (k, schemaBranchIds) -> {
+                        schemaBranchIds.remove(schemaBranchId);
+                        return schemaBranchIds.isEmpty() ? null : schemaBranchIds;
+                    });
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the keys a schema version can be invalidated with, which are equal to any other key referring to it
+     */
+    private static List<SchemaVersionInfoCache.Key> keysOf(SchemaVersionInfo schemaVersionInfo) {
+        List<SchemaVersionInfoCache.Key> keys = new ArrayList<>(3);
+        keys.add(SchemaVersionInfoCache.Key.of(new SchemaIdVersion(schemaVersionInfo.getId())));
+        keys.add(SchemaVersionInfoCache.Key.of(new SchemaVersionKey(schemaVersionInfo.getName(), schemaVersionInfo.getVersion())));
+        if (schemaVersionInfo.getSchemaMetadataId() != null) {
+            keys.add(SchemaVersionInfoCache.Key.of(new SchemaIdVersion(schemaVersionInfo.getSchemaMetadataId(),
+                                                                       schemaVersionInfo.getVersion())));
+        }
+        return keys;
+    }
+
+    /**
+     * Invalidates the given schema version on this node and publishes the invalidation to the other nodes.
+     * <p>
+     * The entry is invalidated again once the current transaction ends, as it may have been cached meanwhile from the
+     * state before the update by a concurrent transaction, or from the update itself which may be rolled back.
+     */
+    protected void invalidateSchemaVersionCacheInCluster(SchemaVersionInfoCache.Key key) {
+        invalidateSchemaVersionCache(key);
+        runAfterTransaction(() -> invalidateSchemaVersionCache(key));
+        cacheInvalidationPublisher.publish(SchemaRegistryCacheType.SCHEMA_VERSION_CACHE, key);
+    }
+
+    /**
+     * Invalidates the sorted versions of the given schema branch on this node and publishes the invalidation of the
+     * branch to the other nodes, which also drops its sorted versions there. Like
+     * {@link #invalidateSchemaVersionCacheInCluster}, they are invalidated again once the current transaction ends.
+     */
+    protected void invalidateSortedSchemaVersionsInCluster(Long schemaBranchId) {
+        invalidateSortedSchemaVersions(schemaBranchId);
+        runAfterTransaction(() -> invalidateSortedSchemaVersions(schemaBranchId));
+        cacheInvalidationPublisher.publish(SchemaRegistryCacheType.SCHEMA_BRANCH_CACHE, SchemaBranchCache.Key.of(schemaBranchId));
+    }
+
+    /**
+     * Runs the given action once the current transaction of the storage is committed or rolled back. By default there
+     * is no transaction and the action runs right away.
+     */
+    protected void runAfterTransaction(Runnable action) {
+        action.run();
     }
 
     @SuppressWarnings("unchecked")
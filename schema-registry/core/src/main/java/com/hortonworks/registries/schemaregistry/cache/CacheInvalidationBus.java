@@ -0,0 +1,51 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package com.hortonworks.registries.schemaregistry.cache;
+
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Channel through which the nodes of a registry cluster notify each other about the cache entries invalidated by their
+ * writes, so that cache entries can live long without serving stale data after a write on another node.
+ * <p>
+ * Events are delivered to the subscribers of all the nodes, including the node which published them, and subscribers
+ * are expected to ignore their own events.
+ */
+public interface CacheInvalidationBus extends AutoCloseable {
+
+    /**
+     * Initializes this bus with the given configuration.
+     */
+    void init(Map<String, Object> config);
+
+    /**
+     * Registers the given listener to receive the events published on this bus.
+     */
+    void subscribe(Consumer<CacheInvalidationEvent> listener);
+
+    /**
+     * Publishes the given event to the subscribers of this bus.
+     */
+    void publish(CacheInvalidationEvent event);
+
+    /**
+     * Stops delivering events and releases the resources of this bus.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,81 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package com.hortonworks.registries.schemaregistry.cache;
+
+import java.util.Objects;
+
+/**
+ * Invalidation of a cache entry, or of all cache entries for {@link SchemaRegistryCacheType#ALL}, made by a registry
+ * node which is to be applied by the other nodes of the cluster.
+ */
+public final class CacheInvalidationEvent {
+    private final String nodeId;
+    private final SchemaRegistryCacheType cacheType;
+    private final String key;
+
+    /**
+     * @param nodeId    id of the node which invalidated the entry
+     * @param cacheType type of the cache
+     * @param key       serialized key of the cache entry, as accepted by
+     *                  {@link com.hortonworks.registries.schemaregistry.ISchemaRegistry#invalidateCache(SchemaRegistryCacheType, String)}
+     */
+    public CacheInvalidationEvent(String nodeId, SchemaRegistryCacheType cacheType, String key) {
+        this.nodeId = nodeId;
+        this.cacheType = cacheType;
+        this.key = key;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public SchemaRegistryCacheType getCacheType() {
+        return cacheType;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        CacheInvalidationEvent that = (CacheInvalidationEvent) o;
+        return Objects.equals(nodeId, that.nodeId) &&
+                cacheType == that.cacheType &&
+                Objects.equals(key, that.key);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(nodeId, cacheType, key);
+    }
+
+    @Override
+    public String toString() {
+        return "CacheInvalidationEvent{" +
+                "nodeId='" + nodeId + '\'' +
+                ", cacheType=" + cacheType +
+                ", key='" + key + '\'' +
+                '}';
+    }
+}
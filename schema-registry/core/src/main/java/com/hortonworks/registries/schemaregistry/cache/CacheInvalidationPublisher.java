@@ -0,0 +1,69 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package com.hortonworks.registries.schemaregistry.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.hortonworks.registries.schemaregistry.utils.ObjectMapperUtils;
+
+import java.util.UUID;
+
+/**
+ * Publishes the cache invalidations of a registry node on a {@link CacheInvalidationBus}.
+ */
+public class CacheInvalidationPublisher {
+    private final String nodeId;
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    public CacheInvalidationPublisher(String nodeId, CacheInvalidationBus cacheInvalidationBus) {
+        this.nodeId = nodeId;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+    }
+
+    /**
+     * @return publisher for a node which does not share its caches with any other node
+     */
+    public static CacheInvalidationPublisher local() {
+        return new CacheInvalidationPublisher(UUID.randomUUID().toString(), new LoopbackCacheInvalidationBus());
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * @return true if the given event was published by another node
+     */
+    public boolean isRemote(CacheInvalidationEvent event) {
+        return !nodeId.equals(event.getNodeId());
+    }
+
+    /**
+     * Publishes the invalidation of the entry with the given key in the given cache.
+     *
+     * @param cacheType type of the cache
+     * @param key       key of the cache entry, which is serialized as JSON
+     */
+    public void publish(SchemaRegistryCacheType cacheType, Object key) {
+        String keyAsString;
+        try {
+            keyAsString = ObjectMapperUtils.serializeToString(key);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException(String.format("Failed to serialize key : [%s]", key), e);
+        }
+        cacheInvalidationBus.publish(new CacheInvalidationEvent(nodeId, cacheType, keyAsString));
+    }
+}
@@ -0,0 +1,257 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package com.hortonworks.registries.schemaregistry.cache;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.hortonworks.registries.schemaregistry.CacheInvalidationStorable;
+import com.hortonworks.registries.storage.StorageManager;
+import com.hortonworks.registries.storage.StorageManagerAware;
+import com.hortonworks.registries.storage.TransactionManager;
+import com.hortonworks.registries.storage.search.OrderBy;
+import com.hortonworks.registries.storage.search.SearchQuery;
+import com.hortonworks.registries.storage.search.WhereClause;
+import com.hortonworks.registries.storage.transaction.ManagedTransaction;
+import com.hortonworks.registries.storage.transaction.TransactionIsolation;
+import com.hortonworks.registries.storage.transaction.functional.ManagedTransactionFunction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * {@link CacheInvalidationBus} backed by the {@link CacheInvalidationStorable} change log in the registry database.
+ * <p>
+ * Events are appended to the change log within the transaction of the write which published them, so they become
+ * visible to the other nodes only once the write is committed. Each node tails the change log every
+ * {@link #POLL_INTERVAL_MS} milliseconds, using the increasing ids of the entries as its cursor. As entries may be
+ * committed out of the order of their ids, the ids skipped by a poll are remembered as gaps, and the entries filling
+ * them are delivered by the later polls. A gap is given up after {@link #GAP_TIMEOUT_MS} milliseconds of the local
+ * clock, as the ids of rolled back writes are never filled. Entries older than {@link #RETENTION_MS} milliseconds are
+ * purged from the change log.
+ */
+public class StorageCacheInvalidationBus implements CacheInvalidationBus, StorageManagerAware {
+    private static final Logger LOG = LoggerFactory.getLogger(StorageCacheInvalidationBus.class);
+
+    public static final String POLL_INTERVAL_MS = "pollIntervalMs";
+    public static final String GAP_TIMEOUT_MS = "gapTimeoutMs";
+    public static final String RETENTION_MS = "retentionMs";
+
+    public static final long DEFAULT_POLL_INTERVAL_MS = 100L;
+    public static final long DEFAULT_GAP_TIMEOUT_MS = 5 * 60 * 1000L;
+    public static final long DEFAULT_RETENTION_MS = 60 * 60 * 1000L;
+
+    private final List<Consumer<CacheInvalidationEvent>> listeners = new CopyOnWriteArrayList<>();
+    // ids skipped by the polls which may still be filled by the entries of pending transactions, by their first id
+    private final NavigableMap<Long, Gap> gaps = new TreeMap<>();
+
+    private StorageManager storageManager;
+    private long pollIntervalMs = DEFAULT_POLL_INTERVAL_MS;
+    private long gapTimeoutMs = DEFAULT_GAP_TIMEOUT_MS;
+    private long retentionMs = DEFAULT_RETENTION_MS;
+    private ScheduledExecutorService poller;
+    private long lastId;
+    private long lastPurgeTime;
+
+    @Override
+    public void setStorageManager(StorageManager storageManager) {
+        this.storageManager = storageManager;
+    }
+
+    @Override
+    public void init(Map<String, Object> config) {
+        pollIntervalMs = getLong(config, POLL_INTERVAL_MS, DEFAULT_POLL_INTERVAL_MS);
+        gapTimeoutMs = getLong(config, GAP_TIMEOUT_MS, DEFAULT_GAP_TIMEOUT_MS);
+        retentionMs = getLong(config, RETENTION_MS, DEFAULT_RETENTION_MS);
+        if (gapTimeoutMs >= retentionMs) {
+            throw new IllegalArgumentException(String.format("%s [%d] must be less than %s [%d]",
+                                                             GAP_TIMEOUT_MS, gapTimeoutMs, RETENTION_MS, retentionMs));
+        }
+    }
+
+    @Override
+    public synchronized void subscribe(Consumer<CacheInvalidationEvent> listener) {
+        listeners.add(listener);
+        if (poller == null) {
+            // only the entries published from now on are relevant for the caches of this node
+            lastId = inTransaction(this::findLastId);
+            lastPurgeTime = System.currentTimeMillis();
+            poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "cache-invalidation-poller");
+                thread.setDaemon(true);
+                return thread;
+            });
+            poller.scheduleWithFixedDelay(this::pollSafely, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void publish(CacheInvalidationEvent event) {
+        CacheInvalidationStorable storable = new CacheInvalidationStorable(storageManager.nextId(CacheInvalidationStorable.NAME_SPACE),
+                                                                           event,
+                                                                           System.currentTimeMillis());
+        storageManager.add(storable);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (poller != null) {
+            poller.shutdownNow();
+            poller = null;
+        }
+        listeners.clear();
+    }
+
+    private void pollSafely() {
+        try {
+            poll();
+        } catch (Exception e) {
+            // the cursor only moves past the delivered entries, so the next poll reads the entries missed by this one
+            LOG.error("Failed to read cache invalidations", e);
+        }
+    }
+
+    @VisibleForTesting
+    synchronized void poll() {
+        long now = System.currentTimeMillis();
+        expireGaps(now);
+
+        long after = gaps.isEmpty() ? lastId : gaps.firstKey() - 1;
+        SearchQuery searchQuery = SearchQuery.searchFrom(CacheInvalidationStorable.NAME_SPACE)
+                                             .where(WhereClause.begin().gt(CacheInvalidationStorable.ID, after).combine())
+                                             .orderBy(OrderBy.asc(CacheInvalidationStorable.ID));
+        Collection<CacheInvalidationStorable> entries = inTransaction(() -> storageManager.search(searchQuery));
+        for (CacheInvalidationStorable entry : entries) {
+            if (advance(entry.getId(), now)) {
+                deliver(entry.toCacheInvalidationEvent());
+            }
+        }
+
+        if (now - lastPurgeTime > retentionMs) {
+            purge(now - retentionMs);
+            lastPurgeTime = now;
+        }
+    }
+
+    /**
+     * Moves the cursor to the given id of an entry read from the change log.
+     *
+     * @return true if the entry has not been delivered yet
+     */
+    private boolean advance(long id, long now) {
+        if (id > lastId) {
+            if (id > lastId + 1) {
+                gaps.put(lastId + 1, new Gap(id - 1, now));
+            }
+            lastId = id;
+            return true;
+        }
+
+        Map.Entry<Long, Gap> gapEntry = gaps.floorEntry(id);
+        if (gapEntry == null || gapEntry.getValue().end < id) {
+            return false;
+        }
+
+        // split the gap around the id filled by a late commit
+        long start = gapEntry.getKey();
+        Gap gap = gaps.remove(start);
+        if (start < id) {
+            gaps.put(start, new Gap(id - 1, gap.detectedAt));
+        }
+        if (id < gap.end) {
+            gaps.put(id + 1, new Gap(gap.end, gap.detectedAt));
+        }
+        return true;
+    }
+
+    private void expireGaps(long now) {
+        Iterator<Map.Entry<Long, Gap>> iterator = gaps.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, Gap> gapEntry = iterator.next();
+            if (now - gapEntry.getValue().detectedAt > gapTimeoutMs) {
+                // ids of rolled back transactions or of a sequence skipping values are never filled
+                LOG.debug("Giving up the cache invalidation ids from [{}] to [{}]", gapEntry.getKey(), gapEntry.getValue().end);
+                iterator.remove();
+            }
+        }
+    }
+
+    private void deliver(CacheInvalidationEvent event) {
+        for (Consumer<CacheInvalidationEvent> listener : listeners) {
+            try {
+                listener.accept(event);
+            } catch (Exception e) {
+                LOG.error("Failed to apply cache invalidation [{}]", event, e);
+            }
+        }
+    }
+
+    private long findLastId() {
+        SearchQuery searchQuery = SearchQuery.searchFrom(CacheInvalidationStorable.NAME_SPACE)
+                                             .orderBy(OrderBy.desc(CacheInvalidationStorable.ID))
+                                             .limit(1);
+        Collection<CacheInvalidationStorable> entries = storageManager.search(searchQuery);
+        return entries.isEmpty() ? 0L : entries.iterator().next().getId();
+    }
+
+    private void purge(long before) {
+        SearchQuery searchQuery = SearchQuery.searchFrom(CacheInvalidationStorable.NAME_SPACE)
+                                             .where(WhereClause.begin().lt(CacheInvalidationStorable.TIMESTAMP, before).combine());
+        int purged = inTransaction(() -> storageManager.removeAll(searchQuery));
+        LOG.debug("Purged [{}] cache invalidations older than [{}]", purged, before);
+    }
+
+    /**
+     * Runs the given queries of the poller in a transaction of their own, so that they do not borrow a connection
+     * each from the storage outside of any transaction.
+     */
+    private <R> R inTransaction(ManagedTransactionFunction.Arg0<R> fn) {
+        try {
+            return storageManager instanceof TransactionManager
+                    ? new ManagedTransaction((TransactionManager) storageManager, TransactionIsolation.READ_COMMITTED).executeFunction(fn)
+                    : fn.apply();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static long getLong(Map<String, Object> config, String key, long defaultValue) {
+        Object value = config != null ? config.get(key) : null;
+        return value != null ? Long.parseLong(value.toString()) : defaultValue;
+    }
+
+    private static final class Gap {
+        private final long end;
+        private final long detectedAt;
+
+        private Gap(long end, long detectedAt) {
+            this.end = end;
+            this.detectedAt = detectedAt;
+        }
+    }
+}
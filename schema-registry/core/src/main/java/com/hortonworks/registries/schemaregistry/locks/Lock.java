@@ -16,6 +16,8 @@
 
 package com.hortonworks.registries.schemaregistry.locks;
 
+import com.hortonworks.registries.storage.transaction.TransactionScope;
+
 import java.util.concurrent.TimeUnit;
 
 public interface Lock {
@@ -24,7 +26,10 @@ public interface Lock {
 
     LockType getLockType();
 
-    long getLockHoldingThreadId();
+    /**
+     * @return the transaction scope which acquired this lock, null if it is not acquired
+     */
+    TransactionScope getLockHolder();
 
     boolean lock(Long time, TimeUnit timeUnit);
 }
@@ -19,6 +19,7 @@ package com.hortonworks.registries.schemaregistry.locks;
 import com.hortonworks.registries.schemaregistry.SchemaLockStorable;
 import com.hortonworks.registries.storage.StorableKey;
 import com.hortonworks.registries.storage.TransactionManager;
+import com.hortonworks.registries.storage.transaction.TransactionScope;
 
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
@@ -26,7 +27,7 @@ import java.util.concurrent.TimeUnit;
 public class ReadLock implements Lock {
 
     private String lockName;
-    private long lockHoldingThreadId = -1L;
+    private TransactionScope lockHolder;
 
     private TransactionManager transactionManager;
 
@@ -41,8 +42,8 @@ public class ReadLock implements Lock {
     }
 
     @Override
-    public long getLockHoldingThreadId() {
-        return lockHoldingThreadId;
+    public TransactionScope getLockHolder() {
+        return lockHolder;
     }
 
     @Override
@@ -51,9 +52,9 @@ public class ReadLock implements Lock {
         boolean isLocked = transactionManager.readLock(storableKey, time, timeUnit);
 
         if (isLocked) {
-            this.lockHoldingThreadId = Thread.currentThread().getId();
+            this.lockHolder = TransactionScope.current();
         } else {
-            this.lockHoldingThreadId = -1L;
+            this.lockHolder = null;
         }
 
         return isLocked;
@@ -74,19 +75,19 @@ public class ReadLock implements Lock {
         }
         ReadLock readLock = (ReadLock) o;
         return Objects.equals(lockName, readLock.lockName) &&
-                Objects.equals(lockHoldingThreadId, readLock.lockHoldingThreadId);
+                Objects.equals(lockHolder, readLock.lockHolder);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(lockName, getLockHoldingThreadId());
+        return Objects.hash(lockName, getLockHolder());
     }
 
     @Override
     public String toString() {
         return "ReadLock{" +
                 "lockName='" + lockName + '\'' +
-                ", lockHoldingThreadId=" + lockHoldingThreadId +
+                ", lockHolder=" + lockHolder +
                 '}';
     }
 }
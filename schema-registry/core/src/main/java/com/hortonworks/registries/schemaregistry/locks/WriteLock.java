@@ -19,6 +19,7 @@ package com.hortonworks.registries.schemaregistry.locks;
 import com.hortonworks.registries.schemaregistry.SchemaLockStorable;
 import com.hortonworks.registries.storage.StorableKey;
 import com.hortonworks.registries.storage.TransactionManager;
+import com.hortonworks.registries.storage.transaction.TransactionScope;
 
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
@@ -26,7 +27,7 @@ import java.util.concurrent.TimeUnit;
 public class WriteLock implements Lock {
 
     private String lockName;
-    private Long lockHoldingThreadId = -1L;
+    private TransactionScope lockHolder;
 
     private TransactionManager transactionManager;
 
@@ -41,8 +42,8 @@ public class WriteLock implements Lock {
     }
 
     @Override
-    public long getLockHoldingThreadId() {
-        return lockHoldingThreadId;
+    public TransactionScope getLockHolder() {
+        return lockHolder;
     }
 
     @Override
@@ -51,9 +52,9 @@ public class WriteLock implements Lock {
         boolean isLocked = transactionManager.writeLock(storableKey, time, timeUnit);
 
         if (isLocked) {
-            this.lockHoldingThreadId = Thread.currentThread().getId();
+            this.lockHolder = TransactionScope.current();
         } else {
-            this.lockHoldingThreadId = -1L;
+            this.lockHolder = null;
         }
 
         return isLocked;
@@ -74,19 +75,19 @@ public class WriteLock implements Lock {
         }
         WriteLock writeLock = (WriteLock) o;
         return Objects.equals(lockName, writeLock.lockName) &&
-                Objects.equals(lockHoldingThreadId, writeLock.lockHoldingThreadId);
+                Objects.equals(lockHolder, writeLock.lockHolder);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(lockName, getLockHoldingThreadId());
+        return Objects.hash(lockName, getLockHolder());
     }
 
     @Override
     public String toString() {
         return "WriteLock{" +
                 "lockName='" + lockName + '\'' +
-                ", lockHoldingThreadId=" + lockHoldingThreadId +
+                ", lockHolder=" + lockHolder +
                 '}';
     }
 }
@@ -1,20 +1,42 @@
 package com.hortonworks.registries.schemaregistry;
 
+import com.hortonworks.registries.common.QueryParam;
 import com.hortonworks.registries.schemaregistry.avro.AvroSchemaProvider;
+import com.hortonworks.registries.schemaregistry.cache.CacheInvalidationPublisher;
+import com.hortonworks.registries.schemaregistry.cache.SchemaRegistryCacheType;
+import com.hortonworks.registries.schemaregistry.cache.SchemaVersionInfoCache;
+import com.hortonworks.registries.schemaregistry.cache.StorageCacheInvalidationBus;
 import com.hortonworks.registries.schemaregistry.locks.SchemaLockManager;
+import com.hortonworks.registries.schemaregistry.state.SchemaVersionLifecycleStates;
+import com.hortonworks.registries.schemaregistry.utils.ObjectMapperUtils;
 import com.hortonworks.registries.storage.NOOPTransactionManager;
+import com.hortonworks.registries.storage.OrderByField;
+import com.hortonworks.registries.storage.Storable;
+import com.hortonworks.registries.storage.StorableKey;
 import com.hortonworks.registries.storage.StorageManager;
+import com.hortonworks.registries.storage.TransactionManager;
+import com.hortonworks.registries.storage.exception.StorageException;
 import com.hortonworks.registries.storage.impl.memory.InMemoryStorageManager;
 import com.hortonworks.registries.storage.search.WhereClause;
+import com.hortonworks.registries.storage.transaction.TransactionIsolation;
 import org.junit.Before;
 import org.junit.Test;
 
 import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
@@ -27,6 +49,7 @@ public class DefaultSchemaRegistryTest {
 
     private MultivaluedMap<String, String> queryParametersWithNameAndDesc;
     private MultivaluedMap<String, String> queryParametersWithoutDesc;
+    private CountingStorageManager storageManager;
     private DefaultSchemaRegistry underTest;
 
     @Before
@@ -40,9 +63,8 @@ public class DefaultSchemaRegistryTest {
         queryParametersWithoutDesc.putSingle(NAME, "only name");
         queryParametersWithoutDesc.putSingle(ORDER,"foo,a,bar,d");
 
-        StorageManager storageManager = new InMemoryStorageManager();
-        Collection<Map<String, Object>> schemaProvidersConfig = Collections.singleton(Collections.singletonMap("providerClass", AvroSchemaProvider.class.getName()));
-        underTest = new DefaultSchemaRegistry(storageManager, null, schemaProvidersConfig, new SchemaLockManager(new NOOPTransactionManager()));
+        storageManager = new CountingStorageManager();
+        underTest = createSchemaRegistry(storageManager);
     }
 
     @Test
@@ -69,4 +91,299 @@ public class DefaultSchemaRegistryTest {
         assertThat(actual, is(expected));
     }
 
+    @Test
+    public void searchIndexAppliesSchemaUpdatesOfOtherNodes() throws Exception {
+        underTest.init(Collections.emptyMap());
+        underTest.addSchemaMetadata(createSchemaMetadata("devices", "all the devices"));
+        assertThat(searchNames("devices"), is(Collections.singletonList("devices")));
+
+        // schemas added by another node, which published only the first one
+        storageManager.add(createSchemaMetadataStorable(100L, "iot-devices", "sensors"));
+        storageManager.add(createSchemaMetadataStorable(101L, "more-devices", "sensors"));
+        underTest.invalidateCache(SchemaRegistryCacheType.SCHEMA_SEARCH_INDEX, "\"iot-devices\"");
+        assertThat(searchNames("devices"), is(Arrays.asList("devices", "iot-devices")));
+
+        storageManager.remove(createSchemaMetadataStorable(null, "devices", null).getStorableKey());
+        underTest.invalidateCache(SchemaRegistryCacheType.SCHEMA_SEARCH_INDEX, "\"devices\"");
+        assertThat(searchNames("devices"), is(Collections.singletonList("iot-devices")));
+
+        // only a full invalidation reloads all the schemas
+        underTest.invalidateCache(SchemaRegistryCacheType.ALL, null);
+        assertThat(searchNames("devices"), is(Arrays.asList("iot-devices", "more-devices")));
+    }
+
+    @Test
+    public void searchIndexAppliesCacheInvalidationsPublishedThroughTheChangeLog() throws Exception {
+        Map<String, Object> busConfig = new HashMap<>();
+        busConfig.put("className", StorageCacheInvalidationBus.class.getName());
+        busConfig.put("config", Collections.singletonMap(StorageCacheInvalidationBus.POLL_INTERVAL_MS, 10L));
+        underTest.init(Collections.singletonMap(ISchemaRegistry.CACHE_INVALIDATION, busConfig));
+        try {
+            underTest.addSchemaMetadata(createSchemaMetadata("devices", "all the devices"));
+            assertThat(searchNames("devices"), is(Collections.singletonList("devices")));
+
+            // schema added by another node, which publishes the invalidation to the change log in the same storage
+            StorageCacheInvalidationBus otherNodeBus = new StorageCacheInvalidationBus();
+            otherNodeBus.setStorageManager(storageManager);
+            otherNodeBus.init(Collections.emptyMap());
+            storageManager.add(createSchemaMetadataStorable(100L, "iot-devices", "sensors"));
+            new CacheInvalidationPublisher("other-node", otherNodeBus).publish(SchemaRegistryCacheType.SCHEMA_SEARCH_INDEX, "iot-devices");
+
+            long deadline = System.currentTimeMillis() + 10_000L;
+            while (searchNames("devices").size() < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(searchNames("devices"), is(Arrays.asList("devices", "iot-devices")));
+        } finally {
+            underTest.close();
+        }
+    }
+
+    @Test
+    public void searchIndexAppliesOwnUpdatesOnceTheirTransactionEnds() throws Exception {
+        TransactionalStorageManager transactionManager = new TransactionalStorageManager();
+        storageManager = transactionManager;
+        underTest = createSchemaRegistry(storageManager);
+        underTest.init(Collections.emptyMap());
+        underTest.addSchemaMetadata(createSchemaMetadata("devices", "all the devices"));
+        assertThat(searchNames("devices"), is(Collections.singletonList("devices")));
+
+        transactionManager.beginTransaction(TransactionIsolation.JDBC_DEFAULT);
+        underTest.addSchemaMetadata(createSchemaMetadata("iot-devices", "sensors"));
+        assertThat(searchNames("devices"), is(Collections.singletonList("devices")));
+        transactionManager.commitTransaction();
+        assertThat(searchNames("devices"), is(Arrays.asList("devices", "iot-devices")));
+
+        // the schema of a rolled back transaction is not indexed
+        transactionManager.beginTransaction(TransactionIsolation.JDBC_DEFAULT);
+        underTest.addSchemaMetadata(createSchemaMetadata("more-devices", "sensors"));
+        storageManager.remove(createSchemaMetadataStorable(null, "more-devices", null).getStorableKey());
+        transactionManager.rollbackTransaction();
+        assertThat(searchNames("devices"), is(Arrays.asList("devices", "iot-devices")));
+
+        transactionManager.beginTransaction(TransactionIsolation.JDBC_DEFAULT);
+        underTest.deleteSchema("iot-devices");
+        assertThat(searchNames("devices"), is(Arrays.asList("devices", "iot-devices")));
+        transactionManager.commitTransaction();
+        assertThat(searchNames("devices"), is(Collections.singletonList("devices")));
+    }
+
+    @Test
+    public void sortedSchemaVersionsAreLoadedInBulkAndCached() throws Exception {
+        underTest.init(Collections.emptyMap());
+        addSchemaVersions("devices", 3);
+        underTest.invalidateCache(SchemaRegistryCacheType.ALL, null);
+
+        storageManager.reads.clear();
+        assertThat(statesByVersion("devices"), is(enabledVersions(1, 2, 3)));
+        // the versions of the branch are loaded with a single query, not one query for each of them
+        assertThat(storageManager.reads(SchemaVersionStorable.NAME_SPACE), is(1));
+        assertThat(storageManager.reads(SchemaBranchVersionMapping.NAMESPACE), is(1));
+
+        storageManager.reads.clear();
+        assertThat(statesByVersion("devices"), is(enabledVersions(1, 2, 3)));
+        assertThat(storageManager.reads(SchemaVersionStorable.NAME_SPACE), is(0));
+        assertThat(storageManager.reads(SchemaBranchVersionMapping.NAMESPACE), is(0));
+    }
+
+    @Test
+    public void sortedSchemaVersionsAreInvalidatedOnStateChange() throws Exception {
+        underTest.init(Collections.emptyMap());
+        List<SchemaIdVersion> schemaIdVersions = addSchemaVersions("devices", 3);
+        assertThat(statesByVersion("devices"), is(enabledVersions(1, 2, 3)));
+
+        underTest.disableSchemaVersion(schemaIdVersions.get(1).getSchemaVersionId());
+        Map<Integer, Byte> expectedStates = enabledVersions(1, 2, 3);
+        expectedStates.put(2, SchemaVersionLifecycleStates.DISABLED.getId());
+        assertThat(statesByVersion("devices"), is(expectedStates));
+
+        // state changed by another node, which publishes the version by its schema metadata id and version
+        SchemaVersionStorable schemaVersionStorable = storageManager.get(
+                new StorableKey(SchemaVersionStorable.NAME_SPACE, SchemaVersionStorable.getPrimaryKey(schemaIdVersions.get(2).getSchemaVersionId())));
+        schemaVersionStorable.setState(SchemaVersionLifecycleStates.ARCHIVED.getId());
+        storageManager.update(schemaVersionStorable);
+        underTest.invalidateCache(SchemaRegistryCacheType.SCHEMA_VERSION_CACHE,
+                                  ObjectMapperUtils.serializeToString(SchemaVersionInfoCache.Key.of(
+                                          new SchemaIdVersion(schemaVersionStorable.getSchemaMetadataId(), 3))));
+        expectedStates.put(3, SchemaVersionLifecycleStates.ARCHIVED.getId());
+        assertThat(statesByVersion("devices"), is(expectedStates));
+    }
+
+    @Test
+    public void sortedSchemaVersionsAreInvalidatedOnDelete() throws Exception {
+        underTest.init(Collections.emptyMap());
+        addSchemaVersions("devices", 3);
+        addSchemaVersions("sensors", 2);
+        assertThat(statesByVersion("devices"), is(enabledVersions(1, 2, 3)));
+        assertThat(statesByVersion("sensors"), is(enabledVersions(1, 2)));
+
+        underTest.deleteSchemaVersion(new SchemaVersionKey("devices", 2));
+        assertThat(statesByVersion("devices"), is(enabledVersions(1, 3)));
+
+        // the sorted versions of other schemas are kept
+        storageManager.reads.clear();
+        assertThat(statesByVersion("sensors"), is(enabledVersions(1, 2)));
+        assertThat(storageManager.reads(SchemaBranchVersionMapping.NAMESPACE), is(0));
+    }
+
+    @Test
+    public void fieldSearchIsPagedByTheStorage() throws Exception {
+        underTest.init(Collections.emptyMap());
+        addSchemaVersions("devices", 3);
+        addSchemaVersions("sensors", 2);
+        SchemaFieldQuery idQuery = new SchemaFieldQuery.Builder().name("id").build();
+        assertThat(underTest.findSchemasByFields(idQuery).size(), is(5));
+
+        storageManager.reads.clear();
+        assertThat(underTest.findSchemasByFields(idQuery, 1, 2),
+                   is(Arrays.asList(new SchemaVersionKey("devices", 2), new SchemaVersionKey("devices", 3))));
+        // the matching fields are not listed, only the versions of the page are resolved
+        assertThat(storageManager.reads(SchemaFieldInfoStorable.STORABLE_NAME_SPACE), is(0));
+        assertThat(storageManager.reads(SchemaVersionStorable.NAME_SPACE), is(1));
+
+        assertThat(underTest.findSchemasByFields(idQuery, 4, 2), is(Collections.singletonList(new SchemaVersionKey("sensors", 2))));
+        assertThat(underTest.findSchemasByFields(idQuery, 5, 2), is(Collections.<SchemaVersionKey>emptyList()));
+        assertThat(underTest.findSchemasByFields(new SchemaFieldQuery.Builder().name("field3").build(), 0, 10),
+                   is(Collections.singletonList(new SchemaVersionKey("devices", 3))));
+    }
+
+    private List<SchemaIdVersion> addSchemaVersions(String schemaName, int count) throws Exception {
+        underTest.addSchemaMetadata(createSchemaMetadata(schemaName, "desc"));
+        List<SchemaIdVersion> schemaIdVersions = new ArrayList<>();
+        StringBuilder fields = new StringBuilder("{\"name\": \"id\", \"type\": \"long\"}");
+        for (int i = 1; i <= count; i++) {
+            if (i > 1) {
+                fields.append(", {\"name\": \"field").append(i).append("\", \"type\": [\"null\", \"string\"], \"default\": null}");
+            }
+            String schemaText = "{\"type\": \"record\", \"name\": \"Device\", \"fields\": [" + fields + "]}";
+            schemaIdVersions.add(underTest.addSchemaVersion(schemaName, new SchemaVersion(schemaText, "version " + i)));
+        }
+        return schemaIdVersions;
+    }
+
+    private Map<Integer, Byte> statesByVersion(String schemaName) throws Exception {
+        Map<Integer, Byte> states = new TreeMap<>();
+        for (SchemaVersionInfo schemaVersionInfo : underTest.getAllVersions(SchemaBranch.MASTER_BRANCH, schemaName)) {
+            states.put(schemaVersionInfo.getVersion(), schemaVersionInfo.getStateId());
+        }
+        return states;
+    }
+
+    private static Map<Integer, Byte> enabledVersions(Integer... versions) {
+        Map<Integer, Byte> states = new TreeMap<>();
+        for (Integer version : versions) {
+            states.put(version, SchemaVersionLifecycleStates.ENABLED.getId());
+        }
+        return states;
+    }
+
+    private List<String> searchNames(String name) {
+        MultivaluedMap<String, String> queryParameters = new MultivaluedHashMap<>();
+        queryParameters.putSingle(NAME, name);
+        return underTest.searchSchemas(queryParameters, Optional.empty())
+                        .stream()
+                        .map(schemaMetadataInfo -> schemaMetadataInfo.getSchemaMetadata().getName())
+                        .collect(Collectors.toList());
+    }
+
+    private static DefaultSchemaRegistry createSchemaRegistry(StorageManager storageManager) {
+        Collection<Map<String, Object>> schemaProvidersConfig = Collections.singleton(Collections.singletonMap("providerClass", AvroSchemaProvider.class.getName()));
+        return new DefaultSchemaRegistry(storageManager, null, schemaProvidersConfig, new SchemaLockManager(new NOOPTransactionManager()));
+    }
+
+    private static SchemaMetadata createSchemaMetadata(String name, String description) {
+        return new SchemaMetadata.Builder(name)
+                .type(AvroSchemaProvider.TYPE)
+                .schemaGroup("group")
+                .description(description)
+                .build();
+    }
+
+    private static SchemaMetadataStorable createSchemaMetadataStorable(Long id, String name, String description) {
+        return SchemaMetadataStorable.fromSchemaMetadataInfo(
+                new SchemaMetadataInfo(createSchemaMetadata(name, description), id, System.currentTimeMillis()));
+    }
+
+    /**
+     * Counts the lookups of each namespace.
+     */
+    private static class CountingStorageManager extends InMemoryStorageManager {
+        private final Map<String, Integer> reads = new ConcurrentHashMap<>();
+
+        int reads(String namespace) {
+            return reads.getOrDefault(namespace, 0);
+        }
+
+        @Override
+        public <T extends Storable> T get(StorableKey key) throws StorageException {
+            reads.merge(key.getNameSpace(), 1, Integer::sum);
+            return super.get(key);
+        }
+
+        @Override
+        public <T extends Storable> Collection<T> find(String namespace,
+                                                       List<QueryParam> queryParams,
+                                                       List<OrderByField> orderByFields) throws StorageException {
+            reads.merge(namespace, 1, Integer::sum);
+            return super.find(namespace, queryParams, orderByFields);
+        }
+
+        @Override
+        public <T extends Storable> Collection<T> findIn(String namespace,
+                                                         String fieldName,
+                                                         Collection<?> values,
+                                                         List<String> projectedFields) throws StorageException {
+            reads.merge(namespace, 1, Integer::sum);
+            return super.findIn(namespace, fieldName, values, projectedFields);
+        }
+    }
+
+    /**
+     * Defers the actions to be run after a transaction until it is committed or rolled back. The storage itself is not
+     * transactional, so a test rolling back a transaction undoes its changes.
+     */
+    private static class TransactionalStorageManager extends CountingStorageManager implements TransactionManager {
+        private List<Runnable> afterTransactionActions;
+
+        @Override
+        public void beginTransaction(TransactionIsolation transactionIsolationLevel) {
+            afterTransactionActions = new ArrayList<>();
+        }
+
+        @Override
+        public void rollbackTransaction() {
+            endTransaction();
+        }
+
+        @Override
+        public void commitTransaction() {
+            endTransaction();
+        }
+
+        private void endTransaction() {
+            List<Runnable> actions = afterTransactionActions;
+            afterTransactionActions = null;
+            actions.forEach(Runnable::run);
+        }
+
+        @Override
+        public void runAfterTransaction(Runnable action) {
+            if (afterTransactionActions != null) {
+                afterTransactionActions.add(action);
+            } else {
+                action.run();
+            }
+        }
+
+        @Override
+        public boolean readLock(StorableKey key, Long time, TimeUnit timeUnit) {
+            return true;
+        }
+
+        @Override
+        public boolean writeLock(StorableKey key, Long time, TimeUnit timeUnit) {
+            return true;
+        }
+    }
+
 }
@@ -0,0 +1,161 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.schemaregistry;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+public class SchemaMetadataSearchIndexTest {
+
+    private SchemaMetadataSearchIndex index;
+
+    @Before
+    public void setup() {
+        index = createIndex(false);
+    }
+
+    @Test
+    public void testRankedSubstringSearch() {
+        Assert.assertEquals(Arrays.asList("device", "devices", "iot-devices"), names(index.search("device", null)));
+        Assert.assertEquals(Arrays.asList("device", "devices", "iot-devices", "orders"), names(index.search("device", "devices")));
+        Assert.assertEquals(Arrays.asList("device", "devices", "iot-devices"), names(index.search("ev", null)));
+        Assert.assertEquals(Collections.singletonList("iot-devices"), names(index.search(null, "sens")));
+        Assert.assertEquals(4, index.search("", null).size());
+        Assert.assertTrue(index.search("devicez", null).isEmpty());
+    }
+
+    @Test
+    public void testCaseInsensitiveSearch() {
+        index.put(createSchema("Sensors", "Temperature Sensors"));
+
+        Assert.assertEquals(Arrays.asList("device", "devices", "iot-devices"), names(index.search("Device", null)));
+        Assert.assertEquals(Arrays.asList("Sensors", "iot-devices"), names(index.search("SENSORS", "SENSORS")));
+        Assert.assertEquals(Collections.singletonList("Sensors"), names(index.search(null, "temp")));
+    }
+
+    @Test
+    public void testCaseSensitiveSearch() {
+        index = createIndex(true);
+        index.put(createSchema("Sensors", "Temperature Sensors"));
+
+        Assert.assertTrue(index.search("Device", null).isEmpty());
+        Assert.assertEquals(Collections.singletonList("Sensors"), names(index.search("Sens", null)));
+        Assert.assertEquals(Collections.singletonList("iot-devices"), names(index.search(null, "sensors")));
+        Assert.assertTrue(index.search(null, "temp").isEmpty());
+    }
+
+    @Test
+    public void testUpdates() {
+        index.put(createSchema("orders", "purchases"));
+        index.remove("devices");
+        index.put(createSchema("sensors", "temperature"));
+
+        Assert.assertEquals(Collections.singletonList("iot-devices"), names(index.search("devices", null)));
+        Assert.assertEquals(Arrays.asList("sensors", "iot-devices"), names(index.search("sensors", "sensors")));
+        Assert.assertEquals(Collections.singletonList("orders"), names(index.search(null, "purchase")));
+        Assert.assertEquals(4, index.size());
+    }
+
+    @Test
+    public void testReload() {
+        AtomicInteger loads = new AtomicInteger();
+        index.loadIfNeeded(() -> {
+            loads.incrementAndGet();
+            return Collections.emptyList();
+        });
+        Assert.assertEquals(0, loads.get());
+
+        index.invalidate();
+        index.loadIfNeeded(() -> {
+            loads.incrementAndGet();
+            return Collections.singletonList(createSchema("other", null));
+        });
+        Assert.assertEquals(1, loads.get());
+        Assert.assertEquals(Collections.singletonList("other"), names(index.search("", null)));
+    }
+
+    @Test
+    public void testUpdatesDuringReloadAreKept() {
+        index.invalidate();
+        index.loadIfNeeded(() -> {
+            // updates which are applied while the schemas are read
+            index.put(createSchema("sensors", "temperature"));
+            index.remove("orders");
+            return Arrays.asList(createSchema("devices", null), createSchema("orders", null));
+        });
+
+        Assert.assertEquals(Arrays.asList("devices", "sensors"), names(index.search("", null)));
+    }
+
+    @Test
+    public void testSearchesUseThePreviousIndexDuringReload() throws Exception {
+        SchemaMetadataSearchIndex staleIndex = new SchemaMetadataSearchIndex(0L, false);
+        staleIndex.loadIfNeeded(() -> Collections.singletonList(createSchema("devices", null)));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            staleIndex.loadIfNeeded(() -> {
+                Future<List<String>> found = executor.submit(() -> {
+                    staleIndex.loadIfNeeded(() -> {
+                        throw new AssertionError("The index is already being reloaded");
+                    });
+                    return names(staleIndex.search("dev", null));
+                });
+                try {
+                    Assert.assertEquals(Collections.singletonList("devices"), found.get(10, TimeUnit.SECONDS));
+                } catch (Exception e) {
+                    throw new AssertionError(e);
+                }
+                return Collections.singletonList(createSchema("sensors", null));
+            });
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Assert.assertEquals(Collections.singletonList("sensors"), names(staleIndex.search("", null)));
+    }
+
+    private static SchemaMetadataSearchIndex createIndex(boolean caseSensitive) {
+        SchemaMetadataSearchIndex index = new SchemaMetadataSearchIndex(Long.MAX_VALUE, caseSensitive);
+        index.loadIfNeeded(() -> Arrays.asList(createSchema("devices", "all the devices"),
+                                               createSchema("iot-devices", "sensors"),
+                                               createSchema("device", null),
+                                               createSchema("orders", "orders of devices")));
+        return index;
+    }
+
+    private static List<String> names(List<SchemaMetadataStorable> schemas) {
+        return schemas.stream().map(SchemaMetadataStorable::getName).collect(Collectors.toList());
+    }
+
+    private static SchemaMetadataStorable createSchema(String name, String description) {
+        SchemaMetadataStorable schema = new SchemaMetadataStorable();
+        schema.setName(name);
+        schema.setDescription(description);
+        return schema;
+    }
+}
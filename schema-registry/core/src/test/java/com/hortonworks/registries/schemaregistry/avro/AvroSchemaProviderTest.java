@@ -15,6 +15,8 @@
  **/
 package com.hortonworks.registries.schemaregistry.avro;
 
+import com.hortonworks.registries.schemaregistry.CompatibilityResult;
+import com.hortonworks.registries.schemaregistry.SchemaCompatibility;
 import com.hortonworks.registries.schemaregistry.SchemaFieldInfo;
 import org.apache.commons.io.IOUtils;
 import org.junit.Assert;
@@ -87,4 +89,27 @@ public class AvroSchemaProviderTest {
         Assert.assertThat(schemaWithDefaultsFingerprint, not(equalTo(schemaWithAliasesFingerprint)));
     }
 
+    @Test
+    public void testMemoizedCompatibilityResults() throws Exception {
+        AvroSchemaProvider avroSchemaProvider = new AvroSchemaProvider();
+        CompatibilityResult backwardResult =
+                avroSchemaProvider.checkCompatibility(schemaWithDefaults, schema, SchemaCompatibility.BACKWARD);
+        Assert.assertTrue(backwardResult.isCompatible());
+        Assert.assertSame(backwardResult,
+                          avroSchemaProvider.checkCompatibility(schemaWithDefaults, schema, SchemaCompatibility.BACKWARD));
+        // results are memoized by the content of the schema texts
+        Assert.assertSame(backwardResult,
+                          avroSchemaProvider.checkCompatibility(new String(schemaWithDefaults), new String(schema), SchemaCompatibility.BACKWARD));
+
+        // results are memoized per compatibility and per direction
+        CompatibilityResult forwardResult =
+                avroSchemaProvider.checkCompatibility(schemaWithDefaults, schema, SchemaCompatibility.FORWARD);
+        Assert.assertNotSame(backwardResult, forwardResult);
+        Assert.assertNotSame(backwardResult,
+                             avroSchemaProvider.checkCompatibility(schema, schemaWithDefaults, SchemaCompatibility.BACKWARD));
+
+        // fingerprints are not affected by sharing the parsed schemas
+        Assert.assertArrayEquals(avroSchemaProvider.getFingerprint(schema), avroSchemaProvider.getFingerprint(schema));
+    }
+
 }
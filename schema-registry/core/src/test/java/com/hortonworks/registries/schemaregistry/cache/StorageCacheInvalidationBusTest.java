@@ -0,0 +1,187 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.schemaregistry.cache;
+
+import com.hortonworks.registries.schemaregistry.CacheInvalidationStorable;
+import com.hortonworks.registries.storage.StorageManager;
+import com.hortonworks.registries.storage.impl.memory.InMemoryStorageManager;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class StorageCacheInvalidationBusTest {
+    private StorageManager storageManager;
+    private StorageCacheInvalidationBus firstNodeBus;
+    private StorageCacheInvalidationBus secondNodeBus;
+    private List<CacheInvalidationEvent> secondNodeEvents;
+
+    @Before
+    public void setup() {
+        storageManager = new InMemoryStorageManager();
+        storageManager.registerStorables(Collections.singletonList(CacheInvalidationStorable.class));
+
+        Map<String, Object> config = new HashMap<>();
+        // polls are triggered by the tests
+        config.put(StorageCacheInvalidationBus.POLL_INTERVAL_MS, 60_000L);
+        firstNodeBus = createBus(config);
+        secondNodeBus = createBus(config);
+
+        secondNodeEvents = Collections.synchronizedList(new ArrayList<>());
+        firstNodeBus.subscribe(event -> { });
+        secondNodeBus.subscribe(secondNodeEvents::add);
+    }
+
+    @After
+    public void cleanup() {
+        firstNodeBus.close();
+        secondNodeBus.close();
+    }
+
+    @Test
+    public void testEventsAreDeliveredOnce() {
+        CacheInvalidationEvent first = new CacheInvalidationEvent("node-1", SchemaRegistryCacheType.SCHEMA_VERSION_CACHE, "{\"a\":1}");
+        CacheInvalidationEvent second = new CacheInvalidationEvent("node-1", SchemaRegistryCacheType.SCHEMA_BRANCH_CACHE, "{\"id\":2}");
+        firstNodeBus.publish(first);
+        firstNodeBus.publish(second);
+
+        secondNodeBus.poll();
+        secondNodeBus.poll();
+
+        Assert.assertEquals(Arrays.asList(first, second), secondNodeEvents);
+    }
+
+    @Test
+    public void testEntriesCommittedOutOfIdOrderAreDelivered() {
+        secondNodeBus.poll();
+
+        CacheInvalidationEvent early = new CacheInvalidationEvent("node-1", SchemaRegistryCacheType.SCHEMA_VERSION_CACHE, "{\"a\":1}");
+        CacheInvalidationEvent late = new CacheInvalidationEvent("node-1", SchemaRegistryCacheType.SCHEMA_BRANCH_CACHE, "{\"id\":2}");
+        // the transaction which got the higher id commits first
+        storageManager.add(new CacheInvalidationStorable(2L, early, System.currentTimeMillis()));
+        secondNodeBus.poll();
+        // the transaction which got the lower id commits after a long lock wait, and its node clock is behind
+        storageManager.add(new CacheInvalidationStorable(1L, late, System.currentTimeMillis() - 60_000L));
+        secondNodeBus.poll();
+        secondNodeBus.poll();
+
+        Assert.assertEquals(Arrays.asList(early, late), secondNodeEvents);
+    }
+
+    @Test
+    public void testEntriesPublishedBeforeSubscriptionAreNotDelivered() {
+        CacheInvalidationEvent before = new CacheInvalidationEvent("node-1", SchemaRegistryCacheType.ALL, null);
+        firstNodeBus.publish(before);
+        StorageCacheInvalidationBus bus = createBus(Collections.singletonMap(StorageCacheInvalidationBus.POLL_INTERVAL_MS, 60_000L));
+        try {
+            List<CacheInvalidationEvent> events = new ArrayList<>();
+            bus.subscribe(events::add);
+            CacheInvalidationEvent after = new CacheInvalidationEvent("node-1", SchemaRegistryCacheType.SCHEMA_BRANCH_CACHE, "{\"id\":2}");
+            firstNodeBus.publish(after);
+
+            bus.poll();
+
+            Assert.assertEquals(Collections.singletonList(after), events);
+        } finally {
+            bus.close();
+        }
+    }
+
+    @Test
+    public void testGapsAreGivenUpAfterTimeout() throws Exception {
+        Map<String, Object> config = new HashMap<>();
+        config.put(StorageCacheInvalidationBus.POLL_INTERVAL_MS, 60_000L);
+        config.put(StorageCacheInvalidationBus.GAP_TIMEOUT_MS, 1L);
+        StorageCacheInvalidationBus bus = createBus(config);
+        try {
+            List<CacheInvalidationEvent> events = new ArrayList<>();
+            bus.subscribe(events::add);
+            CacheInvalidationEvent event = new CacheInvalidationEvent("node-1", SchemaRegistryCacheType.ALL, null);
+            storageManager.add(new CacheInvalidationStorable(2L, event, System.currentTimeMillis()));
+            bus.poll();
+            Thread.sleep(10);
+
+            storageManager.add(new CacheInvalidationStorable(1L, event, System.currentTimeMillis()));
+            bus.poll();
+
+            Assert.assertEquals(1, events.size());
+        } finally {
+            bus.close();
+        }
+    }
+
+    @Test
+    public void testExpiredEntriesArePurged() throws Exception {
+        Map<String, Object> config = new HashMap<>();
+        config.put(StorageCacheInvalidationBus.POLL_INTERVAL_MS, 60_000L);
+        config.put(StorageCacheInvalidationBus.GAP_TIMEOUT_MS, 0L);
+        config.put(StorageCacheInvalidationBus.RETENTION_MS, 1L);
+        StorageCacheInvalidationBus bus = createBus(config);
+        try {
+            bus.subscribe(event -> { });
+            CacheInvalidationEvent event = new CacheInvalidationEvent("node-1", SchemaRegistryCacheType.ALL, null);
+            storageManager.add(new CacheInvalidationStorable(1L, event, 0L));
+            storageManager.add(new CacheInvalidationStorable(2L, event, 0L));
+            Thread.sleep(10);
+
+            bus.poll();
+
+            Assert.assertTrue(storageManager.list(CacheInvalidationStorable.NAME_SPACE).isEmpty());
+        } finally {
+            bus.close();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGapTimeoutMustBeLessThanRetention() {
+        Map<String, Object> config = new HashMap<>();
+        config.put(StorageCacheInvalidationBus.GAP_TIMEOUT_MS, 10_000L);
+        config.put(StorageCacheInvalidationBus.RETENTION_MS, 10_000L);
+        createBus(config);
+    }
+
+    @Test
+    public void testLoopbackBus() {
+        LoopbackCacheInvalidationBus bus = new LoopbackCacheInvalidationBus();
+        List<CacheInvalidationEvent> events = new ArrayList<>();
+        bus.subscribe(e -> {
+            throw new IllegalStateException("failing listener");
+        });
+        bus.subscribe(events::add);
+
+        CacheInvalidationPublisher publisher = new CacheInvalidationPublisher("node-1", bus);
+        publisher.publish(SchemaRegistryCacheType.SCHEMA_BRANCH_CACHE, SchemaBranchCache.Key.of(3L));
+
+        Assert.assertEquals(1, events.size());
+        Assert.assertFalse(publisher.isRemote(events.get(0)));
+        Assert.assertTrue(new CacheInvalidationPublisher("node-2", bus).isRemote(events.get(0)));
+        Assert.assertEquals(SchemaRegistryCacheType.SCHEMA_BRANCH_CACHE, events.get(0).getCacheType());
+    }
+
+    private StorageCacheInvalidationBus createBus(Map<String, Object> config) {
+        StorageCacheInvalidationBus bus = new StorageCacheInvalidationBus();
+        bus.setStorageManager(storageManager);
+        bus.init(config);
+        return bus;
+    }
+}
@@ -15,10 +15,17 @@
 package com.hortonworks.registries.schemaregistry.webservice;
 
 import com.google.common.base.Preconditions;
+import com.hortonworks.registries.common.util.KeysetPageIterator;
 import com.hortonworks.registries.schemaregistry.ISchemaRegistry;
+import com.hortonworks.registries.schemaregistry.SchemaMetadataInfo;
+import com.hortonworks.registries.schemaregistry.authorizer.agent.AuthorizationAgent;
+import com.hortonworks.registries.schemaregistry.authorizer.core.Authorizer;
+import com.hortonworks.registries.schemaregistry.errors.SchemaNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Iterator;
+
 abstract class BaseRegistryResource {
 
     final ISchemaRegistry schemaRegistry;
@@ -28,6 +35,9 @@ abstract class BaseRegistryResource {
     static final String OPERATION_GROUP_SERDE = "2. Serializer/Deserializer";
     static final String OPERATION_GROUP_OTHER = "3. Other";
 
+    // number of schemas fetched at once when schemas are streamed to the client
+    static final int SCHEMA_PAGE_SIZE = 500;
+
 
 
     BaseRegistryResource(ISchemaRegistry schemaRegistry) {
@@ -44,5 +54,32 @@ abstract class BaseRegistryResource {
             throw new IllegalArgumentException("Parameter " + name + " is empty");
         }
     }
+
+    /**
+     * @return the schemas after the given id which the given user is authorized to find, in the order of their ids. The
+     * first page is fetched and authorized before this returns, so the caller can still respond with an error when the
+     * storage or the authorizer fails. The other pages are fetched from the registry while they are iterated, so they
+     * can be streamed to the client outside of the transaction of the request.
+     */
+    Iterator<SchemaMetadataInfo> iterateAuthorizedSchemas(AuthorizationAgent authorizationAgent,
+                                                          Authorizer.UserAndGroups userAndGroups,
+                                                          Long afterId,
+                                                          long limit) {
+        Iterator<SchemaMetadataInfo> schemaMetadatas = new KeysetPageIterator<Long, SchemaMetadataInfo, SchemaMetadataInfo>(
+                schemaRegistry::listSchemaMetadata,
+                SchemaMetadataInfo::getId,
+                page -> {
+                    try {
+                        return authorizationAgent.authorizeFindSchemas(userAndGroups, page);
+                    } catch (SchemaNotFoundException e) {
+                        throw new RuntimeException(e);
+                    }
+                },
+                afterId,
+                SCHEMA_PAGE_SIZE,
+                limit);
+        schemaMetadatas.hasNext();
+        return schemaMetadatas;
+    }
     
 }
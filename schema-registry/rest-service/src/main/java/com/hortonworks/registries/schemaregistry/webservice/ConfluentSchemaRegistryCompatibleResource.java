@@ -18,6 +18,7 @@ package com.hortonworks.registries.schemaregistry.webservice;
 import com.codahale.metrics.annotation.Timed;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.Iterators;
 import com.hortonworks.registries.common.catalog.CatalogResponse;
 import com.hortonworks.registries.schemaregistry.authorizer.core.util.AuthorizationUtils;
 import com.hortonworks.registries.schemaregistry.authorizer.exception.AuthorizationException;
@@ -55,7 +56,7 @@ import javax.ws.rs.core.Response;
 import javax.ws.rs.core.SecurityContext;
 import javax.ws.rs.core.UriInfo;
 import java.io.IOException;
-import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -86,7 +87,7 @@ public class ConfluentSchemaRegistryCompatibleResource extends BaseRegistryResou
     @ApiOperation(value = "Get schema version by id",
             response = Schema.class, tags = OPERATION_GROUP_CONFLUENT_SR)
     @Timed
-    @UnitOfWork
+    @UnitOfWork(readOnly = true)
     public Response getSchemaById(@ApiParam(value = "schema version id", required = true) @PathParam("id") Long id,
                                   @Context SecurityContext securityContext) {
         Response response;
@@ -116,17 +117,21 @@ public class ConfluentSchemaRegistryCompatibleResource extends BaseRegistryResou
     @ApiOperation(value = "Get all registered subjects",
             response = String.class, responseContainer = "List", tags = OPERATION_GROUP_CONFLUENT_SR)
     @Timed
-    @UnitOfWork
+    @UnitOfWork(readOnly = true)
     public Response getSubjects(@Context SecurityContext securityContext) {
         Response response;
         try {
-            List<String> registeredSubjects = authorizationAgent.authorizeFindSchemas(AuthorizationUtils.getUserAndGroups(securityContext),
-                    schemaRegistry.findSchemaMetadata(Collections.emptyMap()))
-                    .stream()
-                    .map(x -> x.getSchemaMetadata().getName())
-                    .collect(Collectors.toList());
-
-            response = WSUtils.respondEntity(registeredSubjects, Response.Status.OK);
+            // subjects after the first page are fetched while they are written, so the response does not hold all of them
+            Iterator<String> registeredSubjects = Iterators.transform(iterateAuthorizedSchemas(authorizationAgent,
+                                                                                               AuthorizationUtils.getUserAndGroups(securityContext),
+                                                                                               null,
+                                                                                               Long.MAX_VALUE),
+                                                                      x -> x.getSchemaMetadata().getName());
+
+            response = WSUtils.respondEntity(WSUtils.wrapWithStreamingOutput(registeredSubjects, false), Response.Status.OK);
+        } catch (AuthorizationException e) {
+            LOG.debug("Access denied. ", e);
+            return WSUtils.respond(Response.Status.FORBIDDEN, CatalogResponse.ResponseMessage.ACCESS_DENIED, e.getMessage());
         } catch (Exception ex) {
             LOG.error("Encountered error while retrieving all subjects", ex);
             response = serverError();
@@ -188,7 +193,7 @@ public class ConfluentSchemaRegistryCompatibleResource extends BaseRegistryResou
     @ApiOperation(value = "Get the number of all schema versions of given subject",
             response = Integer.class, responseContainer = "List", tags = OPERATION_GROUP_CONFLUENT_SR)
     @Timed
-    @UnitOfWork
+    @UnitOfWork(readOnly = true)
     public Response getAllVersions(@ApiParam(value = "subject", required = true)
                                    @PathParam("subject")
                                            String subject,
@@ -218,7 +223,7 @@ public class ConfluentSchemaRegistryCompatibleResource extends BaseRegistryResou
     @ApiOperation(value = "Get the schema information for given subject and versionId",
             response = Integer.class, responseContainer = "List", tags = OPERATION_GROUP_CONFLUENT_SR)
     @Timed
-    @UnitOfWork
+    @UnitOfWork(readOnly = true)
     public Response getSchemaVersion(@ApiParam(value = "subject", required = true)
                                      @PathParam("subject")
                                              String subject,
@@ -288,7 +293,7 @@ public class ConfluentSchemaRegistryCompatibleResource extends BaseRegistryResou
     @Path("/subjects/{subject}")
     @ApiOperation(value = "Get schema information for the given schema subject and schema text", response = Schema.class, tags = OPERATION_GROUP_CONFLUENT_SR)
     @Timed
-    @UnitOfWork
+    @UnitOfWork(readOnly = true)
     public Response lookupSubjectVersion(@ApiParam(value = "Schema subject", required = true) @PathParam("subject") String subject,
                                          @ApiParam(value = "Confluent Schema Registry compatible schema text in one line", required = true) String schema,
                                          @Context SecurityContext securityContext) {
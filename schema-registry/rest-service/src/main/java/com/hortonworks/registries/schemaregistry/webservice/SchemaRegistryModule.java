@@ -54,6 +54,7 @@ public class SchemaRegistryModule implements ModuleRegistration, StorageManagerA
     private FileStorage fileStorage;
     private StorageManager storageManager;
     private TransactionManager transactionManager;
+    private DefaultSchemaRegistry schemaRegistry;
 
     @Override
     public void setStorageManager(StorageManager storageManager) {
@@ -69,10 +70,10 @@ public class SchemaRegistryModule implements ModuleRegistration, StorageManagerA
     @Override
     public List<Object> getResources() {
         Collection<Map<String, Object>> schemaProviders = (Collection<Map<String, Object>>) config.get(SCHEMA_PROVIDERS);
-        DefaultSchemaRegistry schemaRegistry = new DefaultSchemaRegistry(storageManager,
-                                                                         fileStorage,
-                                                                         schemaProviders,
-                                                                         new SchemaLockManager(transactionManager));
+        schemaRegistry = new DefaultSchemaRegistry(storageManager,
+                                                   fileStorage,
+                                                   schemaProviders,
+                                                   new SchemaLockManager(transactionManager));
         schemaRegistry.init(config);
         SchemaRegistryVersion schemaRegistryVersion = SchemaRegistryServiceInfo.get().version();
 
@@ -92,6 +93,13 @@ public class SchemaRegistryModule implements ModuleRegistration, StorageManagerA
         return Arrays.asList(schemaRegistryResource, confluentSchemaRegistryResource);
     }
 
+    @Override
+    public void close() {
+        if (schemaRegistry != null) {
+            schemaRegistry.close();
+        }
+    }
+
     private Collection<? extends SchemaProvider> getSchemaProviders() {
         Collection<Map<String, Object>> schemaProviders = (Collection<Map<String, Object>>) config.get(SCHEMA_PROVIDERS);
         if (schemaProviders == null || schemaProviders.isEmpty()) {
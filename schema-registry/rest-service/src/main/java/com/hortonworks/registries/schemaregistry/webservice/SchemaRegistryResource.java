@@ -93,9 +93,11 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static com.hortonworks.registries.schemaregistry.DefaultSchemaRegistry.ORDER_BY_FIELDS_PARAM_NAME;
 import static com.hortonworks.registries.schemaregistry.SchemaBranch.MASTER_BRANCH;
@@ -166,9 +168,10 @@ public class SchemaRegistryResource extends BaseRegistryResource {
     @GET
     @Path("/schemas/aggregated")
     @ApiOperation(value = "Get list of schemas by filtering with the given query parameters",
+            notes = "The result can be paged with _offset and _limit.",
             response = AggregatedSchemaMetadataInfo.class, responseContainer = "List", tags = OPERATION_GROUP_SCHEMA)
     @Timed
-    @UnitOfWork
+    @UnitOfWork(readOnly = true)
     public Response listAggregatedSchemas(@QueryParam("name") String schemaName,
                                           @QueryParam("description") String schemaDescription,
                                           @ApiParam(value = "_orderByFields=[<field-name>,<a/d>,]*\na = ascending, d = descending\nOrdering can be by id, type, schemaGroup, name, compatibility, validationLevel, timestamp, description, evolve") @QueryParam("_orderByFields") @DefaultValue("timestamp,d") String orderByFields,
@@ -178,11 +181,21 @@ public class SchemaRegistryResource extends BaseRegistryResource {
                                           @QueryParam("validationLevel") String validationLevel,
                                           @QueryParam("compatibility") String compatibility,
                                           @QueryParam("evolve") String evolve,
+                                          @ApiParam(value = "Number of matching schemas to skip") @QueryParam("_offset") Integer offset,
+                                          @ApiParam(value = "Maximum number of matching schemas to return") @QueryParam("_limit") Integer limit,
                                           @Context SecurityContext securityContext) {
+        if ((offset != null && offset < 0) || (limit != null && limit < 0)) {
+            return WSUtils.respond(Response.Status.BAD_REQUEST, CatalogResponse.ResponseMessage.BAD_REQUEST_WITH_MESSAGE,
+                                   "_offset and _limit must not be negative");
+        }
         try {
             Map<String, String> filters = createFilterForSchema(Optional.ofNullable(schemaName), Optional.ofNullable(schemaDescription), Optional.ofNullable(orderByFields), Optional.ofNullable(id), Optional.ofNullable(type), Optional.ofNullable(schemaGroup), Optional.ofNullable(validationLevel), Optional.ofNullable(compatibility), Optional.ofNullable(evolve));
+            // the schemas are authorized and paged before they are aggregated, so only the returned page is aggregated
+            Collection<SchemaMetadataInfo> schemaMetadataInfos = authorizationAgent
+                    .authorizeFindSchemas(AuthorizationUtils.getUserAndGroups(securityContext), schemaRegistry.findSchemaMetadata(filters));
             Collection<AggregatedSchemaMetadataInfo> schemaMetadatas = authorizationAgent
-            .authorizeGetAggregatedSchemaList(AuthorizationUtils.getUserAndGroups(securityContext), schemaRegistry.findAggregatedSchemaMetadata(filters));
+            .authorizeGetAggregatedSchemaList(AuthorizationUtils.getUserAndGroups(securityContext),
+                                              schemaRegistry.getAggregatedSchemaMetadataInfos(page(schemaMetadataInfos, offset, limit)));
 
             return WSUtils.respondEntities(schemaMetadatas, Response.Status.OK);
         } catch (SchemaBranchNotFoundException e) {
@@ -202,7 +215,7 @@ public class SchemaRegistryResource extends BaseRegistryResource {
     @ApiOperation(value = "Get aggregated schema information for the given schema name",
             response = SchemaMetadataInfo.class, tags = OPERATION_GROUP_SCHEMA)
     @Timed
-    @UnitOfWork
+    @UnitOfWork(readOnly = true)
     public Response getAggregatedSchemaInfo(@ApiParam(value = "Schema name", required = true) @PathParam("name") String schemaName,
                                             @Context SecurityContext securityContext) {
         Response response;
@@ -236,9 +249,11 @@ public class SchemaRegistryResource extends BaseRegistryResource {
     @GET
     @Path("/schemas")
     @ApiOperation(value = "Get list of schemas by filtering with the given query parameters",
+            notes = "Instead of filtering, all the schemas can be paged through in the order of their ids with _afterId and _limit. " +
+                    "The next page starts after the id of the last schema of the previous page.",
             response = SchemaMetadataInfo.class, responseContainer = "List", tags = OPERATION_GROUP_SCHEMA)
     @Timed
-    @UnitOfWork
+    @UnitOfWork(readOnly = true)
     public Response listSchemas(@QueryParam("name") String schemaName,
                                 @QueryParam("description") String schemaDescription,
                                 @ApiParam(value = "_orderByFields=[<field-name>,<a/d>,]*\na = ascending, d = descending\nOrdering can be by id, type, schemaGroup, name, compatibility, validationLevel, timestamp, description, evolve") @QueryParam("_orderByFields") @DefaultValue("timestamp,d") String orderByFields,
@@ -248,7 +263,39 @@ public class SchemaRegistryResource extends BaseRegistryResource {
                                 @QueryParam("validationLevel") String validationLevel,
                                 @QueryParam("compatibility") String compatibility,
                                 @QueryParam("evolve") String evolve,
+                                @ApiParam(value = "Id of the schema after which the page starts") @QueryParam("_afterId") Long afterId,
+                                @ApiParam(value = "Maximum number of schemas in the page") @QueryParam("_limit") Integer limit,
                                 @Context SecurityContext securityContext) {
+        if (afterId != null || limit != null) {
+            if (limit != null && limit < 0) {
+                return WSUtils.respond(Response.Status.BAD_REQUEST, CatalogResponse.ResponseMessage.BAD_REQUEST_WITH_MESSAGE,
+                                       "_limit must not be negative");
+            }
+            if (schemaName != null || schemaDescription != null || id != null || type != null || schemaGroup != null
+                    || validationLevel != null || compatibility != null || evolve != null) {
+                return WSUtils.respond(Response.Status.BAD_REQUEST, CatalogResponse.ResponseMessage.BAD_REQUEST_WITH_MESSAGE,
+                                       "_afterId and _limit can not be combined with filters");
+            }
+            try {
+                // schemas after the first page are fetched while they are written, so the response does not hold all of them
+                Iterator<SchemaMetadataInfo> schemaMetadatas = iterateAuthorizedSchemas(authorizationAgent,
+                                                                                        AuthorizationUtils.getUserAndGroups(securityContext),
+                                                                                        afterId,
+                                                                                        limit != null ? limit : Long.MAX_VALUE);
+                return WSUtils.respondEntities(schemaMetadatas, Response.Status.OK);
+            } catch (AuthorizationException e) {
+                LOG.debug("Access denied. ", e);
+                return WSUtils.respond(Response.Status.FORBIDDEN, CatalogResponse.ResponseMessage.ACCESS_DENIED, e.getMessage());
+            } catch (Exception ex) {
+                // TODO CDPD-14184 Refactor exception handling
+                if (ex instanceof UndeclaredThrowableException) {
+                    ex = (Exception) ((UndeclaredThrowableException)ex).getUndeclaredThrowable();
+                }
+                LOG.error("Encountered error while listing schemas after id [{}]", afterId, ex);
+                return WSUtils.respond(Response.Status.INTERNAL_SERVER_ERROR, CatalogResponse.ResponseMessage.EXCEPTION, ex.getMessage());
+            }
+        }
+
         try {
             Map<String, String> filters = createFilterForSchema(Optional.ofNullable(schemaName), Optional.ofNullable(schemaDescription), Optional.ofNullable(orderByFields), Optional.ofNullable(id), Optional.ofNullable(type), Optional.ofNullable(schemaGroup), Optional.ofNullable(validationLevel), Optional.ofNullable(compatibility), Optional.ofNullable(evolve));
 
@@ -294,10 +341,13 @@ public class SchemaRegistryResource extends BaseRegistryResource {
     @GET
     @Path("/search/schemas")
     @ApiOperation(value = "Search for schemas containing the given name and description",
-            notes = "Search the schemas for given name and description, return a list of schemas that contain the field.",
+            notes = "Search the schemas for given name and description, return a list of schemas that contain the field. " +
+                    "Unlike the list of all schemas, the result is not paged: it is ordered by _orderByFields instead of the " +
+                    "schema ids, so a page can not start after the last schema of the previous one, and it only holds the " +
+                    "schemas matching the search.",
             response = SchemaMetadataInfo.class, responseContainer = "List", tags = OPERATION_GROUP_SCHEMA)
     @Timed
-    @UnitOfWork
+    @UnitOfWork(readOnly = true)
     public Response findSchemas(@ApiParam(required = true) @NotNull @QueryParam("name") String schemaName,
                                 @QueryParam("description") String schemaDescription,
                                 @ApiParam(value = "_orderByFields=[<field-name>,<a/d>,]*\na = ascending, d = descending\nOrdering can be by id, type, schemaGroup, name, compatibility, validationLevel, timestamp, description, evolve\nRecommended value is: timestamp,d", required = true) @NotNull @QueryParam("_orderByFields") String orderByFields,
@@ -344,7 +394,7 @@ public class SchemaRegistryResource extends BaseRegistryResource {
             notes = "Search the schemas for given name and description, return a list of schemas that contain the field.",
             response = AggregatedSchemaMetadataInfo.class, responseContainer = "List", tags = OPERATION_GROUP_SCHEMA)
     @Timed
-    @UnitOfWork
+    @UnitOfWork(readOnly = true)
     public Response findAggregatedSchemas(@ApiParam(value = "name of the schema", required = true) @NotNull @QueryParam("name") @DefaultValue("") String schemaName, 
                                           @QueryParam("description") String schemaDescription, 
                                           @QueryParam("_orderByFields") @ApiParam(required = true) @NotNull @DefaultValue("timestamp,d") String orderByFields,
@@ -386,24 +436,39 @@ public class SchemaRegistryResource extends BaseRegistryResource {
     @GET
     @Path("/search/schemas/fields")
     @ApiOperation(value = "Search for schemas containing the given field names",
-            notes = "Search the schemas for given field names and return a list of schemas that contain the field.\nIf no parameter added, returns all schemas as many times as they have fields.",
+            notes = "Search the schemas for given field names and return a list of schemas that contain the field.\nIf no parameter added, returns all schemas as many times as they have fields.\n" +
+                    "The result can be paged with _offset and _limit. The matching fields are paged before the schemas the user " +
+                    "is not authorized to read are left out, so a page may hold fewer schemas than _limit.",
             response = SchemaVersionKey.class, responseContainer = "List", tags = OPERATION_GROUP_SCHEMA)
     @Timed
-    @UnitOfWork
+    @UnitOfWork(readOnly = true)
     public Response findSchemasByFields(@QueryParam("name") String name,
                                         @QueryParam("fieldNamespace") String nameSpace,
                                         @QueryParam("type") String type,
+                                        @ApiParam(value = "Number of matching schemas to skip") @QueryParam("_offset") Integer offset,
+                                        @ApiParam(value = "Maximum number of matching schemas to return") @QueryParam("_limit") Integer limit,
                                         @Context SecurityContext securityContext) {
+        if ((offset != null && offset < 0) || (limit != null && limit < 0)) {
+            return WSUtils.respond(Response.Status.BAD_REQUEST, CatalogResponse.ResponseMessage.BAD_REQUEST_WITH_MESSAGE,
+                                   "_offset and _limit must not be negative");
+        }
         MultivaluedMap<String, String> queryParameters = new MultivaluedHashMap<>();
         for (Map.Entry<String, String> entry : createFilterForNamespace(Optional.ofNullable(name), Optional.ofNullable(nameSpace), Optional.ofNullable(type)).entrySet()){
             queryParameters.add(entry.getKey(), entry.getValue());
         }
         try {
-            Collection<SchemaVersionKey> schemaVersionKeys = authorizationAgent
-                    .authorizeFindSchemasByFields(AuthorizationUtils.getUserAndGroups(securityContext), schemaRegistry,
-                            schemaRegistry.findSchemasByFields(buildSchemaFieldQuery(queryParameters)));
-
-            return WSUtils.respondEntities(schemaVersionKeys, Response.Status.OK);
+            SchemaFieldQuery schemaFieldQuery = buildSchemaFieldQuery(queryParameters);
+            // a page is fetched by the storage, so only the fields of the page are resolved and authorized
+            Collection<SchemaVersionKey> schemaVersionKeys = offset == null && limit == null
+                    ? schemaRegistry.findSchemasByFields(schemaFieldQuery)
+                    : schemaRegistry.findSchemasByFields(schemaFieldQuery,
+                                                         offset != null ? offset : 0,
+                                                         limit != null ? limit : Integer.MAX_VALUE);
+
+            return WSUtils.respondEntities(authorizationAgent.authorizeFindSchemasByFields(AuthorizationUtils.getUserAndGroups(securityContext),
+                                                                                           schemaRegistry,
+                                                                                           schemaVersionKeys),
+                                           Response.Status.OK);
         } catch (Exception ex) {
             // TODO CDPD-14184 Refactor exception handling
             if (ex instanceof UndeclaredThrowableException) {
@@ -414,6 +479,16 @@ public class SchemaRegistryResource extends BaseRegistryResource {
         }
     }
 
+    private static <T> Collection<T> page(Collection<T> entities, Integer offset, Integer limit) {
+        if (offset == null && limit == null) {
+            return entities;
+        }
+        return entities.stream()
+                       .skip(offset != null ? offset : 0)
+                       .limit(limit != null ? limit : Long.MAX_VALUE)
+                       .collect(Collectors.toList());
+    }
+
     @VisibleForTesting
     SchemaFieldQuery buildSchemaFieldQuery(MultivaluedMap<String, String> queryParameters) {
         SchemaFieldQuery.Builder builder = new SchemaFieldQuery.Builder();
@@ -554,7 +629,7 @@ public class SchemaRegistryResource extends BaseRegistryResource {
     @ApiOperation(value = "Get schema information for the given schema name",
             response = SchemaMetadataInfo.class, tags = OPERATION_GROUP_SCHEMA)
     @Timed
-    @UnitOfWork
+    @UnitOfWork(readOnly = true)
     public Response getSchemaInfo(@ApiParam(value = "Schema name", required = true) @PathParam("name") String schemaName,
                                   @Context SecurityContext securityContext) {
         Response response;
@@ -586,7 +661,7 @@ public class SchemaRegistryResource extends BaseRegistryResource {
     @ApiOperation(value = "Get schema information for a given schema identifier",
             response = SchemaMetadataInfo.class, tags = OPERATION_GROUP_SCHEMA)
     @Timed
-    @UnitOfWork
+    @UnitOfWork(readOnly = true)
     public Response getSchemaInfo(@ApiParam(value = "Schema identifier", required = true) @PathParam("schemaId") Long schemaId,
                                   @Context SecurityContext securityContext) {
         Response response;
@@ -744,7 +819,7 @@ public class SchemaRegistryResource extends BaseRegistryResource {
     @ApiOperation(value = "Get the latest version of the schema for the given schema name",
             response = SchemaVersionInfo.class, tags = OPERATION_GROUP_SCHEMA)
     @Timed
-    @UnitOfWork
+    @UnitOfWork(readOnly = true)
     public Response getLatestSchemaVersion(@ApiParam(value = "Schema name", required = true) @PathParam("name") String schemaName,
                                            @QueryParam("branch") @DefaultValue(MASTER_BRANCH) String schemaBranchName,
                                            @Context SecurityContext securityContext) {
@@ -785,7 +860,7 @@ public class SchemaRegistryResource extends BaseRegistryResource {
     @ApiOperation(value = "Get all the versions of the schema for the given schema name)",
             response = SchemaVersionInfo.class, responseContainer = "List", tags = OPERATION_GROUP_SCHEMA)
     @Timed
-    @UnitOfWork
+    @UnitOfWork(readOnly = true)
     public Response getAllSchemaVersions(@ApiParam(value = "Schema name", required = true) @PathParam("name") String schemaName,
                                          @QueryParam("branch") @DefaultValue(MASTER_BRANCH) String schemaBranchName,
                                          @QueryParam("states") List<Byte> stateIds,
@@ -826,7 +901,7 @@ public class SchemaRegistryResource extends BaseRegistryResource {
     @ApiOperation(value = "Get a version of the schema identified by the schema name",
             response = SchemaVersionInfo.class, tags = OPERATION_GROUP_SCHEMA)
     @Timed
-    @UnitOfWork
+    @UnitOfWork(readOnly = true)
     public Response getSchemaVersion(@ApiParam(value = "Schema name", required = true) @PathParam("name") String schemaMetadata,
                                      @ApiParam(value = "version of the schema", required = true) @PathParam("version") Integer versionNumber,
                                      @Context SecurityContext securityContext) {
@@ -861,7 +936,7 @@ public class SchemaRegistryResource extends BaseRegistryResource {
     @ApiOperation(value = "Get a version of the schema identified by the given version id",
             response = SchemaVersionInfo.class, tags = OPERATION_GROUP_SCHEMA)
     @Timed
-    @UnitOfWork
+    @UnitOfWork(readOnly = true)
     public Response getSchemaVersionById(@ApiParam(value = "version identifier of the schema", required = true) @PathParam("id") Long versionId,
                                          @Context SecurityContext securityContext) {
         SchemaIdVersion schemaIdVersion = new SchemaIdVersion(versionId);
@@ -894,7 +969,7 @@ public class SchemaRegistryResource extends BaseRegistryResource {
     @ApiOperation(value = "Get a version of the schema with the given fingerprint",
             response = SchemaVersionInfo.class, tags = OPERATION_GROUP_SCHEMA)
     @Timed
-    @UnitOfWork
+    @UnitOfWork(readOnly = true)
     public Response getSchemaVersionByFingerprint(@ApiParam(value = "fingerprint of the schema text", required = true) @PathParam("fingerprint") String fingerprint,
                                                   @Context SecurityContext securityContext) {
         try {
@@ -1199,7 +1274,7 @@ public class SchemaRegistryResource extends BaseRegistryResource {
     @ApiOperation(value = "Get list of Serializers registered for the given schema name",
             response = SerDesInfo.class, responseContainer = "List", tags = OPERATION_GROUP_SERDE)
     @Timed
-    @UnitOfWork
+    @UnitOfWork(readOnly = true)
     public Response getSerializers(@ApiParam(value = "Schema name", required = true) @PathParam("name") String schemaName,
                                    @Context SecurityContext securityContext) {
         Response response;
@@ -1305,7 +1380,7 @@ public class SchemaRegistryResource extends BaseRegistryResource {
     @Path("/serdes/{id}")
     @ApiOperation(value = "Get a Serializer for the given serializer id", response = SerDesInfo.class, tags = OPERATION_GROUP_SERDE)
     @Timed
-    @UnitOfWork
+    @UnitOfWork(readOnly = true)
     public Response getSerDes(@ApiParam(value = "Serializer identifier", required = true) @PathParam("id") Long serializerId,
                               @Context SecurityContext securityContext) {
         Response response;
@@ -1412,7 +1487,7 @@ public class SchemaRegistryResource extends BaseRegistryResource {
             response = SchemaBranch.class, responseContainer = "List",
             tags = OPERATION_GROUP_OTHER)
     @Timed
-    @UnitOfWork
+    @UnitOfWork(readOnly = true)
     public Response getAllBranches(@ApiParam(value = "Details about schema name",required = true) @PathParam("name") String schemaName,
                                    @Context UriInfo uriInfo,
                                    @Context SecurityContext securityContext) {
@@ -17,8 +17,11 @@ package com.hortonworks.registries.schemaregistry.webservice;
 import com.hortonworks.registries.common.CollectionResponse;
 import com.hortonworks.registries.schemaregistry.ISchemaRegistry;
 import com.hortonworks.registries.schemaregistry.SchemaFieldQuery;
+import com.hortonworks.registries.schemaregistry.SchemaMetadata;
+import com.hortonworks.registries.schemaregistry.SchemaMetadataInfo;
 import com.hortonworks.registries.schemaregistry.SchemaVersionKey;
 import com.hortonworks.registries.schemaregistry.authorizer.agent.AuthorizationAgent;
+import com.hortonworks.registries.schemaregistry.authorizer.exception.AuthorizationException;
 import org.hamcrest.core.Is;
 import org.junit.Before;
 import org.junit.Test;
@@ -30,8 +33,11 @@ import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.SecurityContext;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -244,7 +250,7 @@ public class SchemaRegistryResourceTest {
         Mockito.when(schemaRegistryMock.findSchemasByFields(ArgumentMatchers.any())).thenReturn(schemaversions);
         
         //when
-        Response actual = underTest.findSchemasByFields(name, namespace, type, securityContext);
+        Response actual = underTest.findSchemasByFields(name, namespace, type, null, null, securityContext);
         
         //then
         Mockito.verify(schemaRegistryMock).findSchemasByFields(schemaFieldQuery);
@@ -255,6 +261,66 @@ public class SchemaRegistryResourceTest {
 
     }
     
+    @Test
+    public void findSchemaByFields_Paged() throws Exception {
+        //given
+        List<SchemaVersionKey> schemaversions = Arrays.asList(new SchemaVersionKey("test", 2), new SchemaVersionKey("test", 3));
+        SchemaFieldQuery schemaFieldQuery = new SchemaFieldQuery("name", null, null);
+        Mockito.when(schemaRegistryMock.findSchemasByFields(schemaFieldQuery, 1, 2)).thenReturn(schemaversions);
+        Mockito.when(authorizationAgentMock.authorizeFindSchemasByFields(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any())).thenReturn(schemaversions);
+        SecurityContext securityContext = Mockito.mock(SecurityContext.class);
+        underTest = new SchemaRegistryResource(schemaRegistryMock, null, authorizationAgentMock, null, null);
+
+        //when
+        Response actual = underTest.findSchemasByFields("name", null, null, 1, 2, securityContext);
+
+        //then the page is fetched by the registry and only its schemas are authorized
+        Mockito.verify(schemaRegistryMock, Mockito.never()).findSchemasByFields(ArgumentMatchers.any());
+        Mockito.verify(authorizationAgentMock).authorizeFindSchemasByFields(null, schemaRegistryMock, schemaversions);
+        assertThat(actual.getStatus(), is(200));
+        assertThat(((CollectionResponse) (actual.getEntity())).getEntities(), is(schemaversions));
+    }
+
+    @Test
+    public void findSchemaByFields_NegativeLimit() {
+        //when
+        Response actual = underTest.findSchemasByFields("name", null, null, null, -1, Mockito.mock(SecurityContext.class));
+
+        //then
+        assertThat(actual.getStatus(), is(400));
+    }
+
+    @Test
+    public void listSchemas_PagedStorageFailure() {
+        //given
+        Mockito.when(schemaRegistryMock.listSchemaMetadata(ArgumentMatchers.any(), ArgumentMatchers.anyInt()))
+               .thenThrow(new RuntimeException("storage is not available"));
+        underTest = new SchemaRegistryResource(schemaRegistryMock, null, authorizationAgentMock, null, null);
+
+        //when
+        Response actual = underTest.listSchemas(null, null, null, null, null, null, null, null, null, null, 10, Mockito.mock(SecurityContext.class));
+
+        //then the first page is fetched before the response is returned
+        assertThat(actual.getStatus(), is(500));
+    }
+
+    @Test
+    public void listSchemas_PagedAccessDenied() throws Exception {
+        //given
+        SchemaMetadata schemaMetadata = new SchemaMetadata.Builder("schema").schemaGroup("group").type("avro").build();
+        Mockito.when(schemaRegistryMock.listSchemaMetadata(ArgumentMatchers.any(), ArgumentMatchers.anyInt()))
+               .thenReturn(Collections.singletonList(new SchemaMetadataInfo(schemaMetadata, 1L, 0L)));
+        Mockito.when(authorizationAgentMock.authorizeFindSchemas(ArgumentMatchers.any(), ArgumentMatchers.any()))
+               .thenThrow(new AuthorizationException("access denied"));
+        underTest = new SchemaRegistryResource(schemaRegistryMock, null, authorizationAgentMock, null, null);
+
+        //when
+        Response actual = underTest.listSchemas(null, null, null, null, null, null, null, null, null, 0L, null, Mockito.mock(SecurityContext.class));
+
+        //then
+        assertThat(actual.getStatus(), is(403));
+    }
+
     @Test
     public void buildSchemaFieldQueryTest_NameNamespaceType(){
         //given
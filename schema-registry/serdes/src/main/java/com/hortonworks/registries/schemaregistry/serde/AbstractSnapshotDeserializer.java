@@ -18,6 +18,7 @@ package com.hortonworks.registries.schemaregistry.serde;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.hortonworks.registries.schemaregistry.SchemaIdVersion;
 import com.hortonworks.registries.schemaregistry.SchemaMetadata;
 import com.hortonworks.registries.schemaregistry.SchemaVersionInfo;
@@ -28,6 +29,7 @@ import com.hortonworks.registries.schemaregistry.errors.SchemaNotFoundException;
 import com.hortonworks.registries.schemaregistry.exceptions.RegistryException;
 
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 
@@ -43,6 +45,8 @@ import java.util.concurrent.TimeUnit;
  * <ol>
  *  <li>getting ser/des protocol id by implementing {@link #retrieveProtocolId(Object)} </li>
  *  <li>getting schema version id by implementing {@link #retrieveSchemaIdVersion(byte, Object)} </li>
+ *  <li>resolving the schema version and metadata once per protocol id, schema version id and reader version, see
+ *  {@link #prepareSchemaVersion(byte, SchemaMetadata, Integer, Integer)} </li>
  *  <li>implement the actual deserialization with {@link #doDeserialize(Object, byte, SchemaMetadata, Integer, Integer)} </li>
  * </ol>
  *
@@ -76,6 +80,8 @@ public abstract class AbstractSnapshotDeserializer<I, O, S> extends AbstractSerD
 
     private LoadingCache<SchemaVersionKey, S> schemaCache;
 
+    private LoadingCache<PreparedSchemaVersionKey, PreparedSchemaVersion> preparedSchemaVersions;
+
     public AbstractSnapshotDeserializer() {
     }
     
@@ -98,9 +104,30 @@ public abstract class AbstractSnapshotDeserializer<I, O, S> extends AbstractSerD
                         }
                     }
                 });
+        preparedSchemaVersions = CacheBuilder.newBuilder()
+                .maximumSize(getCacheMaxSize(config))
+                .expireAfterAccess(getCacheExpiryInSecs(config), TimeUnit.SECONDS)
+                .build(new CacheLoader<PreparedSchemaVersionKey, PreparedSchemaVersion>() {
+                    @Override
+                    public PreparedSchemaVersion load(PreparedSchemaVersionKey key) {
+                        SchemaVersionInfo schemaVersionInfo;
+                        SchemaMetadata schemaMetadata;
+                        try {
+                            schemaVersionInfo = schemaRegistryClient.getSchemaVersionInfo(key.schemaIdVersion);
+                            schemaMetadata = schemaRegistryClient.getSchemaMetadataInfo(schemaVersionInfo.getName()).getSchemaMetadata();
+                            // the writer schema is parsed from the fetched version instead of being fetched again by
+                            // its name and version
+                            schemaCache.get(new SchemaVersionKey(schemaVersionInfo.getName(), schemaVersionInfo.getVersion()),
+                                            () -> getParsedSchema(schemaVersionInfo));
+                        } catch (Exception e) {
+                            throw new RegistryException(e);
+                        }
+                        return prepareSchemaVersion(key.protocolId, schemaMetadata, schemaVersionInfo.getVersion(), key.readerSchemaVersion);
+                    }
+                });
     }
 
-    private Long getCacheExpiryInSecs(Map<String, ?> config) {
+    protected Long getCacheExpiryInSecs(Map<String, ?> config) {
         Long value = getLongValue(config, DESERIALIZER_SCHEMA_CACHE_EXPIRY_IN_SECS, DEFAULT_DESERIALIZER_SCHEMA_CACHE_EXPIRY_IN_SECS);
         if (value < 0) {
             throw new IllegalArgumentException("Property: " + DESERIALIZER_SCHEMA_CACHE_EXPIRY_IN_SECS + " must be non negative.");
@@ -108,7 +135,7 @@ public abstract class AbstractSnapshotDeserializer<I, O, S> extends AbstractSerD
         return value;
     }
 
-    private Integer getCacheMaxSize(Map<String, ?> config) {
+    protected Integer getCacheMaxSize(Map<String, ?> config) {
         Integer value = getIntegerValue(config, DESERIALIZER_SCHEMA_CACHE_MAX_SIZE, DEFAULT_SCHEMA_CACHE_SIZE);
         if (value < 0) {
             throw new IllegalArgumentException("Property: " + DESERIALIZER_SCHEMA_CACHE_MAX_SIZE + " must be non negative.");
@@ -171,6 +198,17 @@ public abstract class AbstractSnapshotDeserializer<I, O, S> extends AbstractSerD
      */
     protected abstract S getParsedSchema(SchemaVersionKey schemaVersionKey) throws InvalidSchemaException, SchemaNotFoundException;
 
+    /**
+     * Returns the parsed schema representation of the given {@code schemaVersionInfo}. Extensions may parse its schema
+     * text instead of fetching the schema version again with {@link #getParsedSchema(SchemaVersionKey)}.
+     * @param schemaVersionInfo schema version
+     * @throws InvalidSchemaException when the associated schema is not valid.
+     * @throws SchemaNotFoundException when a schema referred by the given schema version does not exist
+     */
+    protected S getParsedSchema(SchemaVersionInfo schemaVersionInfo) throws InvalidSchemaException, SchemaNotFoundException {
+        return getParsedSchema(new SchemaVersionKey(schemaVersionInfo.getName(), schemaVersionInfo.getVersion()));
+    }
+
     @Override
     public O deserialize(I input,
                          Integer readerSchemaVersion) throws SerDesException {
@@ -179,16 +217,64 @@ public abstract class AbstractSnapshotDeserializer<I, O, S> extends AbstractSerD
         // it can be enhanced to have respective protocol handlers for different versions
         byte protocolId = retrieveProtocolId(input);
         SchemaIdVersion schemaIdVersion = retrieveSchemaIdVersion(protocolId, input);
-        SchemaVersionInfo schemaVersionInfo;
-        SchemaMetadata schemaMetadata;
+        PreparedSchemaVersion preparedSchemaVersion = getPreparedSchemaVersion(protocolId, schemaIdVersion, readerSchemaVersion);
+        return deserialize(input, protocolId, preparedSchemaVersion, readerSchemaVersion);
+    }
+
+    /**
+     * Deserializes the given input with the schema version prepared for it by invoking
+     * {@link #doDeserialize(Object, byte, SchemaMetadata, Integer, Integer)}.
+     *
+     * @param input payload to be deserialized into.
+     * @param protocolId protocol id for deserializtion.
+     * @param preparedSchemaVersion schema version of the writer prepared for the given protocol id and reader version
+     * @param readerSchemaVersion schema version for reading/projection.
+     * @throws SerDesException when any ser/des error occurs
+     */
+    protected O deserialize(I input,
+                            byte protocolId,
+                            PreparedSchemaVersion preparedSchemaVersion,
+                            Integer readerSchemaVersion) throws SerDesException {
+        return doDeserialize(input,
+                             protocolId,
+                             preparedSchemaVersion.getSchemaMetadata(),
+                             preparedSchemaVersion.getWriterSchemaVersion(),
+                             readerSchemaVersion);
+    }
+
+    /**
+     * Returns the schema version prepared for the given protocol id, writer schema id and version and reader version.
+     * The schema version info and the schema metadata are fetched from the schema registry client only when there is
+     * no prepared schema version for them yet, so payloads of an already seen schema version cost a single cache lookup.
+     */
+    protected PreparedSchemaVersion getPreparedSchemaVersion(byte protocolId,
+                                                             SchemaIdVersion schemaIdVersion,
+                                                             Integer readerSchemaVersion) {
         try {
-            schemaVersionInfo = schemaRegistryClient.getSchemaVersionInfo(schemaIdVersion);
-            schemaMetadata = schemaRegistryClient.getSchemaMetadataInfo(schemaVersionInfo.getName()).getSchemaMetadata();
-        } catch (Exception e) {
-            throw new RegistryException(e);
+            return preparedSchemaVersions.get(new PreparedSchemaVersionKey(protocolId, schemaIdVersion, readerSchemaVersion));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RegistryException(e.getCause());
         }
-        return doDeserialize(input, protocolId, schemaMetadata, schemaVersionInfo.getVersion(), readerSchemaVersion);
+    }
 
+    /**
+     * Prepares what is needed to deserialize the payloads of the given schema version. It is invoked once for each
+     * protocol id, writer schema id and version and reader version, extensions may return a subclass of
+     * {@link PreparedSchemaVersion} with anything else resolved for them.
+     *
+     * @param protocolId protocol id for deserializtion.
+     * @param schemaMetadata metadata about the schema
+     * @param writerSchemaVersion schema version of writer used in building the serialized payload.
+     * @param readerSchemaVersion schema version for reading/projection.
+     */
+    protected PreparedSchemaVersion prepareSchemaVersion(byte protocolId,
+                                                         SchemaMetadata schemaMetadata,
+                                                         Integer writerSchemaVersion,
+                                                         Integer readerSchemaVersion) {
+        return new PreparedSchemaVersion(schemaMetadata, writerSchemaVersion);
     }
 
     /**
@@ -239,7 +325,7 @@ public abstract class AbstractSnapshotDeserializer<I, O, S> extends AbstractSerD
         }
     }
 
-    private void ensureInitialized() {
+    protected void ensureInitialized() {
         if (!initialized) {
             throw new IllegalStateException("init should be invoked before invoking deserialize operation");
         }
@@ -249,4 +335,58 @@ public abstract class AbstractSnapshotDeserializer<I, O, S> extends AbstractSerD
         }
     }
 
+    /**
+     * Schema metadata and writer schema version of received payloads, resolved once for each protocol id, writer
+     * schema id and version and reader version.
+     */
+    protected static class PreparedSchemaVersion {
+        private final SchemaMetadata schemaMetadata;
+        private final Integer writerSchemaVersion;
+
+        protected PreparedSchemaVersion(SchemaMetadata schemaMetadata, Integer writerSchemaVersion) {
+            this.schemaMetadata = schemaMetadata;
+            this.writerSchemaVersion = writerSchemaVersion;
+        }
+
+        public SchemaMetadata getSchemaMetadata() {
+            return schemaMetadata;
+        }
+
+        public Integer getWriterSchemaVersion() {
+            return writerSchemaVersion;
+        }
+    }
+
+    private static final class PreparedSchemaVersionKey {
+        private final byte protocolId;
+        private final SchemaIdVersion schemaIdVersion;
+        private final Integer readerSchemaVersion;
+
+        private PreparedSchemaVersionKey(byte protocolId, SchemaIdVersion schemaIdVersion, Integer readerSchemaVersion) {
+            this.protocolId = protocolId;
+            this.schemaIdVersion = schemaIdVersion;
+            this.readerSchemaVersion = readerSchemaVersion;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            PreparedSchemaVersionKey that = (PreparedSchemaVersionKey) o;
+            return protocolId == that.protocolId &&
+                    schemaIdVersion.equals(that.schemaIdVersion) &&
+                    Objects.equals(readerSchemaVersion, that.readerSchemaVersion);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = 31 * protocolId + schemaIdVersion.hashCode();
+            return 31 * result + (readerSchemaVersion != null ? readerSchemaVersion : 0);
+        }
+    }
+
 }
@@ -14,6 +14,8 @@
  **/
 package com.hortonworks.registries.schemaregistry.serde;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.hortonworks.registries.schemaregistry.SchemaIdVersion;
 import com.hortonworks.registries.schemaregistry.SchemaMetadata;
 import com.hortonworks.registries.schemaregistry.SchemaVersion;
@@ -24,6 +26,10 @@ import com.hortonworks.registries.schemaregistry.errors.SchemaBranchNotFoundExce
 import com.hortonworks.registries.schemaregistry.errors.SchemaNotFoundException;
 import com.hortonworks.registries.schemaregistry.exceptions.RegistryException;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
 /**
  * This class implements {@link SnapshotSerializer} and internally creates schema registry client to connect to the
  * target schema registry.
@@ -33,9 +39,25 @@ import com.hortonworks.registries.schemaregistry.exceptions.RegistryException;
  *    <li>{@link #doSerialize(Object, SchemaIdVersion)}</li>
  *    <li>{@link #getSchemaText(Object)}</li>
  * </ul>
+ *
+ * Extensions may also implement {@link #getSchemaIdentity(Object)} so that registered schema versions are looked up
+ * without computing the schema text of every input.
  */
 public abstract class AbstractSnapshotSerializer<I, O> extends AbstractSerDes implements SnapshotSerializer<I, O, SchemaMetadata> {
 
+    /**
+     * Maximum number of schema identities cached per schema name.
+     */
+    public static final long DEFAULT_SCHEMA_IDENTITY_CACHE_SIZE = 1024L;
+
+    /**
+     * Expiry interval(in seconds) after an access for an entry in schema identity cache.
+     */
+    public static final long DEFAULT_SCHEMA_IDENTITY_CACHE_EXPIRY_IN_SECS = 60 * 5L;
+
+    // schema name -> (schema identity -> registered version), identities are compared with ==
+    private final ConcurrentMap<String, Cache<Object, SchemaIdVersion>> schemaIdentityCaches = new ConcurrentHashMap<>();
+
     public AbstractSnapshotSerializer() {
     }
 
@@ -47,17 +69,52 @@ public abstract class AbstractSnapshotSerializer<I, O> extends AbstractSerDes im
     public final O serialize(I input, SchemaMetadata schemaMetadata) throws SerDesException {
         ensureInitialized();
 
-        // compute schema based on input object
-        String schema = getSchemaText(input);
+        Object schemaIdentity = getSchemaIdentity(input);
+        Cache<Object, SchemaIdVersion> schemaIdentityCache = null;
+        SchemaIdVersion schemaIdVersion = null;
+        if (schemaIdentity != null) {
+            schemaIdentityCache = schemaIdentityCaches.computeIfAbsent(schemaMetadata.getName(), name -> createSchemaIdentityCache());
+            schemaIdVersion = schemaIdentityCache.getIfPresent(schemaIdentity);
+        }
+
+        if (schemaIdVersion == null) {
+            // compute schema based on input object
+            String schema = getSchemaText(input);
 
-        // register that schema and get the version
-        try {
-            SchemaIdVersion schemaIdVersion = schemaRegistryClient.addSchemaVersion(schemaMetadata, new SchemaVersion(schema, "Schema registered by serializer:" + this.getClass()));
-            // write the version and given object to the output
-            return doSerialize(input, schemaIdVersion);
-        } catch (SchemaNotFoundException | IncompatibleSchemaException | InvalidSchemaException | SchemaBranchNotFoundException e) {
-            throw new RegistryException(e);
+            // register that schema and get the version
+            try {
+                schemaIdVersion = schemaRegistryClient.addSchemaVersion(schemaMetadata, new SchemaVersion(schema, "Schema registered by serializer:" + this.getClass()));
+            } catch (SchemaNotFoundException | IncompatibleSchemaException | InvalidSchemaException | SchemaBranchNotFoundException e) {
+                throw new RegistryException(e);
+            }
+
+            if (schemaIdentityCache != null) {
+                schemaIdentityCache.put(schemaIdentity, schemaIdVersion);
+            }
         }
+
+        // write the version and given object to the output
+        return doSerialize(input, schemaIdVersion);
+    }
+
+    private Cache<Object, SchemaIdVersion> createSchemaIdentityCache() {
+        // weak keys are compared by identity and let unused schema instances be garbage collected.
+        return CacheBuilder.newBuilder()
+                .weakKeys()
+                .maximumSize(DEFAULT_SCHEMA_IDENTITY_CACHE_SIZE)
+                .expireAfterAccess(DEFAULT_SCHEMA_IDENTITY_CACHE_EXPIRY_IN_SECS, TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * Returns an object whose identity determines the schema of the given {@code input}, e.g. the parsed schema instance
+     * or the generated class of a record. Inputs returning the same instance must always have the same schema text.
+     * Returns null by default, which means the schema text is computed and registered for every input.
+     *
+     * @param input input payload
+     */
+    protected Object getSchemaIdentity(I input) {
+        return null;
     }
 
     /**
@@ -20,6 +20,7 @@ import com.hortonworks.registries.schemaregistry.serde.SerDesException;
 
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.Map;
 
 /**
@@ -49,6 +50,20 @@ public interface SerDesProtocolHandler {
      */
     SchemaIdVersion handleSchemaVersionDeserialization(InputStream inputStream) throws SerDesException;
 
+    /**
+     * Deserializes schema version related information from the given buffer starting at its current position. The
+     * position of the buffer is advanced past that information, so that it points to the payload afterwards.
+     * <p>
+     * Implementations are expected to read the buffer in place, the default implementation reads it through
+     * {@link #handleSchemaVersionDeserialization(InputStream)}.
+     *
+     * @param buffer buffer containing schema version information followed by the payload
+     * @return {@link SchemaIdVersion} instance created from deserializing respective information from given buffer.
+     */
+    default SchemaIdVersion handleSchemaVersionDeserialization(ByteBuffer buffer) throws SerDesException {
+        return handleSchemaVersionDeserialization(Utils.asInputStream(buffer));
+    }
+
     /**
      * Handles serialization of input into given output stream
      *
@@ -66,4 +81,18 @@ public interface SerDesProtocolHandler {
      */
     Object handlePayloadDeserialization(InputStream inputStream, Map<String, Object> context) throws SerDesException;
 
+    /**
+     * Handles deserialization of the remaining bytes of the given buffer and returns the deserialized Object.
+     * <p>
+     * Implementations are expected to decode the buffer in place, the default implementation reads it through
+     * {@link #handlePayloadDeserialization(InputStream, Map)}.
+     *
+     * @param payload buffer whose remaining bytes are the payload
+     * @param context any context required for deserialization.
+     * @return returns the deserialized Object.
+     */
+    default Object handlePayloadDeserialization(ByteBuffer payload, Map<String, Object> context) throws SerDesException {
+        return handlePayloadDeserialization(Utils.asInputStream(payload), context);
+    }
+
 }
@@ -17,6 +17,8 @@
  */
 package com.hortonworks.registries.schemaregistry.serdes;
 
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.Map;
 
 public final class Utils {
@@ -61,9 +63,51 @@ public final class Utils {
         return value;
     }
 
+    /**
+     * Returns an input stream reading the remaining bytes of the given buffer, the position of the buffer is advanced
+     * by the bytes read from the stream.
+     *
+     * @param buffer buffer to be read
+     * @return input stream backed by the given buffer
+     */
+    public static InputStream asInputStream(ByteBuffer buffer) {
+        return new ByteBufferInputStream(buffer);
+    }
+
     @SuppressWarnings("unchecked")
     public static <T> T getOrDefault(Map<String, ?> map, String key, T defaultValue) {
         T value = (T) map.get(key);
         return value != null ? value : defaultValue;
     }
+
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
 }
@@ -17,12 +17,15 @@ package com.hortonworks.registries.schemaregistry.serdes.avro;
 
 import com.hortonworks.registries.schemaregistry.SchemaIdVersion;
 import com.hortonworks.registries.schemaregistry.serdes.SerDesProtocolHandler;
+import com.hortonworks.registries.schemaregistry.serdes.avro.exceptions.AvroException;
 import com.hortonworks.registries.schemaregistry.serdes.avro.exceptions.AvroRetryableException;
 import org.apache.avro.Schema;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.Map;
 
 import static com.hortonworks.registries.schemaregistry.serdes.avro.AbstractAvroSnapshotDeserializer.SPECIFIC_AVRO_READER;
@@ -84,4 +87,42 @@ public abstract class AbstractAvroSerDesProtocolHandler implements SerDesProtoco
                                                                      readerSchema,
                                                                      useSpecificAvroReader);
     }
+
+    @Override
+    public Object handlePayloadDeserialization(ByteBuffer payload, Map<String, Object> context) {
+        boolean useSpecificAvroReader = (boolean) context.getOrDefault(SPECIFIC_AVRO_READER, false);
+        Schema writerSchema = (Schema) context.get(WRITER_SCHEMA);
+        Schema readerSchema = (Schema) context.get(READER_SCHEMA);
+        return avroSerDesHandler.handlePayloadDeserialization(payload, writerSchema, readerSchema, useSpecificAvroReader);
+    }
+
+    /**
+     * Reads a big endian long at the current position of the given buffer with an absolute read and advances the
+     * position past it.
+     */
+    protected static long readLong(ByteBuffer buffer) {
+        int position = checkRemaining(buffer, Long.BYTES);
+        long value = buffer.getLong(position);
+        buffer.position(position + Long.BYTES);
+        return buffer.order() == ByteOrder.BIG_ENDIAN ? value : Long.reverseBytes(value);
+    }
+
+    /**
+     * Reads a big endian int at the current position of the given buffer with an absolute read and advances the
+     * position past it.
+     */
+    protected static int readInt(ByteBuffer buffer) {
+        int position = checkRemaining(buffer, Integer.BYTES);
+        int value = buffer.getInt(position);
+        buffer.position(position + Integer.BYTES);
+        return buffer.order() == ByteOrder.BIG_ENDIAN ? value : Integer.reverseBytes(value);
+    }
+
+    private static int checkRemaining(ByteBuffer buffer, int length) {
+        if (buffer.remaining() < length) {
+            throw new AvroException("Expected " + length + " bytes of schema version information, but only "
+                                            + buffer.remaining() + " bytes are remaining");
+        }
+        return buffer.position();
+    }
 }
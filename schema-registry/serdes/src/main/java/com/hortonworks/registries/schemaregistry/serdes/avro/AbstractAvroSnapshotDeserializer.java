@@ -39,8 +39,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
 
 /**
  * This class implements most of the required functionality for an avro deserializer by extending {@link AbstractSnapshotDeserializer}
@@ -102,6 +106,9 @@ public abstract class AbstractAvroSnapshotDeserializer<I> extends AbstractSnapsh
 
     private AvroSchemaResolver avroSchemaResolver;
 
+    // decoder prepared for the payload which is being deserialized by the current thread
+    private final ThreadLocal<PreparedDecoder> currentDecoder = new ThreadLocal<>();
+
     protected boolean useSpecificAvroReader = false;
 
     public AbstractAvroSnapshotDeserializer() {
@@ -139,6 +146,46 @@ public abstract class AbstractAvroSnapshotDeserializer<I> extends AbstractSnapsh
         return new Schema.Parser().parse(avroSchemaResolver.resolveSchema(schemaVersionKey));
     }
 
+    @Override
+    protected Schema getParsedSchema(SchemaVersionInfo schemaVersionInfo) throws InvalidSchemaException, SchemaNotFoundException {
+        return new Schema.Parser().parse(avroSchemaResolver.resolveSchema(schemaVersionInfo.getSchemaText()));
+    }
+
+    /**
+     * Writer and reader schemas, the protocol handler and the payload context are resolved along with the schema
+     * version, so they are kept with it for all the payloads of that schema version.
+     */
+    @Override
+    protected PreparedSchemaVersion prepareSchemaVersion(byte protocolId,
+                                                         SchemaMetadata schemaMetadata,
+                                                         Integer writerSchemaVersion,
+                                                         Integer readerSchemaVersion) {
+        return prepareDecoder(protocolId, schemaMetadata, writerSchemaVersion, readerSchemaVersion);
+    }
+
+    @Override
+    protected Object deserialize(I input,
+                                 byte protocolId,
+                                 PreparedSchemaVersion preparedSchemaVersion,
+                                 Integer readerSchemaVersion) throws SerDesException {
+        return decodeWith(preparedSchemaVersion,
+                          () -> super.deserialize(input, protocolId, preparedSchemaVersion, readerSchemaVersion));
+    }
+
+    /**
+     * Runs the given deserialization with the given prepared schema version as the decoder of
+     * {@code buildDeserializedObject}, so that it is not looked up again for the payload.
+     */
+    Object decodeWith(PreparedSchemaVersion preparedSchemaVersion, Supplier<Object> deserialization) {
+        PreparedDecoder previousDecoder = currentDecoder.get();
+        currentDecoder.set(preparedSchemaVersion instanceof PreparedDecoder ? (PreparedDecoder) preparedSchemaVersion : null);
+        try {
+            return deserialization.get();
+        } finally {
+            currentDecoder.set(previousDecoder);
+        }
+    }
+
     /**
      * Builds the deserialized object from the given {@code payloadInputStream} and applying writer and reader schemas
      * from the respective given versions.
@@ -156,33 +203,136 @@ public abstract class AbstractAvroSnapshotDeserializer<I> extends AbstractSnapsh
                                              SchemaMetadata schemaMetadata,
                                              Integer writerSchemaVersion,
                                              Integer readerSchemaVersion) throws SerDesException {
-        String schemaName = schemaMetadata.getName();
+        PreparedDecoder decoder = getDecoder(protocolId, schemaMetadata, writerSchemaVersion, readerSchemaVersion);
+        return decoder.serDesProtocolHandler.handlePayloadDeserialization(payloadInputStream, decoder.context);
+    }
+
+    /**
+     * Builds the deserialized object from the remaining bytes of the given {@code payload} buffer like
+     * {@link #buildDeserializedObject(byte, InputStream, SchemaMetadata, Integer, Integer)}, the payload is decoded
+     * in place without being copied.
+     *
+     * @param protocolId          protocol id
+     * @param payload             payload
+     * @param schemaMetadata      metadata about schema
+     * @param writerSchemaVersion schema version of the writer
+     * @param readerSchemaVersion schema version to be applied for reading or projection
+     * @return the deserialized object
+     * @throws SerDesException when any ser/des error occurs
+     */
+    protected Object buildDeserializedObject(byte protocolId,
+                                             ByteBuffer payload,
+                                             SchemaMetadata schemaMetadata,
+                                             Integer writerSchemaVersion,
+                                             Integer readerSchemaVersion) throws SerDesException {
+        PreparedDecoder decoder = getDecoder(protocolId, schemaMetadata, writerSchemaVersion, readerSchemaVersion);
+        return decoder.serDesProtocolHandler.handlePayloadDeserialization(payload, decoder.context);
+    }
+
+    /**
+     * Returns the decoder prepared for the payload which is being deserialized, unless it was prepared for another
+     * schema, e.g. by a subclass which decodes the payload with another writer or reader schema version. Such a
+     * decoder is prepared again from the cached schemas.
+     */
+    private PreparedDecoder getDecoder(byte protocolId,
+                                       SchemaMetadata schemaMetadata,
+                                       Integer writerSchemaVersion,
+                                       Integer readerSchemaVersion) {
+        PreparedDecoder decoder = currentDecoder.get();
+        if (decoder != null && decoder.isFor(protocolId, schemaMetadata, writerSchemaVersion, readerSchemaVersion)) {
+            return decoder;
+        }
+        return prepareDecoder(protocolId, schemaMetadata, writerSchemaVersion, readerSchemaVersion);
+    }
+
+    private PreparedDecoder prepareDecoder(byte protocolId,
+                                           SchemaMetadata schemaMetadata,
+                                           Integer writerSchemaVersion,
+                                           Integer readerSchemaVersion) {
+        Schema writerSchema = getWriterSchema(schemaMetadata.getName(), writerSchemaVersion);
+        Schema readerSchema = getReaderSchema(schemaMetadata.getName(), readerSchemaVersion);
+        SerDesProtocolHandler serDesProtocolHandler = SerDesProtocolHandlerRegistry.get().getSerDesProtocolHandler(protocolId);
+
+        return new PreparedDecoder(protocolId,
+                                   schemaMetadata,
+                                   writerSchemaVersion,
+                                   readerSchemaVersion,
+                                   serDesProtocolHandler,
+                                   Collections.unmodifiableMap(createPayloadContext(writerSchema, readerSchema)));
+    }
+
+    private Schema getWriterSchema(String schemaName, Integer writerSchemaVersion) {
         SchemaVersionKey writerSchemaVersionKey = new SchemaVersionKey(schemaName, writerSchemaVersion);
         LOG.debug("SchemaKey: [{}] for the received payload", writerSchemaVersionKey);
         Schema writerSchema = getSchema(writerSchemaVersionKey);
         if (writerSchema == null) {
-            throw new RegistryException("No schema exists with metadata-key: " + schemaMetadata + " and writerSchemaVersion: " + writerSchemaVersion);
+            throw new RegistryException("No schema exists with name: " + schemaName + " and writerSchemaVersion: " + writerSchemaVersion);
         }
-        Schema readerSchema = readerSchemaVersion != null ? getSchema(new SchemaVersionKey(schemaName, readerSchemaVersion)) : null;
+        return writerSchema;
+    }
 
-        return deserializePayloadForProtocol(protocolId, payloadInputStream, writerSchema, readerSchema);
+    private Schema getReaderSchema(String schemaName, Integer readerSchemaVersion) {
+        return readerSchemaVersion != null ? getSchema(new SchemaVersionKey(schemaName, readerSchemaVersion)) : null;
     }
 
     protected Object deserializePayloadForProtocol(byte protocolId,
                                                    InputStream payloadInputStream,
                                                    Schema writerSchema,
                                                    Schema readerSchema) throws SerDesException  {
+        SerDesProtocolHandler serDesProtocolHandler = SerDesProtocolHandlerRegistry.get().getSerDesProtocolHandler(protocolId);
+
+        return serDesProtocolHandler.handlePayloadDeserialization(payloadInputStream, createPayloadContext(writerSchema, readerSchema));
+    }
+
+    protected Object deserializePayloadForProtocol(byte protocolId,
+                                                   ByteBuffer payload,
+                                                   Schema writerSchema,
+                                                   Schema readerSchema) throws SerDesException {
+        SerDesProtocolHandler serDesProtocolHandler = SerDesProtocolHandlerRegistry.get().getSerDesProtocolHandler(protocolId);
+
+        return serDesProtocolHandler.handlePayloadDeserialization(payload, createPayloadContext(writerSchema, readerSchema));
+    }
+
+    private Map<String, Object> createPayloadContext(Schema writerSchema, Schema readerSchema) {
         Map<String, Object> props = new HashMap<>();
         props.put(SPECIFIC_AVRO_READER, useSpecificAvroReader);
         props.put(WRITER_SCHEMA, writerSchema);
         props.put(READER_SCHEMA, readerSchema);
-        SerDesProtocolHandler serDesProtocolHandler = SerDesProtocolHandlerRegistry.get().getSerDesProtocolHandler(protocolId);
-
-        return serDesProtocolHandler.handlePayloadDeserialization(payloadInputStream, props);
+        return props;
     }
 
     @VisibleForTesting
     boolean isUseSpecificAvroReader() {
         return useSpecificAvroReader;
     }
+
+    /**
+     * Everything needed to decode payloads of a schema version with a protocol and a reader version.
+     */
+    private static final class PreparedDecoder extends PreparedSchemaVersion {
+        private final byte protocolId;
+        private final Integer readerSchemaVersion;
+        private final SerDesProtocolHandler serDesProtocolHandler;
+        private final Map<String, Object> context;
+
+        private PreparedDecoder(byte protocolId,
+                                SchemaMetadata schemaMetadata,
+                                Integer writerSchemaVersion,
+                                Integer readerSchemaVersion,
+                                SerDesProtocolHandler serDesProtocolHandler,
+                                Map<String, Object> context) {
+            super(schemaMetadata, writerSchemaVersion);
+            this.protocolId = protocolId;
+            this.readerSchemaVersion = readerSchemaVersion;
+            this.serDesProtocolHandler = serDesProtocolHandler;
+            this.context = context;
+        }
+
+        private boolean isFor(byte protocolId, SchemaMetadata schemaMetadata, Integer writerSchemaVersion, Integer readerSchemaVersion) {
+            return this.protocolId == protocolId &&
+                    getSchemaMetadata().getName().equals(schemaMetadata.getName()) &&
+                    Objects.equals(getWriterSchemaVersion(), writerSchemaVersion) &&
+                    Objects.equals(this.readerSchemaVersion, readerSchemaVersion);
+        }
+    }
 }
@@ -26,6 +26,7 @@ import com.hortonworks.registries.schemaregistry.serde.SnapshotDeserializer;
 import com.hortonworks.registries.schemaregistry.serdes.SerDesProtocolHandler;
 import com.hortonworks.registries.schemaregistry.serdes.avro.exceptions.AvroException;
 import org.apache.avro.Schema;
+import org.apache.avro.specific.SpecificRecord;
 
 import java.io.OutputStream;
 import java.util.Map;
@@ -125,6 +126,15 @@ public abstract class AbstractAvroSnapshotSerializer<O> extends AbstractSnapshot
         return schema.toString();
     }
 
+    /**
+     * @param input avro object
+     * @return generated class for {@link SpecificRecord}s, otherwise the schema instance of the given {@code input}
+     */
+    @Override
+    protected Object getSchemaIdentity(Object input) {
+        return input instanceof SpecificRecord ? input.getClass() : AvroUtils.computeSchema(input);
+    }
+
     protected void serializeSchemaVersion(OutputStream os, SchemaIdVersion schemaIdVersion) throws SerDesException {
         serDesProtocolHandler.handleSchemaVersionSerialization(os, schemaIdVersion);
     }
@@ -0,0 +1,215 @@
+/*
+ * Copyright 2016-2019 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.schemaregistry.serdes.avro;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.hortonworks.registries.schemaregistry.serdes.avro.exceptions.AvroException;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DatumReader;
+import org.apache.avro.io.DatumWriter;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.specific.SpecificData;
+import org.apache.avro.specific.SpecificDatumReader;
+import org.apache.avro.specific.SpecificDatumWriter;
+import org.apache.avro.specific.SpecificRecord;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Bounded cache of {@link DatumReader}s and {@link DatumWriter}s keyed by writer schema, reader schema and whether
+ * specific or generic records are used. Avro datum readers and writers are thread safe, so cached instances are
+ * shared across threads. Binary encoders and decoders are not, so they are reused per thread.
+ */
+public class AvroDatumCache {
+
+    /**
+     * Default maximum number of readers and of writers kept in the cache.
+     */
+    public static final int DEFAULT_CACHE_SIZE = 1024;
+
+    private final Cache<DatumKey, DatumReader<Object>> datumReaders;
+    private final Cache<DatumKey, DatumWriter<Object>> datumWriters;
+    private final Map<String, Schema> readerSchemaCache = new ConcurrentHashMap<>();
+
+    private final ThreadLocal<BinaryEncoder> encoders = new ThreadLocal<>();
+    private final ThreadLocal<BinaryDecoder> decoders = new ThreadLocal<>();
+
+    public AvroDatumCache() {
+        this(DEFAULT_CACHE_SIZE);
+    }
+
+    public AvroDatumCache(int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("maxSize must be non negative.");
+        }
+        datumReaders = CacheBuilder.newBuilder().maximumSize(maxSize).build();
+        datumWriters = CacheBuilder.newBuilder().maximumSize(maxSize).build();
+    }
+
+    /**
+     * Returns the datum writer for the given schema.
+     *
+     * @param schema   schema of the records to be written
+     * @param specific whether the records are {@link SpecificRecord}s
+     * @return cached datum writer
+     */
+    public DatumWriter<Object> getDatumWriter(Schema schema, boolean specific) {
+        return getOrCreate(datumWriters,
+                           new DatumKey(schema, null, specific),
+                           () -> specific ? new SpecificDatumWriter<Object>(schema) : new GenericDatumWriter<Object>(schema));
+    }
+
+    /**
+     * Returns the datum reader resolving the given writer schema to the given reader schema. When {@code readerSchema}
+     * is null, generic readers use the writer schema and specific readers use the schema of the generated class.
+     *
+     * @param writerSchema schema used to write the payload
+     * @param readerSchema schema to project the payload on, can be null
+     * @param specific     whether {@link SpecificRecord}s should be returned
+     * @return cached datum reader
+     */
+    public DatumReader<Object> getDatumReader(Schema writerSchema, Schema readerSchema, boolean specific) {
+        if (specific && readerSchema == null) {
+            readerSchema = getReaderSchema(writerSchema);
+        }
+        final Schema finalReaderSchema = readerSchema;
+        return getOrCreate(datumReaders,
+                           new DatumKey(writerSchema, readerSchema, specific),
+                           () -> {
+                               if (specific) {
+                                   return new SpecificDatumReader<Object>(writerSchema, finalReaderSchema);
+                               }
+                               return finalReaderSchema == null
+                                       ? new GenericDatumReader<Object>(writerSchema)
+                                       : new GenericDatumReader<Object>(writerSchema, finalReaderSchema);
+                           });
+    }
+
+    /**
+     * Returns a binary encoder for the given output stream, reusing the encoder instance of the current thread.
+     */
+    public BinaryEncoder getEncoder(OutputStream outputStream) {
+        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(outputStream, encoders.get());
+        encoders.set(encoder);
+        return encoder;
+    }
+
+    /**
+     * Returns a binary decoder for the given input stream, reusing the decoder instance of the current thread.
+     */
+    public BinaryDecoder getDecoder(InputStream inputStream) {
+        BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(inputStream, decoders.get());
+        decoders.set(decoder);
+        return decoder;
+    }
+
+    /**
+     * Returns a binary decoder over the remaining bytes of the given buffer, reusing the decoder instance of the
+     * current thread. Heap buffers are decoded in place, the position of the buffer is not changed.
+     */
+    public BinaryDecoder getDecoder(ByteBuffer buffer) {
+        BinaryDecoder decoder;
+        if (buffer.hasArray()) {
+            decoder = DecoderFactory.get().binaryDecoder(buffer.array(),
+                                                         buffer.arrayOffset() + buffer.position(),
+                                                         buffer.remaining(),
+                                                         decoders.get());
+        } else {
+            byte[] bytes = AvroUtils.toByteArray(buffer);
+            decoder = DecoderFactory.get().binaryDecoder(bytes, 0, bytes.length, decoders.get());
+        }
+        decoders.set(decoder);
+        return decoder;
+    }
+
+    private Schema getReaderSchema(Schema writerSchema) {
+        Schema readerSchema = this.readerSchemaCache.get(writerSchema.getFullName());
+        if (readerSchema == null) {
+            Class readerClass = SpecificData.get().getClass(writerSchema);
+            if (readerClass == null) {
+                throw new AvroException("Could not find class " + writerSchema.getFullName() + " specified in writer\'s schema whilst finding reader\'s schema for a SpecificRecord.");
+            }
+            try {
+                readerSchema = ((SpecificRecord) readerClass.newInstance()).getSchema();
+            } catch (InstantiationException e) {
+                throw new AvroException(writerSchema.getFullName() + " specified by the " + "writers schema could not be instantiated to find the readers schema.");
+            } catch (IllegalAccessException e) {
+                throw new AvroException(writerSchema.getFullName() + " specified by the " + "writers schema is not allowed to be instantiated to find the readers schema.");
+            }
+
+            this.readerSchemaCache.put(writerSchema.getFullName(), readerSchema);
+        }
+
+        return readerSchema;
+    }
+
+    private static <T> T getOrCreate(Cache<DatumKey, T> cache, DatumKey key, Callable<T> loader) {
+        try {
+            return cache.get(key, loader);
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof AvroException) {
+                throw (AvroException) cause;
+            }
+            throw new AvroException(cause);
+        }
+    }
+
+    private static final class DatumKey {
+        private final Schema writerSchema;
+        private final Schema readerSchema;
+        private final boolean specific;
+
+        private DatumKey(Schema writerSchema, Schema readerSchema, boolean specific) {
+            this.writerSchema = writerSchema;
+            this.readerSchema = readerSchema;
+            this.specific = specific;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            DatumKey datumKey = (DatumKey) o;
+            return specific == datumKey.specific &&
+                    Objects.equals(writerSchema, datumKey.writerSchema) &&
+                    Objects.equals(readerSchema, datumKey.readerSchema);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(writerSchema, readerSchema, specific);
+        }
+    }
+}
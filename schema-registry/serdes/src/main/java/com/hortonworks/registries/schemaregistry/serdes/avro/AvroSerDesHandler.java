@@ -17,7 +17,9 @@ package com.hortonworks.registries.schemaregistry.serdes.avro;
 
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 
+import com.hortonworks.registries.schemaregistry.serdes.Utils;
 import org.apache.avro.Schema;
 
 /**
@@ -31,4 +33,16 @@ public interface AvroSerDesHandler {
                                         Schema writerSchema,
                                         Schema readerSchema,
                                         boolean useSpecificAvroReader);
+
+    /**
+     * Deserializes the remaining bytes of the given buffer. Implementations should decode the buffer in place instead
+     * of copying it, the default implementation reads it through
+     * {@link #handlePayloadDeserialization(InputStream, Schema, Schema, boolean)}.
+     */
+    default Object handlePayloadDeserialization(ByteBuffer payload,
+                                                Schema writerSchema,
+                                                Schema readerSchema,
+                                                boolean useSpecificAvroReader) {
+        return handlePayloadDeserialization(Utils.asInputStream(payload), writerSchema, readerSchema, useSpecificAvroReader);
+    }
 }
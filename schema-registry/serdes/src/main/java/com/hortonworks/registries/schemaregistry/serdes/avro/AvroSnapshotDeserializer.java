@@ -23,6 +23,7 @@ import com.hortonworks.registries.schemaregistry.serdes.avro.exceptions.AvroRetr
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 
 /**
@@ -37,6 +38,32 @@ public class AvroSnapshotDeserializer extends AbstractAvroSnapshotDeserializer<I
         super(schemaRegistryClient);
     }
 
+    /**
+     * Deserializes the remaining bytes of the given buffer like {@link #deserialize(Object, Integer)} does for an
+     * input stream. Protocol header is read in place and the payload is decoded straight from the buffer without
+     * copying it, so it is preferred when the serialized bytes are already in memory.
+     *
+     * @param input               buffer containing protocol id, schema version information and the payload
+     * @param readerSchemaVersion schema version to be applied for reading or projection, can be null
+     * @return the deserialized object
+     * @throws SerDesException when any ser/des error occurs
+     */
+    public Object deserialize(ByteBuffer input, Integer readerSchemaVersion) throws SerDesException {
+        ensureInitialized();
+
+        byte protocolId = retrieveProtocolId(input);
+        SchemaIdVersion schemaIdVersion = SerDesProtocolHandlerRegistry.get()
+                                                                       .getSerDesProtocolHandler(protocolId)
+                                                                       .handleSchemaVersionDeserialization(input);
+        PreparedSchemaVersion preparedSchemaVersion = getPreparedSchemaVersion(protocolId, schemaIdVersion, readerSchemaVersion);
+        return decodeWith(preparedSchemaVersion,
+                          () -> buildDeserializedObject(protocolId,
+                                                        input,
+                                                        preparedSchemaVersion.getSchemaMetadata(),
+                                                        preparedSchemaVersion.getWriterSchemaVersion(),
+                                                        readerSchemaVersion));
+    }
+
     protected SchemaIdVersion retrieveSchemaIdVersion(byte protocolId, InputStream inputStream)
             throws SerDesException {
         return SerDesProtocolHandlerRegistry.get()
@@ -64,6 +91,17 @@ public class AvroSnapshotDeserializer extends AbstractAvroSnapshotDeserializer<I
         return protocolId;
     }
 
+    private byte retrieveProtocolId(ByteBuffer input) throws SerDesException {
+        if (!input.hasRemaining()) {
+            throw new AvroException("End of buffer reached while trying to read protocol id");
+        }
+        byte protocolId = input.get();
+
+        checkProtocolHandlerExists(protocolId);
+
+        return protocolId;
+    }
+
     private void checkProtocolHandlerExists(byte protocolId) {
         if (SerDesProtocolHandlerRegistry.get().getSerDesProtocolHandler(protocolId) == null) {
             throw new AvroException("Unknown protocol id [" + protocolId + "] received while deserializing the payload");
@@ -18,6 +18,7 @@ import com.hortonworks.registries.schemaregistry.serdes.avro.exceptions.AvroExce
 import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericContainer;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.util.Collections;
 import java.util.HashMap;
@@ -80,4 +81,23 @@ public final class AvroUtils {
         return schema;
     }
 
+    /**
+     * Returns a copy of the remaining bytes of the given buffer without changing its position.
+     */
+    public static byte[] toByteArray(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Returns the UTF-8 string of the remaining bytes of the given buffer without changing its position.
+     */
+    public static String toUtf8String(ByteBuffer buffer) {
+        if (buffer.hasArray()) {
+            return new String(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining(), UTF_8);
+        }
+        return new String(toByteArray(buffer), UTF_8);
+    }
+
 }
@@ -18,22 +18,14 @@ package com.hortonworks.registries.schemaregistry.serdes.avro;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.nio.ByteBuffer;
 
 import com.hortonworks.registries.schemaregistry.serdes.avro.exceptions.AvroException;
 import com.hortonworks.registries.schemaregistry.serdes.avro.exceptions.AvroRetryableException;
 import org.apache.avro.Schema;
-import org.apache.avro.generic.GenericDatumReader;
-import org.apache.avro.generic.GenericDatumWriter;
 import org.apache.avro.io.BinaryEncoder;
 import org.apache.avro.io.DatumReader;
 import org.apache.avro.io.DatumWriter;
-import org.apache.avro.io.DecoderFactory;
-import org.apache.avro.io.EncoderFactory;
-import org.apache.avro.specific.SpecificData;
-import org.apache.avro.specific.SpecificDatumReader;
-import org.apache.avro.specific.SpecificDatumWriter;
 import org.apache.avro.specific.SpecificRecord;
 import org.apache.commons.io.IOUtils;
 
@@ -41,7 +33,15 @@ import org.apache.commons.io.IOUtils;
  * Confluent compatible implementation of serializing and deserializing avro payloads.
  */
 public class ConfluentAvroSerDesHandler implements AvroSerDesHandler {
-    private final Map<String, Schema> readerSchemaCache = new ConcurrentHashMap<>();
+    private final AvroDatumCache avroDatumCache;
+
+    public ConfluentAvroSerDesHandler() {
+        this(new AvroDatumCache());
+    }
+
+    public ConfluentAvroSerDesHandler(AvroDatumCache avroDatumCache) {
+        this.avroDatumCache = avroDatumCache;
+    }
 
     @Override
     public void handlePayloadSerialization(OutputStream outputStream, Object input) {
@@ -50,13 +50,8 @@ public class ConfluentAvroSerDesHandler implements AvroSerDesHandler {
             if (input instanceof byte[]) {
                 outputStream.write((byte[]) input);
             } else {
-                BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(outputStream, null);
-                DatumWriter<Object> writer;
-                if (input instanceof SpecificRecord) {
-                    writer = new SpecificDatumWriter<>(schema);
-                } else {
-                    writer = new GenericDatumWriter<>(schema);
-                }
+                BinaryEncoder encoder = avroDatumCache.getEncoder(outputStream);
+                DatumWriter<Object> writer = avroDatumCache.getDatumWriter(schema, input instanceof SpecificRecord);
                 writer.write(input, encoder);
                 encoder.flush();
             }
@@ -81,8 +76,8 @@ public class ConfluentAvroSerDesHandler implements AvroSerDesHandler {
                 // serializer writes byte array directly without going through avro encoder layers.
                 deserializedObj = IOUtils.toByteArray(payloadInputStream);
             } else {
-                DatumReader datumReader = getDatumReader(writerSchema, readerSchema, useSpecificAvroReader);
-                deserializedObj = datumReader.read(null, DecoderFactory.get().binaryDecoder(payloadInputStream, null));
+                DatumReader<Object> datumReader = avroDatumCache.getDatumReader(writerSchema, readerSchema, useSpecificAvroReader);
+                deserializedObj = datumReader.read(null, avroDatumCache.getDecoder(payloadInputStream));
             }
         } catch (IOException e) {
             throw new AvroRetryableException("Error deserializing Avro message for id " + writerSchema, e);
@@ -93,36 +88,27 @@ public class ConfluentAvroSerDesHandler implements AvroSerDesHandler {
         return deserializedObj;
     }
 
-    private DatumReader getDatumReader(Schema writerSchema, Schema readerSchema, boolean useSpecificAvroReader) {
-        if (useSpecificAvroReader) {
-            if (readerSchema == null) {
-                readerSchema = this.getReaderSchema(writerSchema);
-            }
-
-            return new SpecificDatumReader(writerSchema, readerSchema);
-        } else {
-            return readerSchema == null ? new GenericDatumReader(writerSchema) : new GenericDatumReader(writerSchema, readerSchema);
-        }
-    }
+    @Override
+    public Object handlePayloadDeserialization(ByteBuffer payload,
+                                               Schema writerSchema,
+                                               Schema readerSchema,
+                                               boolean useSpecificAvroReader) {
 
-    private Schema getReaderSchema(Schema writerSchema) {
-        Schema readerSchema = this.readerSchemaCache.get(writerSchema.getFullName());
-        if (readerSchema == null) {
-            Class readerClass = SpecificData.get().getClass(writerSchema);
-            if (readerClass == null) {
-                throw new AvroException("Could not find class " + writerSchema.getFullName() + " specified in writer\'s schema whilst finding reader\'s schema for a SpecificRecord.");
-            }
-            try {
-                readerSchema = ((SpecificRecord) readerClass.newInstance()).getSchema();
-            } catch (InstantiationException e) {
-                throw new AvroException(writerSchema.getFullName() + " specified by the " + "writers schema could not be instantiated to find the readers schema.");
-            } catch (IllegalAccessException e) {
-                throw new AvroException(writerSchema.getFullName() + " specified by the " + "writers schema is not allowed to be instantiated to find the readers schema.");
+        Object deserializedObj;
+        try {
+            if (Schema.Type.BYTES.equals(writerSchema.getType())) {
+                // serializer writes byte array directly without going through avro encoder layers.
+                deserializedObj = AvroUtils.toByteArray(payload);
+            } else {
+                DatumReader<Object> datumReader = avroDatumCache.getDatumReader(writerSchema, readerSchema, useSpecificAvroReader);
+                deserializedObj = datumReader.read(null, avroDatumCache.getDecoder(payload));
             }
-
-            this.readerSchemaCache.put(writerSchema.getFullName(), readerSchema);
+        } catch (IOException e) {
+            throw new AvroRetryableException("Error deserializing Avro message for id " + writerSchema, e);
+        } catch (RuntimeException e) {
+            // avro deserialization may throw AvroRuntimeException, NullPointerException, etc
+            throw new AvroException("Error deserializing Avro message for id " + writerSchema, e);
         }
-
-        return readerSchema;
+        return deserializedObj;
     }
 }
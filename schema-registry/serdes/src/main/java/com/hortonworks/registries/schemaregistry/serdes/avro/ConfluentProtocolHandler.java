@@ -67,4 +67,9 @@ public class ConfluentProtocolHandler extends AbstractAvroSerDesProtocolHandler
         return new SchemaIdVersion((long) schemaVersionId);
     }
 
+    @Override
+    public SchemaIdVersion handleSchemaVersionDeserialization(ByteBuffer buffer) {
+        return new SchemaIdVersion((long) readInt(buffer));
+    }
+
 }
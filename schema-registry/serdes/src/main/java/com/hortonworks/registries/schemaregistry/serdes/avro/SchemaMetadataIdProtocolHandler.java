@@ -64,4 +64,14 @@ public class SchemaMetadataIdProtocolHandler extends AbstractAvroSerDesProtocolH
         return new SchemaIdVersion(schemaMetadataId, schemaVersion);
     }
 
+    @Override
+    public SchemaIdVersion handleSchemaVersionDeserialization(ByteBuffer buffer) {
+        // 8 bytes : schema metadata Id
+        // 4 bytes : schema version
+        long schemaMetadataId = readLong(buffer);
+        int schemaVersion = readInt(buffer);
+
+        return new SchemaIdVersion(schemaMetadataId, schemaVersion);
+    }
+
 }
@@ -77,4 +77,9 @@ public class SchemaVersionIdAsIntProtocolHandler extends AbstractAvroSerDesProto
         return new SchemaIdVersion((long) schemaVersionId);
     }
 
+    @Override
+    public SchemaIdVersion handleSchemaVersionDeserialization(ByteBuffer buffer) {
+        return new SchemaIdVersion((long) readInt(buffer));
+    }
+
 }
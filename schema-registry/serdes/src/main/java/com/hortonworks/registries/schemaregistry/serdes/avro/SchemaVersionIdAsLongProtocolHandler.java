@@ -57,6 +57,11 @@ public class SchemaVersionIdAsLongProtocolHandler extends AbstractAvroSerDesProt
         return new SchemaIdVersion(byteBuffer.getLong());
     }
 
+    @Override
+    public SchemaIdVersion handleSchemaVersionDeserialization(ByteBuffer buffer) throws SerDesException {
+        return new SchemaIdVersion(readLong(buffer));
+    }
+
     public Byte getProtocolId() {
         return protocolId;
     }
@@ -27,6 +27,7 @@ import org.apache.kafka.common.header.Headers;
 import org.apache.kafka.common.serialization.Serializer;
 
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * KafkaAvroSerializer serializes the input data using Avro and registers the corresponding schema in the
@@ -97,6 +98,8 @@ public class KafkaAvroSerializer implements Serializer<Object> {
     private String schemaNameKeySuffix;
     private String schemaNameValueSuffix;
 
+    private final Map<String, SchemaMetadata> schemaMetadataByTopic = new ConcurrentHashMap<>();
+
     public KafkaAvroSerializer() {
         avroSnapshotSerializer = new AvroSnapshotSerializer();
         messageAndMetadataAvroSerializer = new MessageAndMetadataAvroSerializer();
@@ -130,6 +133,7 @@ public class KafkaAvroSerializer implements Serializer<Object> {
         }
 
         useRecordHeader = Boolean.valueOf(Utils.getOrDefaultAsString(configs, STORE_SCHEMA_VERSION_ID_IN_HEADER, DEFAULT_STORE_SCHEMA_VERSION_ID_IN_HEADER));
+        schemaMetadataByTopic.clear();
 
         avroSnapshotSerializer.init(configs);
         messageAndMetadataAvroSerializer.init(configs);
@@ -152,6 +156,10 @@ public class KafkaAvroSerializer implements Serializer<Object> {
     }
 
     private SchemaMetadata createSchemaMetadata(String topic) {
+        return schemaMetadataByTopic.computeIfAbsent(topic, this::doCreateSchemaMetadata);
+    }
+
+    private SchemaMetadata doCreateSchemaMetadata(String topic) {
         SchemaMetadata schemaMetadata = getSchemaKey(topic, isKey);
         String description = "Schema registered by KafkaAvroSerializer for topic: [" + topic + "] iskey: [" + isKey + "]";
         return new SchemaMetadata.Builder(schemaMetadata).description(description).compatibility(compatibility).build();
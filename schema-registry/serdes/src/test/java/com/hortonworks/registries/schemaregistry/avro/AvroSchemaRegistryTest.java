@@ -16,8 +16,10 @@ package com.hortonworks.registries.schemaregistry.avro;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hortonworks.registries.schemaregistry.AggregatedSchemaBranch;
 import com.hortonworks.registries.schemaregistry.AggregatedSchemaMetadataInfo;
 import com.hortonworks.registries.schemaregistry.DefaultSchemaRegistry;
+import com.hortonworks.registries.schemaregistry.SchemaBranch;
 import com.hortonworks.registries.schemaregistry.SchemaCompatibility;
 import com.hortonworks.registries.schemaregistry.SchemaIdVersion;
 import com.hortonworks.registries.schemaregistry.SchemaMetadata;
@@ -25,6 +27,7 @@ import com.hortonworks.registries.schemaregistry.SchemaMetadataInfo;
 import com.hortonworks.registries.schemaregistry.SchemaVersion;
 import com.hortonworks.registries.schemaregistry.SchemaVersionInfo;
 import com.hortonworks.registries.schemaregistry.SchemaVersionKey;
+import com.hortonworks.registries.schemaregistry.SerDesPair;
 import com.hortonworks.registries.schemaregistry.errors.IncompatibleSchemaException;
 import com.hortonworks.registries.schemaregistry.errors.InvalidSchemaException;
 import com.hortonworks.registries.schemaregistry.errors.SchemaBranchNotFoundException;
@@ -43,9 +46,12 @@ import org.junit.rules.TestName;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -154,6 +160,53 @@ public class AvroSchemaRegistryTest {
                         new TypeReference<Collection<AggregatedSchemaMetadataInfo>>() {});
     }
 
+    @Test
+    public void testAggregatedSchemasWithBranchesAndSerDes() throws Exception {
+        SchemaMetadata schemaMetadata = createSchemaInfo(TEST_NAME_RULE.getMethodName(), SchemaCompatibility.BACKWARD);
+        SchemaMetadata otherSchemaMetadata = createSchemaInfo("other-" + TEST_NAME_RULE.getMethodName(), SchemaCompatibility.BACKWARD);
+        schemaRegistry.addSchemaMetadata(otherSchemaMetadata);
+
+        SchemaIdVersion v1 = schemaRegistry.addSchemaVersion(schemaMetadata, new SchemaVersion(schema1, "initial version"));
+        schemaRegistry.addSchemaVersion(schemaMetadata.getName(), new SchemaVersion(schema2, "second version"));
+        schemaRegistry.createSchemaBranch(v1.getSchemaVersionId(), new SchemaBranch("branch", schemaMetadata.getName()));
+        String branchSchema = schema1.replace("]", ",{\"name\":\"model\",\"type\":\"string\",\"default\":\"\"}]");
+        schemaRegistry.addSchemaVersion("branch", schemaMetadata.getName(), new SchemaVersion(branchSchema, "branch version"), false);
+
+        Long serDesId = schemaRegistry.addSerDes(new SerDesPair("serdes", "serdes", "file", "serializer", "deserializer"));
+        schemaRegistry.mapSchemaWithSerDes(schemaMetadata.getName(), serDesId);
+
+        Collection<AggregatedSchemaMetadataInfo> aggregatedSchemas = schemaRegistry.findAggregatedSchemaMetadata(Collections.emptyMap());
+        Assert.assertEquals(2, aggregatedSchemas.size());
+        for (AggregatedSchemaMetadataInfo aggregatedSchema : aggregatedSchemas) {
+            String name = aggregatedSchema.getSchemaMetadata().getName();
+            Assert.assertEquals(new ArrayList<>(schemaRegistry.getSerDes(name)), new ArrayList<>(aggregatedSchema.getSerDesInfos()));
+
+            // the same as aggregating the branches of each schema on its own
+            List<AggregatedSchemaBranch> expectedBranches = sortedByBranchId(schemaRegistry.getAggregatedSchemaBranch(name));
+            List<AggregatedSchemaBranch> actualBranches = sortedByBranchId(aggregatedSchema.getSchemaBranches());
+            Assert.assertEquals(expectedBranches.size(), actualBranches.size());
+            for (int i = 0; i < expectedBranches.size(); i++) {
+                Assert.assertEquals(expectedBranches.get(i).getSchemaBranch(), actualBranches.get(i).getSchemaBranch());
+                Assert.assertEquals(expectedBranches.get(i).getRootSchemaVersion(), actualBranches.get(i).getRootSchemaVersion());
+                Assert.assertEquals(new ArrayList<>(expectedBranches.get(i).getSchemaVersionInfos()),
+                                    new ArrayList<>(actualBranches.get(i).getSchemaVersionInfos()));
+            }
+        }
+
+        AggregatedSchemaMetadataInfo aggregatedSchema = schemaRegistry.getAggregatedSchemaMetadataInfo(schemaMetadata.getName());
+        List<AggregatedSchemaBranch> branches = sortedByBranchId(aggregatedSchema.getSchemaBranches());
+        Assert.assertEquals(2, branches.size());
+        Assert.assertEquals(2, branches.get(0).getSchemaVersionInfos().size());
+        Assert.assertEquals(v1.getSchemaVersionId(), branches.get(1).getRootSchemaVersion());
+        Assert.assertEquals(1, aggregatedSchema.getSerDesInfos().size());
+    }
+
+    private List<AggregatedSchemaBranch> sortedByBranchId(Collection<AggregatedSchemaBranch> branches) {
+        List<AggregatedSchemaBranch> result = new ArrayList<>(branches);
+        result.sort(Comparator.comparing(branch -> branch.getSchemaBranch().getId()));
+        return result;
+    }
+
     @Test
     public void testNonExistingSchemaMetadata() {
         SchemaMetadataInfo schemaMetadataInfo = schemaRegistry.getSchemaMetadataInfo(INVALID_SCHEMA_METADATA_KEY);
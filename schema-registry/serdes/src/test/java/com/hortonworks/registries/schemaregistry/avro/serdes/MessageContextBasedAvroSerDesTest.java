@@ -23,7 +23,6 @@ import com.hortonworks.registries.schemaregistry.SchemaMetadata;
 import com.hortonworks.registries.schemaregistry.SchemaMetadataInfo;
 import com.hortonworks.registries.schemaregistry.SchemaVersion;
 import com.hortonworks.registries.schemaregistry.SchemaVersionInfo;
-import com.hortonworks.registries.schemaregistry.SchemaVersionKey;
 import com.hortonworks.registries.schemaregistry.avro.AvroSchemaProvider;
 import com.hortonworks.registries.schemaregistry.client.SchemaRegistryClient;
 import com.hortonworks.registries.serdes.Device;
@@ -66,7 +65,7 @@ public class MessageContextBasedAvroSerDesTest {
                 mockSchemaRegistryClient.getSchemaMetadataInfo(anyString);
                 result = new SchemaMetadataInfo(schemaMetadata);
 
-                mockSchemaRegistryClient.getSchemaVersionInfo(withInstanceOf(SchemaVersionKey.class));
+                mockSchemaRegistryClient.getSchemaVersionInfo(withInstanceOf(SchemaIdVersion.class));
                 result = schemaVersionInfo;
             }
         };
@@ -85,6 +85,9 @@ public class SchemaVersionProtocolHandlerTest {
 
                 mockSchemaRegistryClient.getSchemaVersionInfo(withInstanceOf(SchemaVersionKey.class));
                 result = schemaVersionInfo; minTimes=0; maxTimes=1;
+
+                mockSchemaRegistryClient.getSchemaVersionInfo(withInstanceOf(SchemaIdVersion.class));
+                result = schemaVersionInfo; minTimes=0; maxTimes=1;
             }
         };
 
@@ -0,0 +1,62 @@
+/**
+ * Copyright 2016-2020 Cloudera, Inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.schemaregistry.serdes.avro;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+public class AvroDatumCacheTest {
+
+    private static final String SCHEMA_TEXT = "{\"type\":\"record\",\"name\":\"Sample\",\"fields\":" +
+            "[{\"name\":\"id\",\"type\":\"long\"},{\"name\":\"name\",\"type\":\"string\"}]}";
+
+    @Test
+    public void testReadersAndWritersAreReused() {
+        AvroDatumCache cache = new AvroDatumCache();
+        Schema schema = new Schema.Parser().parse(SCHEMA_TEXT);
+        Schema sameSchema = new Schema.Parser().parse(SCHEMA_TEXT);
+
+        Assert.assertSame(cache.getDatumWriter(schema, false), cache.getDatumWriter(sameSchema, false));
+        Assert.assertSame(cache.getDatumReader(schema, null, false), cache.getDatumReader(sameSchema, null, false));
+        Assert.assertNotSame(cache.getDatumReader(schema, null, false), cache.getDatumReader(schema, sameSchema, false));
+    }
+
+    @Test
+    public void testRoundTripWithReusedEncoderAndDecoder() {
+        DefaultAvroSerDesHandler handler = new DefaultAvroSerDesHandler();
+        Schema schema = new Schema.Parser().parse(SCHEMA_TEXT);
+
+        for (long i = 0; i < 3; i++) {
+            GenericRecord record = new GenericData.Record(schema);
+            record.put("id", i);
+            record.put("name", "name-" + i);
+
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            handler.handlePayloadSerialization(outputStream, record);
+
+            Object deserialized = handler.handlePayloadDeserialization(new ByteArrayInputStream(outputStream.toByteArray()),
+                                                                       schema,
+                                                                       null,
+                                                                       false);
+            Assert.assertEquals(record, deserialized);
+        }
+    }
+}
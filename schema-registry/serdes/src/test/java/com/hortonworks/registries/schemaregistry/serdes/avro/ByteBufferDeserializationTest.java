@@ -0,0 +1,91 @@
+/**
+ * Copyright 2016-2020 Cloudera, Inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.schemaregistry.serdes.avro;
+
+import com.hortonworks.registries.schemaregistry.SchemaIdVersion;
+import com.hortonworks.registries.schemaregistry.serdes.SerDesProtocolHandler;
+import com.hortonworks.registries.schemaregistry.serdes.avro.exceptions.AvroException;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+public class ByteBufferDeserializationTest {
+
+    private static final String SCHEMA_TEXT = "{\"type\":\"record\",\"name\":\"Sample\",\"fields\":" +
+            "[{\"name\":\"id\",\"type\":\"long\"},{\"name\":\"name\",\"type\":\"string\"}]}";
+
+    @Test
+    public void testProtocolHandlersReadBuffersInPlace() {
+        Schema schema = new Schema.Parser().parse(SCHEMA_TEXT);
+        GenericRecord record = new GenericData.Record(schema);
+        record.put("id", 42L);
+        record.put("name", "name-42");
+
+        SchemaIdVersion schemaIdVersion = new SchemaIdVersion(7L, 3, 11L);
+        for (SerDesProtocolHandler handler : SerDesProtocolHandlerRegistry.get().getRegisteredSerDesProtocolHandlers().values()) {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            // bytes before the message, which should be skipped with the offset of the buffer
+            outputStream.write(new byte[]{-1, -1, -1}, 0, 3);
+            handler.handleSchemaVersionSerialization(outputStream, schemaIdVersion);
+            handler.handlePayloadSerialization(outputStream, record);
+            byte[] bytes = outputStream.toByteArray();
+
+            ByteBuffer buffer = ByteBuffer.wrap(bytes, 3, bytes.length - 3);
+            Assert.assertEquals(handler.getProtocolId().byteValue(), buffer.get());
+            SchemaIdVersion result = handler.handleSchemaVersionDeserialization(buffer);
+            if (handler.getProtocolId() == SerDesProtocolHandlerRegistry.METADATA_ID_VERSION_PROTOCOL) {
+                Assert.assertEquals(schemaIdVersion.getSchemaMetadataId(), result.getSchemaMetadataId());
+                Assert.assertEquals(schemaIdVersion.getVersion(), result.getVersion());
+            } else {
+                Assert.assertEquals(schemaIdVersion.getSchemaVersionId(), result.getSchemaVersionId());
+            }
+
+            Map<String, Object> context = new HashMap<>();
+            context.put(AbstractAvroSerDesProtocolHandler.WRITER_SCHEMA, schema);
+            Assert.assertEquals("Protocol " + handler.getProtocolId(), record, handler.handlePayloadDeserialization(buffer, context));
+        }
+    }
+
+    @Test
+    public void testPrimitivePayloads() {
+        DefaultAvroSerDesHandler handler = new DefaultAvroSerDesHandler();
+        byte[] bytes = {0, 'a', 'b', 'c', 0};
+
+        Assert.assertEquals("abc", handler.handlePayloadDeserialization(ByteBuffer.wrap(bytes, 1, 3),
+                                                                         Schema.create(Schema.Type.STRING),
+                                                                         null,
+                                                                         false));
+        Assert.assertArrayEquals(new byte[]{'a', 'b', 'c'}, (byte[]) handler.handlePayloadDeserialization(ByteBuffer.wrap(bytes, 1, 3),
+                                                                                                           Schema.create(Schema.Type.BYTES),
+                                                                                                           null,
+                                                                                                           false));
+
+        ByteBuffer directBuffer = ByteBuffer.allocateDirect(3);
+        directBuffer.put(bytes, 1, 3).flip();
+        Assert.assertEquals("abc", handler.handlePayloadDeserialization(directBuffer, Schema.create(Schema.Type.STRING), null, false));
+    }
+
+    @Test(expected = AvroException.class)
+    public void testTruncatedSchemaVersion() {
+        new SchemaVersionIdAsLongProtocolHandler().handleSchemaVersionDeserialization(ByteBuffer.wrap(new byte[4]));
+    }
+}
@@ -15,8 +15,13 @@
  */
 package com.hortonworks.registries.schemaregistry.serdes.avro.kafka;
 
+import com.hortonworks.registries.schemaregistry.SchemaIdVersion;
+import com.hortonworks.registries.schemaregistry.SchemaMetadata;
+import com.hortonworks.registries.schemaregistry.SchemaVersion;
+import com.hortonworks.registries.schemaregistry.SchemaVersionKey;
 import com.hortonworks.registries.schemaregistry.client.ISchemaRegistryClient;
 import com.hortonworks.registries.schemaregistry.client.MockSchemaRegistryClient;
+import com.hortonworks.registries.schemaregistry.serde.SerDesException;
 import com.hortonworks.registries.schemaregistry.serdes.avro.AbstractAvroSnapshotDeserializer;
 import com.hortonworks.registries.schemaregistry.serdes.avro.AvroSerDesHandler;
 import com.hortonworks.registries.schemaregistry.serdes.avro.AvroSnapshotDeserializer;
@@ -33,12 +38,19 @@ import org.apache.kafka.common.serialization.Serializer;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  *
@@ -246,4 +258,102 @@ public class KafkaAvroSerdesTest {
             Assert.assertEquals(record, actual);
         }
     }
+
+    @Test
+    public void testSchemaVersionIsResolvedOncePerVersion() throws Exception {
+        ISchemaRegistryClient client = Mockito.spy(schemaRegistryClient);
+        KafkaAvroDeserializer kafkaAvroDeserializer = new KafkaAvroDeserializer(client);
+        kafkaAvroDeserializer.configure(Collections.emptyMap(), false);
+        AvroSnapshotDeserializer avroSnapshotDeserializer = new AvroSnapshotDeserializer(client);
+        avroSnapshotDeserializer.init(Collections.emptyMap());
+
+        KafkaAvroSerializer kafkaAvroSerializer = new KafkaAvroSerializer(schemaRegistryClient);
+        kafkaAvroSerializer.configure(Collections.emptyMap(), false);
+
+        for (int i = 0; i < 5; i++) {
+            GenericRecord record = new GenericRecordBuilder(schema).set("field1", "value-" + i).build();
+            byte[] bytes = kafkaAvroSerializer.serialize(topic, record);
+            Assert.assertEquals(record, kafkaAvroDeserializer.deserialize(topic, bytes));
+        }
+        Mockito.verify(client, Mockito.times(1)).getSchemaVersionInfo(Mockito.any(SchemaIdVersion.class));
+        Mockito.verify(client, Mockito.times(1)).getSchemaMetadataInfo(Mockito.anyString());
+        // the writer schema is parsed from the version fetched by its id, it is not fetched again by name and version
+        Mockito.verify(client, Mockito.never()).getSchemaVersionInfo(Mockito.any(SchemaVersionKey.class));
+
+        // the template method of the input stream deserializer resolves the schema version once as well
+        Mockito.clearInvocations(client);
+        for (int i = 0; i < 5; i++) {
+            GenericRecord record = new GenericRecordBuilder(schema).set("field1", "value-" + i).build();
+            byte[] bytes = kafkaAvroSerializer.serialize(topic, record);
+            Assert.assertEquals(record, avroSnapshotDeserializer.deserialize(new ByteArrayInputStream(bytes), null));
+        }
+        Mockito.verify(client, Mockito.times(1)).getSchemaVersionInfo(Mockito.any(SchemaIdVersion.class));
+        Mockito.verify(client, Mockito.times(1)).getSchemaMetadataInfo(Mockito.anyString());
+        Mockito.verify(client, Mockito.never()).getSchemaVersionInfo(Mockito.any(SchemaVersionKey.class));
+    }
+
+    @Test
+    public void testSchemaVersionIsAddedOncePerTopicAndSchema() throws Exception {
+        ISchemaRegistryClient client = Mockito.spy(schemaRegistryClient);
+        KafkaAvroSerializer kafkaAvroSerializer = new KafkaAvroSerializer(client);
+        kafkaAvroSerializer.configure(Collections.emptyMap(), false);
+
+        for (int i = 0; i < 5; i++) {
+            GenericRecord record = new GenericRecordBuilder(schema).set("field1", "value-" + i).build();
+            kafkaAvroSerializer.serialize(topic, record);
+            kafkaAvroSerializer.serialize(topic, new RecordHeaders(), record);
+        }
+        Mockito.verify(client, Mockito.times(1)).addSchemaVersion(Mockito.any(SchemaMetadata.class), Mockito.any(SchemaVersion.class));
+
+        // another topic has its own schema
+        kafkaAvroSerializer.serialize("other-topic", new GenericRecordBuilder(schema).set("field1", "value").build());
+        ArgumentCaptor<SchemaMetadata> schemaMetadatas = ArgumentCaptor.forClass(SchemaMetadata.class);
+        Mockito.verify(client, Mockito.times(2)).addSchemaVersion(schemaMetadatas.capture(), Mockito.any(SchemaVersion.class));
+        Assert.assertEquals(Arrays.asList(topic, "other-topic"),
+                            schemaMetadatas.getAllValues().stream().map(SchemaMetadata::getName).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testConfigureClearsSchemaMetadataOfTopics() throws Exception {
+        ISchemaRegistryClient client = Mockito.spy(schemaRegistryClient);
+        KafkaAvroSerializer kafkaAvroSerializer = new KafkaAvroSerializer(client);
+        GenericRecord record = new GenericRecordBuilder(schema).set("field1", "value").build();
+
+        kafkaAvroSerializer.configure(Collections.singletonMap(KafkaAvroSerializer.SCHEMA_NAME_VALUE_SUFFIX_, "-v1"), false);
+        kafkaAvroSerializer.serialize(topic, record);
+        kafkaAvroSerializer.configure(Collections.singletonMap(KafkaAvroSerializer.SCHEMA_NAME_VALUE_SUFFIX_, "-v2"), false);
+        kafkaAvroSerializer.serialize(topic, record);
+
+        ArgumentCaptor<SchemaMetadata> schemaMetadatas = ArgumentCaptor.forClass(SchemaMetadata.class);
+        Mockito.verify(client, Mockito.times(2)).addSchemaVersion(schemaMetadatas.capture(), Mockito.any(SchemaVersion.class));
+        Assert.assertEquals(Arrays.asList(topic + "-v1", topic + "-v2"),
+                            schemaMetadatas.getAllValues().stream().map(SchemaMetadata::getName).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testDoDeserializeOfSubclassesIsUsed() throws Exception {
+        KafkaAvroSerializer kafkaAvroSerializer = new KafkaAvroSerializer(schemaRegistryClient);
+        kafkaAvroSerializer.configure(Collections.emptyMap(), false);
+
+        List<Integer> writerSchemaVersions = new ArrayList<>();
+        AvroSnapshotDeserializer deserializer = new AvroSnapshotDeserializer(schemaRegistryClient) {
+            @Override
+            protected Object doDeserialize(InputStream payloadInputStream,
+                                           byte protocolId,
+                                           SchemaMetadata schemaMetadata,
+                                           Integer writerSchemaVersion,
+                                           Integer readerSchemaVersion) throws SerDesException {
+                writerSchemaVersions.add(writerSchemaVersion);
+                return super.doDeserialize(payloadInputStream, protocolId, schemaMetadata, writerSchemaVersion, readerSchemaVersion);
+            }
+        };
+        deserializer.init(Collections.emptyMap());
+
+        for (int i = 0; i < 2; i++) {
+            GenericRecord record = new GenericRecordBuilder(schema).set("field1", "value-" + i).build();
+            byte[] bytes = kafkaAvroSerializer.serialize(topic, record);
+            Assert.assertEquals(record, deserializer.deserialize(new ByteArrayInputStream(bytes), null));
+        }
+        Assert.assertEquals(Arrays.asList(1, 1), writerSchemaVersions);
+    }
 }
@@ -112,6 +112,14 @@ public class CacheBackedStorageManager implements StorageManager {
         return ((GuavaCache)cache).getDao().find(namespace, queryParams, orderByFields);
     }
 
+    @Override
+    public <T extends Storable> Collection<T> findIn(String namespace,
+                                                     String fieldName,
+                                                     Collection<?> values,
+                                                     List<String> projectedFields) throws StorageException {
+        return dao.findIn(namespace, fieldName, values, projectedFields);
+    }
+
     @Override
     public <T extends Storable> Collection<T> search(SearchQuery searchQuery) {
         return ((GuavaCache)cache).getDao().search(searchQuery);
@@ -17,6 +17,7 @@
 package com.hortonworks.registries.storage;
 
 import com.hortonworks.registries.storage.transaction.TransactionIsolation;
+import com.hortonworks.registries.storage.transaction.TransactionScope;
 import com.hortonworks.registries.storage.exception.StorageException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -29,17 +30,17 @@ public class NOOPTransactionManager implements TransactionManager {
 
     @Override
     public void beginTransaction(TransactionIsolation transactionIsolationLevel) {
-        LOG.debug("--- Ignore call to begin transaction for thread id : {} ---", Thread.currentThread().getId());
+        LOG.debug("--- Ignore call to begin transaction for scope : {} ---", TransactionScope.current());
     }
 
     @Override
     public void rollbackTransaction() {
-        LOG.debug("--- Ignore call to rollback transaction for thread id : {} ---", Thread.currentThread().getId());
+        LOG.debug("--- Ignore call to rollback transaction for scope : {} ---", TransactionScope.current());
     }
 
     @Override
     public void commitTransaction() {
-        LOG.debug("--- Ignore call to commit transaction for thread id : {} ---", Thread.currentThread().getId());
+        LOG.debug("--- Ignore call to commit transaction for scope : {} ---", TransactionScope.current());
     }
 
     @Override
@@ -15,6 +15,7 @@
  **/
 package com.hortonworks.registries.storage;
 
+import com.hortonworks.registries.storage.catalog.StorableCodec;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -45,12 +46,22 @@ public class StorableFactory {
                 }
 
                 nameSpaceWithClass.put(nameSpace, clazz);
+                // resolve the field accessors once instead of on the first query
+                StorableCodec.of(clazz);
             } catch (InstantiationException | IllegalAccessException e) {
                 throw new RuntimeException(e);
             }
         }
     }
 
+    public Class<? extends Storable> getStorableClass(String nameSpace) {
+        Class<? extends Storable> clazz = nameSpaceWithClass.get(nameSpace);
+        if (clazz == null) {
+            throw new IllegalArgumentException("No factory supported with the given namespace: " + nameSpace);
+        }
+        return clazz;
+    }
+
     public Storable create(String nameSpace) {
         if (!nameSpaceWithClass.containsKey(nameSpace)) {
             throw new IllegalArgumentException("No factory supported with the given namespace: " + nameSpace);
@@ -17,9 +17,14 @@ package com.hortonworks.registries.storage;
 
 import com.hortonworks.registries.common.QueryParam;
 import com.hortonworks.registries.storage.exception.StorageException;
+import com.hortonworks.registries.storage.search.OrderBy;
 import com.hortonworks.registries.storage.search.SearchQuery;
+import com.hortonworks.registries.storage.search.WhereClause;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 
@@ -50,6 +55,30 @@ public interface StorageManager {
      */
     void add(Storable storable) throws StorageException;
 
+    /**
+     * Adds all the given storables, in the given order, as {@link #add(Storable)} does for each of them.
+     * Implementations may add them with fewer round trips to the storage layer than adding them one by one.
+     * Storables without an id are given one, so callers do not need to call {@link #nextId(String)} for each of them.
+     *
+     * @param storables the storables
+     * @throws StorageException
+     */
+    default void addAll(Collection<? extends Storable> storables) throws StorageException {
+        for (Storable storable : storables) {
+            Long id;
+            try {
+                id = storable.getId();
+            } catch (UnsupportedOperationException e) {
+                // storable without an id field
+                id = 0L;
+            }
+            if (id == null) {
+                storable.setId(nextId(storable.getNameSpace()));
+            }
+            add(storable);
+        }
+    }
+
     /**
      * Removes a {@link Storable} object identified by a {@link StorableKey}.
      * If the key does not exist a null value is returned, no exception is thrown.
@@ -126,6 +155,35 @@ public interface StorageManager {
      */
     <T extends Storable> Collection<T> find(String namespace, List<QueryParam> queryParams, List<OrderByField> orderByFields) throws StorageException;
 
+    /**
+     * Returns the collection of storable entities in the given {@code namespace} whose value of {@code fieldName} is one of
+     * the given {@code values}. Implementations should fetch them in as few round trips as possible.
+     * <p>
+     * When {@code projectedFields} is not empty only those fields need to be populated in the returned storables,
+     * implementations are free to populate the remaining fields as well.
+     *
+     * @param namespace the namespace
+     * @param fieldName name of the field to be matched
+     * @param values the values to match, duplicates are ignored
+     * @param projectedFields names of the fields to be populated, all fields are populated if empty
+     * @param <T> the storable type
+     * @return the storables
+     * @throws StorageException when any storage error occurs
+     */
+    default <T extends Storable> Collection<T> findIn(String namespace,
+                                                      String fieldName,
+                                                      Collection<?> values,
+                                                      List<String> projectedFields) throws StorageException {
+        List<T> storables = new ArrayList<>();
+        for (Object value : new LinkedHashSet<>(values)) {
+            Collection<T> found = find(namespace, Collections.singletonList(new QueryParam(fieldName, String.valueOf(value))));
+            if (found != null) {
+                storables.addAll(found);
+            }
+        }
+        return storables;
+    }
+
     /**
      *
      * @param searchQuery the search query
@@ -134,6 +192,47 @@ public interface StorageManager {
      */
     <T extends Storable> Collection<T> search(SearchQuery searchQuery);
 
+    /**
+     * Removes all the {@link Storable}s matching the where clause of the given search query. Implementations may
+     * remove them with a single round trip to the storage layer instead of removing them one by one.
+     *
+     * @param searchQuery the search query
+     * @return the number of removed storables
+     * @throws StorageException when any storage error occurs
+     */
+    default int removeAll(SearchQuery searchQuery) throws StorageException {
+        Collection<Storable> storables = search(searchQuery);
+        for (Storable storable : storables) {
+            remove(storable.getStorableKey());
+        }
+        return storables.size();
+    }
+
+    /**
+     * Lists a page of the {@link Storable}s in the given namespace, ordered by the given key field which should have
+     * unique values, e.g. the id. The next page is fetched with the key of the last storable of the previous page, which
+     * unlike an offset lets the storage seek to the start of the page on the index of the key, however deep the page is.
+     *
+     * @param namespace the namespace
+     * @param keyField name of the field to order and page by
+     * @param afterKey the key after which the page starts, or null for the first page
+     * @param limit maximum number of storables to be returned
+     * @param <T> the storable type
+     * @return the storables, which are fewer than the limit only on the last page
+     * @throws StorageException when any storage error occurs
+     */
+    default <T extends Storable> List<T> listPage(String namespace,
+                                                  String keyField,
+                                                  Object afterKey,
+                                                  int limit) throws StorageException {
+        SearchQuery searchQuery = SearchQuery.searchFrom(namespace);
+        if (afterKey != null) {
+            searchQuery.where(WhereClause.begin().gt(keyField, afterKey).combine());
+        }
+        searchQuery.orderBy(OrderBy.asc(keyField)).limit(limit);
+        return new ArrayList<>(this.<T>search(searchQuery));
+    }
+
     /**
      * Lists all {@link Storable} objects existing in the given namespace. If no entity is found, and empty list will be returned.
      * @param namespace the namespace
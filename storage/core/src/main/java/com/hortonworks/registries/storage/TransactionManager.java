@@ -26,6 +26,15 @@ public interface TransactionManager {
      */
     void beginTransaction(TransactionIsolation transactionIsolationLevel);
 
+    /**
+     * Begins a transaction in which the storage layer is only read. Implementations may defer acquiring any resource
+     * of the transaction until it is used. It is ended with commitTransaction() or rollbackTransaction() like any
+     * other transaction, by default it is a regular transaction.
+     */
+    default void beginReadOnlyTransaction(TransactionIsolation transactionIsolationLevel) {
+        beginTransaction(transactionIsolationLevel);
+    }
+
 
     /**
      * Discards the changes made to the storage layer and reverts to the last committed point.
@@ -49,6 +58,15 @@ public interface TransactionManager {
      */
     void commitTransaction();
 
+    /**
+     * Runs the given action once the current transaction is committed or rolled back, e.g. to invalidate cached
+     * entries only when concurrent transactions can no longer read the state from before the transaction. The action
+     * runs right away if there is no current transaction, which is always the case by default.
+     */
+    default void runAfterTransaction(Runnable action) {
+        action.run();
+    }
+
     /**
      * @return true if able to obtain a read lock on a row with {@link StorableKey} within the specified time
      */
@@ -30,11 +30,9 @@ import org.slf4j.LoggerFactory;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
 
 /**
  * Default implementations go here
@@ -58,18 +56,9 @@ public abstract class AbstractStorable implements Storable {
      * @return the map
      */
     public Map<String, Object> toMap() {
-        Set<String> instanceVariableNames = ReflectionHelper.getFieldNamesToTypes(this.getClass()).keySet();
-        Map<String, Object> fieldToVal = new HashMap<>();
-        for(String fieldName : instanceVariableNames) {
-            try {
-                Object val = ReflectionHelper.invokeGetter(fieldName, this);
-                fieldToVal.put(fieldName, val);
-                if(LOG.isTraceEnabled()) {
-                    LOG.trace("toMap: Adding fieldName {} = {} ", fieldName, val);
-                }
-            } catch (NoSuchMethodException|InvocationTargetException|IllegalAccessException e) {
-                throw new StorageException(e);
-            }
+        Map<String, Object> fieldToVal = StorableCodec.of(this.getClass()).toMap(this);
+        if(LOG.isTraceEnabled()) {
+            LOG.trace("toMap: Adding fields {}", fieldToVal);
         }
 
         return fieldToVal;
@@ -84,13 +73,10 @@ public abstract class AbstractStorable implements Storable {
      * @return the storable
      */
     public Storable fromMap(Map<String, Object> map) {
+        StorableCodec codec = StorableCodec.of(this.getClass());
         for(Map.Entry<String, Object> entry: map.entrySet()) {
-            try {
-                if(entry.getValue() != null) {
-                    ReflectionHelper.invokeSetter(entry.getKey(), this, entry.getValue());
-                }
-            } catch (NoSuchMethodException|InvocationTargetException|IllegalAccessException e) {
-                throw new StorageException(e);
+            if(entry.getValue() != null) {
+                codec.setValue(this, entry.getKey(), entry.getValue());
             }
         }
         return this;
@@ -0,0 +1,222 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package com.hortonworks.registries.storage.catalog;
+
+import com.hortonworks.registries.common.util.ReflectionHelper;
+import com.hortonworks.registries.storage.Storable;
+import com.hortonworks.registries.storage.exception.StorageException;
+import org.apache.commons.lang3.StringUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Accessors of the instance fields of a {@link Storable} class, resolved once per class as {@link MethodHandle}s of
+ * the respective getters and setters following POJO conventions.
+ * <p>
+ * This is used by the default {@link AbstractStorable#toMap()} and {@link AbstractStorable#fromMap(Map)}
+ * implementations and by the storage layer to populate storables directly from the rows of a query result,
+ * which avoids reflective lookups for each field of each row.
+ */
+public final class StorableCodec {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final ClassValue<StorableCodec> CODECS = new ClassValue<StorableCodec>() {
+        @Override
+        protected StorableCodec computeValue(Class<?> type) {
+            return new StorableCodec(type);
+        }
+    };
+
+    private final Class<?> storableClass;
+    private final Map<String, MethodHandle> getters;
+    private final Map<String, List<Setter>> setters;
+    private final boolean defaultFromMap;
+
+    private StorableCodec(Class<?> storableClass) {
+        this.storableClass = storableClass;
+        this.getters = Collections.unmodifiableMap(createGetters(storableClass));
+        this.setters = Collections.unmodifiableMap(createSetters(storableClass));
+        this.defaultFromMap = AbstractStorable.class.isAssignableFrom(storableClass) && declaresDefaultFromMap(storableClass);
+    }
+
+    /**
+     * @return the codec of the given storable class, which is created on first access
+     */
+    public static StorableCodec of(Class<?> storableClass) {
+        return CODECS.get(storableClass);
+    }
+
+    /**
+     * @return true if instances of this class are populated by the default {@link AbstractStorable#fromMap(Map)}, so
+     * their fields can be set directly with {@link #setValue(Object, String, Object)}.
+     */
+    public boolean isDefaultFromMap() {
+        return defaultFromMap;
+    }
+
+    /**
+     * @return map of names of all instance fields to their values in the given storable, as returned by their getters
+     */
+    public Map<String, Object> toMap(Object storable) {
+        Map<String, Object> fieldToVal = new HashMap<>(getters.size() * 2);
+        for (Map.Entry<String, MethodHandle> entry : getters.entrySet()) {
+            fieldToVal.put(entry.getKey(), invokeGetter(storable, entry.getKey(), entry.getValue()));
+        }
+        return fieldToVal;
+    }
+
+    /**
+     * @return true if the given field is an instance field of this class with a getter
+     */
+    public boolean hasGetter(String fieldName) {
+        return getters.get(fieldName) != null;
+    }
+
+    /**
+     * @return value of the given field in the given storable, as returned by its getter
+     * @throws StorageException if there is no getter for the field
+     */
+    public Object getValue(Object storable, String fieldName) {
+        return invokeGetter(storable, fieldName, getters.get(fieldName));
+    }
+
+    /**
+     * Sets the given value for the given field with its setter, a setter which accepts the exact type of the value is
+     * preferred over the setters accepting any of its super types.
+     *
+     * @throws StorageException if there is no setter for the field accepting the given value
+     */
+    public void setValue(Object storable, String fieldName, Object value) {
+        List<Setter> fieldSetters = setters.get(fieldName);
+        Setter setter = fieldSetters != null ? findSetter(fieldSetters, value.getClass()) : null;
+        if (setter == null) {
+            throw new StorageException(new NoSuchMethodException(storableClass.getName() + ".set" + StringUtils.capitalize(fieldName)
+                                                                         + "(" + value.getClass().getName() + ")"));
+        }
+        try {
+            setter.handle.invokeExact(storable, value);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new StorageException(e);
+        }
+    }
+
+    private Object invokeGetter(Object storable, String fieldName, MethodHandle getter) {
+        if (getter == null) {
+            throw new StorageException(new NoSuchMethodException(storableClass.getName() + ".get" + StringUtils.capitalize(fieldName) + "()"));
+        }
+        try {
+            return getter.invokeExact(storable);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new StorageException(e);
+        }
+    }
+
+    private static Setter findSetter(List<Setter> fieldSetters, Class<?> valueClass) {
+        for (Setter setter : fieldSetters) {
+            if (setter.parameterType == valueClass) {
+                return setter;
+            }
+        }
+        for (Setter setter : fieldSetters) {
+            if (setter.parameterType.isAssignableFrom(valueClass)) {
+                return setter;
+            }
+        }
+        return null;
+    }
+
+    // fields without a getter are mapped to null so that toMap fails only when it is invoked, as storables may override it.
+    private static Map<String, MethodHandle> createGetters(Class<?> storableClass) {
+        Map<String, MethodHandle> getters = new HashMap<>();
+        for (String fieldName : ReflectionHelper.getFieldNamesToTypes(storableClass).keySet()) {
+            MethodHandle getter = null;
+            try {
+                Method method = storableClass.getMethod("get" + StringUtils.capitalize(fieldName));
+                getter = unreflect(method).asType(GETTER_TYPE);
+            } catch (NoSuchMethodException e) {
+                // it is reported when the value is accessed
+            }
+            getters.put(fieldName, getter);
+        }
+        return getters;
+    }
+
+    private static Map<String, List<Setter>> createSetters(Class<?> storableClass) {
+        Map<String, List<Setter>> setters = new HashMap<>();
+        for (Method method : storableClass.getMethods()) {
+            String methodName = method.getName();
+            if (methodName.length() > 3 && methodName.startsWith("set") && method.getParameterCount() == 1) {
+                String propertyName = methodName.substring(3);
+                Class<?> parameterType = method.getParameterTypes()[0];
+                // primitive parameters do not accept boxed values through reflection lookups either
+                if (!parameterType.isPrimitive()) {
+                    Setter setter = new Setter(parameterType, unreflect(method).asType(SETTER_TYPE));
+                    // setXyz is the setter of both xyz and Xyz as the property name is capitalized to find it
+                    setters.computeIfAbsent(StringUtils.uncapitalize(propertyName), x -> new ArrayList<>()).add(setter);
+                    if (!propertyName.equals(StringUtils.uncapitalize(propertyName))) {
+                        setters.computeIfAbsent(propertyName, x -> new ArrayList<>()).add(setter);
+                    }
+                }
+            }
+        }
+        return setters;
+    }
+
+    private static boolean declaresDefaultFromMap(Class<?> storableClass) {
+        try {
+            return storableClass.getMethod("fromMap", Map.class).getDeclaringClass() == AbstractStorable.class;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private static MethodHandle unreflect(Method method) {
+        try {
+            if (!Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+                method.setAccessible(true);
+            }
+            return MethodHandles.lookup().unreflect(method);
+        } catch (IllegalAccessException e) {
+            throw new StorageException(e);
+        }
+    }
+
+    private static final class Setter {
+        private final Class<?> parameterType;
+        private final MethodHandle handle;
+
+        private Setter(Class<?> parameterType, MethodHandle handle) {
+            this.parameterType = parameterType;
+            this.handle = handle;
+        }
+    }
+}
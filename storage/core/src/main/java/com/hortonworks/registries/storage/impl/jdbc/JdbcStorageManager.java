@@ -41,17 +41,21 @@ import org.slf4j.LoggerFactory;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
-import java.util.function.Supplier;
 
 //Use unique constraints on respective columns of a table for handling concurrent inserts etc.
 public class JdbcStorageManager implements TransactionManager, StorageManager {
     private static final Logger log = LoggerFactory.getLogger(StorageManager.class);
     public static final String DB_TYPE = "db.type";
 
+    private static final long LOCK_RETRY_INTERVAL_MS = 500L;
+
     private final StorableFactory storableFactory = new StorableFactory();
+    private final LocalLockManager localLockManager = new LocalLockManager();
     private QueryExecutor queryExecutor;
 
     public JdbcStorageManager() {
@@ -68,6 +72,12 @@ public class JdbcStorageManager implements TransactionManager, StorageManager {
         queryExecutor.insert(storable);
     }
 
+    @Override
+    public void addAll(Collection<? extends Storable> storables) throws StorageException {
+        log.debug("Adding [{}] storables", storables.size());
+        queryExecutor.insertAll(storables);
+    }
+
     @Override
     public <T extends Storable> T remove(StorableKey key) throws StorageException {
         T oldVal = get(key);
@@ -109,12 +119,10 @@ public class JdbcStorageManager implements TransactionManager, StorageManager {
     public boolean readLock(StorableKey key, Long time, TimeUnit timeUnit) {
         log.debug("Obtaining a read lock for entry with storable key [{}]", key);
 
-        Supplier<Collection<Storable>> supplier = () -> queryExecutor.selectForShare(key);
-
         try {
-            return getLock(supplier, time, timeUnit);
+            return getLock(key, false, time, timeUnit);
         } catch (InterruptedException e) {
-            throw new StorageException("Failed to obtain a write lock for storable key : " + key);
+            throw new StorageException("Failed to obtain a read lock for storable key : " + key);
         }
     }
 
@@ -122,32 +130,53 @@ public class JdbcStorageManager implements TransactionManager, StorageManager {
     public boolean writeLock(StorableKey key, Long time, TimeUnit timeUnit) {
         log.debug("Obtaining a write lock for entry with storable key [{}]", key);
 
-        Supplier<Collection<Storable>> supplier = () -> queryExecutor.selectForUpdate(key);
-
         try {
-            return getLock(supplier, time, timeUnit);
+            return getLock(key, true, time, timeUnit);
         } catch (InterruptedException e) {
             throw new StorageException("Failed to obtain a write lock for storable key : " + key);
         }
     }
 
-    private boolean getLock(Supplier<Collection<Storable>> supplier, Long time, TimeUnit timeUnit) throws InterruptedException {
+    /**
+     * Local waiters for the same key are queued fairly by {@link LocalLockManager} and the lock is handed to the next one
+     * when the holding transaction ends. Only the head of that queue waits on the database row lock, which blocks until
+     * the lock is granted or the remaining time elapses. Polling is only done while the row to be locked does not exist.
+     */
+    private boolean getLock(StorableKey key, boolean exclusive, Long time, TimeUnit timeUnit) throws InterruptedException {
         long remainingTime = TimeUnit.MILLISECONDS.convert(time, timeUnit);
 
         if(remainingTime < 0) {
             throw new IllegalArgumentException("Wait time for obtaining the lock can't be negative");
         }
 
-        long startTime = System.currentTimeMillis();
-        do {
-            Collection<Storable> storables = supplier.get();
-            if (storables != null && !storables.isEmpty()) {
-                return true;
-            } else {
-                Thread.sleep(500);
-            }
-        } while((System.currentTimeMillis() - startTime) < remainingTime);
+        long deadline = System.currentTimeMillis() + remainingTime;
+        // locks are released with the transaction, without an active one the row lock is released right after the query
+        boolean holdLocalLock = queryExecutor.hasActiveTransaction();
+        if (holdLocalLock && !localLockManager.tryLock(key, exclusive, remainingTime)) {
+            return false;
+        }
 
+        boolean locked = false;
+        try {
+            do {
+                long lockTimeout = Math.max(0L, deadline - System.currentTimeMillis());
+                Collection<Storable> storables = exclusive ? queryExecutor.selectForUpdate(key, lockTimeout)
+                                                           : queryExecutor.selectForShare(key, lockTimeout);
+                if (storables != null && !storables.isEmpty()) {
+                    locked = true;
+                    return true;
+                }
+
+                long sleepTime = Math.min(LOCK_RETRY_INTERVAL_MS, deadline - System.currentTimeMillis());
+                if (sleepTime > 0) {
+                    Thread.sleep(sleepTime);
+                }
+            } while (System.currentTimeMillis() < deadline);
+        } finally {
+            if (holdLocalLock && !locked) {
+                localLockManager.unlock(key);
+            }
+        }
 
         return false;
     }
@@ -186,11 +215,50 @@ public class JdbcStorageManager implements TransactionManager, StorageManager {
         return entries;
     }
 
+    @Override
+    public <T extends Storable> Collection<T> findIn(String namespace,
+                                                     String fieldName,
+                                                     Collection<?> values,
+                                                     List<String> projectedFields) throws StorageException {
+        log.debug("Searching for entries in table [{}] with [{}] in [{}]", namespace, fieldName, values);
+
+        if (values == null || values.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Set<Object> typedValues = new LinkedHashSet<>();
+        Schema.Field field;
+        try {
+            Schema.Type type = queryExecutor.getColumns(namespace).getType(fieldName);
+            if (type == null) {
+                throw new IllegalQueryParameterException(String.format("Field [%s] does not exist for namespace [%s]", fieldName, namespace));
+            }
+            field = new Schema.Field(fieldName, type);
+            for (Object value : values) {
+                typedValues.add(type.getJavaType().isInstance(value)
+                                ? value
+                                : type.getJavaType().getConstructor(String.class).newInstance(String.valueOf(value)));
+            }
+        } catch (IllegalQueryParameterException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalQueryParameterException(e);
+        }
+
+        return queryExecutor.selectIn(namespace, field, typedValues, projectedFields);
+    }
+
     @Override
     public <T extends Storable> Collection<T> search(SearchQuery searchQuery) {
         return queryExecutor.select(searchQuery);
     }
 
+    @Override
+    public int removeAll(SearchQuery searchQuery) throws StorageException {
+        log.debug("Removing entries of table [{}] matching [{}]", searchQuery.getNameSpace(), searchQuery);
+        return queryExecutor.delete(searchQuery);
+    }
+
     private <T extends Storable> Collection<T> list(String namespace, List<OrderByField> orderByFields) {
         log.debug("Listing entries for table [{}]", namespace);
         final Collection<T> entries = queryExecutor.select(namespace, orderByFields);
@@ -291,6 +359,11 @@ public class JdbcStorageManager implements TransactionManager, StorageManager {
         queryExecutor.beginTransaction(transactionIsolationLevel);
     }
 
+    @Override
+    public void beginReadOnlyTransaction(TransactionIsolation transactionIsolationLevel) {
+        queryExecutor.beginReadOnlyTransaction(transactionIsolationLevel);
+    }
+
     @Override
     public void rollbackTransaction() {
         // The guarantee in interface is accomplished once the instance has an implementation of
@@ -299,11 +372,30 @@ public class JdbcStorageManager implements TransactionManager, StorageManager {
 
         // Another implementations of QueryExecutor should provide a way of guaranteeing the
         // behavior, like call closeConnection() when rollbackTransaction() is failing.
-        queryExecutor.rollbackTransaction();
+        try {
+            queryExecutor.rollbackTransaction();
+        } finally {
+            releaseLocalLocksIfTransactionEnded();
+        }
     }
 
     @Override
     public void commitTransaction() {
-        queryExecutor.commitTransaction();
+        try {
+            queryExecutor.commitTransaction();
+        } finally {
+            releaseLocalLocksIfTransactionEnded();
+        }
+    }
+
+    @Override
+    public void runAfterTransaction(Runnable action) {
+        queryExecutor.runAfterTransaction(action);
+    }
+
+    private void releaseLocalLocksIfTransactionEnded() {
+        if (!queryExecutor.hasActiveTransaction()) {
+            localLockManager.unlockAll();
+        }
     }
 }
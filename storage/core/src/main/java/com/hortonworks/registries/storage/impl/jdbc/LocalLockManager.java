@@ -0,0 +1,150 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.storage.impl.jdbc;
+
+import com.hortonworks.registries.storage.StorableKey;
+import com.hortonworks.registries.storage.transaction.TransactionScope;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fair read/write locks within this JVM keyed by {@link StorableKey}. A lock acquired here is held by the current
+ * {@link TransactionScope}, whichever thread it runs on, until {@link #unlockAll()} is invoked at the end of its
+ * transaction, which hands it straight to the next local waiter. Local waiters queue here so that only one of them at
+ * a time waits for the respective database row lock.
+ * <p>
+ * Locks are reentrant for a scope. Upgrading a read lock to a write lock is not supported and waits until the timeout.
+ */
+class LocalLockManager {
+
+    // a read lock takes a single permit and a write lock takes all of them
+    private static final int MAX_PERMITS = Integer.MAX_VALUE;
+
+    private final ConcurrentHashMap<StorableKey, LockEntry> locks = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<TransactionScope, Deque<HeldLock>> heldLocks = new ConcurrentHashMap<>();
+
+    /**
+     * @return true if the lock for the given key is acquired within the given time
+     */
+    boolean tryLock(StorableKey key, boolean exclusive, long timeoutInMillis) throws InterruptedException {
+        LockEntry lockEntry = locks.compute(key, (k, entry) -> {
+            LockEntry result = entry != null ? entry : new LockEntry();
+            result.references++;
+            return result;
+        });
+
+        TransactionScope scope = TransactionScope.current();
+        Deque<HeldLock> locksOfScope = heldLocks.computeIfAbsent(scope, x -> new ArrayDeque<>());
+        // the scope already holds a lock which covers the requested one
+        for (HeldLock heldLock : locksOfScope) {
+            if (heldLock.key.equals(key) && (heldLock.exclusive || !exclusive)) {
+                locksOfScope.push(new HeldLock(key, heldLock.exclusive, 0));
+                return true;
+            }
+        }
+
+        int permits = exclusive ? MAX_PERMITS : 1;
+        boolean acquired = false;
+        try {
+            acquired = lockEntry.semaphore.tryAcquire(permits, timeoutInMillis, TimeUnit.MILLISECONDS);
+        } finally {
+            if (acquired) {
+                locksOfScope.push(new HeldLock(key, exclusive, permits));
+            } else {
+                release(key);
+                removeIfEmpty(scope, locksOfScope);
+            }
+        }
+
+        return acquired;
+    }
+
+    /**
+     * Releases the lock for the given key which was most recently acquired by the current scope.
+     */
+    void unlock(StorableKey key) {
+        TransactionScope scope = TransactionScope.current();
+        Deque<HeldLock> locksOfScope = heldLocks.get(scope);
+        if (locksOfScope == null) {
+            return;
+        }
+        Iterator<HeldLock> iterator = locksOfScope.iterator();
+        while (iterator.hasNext()) {
+            HeldLock heldLock = iterator.next();
+            if (heldLock.key.equals(key)) {
+                iterator.remove();
+                unlock(heldLock);
+                break;
+            }
+        }
+        removeIfEmpty(scope, locksOfScope);
+    }
+
+    /**
+     * Releases all the locks held by the current scope.
+     */
+    void unlockAll() {
+        Deque<HeldLock> locksOfScope = heldLocks.remove(TransactionScope.current());
+        if (locksOfScope != null) {
+            HeldLock heldLock;
+            while ((heldLock = locksOfScope.poll()) != null) {
+                unlock(heldLock);
+            }
+        }
+    }
+
+    private void unlock(HeldLock heldLock) {
+        if (heldLock.permits > 0) {
+            locks.get(heldLock.key).semaphore.release(heldLock.permits);
+        }
+        release(heldLock.key);
+    }
+
+    private void release(StorableKey key) {
+        locks.computeIfPresent(key, (k, entry) -> --entry.references == 0 ? null : entry);
+    }
+
+    private void removeIfEmpty(TransactionScope scope, Deque<HeldLock> locksOfScope) {
+        if (locksOfScope.isEmpty()) {
+            heldLocks.remove(scope, locksOfScope);
+        }
+    }
+
+    private static class LockEntry {
+        // permits are not owned by threads, so a lock can be released by any thread of the scope holding it
+        private final Semaphore semaphore = new Semaphore(MAX_PERMITS, true);
+        // guarded by the map's compute operations on this key
+        private int references;
+    }
+
+    private static class HeldLock {
+        private final StorableKey key;
+        private final boolean exclusive;
+        // reentrant acquisitions hold no permits
+        private final int permits;
+
+        private HeldLock(StorableKey key, boolean exclusive, int permits) {
+            this.key = key;
+            this.exclusive = exclusive;
+            this.permits = permits;
+        }
+    }
+}
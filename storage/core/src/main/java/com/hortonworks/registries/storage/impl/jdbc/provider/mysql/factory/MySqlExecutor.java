@@ -16,6 +16,7 @@
 package com.hortonworks.registries.storage.impl.jdbc.provider.mysql.factory;
 
 import com.google.common.cache.CacheBuilder;
+import com.hortonworks.registries.common.Schema;
 import com.hortonworks.registries.storage.OrderByField;
 import com.hortonworks.registries.storage.Storable;
 import com.hortonworks.registries.storage.StorableKey;
@@ -24,17 +25,24 @@ import com.hortonworks.registries.storage.impl.jdbc.config.ExecutionConfig;
 import com.hortonworks.registries.storage.impl.jdbc.connection.ConnectionBuilder;
 import com.hortonworks.registries.storage.impl.jdbc.provider.mysql.query.MySqlInsertQuery;
 import com.hortonworks.registries.storage.impl.jdbc.provider.mysql.query.MySqlInsertUpdateDuplicate;
+import com.hortonworks.registries.storage.impl.jdbc.provider.mysql.query.MySqlSearchDeleteQuery;
 import com.hortonworks.registries.storage.impl.jdbc.provider.mysql.query.MySqlSelectForShareQuery;
 import com.hortonworks.registries.storage.impl.jdbc.provider.mysql.query.MySqlSelectForUpdateQuery;
+import com.hortonworks.registries.storage.impl.jdbc.provider.mysql.query.MySqlSelectInQuery;
 import com.hortonworks.registries.storage.impl.jdbc.provider.mysql.query.MySqlSelectQuery;
 import com.hortonworks.registries.storage.impl.jdbc.provider.mysql.query.MysqlUpdateQuery;
 import com.hortonworks.registries.storage.impl.jdbc.provider.sql.factory.AbstractQueryExecutor;
+import com.hortonworks.registries.storage.impl.jdbc.provider.sql.query.AbstractSelectInQuery;
+import com.hortonworks.registries.storage.impl.jdbc.provider.sql.query.AbstractStorableSqlQuery;
 import com.hortonworks.registries.storage.impl.jdbc.provider.sql.query.SqlQuery;
 import com.hortonworks.registries.storage.impl.jdbc.provider.sql.statement.PreparedStatementBuilder;
 import com.hortonworks.registries.storage.search.SearchQuery;
 
+import java.sql.SQLException;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /**
  * SQL query executor for MySQL DB.
@@ -47,6 +55,9 @@ import java.util.List;
  */
 public class MySqlExecutor extends AbstractQueryExecutor {
 
+    // ER_LOCK_WAIT_TIMEOUT
+    private static final int LOCK_WAIT_TIMEOUT_ERROR_CODE = 1205;
+
     /**
      * @param config Object that contains arbitrary configuration that may be needed for any of the steps of the query execution process
      * @param connectionBuilder Object that establishes the connection to the database
@@ -72,6 +83,16 @@ public class MySqlExecutor extends AbstractQueryExecutor {
         insertOrUpdateWithUniqueId(storable, new MySqlInsertQuery(storable));
     }
 
+    @Override
+    protected AbstractStorableSqlQuery buildInsertQuery(Storable storable) {
+        return new MySqlInsertQuery(storable);
+    }
+
+    @Override
+    protected boolean returnsGeneratedIdsOnInsert() {
+        return true;
+    }
+
     @Override
     public void insertOrUpdate(final Storable storable) {
         insertOrUpdateWithUniqueId(storable, new MySqlInsertUpdateDuplicate(storable));
@@ -93,6 +114,11 @@ public class MySqlExecutor extends AbstractQueryExecutor {
         return executeQuery(searchQuery.getNameSpace(), new MySqlSelectQuery(searchQuery, storableFactory.create(searchQuery.getNameSpace()).getSchema()));
     }
 
+    @Override
+    public int delete(SearchQuery searchQuery) {
+        return executeUpdate(new MySqlSearchDeleteQuery(searchQuery, storableFactory.create(searchQuery.getNameSpace()).getSchema()));
+    }
+
     @Override
     public <T extends Storable> Collection<T> select(String namespace) {
         return executeQuery(namespace, new MySqlSelectQuery(namespace));
@@ -113,6 +139,14 @@ public class MySqlExecutor extends AbstractQueryExecutor {
         return executeQuery(storableKey.getNameSpace(), new MySqlSelectQuery(storableKey, orderByFields));
     }
 
+    @Override
+    protected AbstractSelectInQuery buildSelectInQuery(String namespace,
+                                                       Schema.Field field,
+                                                       Collection<?> values,
+                                                       List<String> projectedFields) {
+        return new MySqlSelectInQuery(namespace, field, values, projectedFields);
+    }
+
     @Override
     public <T extends Storable> Collection<T> selectForShare(StorableKey storableKey) {
         return executeQuery(storableKey.getNameSpace(), new MySqlSelectForShareQuery(storableKey));
@@ -123,6 +157,37 @@ public class MySqlExecutor extends AbstractQueryExecutor {
         return executeQuery(storableKey.getNameSpace(), new MySqlSelectForUpdateQuery(storableKey));
     }
 
+    @Override
+    public <T extends Storable> Collection<T> selectForShare(StorableKey storableKey, long lockTimeoutInMillis) {
+        return selectWithLockWaitTimeout(lockTimeoutInMillis, () -> selectForShare(storableKey));
+    }
+
+    @Override
+    public <T extends Storable> Collection<T> selectForUpdate(StorableKey storableKey, long lockTimeoutInMillis) {
+        return selectWithLockWaitTimeout(lockTimeoutInMillis, () -> selectForUpdate(storableKey));
+    }
+
+    private <T extends Storable> Collection<T> selectWithLockWaitTimeout(long lockTimeoutInMillis, Supplier<Collection<T>> lockingQuery) {
+        if (!hasActiveTransaction()) {
+            return lockingQuery.get();
+        }
+
+        // innodb_lock_wait_timeout is set in seconds and it should at least be 1
+        long lockTimeoutInSecs = Math.max(1L, TimeUnit.MILLISECONDS.toSeconds(lockTimeoutInMillis + 999L));
+        executeInActiveTransaction("SET SESSION innodb_lock_wait_timeout = " + lockTimeoutInSecs);
+        try {
+            return executeLockingQuery(lockingQuery);
+        } finally {
+            executeInActiveTransaction("SET SESSION innodb_lock_wait_timeout = DEFAULT");
+        }
+    }
+
+    @Override
+    protected boolean isLockTimeout(StorageException e) {
+        SQLException sqlException = getSQLException(e);
+        return sqlException != null && sqlException.getErrorCode() == LOCK_WAIT_TIMEOUT_ERROR_CODE;
+    }
+
     private void insertOrUpdateWithUniqueId(final Storable storable, final SqlQuery sqlQuery) {
         try {
             Long id = storable.getId();
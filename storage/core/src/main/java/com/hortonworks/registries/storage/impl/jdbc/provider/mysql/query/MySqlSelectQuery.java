@@ -72,4 +72,9 @@ public class MySqlSelectQuery extends AbstractSelectQuery {
         }
         return sql;
     }
+
+    @Override
+    protected String limitSql(int offset, int limit) {
+        return " LIMIT " + limit + (offset > 0 ? " OFFSET " + offset : "");
+    }
 }
@@ -18,6 +18,7 @@ package com.hortonworks.registries.storage.impl.jdbc.provider.oracle.factory;
 
 
 import com.google.common.cache.CacheBuilder;
+import com.hortonworks.registries.common.Schema;
 import com.hortonworks.registries.storage.OrderByField;
 import com.hortonworks.registries.storage.Storable;
 import com.hortonworks.registries.storage.StorableKey;
@@ -27,29 +28,43 @@ import com.hortonworks.registries.storage.impl.jdbc.connection.ConnectionBuilder
 import com.hortonworks.registries.storage.impl.jdbc.provider.oracle.query.OracleDeleteQuery;
 import com.hortonworks.registries.storage.impl.jdbc.provider.oracle.query.OracleInsertQuery;
 import com.hortonworks.registries.storage.impl.jdbc.provider.oracle.query.OracleInsertUpdateDuplicate;
+import com.hortonworks.registries.storage.impl.jdbc.provider.oracle.query.OracleSearchDeleteQuery;
 import com.hortonworks.registries.storage.impl.jdbc.provider.oracle.query.OracleSelectForShareQuery;
 import com.hortonworks.registries.storage.impl.jdbc.provider.oracle.query.OracleSelectForUpdateQuery;
+import com.hortonworks.registries.storage.impl.jdbc.provider.oracle.query.OracleSelectInQuery;
 import com.hortonworks.registries.storage.impl.jdbc.provider.oracle.query.OracleSelectQuery;
 import com.hortonworks.registries.storage.impl.jdbc.provider.oracle.query.OracleSequenceIdQuery;
 import com.hortonworks.registries.storage.impl.jdbc.provider.oracle.query.OracleUpdateQuery;
 import com.hortonworks.registries.storage.impl.jdbc.provider.oracle.statement.OracleDataTypeContext;
 import com.hortonworks.registries.storage.impl.jdbc.provider.sql.factory.AbstractQueryExecutor;
+import com.hortonworks.registries.storage.impl.jdbc.provider.sql.query.AbstractSelectInQuery;
+import com.hortonworks.registries.storage.impl.jdbc.provider.sql.query.AbstractStorableSqlQuery;
 import com.hortonworks.registries.storage.impl.jdbc.provider.sql.query.SqlQuery;
 import com.hortonworks.registries.storage.impl.jdbc.provider.sql.statement.PreparedStatementBuilder;
 import com.hortonworks.registries.storage.impl.jdbc.util.Columns;
 import com.hortonworks.registries.storage.search.SearchQuery;
+import com.hortonworks.registries.storage.util.BlockIdAllocator;
 
 import java.sql.Connection;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 
 public class OracleExecutor extends AbstractQueryExecutor {
 
     private static final OracleDataTypeContext ORACLE_DATA_TYPE_CONTEXT = new OracleDataTypeContext();
 
+    // ORA-30006: resource busy; acquire with WAIT timeout expired
+    private static final int WAIT_TIMEOUT_ERROR_CODE = 30006;
+    // ORA-00054: resource busy and acquire with NOWAIT specified or timeout expired
+    private static final int RESOURCE_BUSY_ERROR_CODE = 54;
+
+    // ids are reserved in blocks of the size of the increment of the sequence of each namespace
+    private final BlockIdAllocator idAllocator = new BlockIdAllocator(this::reserveIdBlock);
+
     public OracleExecutor(ExecutionConfig config, ConnectionBuilder connectionBuilder) {
         super(config, connectionBuilder, ORACLE_DATA_TYPE_CONTEXT);
     }
@@ -64,6 +79,11 @@ public class OracleExecutor extends AbstractQueryExecutor {
         executeUpdate(new OracleInsertQuery(storable));
     }
 
+    @Override
+    protected AbstractStorableSqlQuery buildInsertQuery(Storable storable) {
+        return new OracleInsertQuery(storable);
+    }
+
     @Override
     public void insertOrUpdate(final Storable storable) {
         executeUpdate(new OracleInsertUpdateDuplicate(storable));
@@ -83,6 +103,11 @@ public class OracleExecutor extends AbstractQueryExecutor {
         return executeQuery(searchQuery.getNameSpace(), new OracleSelectQuery(searchQuery, storableFactory.create(searchQuery.getNameSpace()).getSchema()));
     }
 
+    @Override
+    public int delete(SearchQuery searchQuery) {
+        return executeUpdate(new OracleSearchDeleteQuery(searchQuery, storableFactory.create(searchQuery.getNameSpace()).getSchema()));
+    }
+
     @Override
     public <T extends Storable> Collection<T> select(final String namespace) {
         return executeQuery(namespace, new OracleSelectQuery(namespace));
@@ -109,6 +134,14 @@ public class OracleExecutor extends AbstractQueryExecutor {
         return executeQuery(storableKey.getNameSpace(), new OracleSelectQuery(storableKey, orderByFields));
     }
 
+    @Override
+    protected AbstractSelectInQuery buildSelectInQuery(String namespace,
+                                                       Schema.Field field,
+                                                       Collection<?> values,
+                                                       List<String> projectedFields) {
+        return new OracleSelectInQuery(namespace, field, values, projectedFields);
+    }
+
     @Override
     public <T extends Storable> Collection<T> selectForShare(StorableKey storableKey) {
         return executeQuery(storableKey.getNameSpace(), new OracleSelectForShareQuery(storableKey));
@@ -119,16 +152,45 @@ public class OracleExecutor extends AbstractQueryExecutor {
         return executeQuery(storableKey.getNameSpace(), new OracleSelectForUpdateQuery(storableKey));
     }
 
+    @Override
+    public <T extends Storable> Collection<T> selectForUpdate(StorableKey storableKey, long lockTimeoutInMillis) {
+        if (!hasActiveTransaction()) {
+            return selectForUpdate(storableKey);
+        }
+
+        int waitInSecs = (int) Math.max(1L, TimeUnit.MILLISECONDS.toSeconds(lockTimeoutInMillis + 999L));
+        return executeLockingQuery(() -> executeQuery(storableKey.getNameSpace(), new OracleSelectForUpdateQuery(storableKey, waitInSecs)));
+    }
+
+    @Override
+    protected boolean isLockTimeout(StorageException e) {
+        SQLException sqlException = getSQLException(e);
+        return sqlException != null
+                && (sqlException.getErrorCode() == WAIT_TIMEOUT_ERROR_CODE || sqlException.getErrorCode() == RESOURCE_BUSY_ERROR_CODE);
+    }
+
     @Override
     public Long nextId(String namespace) {
+        return idAllocator.nextId(namespace);
+    }
+
+    @Override
+    protected List<Long> nextIds(String namespace, int count) {
+        return idAllocator.nextIds(namespace, count);
+    }
+
+    /**
+     * A sequence value reserves the block of ids ending with it, as the previous value handed out by the sequence is
+     * lower by its increment. This is compatible with sequences incremented by 1 and with the nodes using each
+     * sequence value as a single id. The increment is read with each value, so that the nodes follow changes of it.
+     */
+    private BlockIdAllocator.IdBlock reserveIdBlock(String namespace) {
         OracleSequenceIdQuery oracleSequenceIdQuery = new OracleSequenceIdQuery(namespace, queryTimeoutSecs, ORACLE_DATA_TYPE_CONTEXT);
-        Connection connection = null;
+        Connection connection = getConnection();
         try {
-            connection = getConnection();
-            Long id = oracleSequenceIdQuery.getNextID(connection);
-            return id;
+            return oracleSequenceIdQuery.getNextIdBlock(connection);
         } finally {
-            if(!transactionBookKeeper.hasActiveTransaction(Thread.currentThread().getId())) {
+            if (!transactionBookKeeper.hasActiveTransaction()) {
                 closeConnection(connection);
             }
         }
@@ -151,7 +213,7 @@ public class OracleExecutor extends AbstractQueryExecutor {
             log.error(e.getMessage(), e);
             throw new RuntimeException(e);
         } finally {
-            if(!transactionBookKeeper.hasActiveTransaction(Thread.currentThread().getId())) {
+            if (!transactionBookKeeper.hasActiveTransaction()) {
                 closeConnection(connection);
             }
         }
@@ -18,18 +18,43 @@ package com.hortonworks.registries.storage.impl.jdbc.provider.oracle.query;
 
 import com.hortonworks.registries.storage.StorableKey;
 
+import java.util.Objects;
+
 public class OracleSelectForUpdateQuery extends OracleSelectQuery {
 
+    private final Integer waitInSecs;
+
     public OracleSelectForUpdateQuery(StorableKey storableKey) {
+        this(storableKey, null);
+    }
+
+    /**
+     * @param waitInSecs maximum time to wait for the lock of a row, waits indefinitely if it is null
+     */
+    public OracleSelectForUpdateQuery(StorableKey storableKey, Integer waitInSecs) {
         super(storableKey);
+        this.waitInSecs = waitInSecs;
     }
 
     @Override
     protected String getParameterizedSql() {
         String sql = super.getParameterizedSql();
         sql += " FOR UPDATE";
+        if (waitInSecs != null) {
+            sql += " WAIT " + waitInSecs;
+        }
 
         LOG.debug(sql);
         return sql;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        return super.equals(o) && Objects.equals(waitInSecs, ((OracleSelectForUpdateQuery) o).waitInSecs);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * super.hashCode() + Objects.hashCode(waitInSecs);
+    }
 }
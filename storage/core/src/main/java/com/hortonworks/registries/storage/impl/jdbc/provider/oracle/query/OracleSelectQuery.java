@@ -85,6 +85,11 @@ public class OracleSelectQuery extends AbstractSelectQuery {
         return sql;
     }
 
+    @Override
+    protected String limitSql(int offset, int limit) {
+        return (offset > 0 ? " OFFSET " + offset + " ROWS" : "") + " FETCH FIRST " + limit + " ROWS ONLY";
+    }
+
     @Override
     protected String fieldEncloser() {
         return "\"";
@@ -20,6 +20,7 @@ import com.hortonworks.registries.storage.impl.jdbc.config.ExecutionConfig;
 import com.hortonworks.registries.storage.impl.jdbc.provider.oracle.statement.OracleDataTypeContext;
 import com.hortonworks.registries.storage.impl.jdbc.provider.sql.query.AbstractSqlQuery;
 import com.hortonworks.registries.storage.impl.jdbc.provider.sql.statement.PreparedStatementBuilder;
+import com.hortonworks.registries.storage.util.BlockIdAllocator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -62,6 +63,33 @@ public class OracleSequenceIdQuery {
         return nextId;
     }
 
+    /**
+     * Takes the next value of the sequence of the namespace together with its increment, which is 1 if it is not a
+     * sequence owned by the current user. The previous value handed out by the sequence is lower by the increment, so
+     * the value reserves the block of ids ending with it.
+     *
+     * @return the block of ids reserved by the next value of the sequence
+     */
+    public BlockIdAllocator.IdBlock getNextIdBlock(Connection connection) {
+        String sequenceName = namespace.toUpperCase();
+        OracleSqlQuery nextBlockQuery = new OracleSqlQuery(String.format("SELECT \"%s\".%s AS LAST_ID, " +
+                                                                         "(SELECT INCREMENT_BY FROM USER_SEQUENCES WHERE SEQUENCE_NAME = '%s') AS INCREMENT_BY FROM DUAL",
+                                                                         sequenceName, nextValueFunction, sequenceName));
+        try (PreparedStatement preparedStatement = PreparedStatementBuilder.of(connection, new ExecutionConfig(queryTimeoutSecs), oracleDatabaseStorageContext, nextBlockQuery).getPreparedStatement(nextBlockQuery);
+             ResultSet resultSet = preparedStatement.executeQuery()) {
+            if (!resultSet.next()) {
+                throw new RuntimeException("No sequence-id created for the current sequence of [" + namespace + "]");
+            }
+            long last = resultSet.getLong("LAST_ID");
+            long increment = Math.max(1L, resultSet.getLong("INCREMENT_BY"));
+            log.debug("Generated sequence id [{}] with increment [{}] for [{}]", last, increment, namespace);
+            return new BlockIdAllocator.IdBlock(Math.max(1L, last - increment + 1), last);
+        } catch (SQLException e) {
+            log.error(e.getMessage(), e);
+            throw new RuntimeException(e);
+        }
+    }
+
     static class OracleSqlQuery extends AbstractSqlQuery {
 
         private String sql;
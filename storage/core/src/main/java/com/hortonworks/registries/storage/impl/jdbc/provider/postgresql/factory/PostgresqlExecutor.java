@@ -25,23 +25,28 @@ import com.hortonworks.registries.storage.transaction.TransactionIsolation;
 import com.hortonworks.registries.storage.OrderByField;
 import com.hortonworks.registries.storage.Storable;
 import com.hortonworks.registries.storage.StorableKey;
+import com.hortonworks.registries.storage.exception.StorageException;
 import com.hortonworks.registries.storage.impl.jdbc.config.ExecutionConfig;
 import com.hortonworks.registries.storage.impl.jdbc.connection.ConnectionBuilder;
 import com.hortonworks.registries.storage.impl.jdbc.provider.postgresql.query.PostgresqlDeleteQuery;
 import com.hortonworks.registries.storage.impl.jdbc.provider.postgresql.query.PostgresqlInsertQuery;
+import com.hortonworks.registries.storage.impl.jdbc.provider.postgresql.query.PostgresqlSearchDeleteQuery;
 import com.hortonworks.registries.storage.impl.jdbc.provider.postgresql.query.PostgresqlSelectForShareQuery;
 import com.hortonworks.registries.storage.impl.jdbc.provider.postgresql.query.PostgresqlSelectForUpdateQuery;
+import com.hortonworks.registries.storage.impl.jdbc.provider.postgresql.query.PostgresqlSelectInQuery;
 import com.hortonworks.registries.storage.impl.jdbc.provider.postgresql.query.PostgresqlSelectQuery;
 import com.hortonworks.registries.storage.impl.jdbc.provider.postgresql.query.PostgresqlUpdateQuery;
 import com.hortonworks.registries.storage.impl.jdbc.provider.sql.factory.AbstractQueryExecutor;
+import com.hortonworks.registries.storage.impl.jdbc.provider.sql.query.AbstractSelectInQuery;
+import com.hortonworks.registries.storage.impl.jdbc.provider.sql.query.AbstractStorableSqlQuery;
 import com.hortonworks.registries.storage.impl.jdbc.provider.sql.query.SqlQuery;
 import com.hortonworks.registries.storage.impl.jdbc.provider.sql.statement.PreparedStatementBuilder;
 import com.hortonworks.registries.storage.search.SearchQuery;
 
-import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.Collection;
 import java.util.List;
-import java.util.Map;
+import java.util.function.Supplier;
 
 /**
  * SQL query executor for PostgreSQL
@@ -53,6 +58,8 @@ import java.util.Map;
  */
 public class PostgresqlExecutor extends AbstractQueryExecutor {
 
+    private static final String LOCK_NOT_AVAILABLE_SQL_STATE = "55P03";
+
     /**
      * @param config            Object that contains arbitrary configuration that may be needed for any of the steps of the query execution process
      * @param connectionBuilder Object that establishes the connection to the database
@@ -78,6 +85,16 @@ public class PostgresqlExecutor extends AbstractQueryExecutor {
         insertOrUpdateWithUniqueId(storable, new PostgresqlInsertQuery(storable));
     }
 
+    @Override
+    protected AbstractStorableSqlQuery buildInsertQuery(Storable storable) {
+        return new PostgresqlInsertQuery(storable);
+    }
+
+    @Override
+    protected boolean returnsGeneratedIdsOnInsert() {
+        return true;
+    }
+
     @Override
     public void insertOrUpdate(final Storable storable) {
         boolean committed = false;
@@ -123,6 +140,14 @@ public class PostgresqlExecutor extends AbstractQueryExecutor {
         return executeQuery(storableKey.getNameSpace(), new PostgresqlSelectQuery(storableKey, orderByFields));
     }
 
+    @Override
+    protected AbstractSelectInQuery buildSelectInQuery(String namespace,
+                                                       Schema.Field field,
+                                                       Collection<?> values,
+                                                       List<String> projectedFields) {
+        return new PostgresqlSelectInQuery(namespace, field, values, projectedFields);
+    }
+
     @Override
     public void delete(StorableKey storableKey) {
         executeUpdate(new PostgresqlDeleteQuery(storableKey));
@@ -140,6 +165,12 @@ public class PostgresqlExecutor extends AbstractQueryExecutor {
         return executeQuery(searchQuery.getNameSpace(), new PostgresqlSelectQuery(searchQuery, schema));
     }
 
+    @Override
+    public int delete(SearchQuery searchQuery) {
+        Schema schema = storableFactory.create(searchQuery.getNameSpace()).getSchema();
+        return executeUpdate(new PostgresqlSearchDeleteQuery(searchQuery, schema));
+    }
+
     @Override
     public <T extends Storable> Collection<T> selectForShare(StorableKey storableKey) {
         return executeQuery(storableKey.getNameSpace(), new PostgresqlSelectForShareQuery(storableKey));
@@ -150,22 +181,57 @@ public class PostgresqlExecutor extends AbstractQueryExecutor {
         return executeQuery(storableKey.getNameSpace(), new PostgresqlSelectForUpdateQuery(storableKey));
     }
 
+    @Override
+    public <T extends Storable> Collection<T> selectForShare(StorableKey storableKey, long lockTimeoutInMillis) {
+        return selectWithLockTimeout(lockTimeoutInMillis,
+                () -> executeQuery(storableKey.getNameSpace(), new PostgresqlSelectForShareQuery(storableKey, false)));
+    }
+
+    @Override
+    public <T extends Storable> Collection<T> selectForUpdate(StorableKey storableKey, long lockTimeoutInMillis) {
+        return selectWithLockTimeout(lockTimeoutInMillis,
+                () -> executeQuery(storableKey.getNameSpace(), new PostgresqlSelectForUpdateQuery(storableKey, false)));
+    }
+
+    private <T extends Storable> Collection<T> selectWithLockTimeout(long lockTimeoutInMillis, Supplier<Collection<T>> lockingQuery) {
+        if (!hasActiveTransaction()) {
+            return lockingQuery.get();
+        }
+
+        // a lock timeout aborts the transaction, so the select runs in a savepoint which is rolled back on timeout
+        setLockTimeout(lockTimeoutInMillis);
+        try {
+            return executeLockingQueryInSavepoint(lockingQuery);
+        } finally {
+            resetLockTimeout();
+        }
+    }
+
+    protected void setLockTimeout(long lockTimeoutInMillis) {
+        // lock_timeout of 0 disables the timeout
+        executeInActiveTransaction("SET LOCAL lock_timeout = " + Math.max(1L, lockTimeoutInMillis));
+    }
+
+    protected void resetLockTimeout() {
+        executeInActiveTransaction("SET LOCAL lock_timeout = DEFAULT");
+    }
+
+    @Override
+    protected boolean isLockTimeout(StorageException e) {
+        SQLException sqlException = getSQLException(e);
+        return sqlException != null && LOCK_NOT_AVAILABLE_SQL_STATE.equals(sqlException.getSQLState());
+    }
+
     // this is required since the Id type in Storable is long and Postgres supports Int type for SERIAL (auto increment) field
     @Override
     protected QueryExecution getQueryExecution(SqlQuery sqlQuery) {
         return new QueryExecution(sqlQuery) {
             @Override
-            protected List<Map<String, Object>> getMapsFromResultSet(ResultSet resultSet) {
-                List<Map<String, Object>> res = super.getMapsFromResultSet(resultSet);
-                if (res != null) {
-                    res.forEach(m -> {
-                        Object id = m.get("id");
-                        if (id != null && id instanceof Integer) {
-                            m.put("id", Long.valueOf((Integer) id));
-                        }
-                    });
+            protected Object convertColumnValue(String columnLabel, Object value) {
+                if ("id".equals(columnLabel) && value instanceof Integer) {
+                    return Long.valueOf((Integer) value);
                 }
-                return res;
+                return value;
             }
         };
     }
@@ -20,16 +20,39 @@ import com.hortonworks.registries.storage.StorableKey;
 
 public class PostgresqlSelectForShareQuery extends PostgresqlSelectQuery {
 
+    private final boolean skipLocked;
+
     public PostgresqlSelectForShareQuery(StorableKey storableKey) {
+        this(storableKey, true);
+    }
+
+    /**
+     * @param skipLocked if true, a locked row is skipped instead of waiting for its lock to be released
+     */
+    public PostgresqlSelectForShareQuery(StorableKey storableKey, boolean skipLocked) {
         super(storableKey);
+        this.skipLocked = skipLocked;
     }
 
     @Override
     protected String getParameterizedSql() {
         String sql = super.getParameterizedSql();
-        sql += " FOR SHARE SKIP LOCKED";
+        sql += " FOR SHARE";
+        if (skipLocked) {
+            sql += " SKIP LOCKED";
+        }
 
         LOG.debug(sql);
         return sql;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        return super.equals(o) && skipLocked == ((PostgresqlSelectForShareQuery) o).skipLocked;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * super.hashCode() + (skipLocked ? 1 : 0);
+    }
 }
@@ -20,16 +20,39 @@ import com.hortonworks.registries.storage.StorableKey;
 
 public class PostgresqlSelectForUpdateQuery extends PostgresqlSelectQuery{
 
+    private final boolean skipLocked;
+
     public PostgresqlSelectForUpdateQuery(StorableKey storableKey) {
+        this(storableKey, true);
+    }
+
+    /**
+     * @param skipLocked if true, a locked row is skipped instead of waiting for its lock to be released
+     */
+    public PostgresqlSelectForUpdateQuery(StorableKey storableKey, boolean skipLocked) {
         super(storableKey);
+        this.skipLocked = skipLocked;
     }
 
     @Override
     protected String getParameterizedSql() {
         String sql = super.getParameterizedSql();
-        sql += " FOR UPDATE SKIP LOCKED";
+        sql += " FOR UPDATE";
+        if (skipLocked) {
+            sql += " SKIP LOCKED";
+        }
 
         LOG.debug(sql);
         return sql;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        return super.equals(o) && skipLocked == ((PostgresqlSelectForUpdateQuery) o).skipLocked;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * super.hashCode() + (skipLocked ? 1 : 0);
+    }
 }
@@ -73,6 +73,11 @@ public class PostgresqlSelectQuery extends AbstractSelectQuery {
         return sql;
     }
 
+    @Override
+    protected String limitSql(int offset, int limit) {
+        return " LIMIT " + limit + (offset > 0 ? " OFFSET " + offset : "");
+    }
+
     @Override
     protected String getParameterizedSql() {
         String sql = "SELECT * FROM \"" + tableName + "\"";
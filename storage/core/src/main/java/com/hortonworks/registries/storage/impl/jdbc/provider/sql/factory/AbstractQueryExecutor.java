@@ -19,15 +19,19 @@ import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.RemovalListener;
 import com.google.common.cache.RemovalNotification;
+import com.google.common.collect.Lists;
 import com.hortonworks.registries.common.Schema;
 import com.hortonworks.registries.storage.transaction.TransactionIsolation;
 import com.hortonworks.registries.storage.Storable;
 import com.hortonworks.registries.storage.StorableFactory;
 import com.hortonworks.registries.storage.StorableKey;
+import com.hortonworks.registries.storage.catalog.StorableCodec;
 import com.hortonworks.registries.storage.exception.StorageException;
 import com.hortonworks.registries.storage.exception.TransactionException;
 import com.hortonworks.registries.storage.impl.jdbc.config.ExecutionConfig;
 import com.hortonworks.registries.storage.impl.jdbc.connection.ConnectionBuilder;
+import com.hortonworks.registries.storage.impl.jdbc.provider.sql.query.AbstractSelectInQuery;
+import com.hortonworks.registries.storage.impl.jdbc.provider.sql.query.AbstractStorableSqlQuery;
 import com.hortonworks.registries.storage.impl.jdbc.provider.sql.query.SqlDeleteQuery;
 import com.hortonworks.registries.storage.impl.jdbc.provider.sql.query.SqlQuery;
 import com.hortonworks.registries.storage.impl.jdbc.provider.sql.query.SqlSelectQuery;
@@ -37,6 +41,7 @@ import com.hortonworks.registries.storage.impl.jdbc.provider.sql.statement.Stora
 import com.hortonworks.registries.storage.impl.jdbc.util.Columns;
 import com.hortonworks.registries.storage.impl.jdbc.util.Util;
 import com.hortonworks.registries.storage.transaction.TransactionBookKeeper;
+import com.hortonworks.registries.storage.transaction.TransactionScope;
 import com.hortonworks.registries.storage.transaction.TransactionState;
 
 import java.sql.Connection;
@@ -44,21 +49,35 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
 
 /**
  *
  */
 public abstract class AbstractQueryExecutor implements QueryExecutor {
 
+    /**
+     * Maximum number of values bound in a single IN list, kept well below the limits of the supported databases.
+     */
+    public static final int MAX_IN_LIST_SIZE = 500;
+
+    /**
+     * Maximum number of rows inserted with a single batch by {@link #insertAll(Collection)}.
+     */
+    public static final int MAX_BATCH_SIZE = 500;
+
     protected final ExecutionConfig config;
     protected final int queryTimeoutSecs;
     protected final ConnectionBuilder connectionBuilder;
@@ -105,6 +124,168 @@ public abstract class AbstractQueryExecutor implements QueryExecutor {
         return executeQuery(storableKey.getNameSpace(), new SqlSelectQuery(storableKey));
     }
 
+    @Override
+    public <T extends Storable> Collection<T> selectIn(String namespace,
+                                                       Schema.Field field,
+                                                       Collection<?> values,
+                                                       List<String> projectedFields) {
+        List<T> result = new ArrayList<>();
+        for (List<?> partition : Lists.partition(new ArrayList<>(values), MAX_IN_LIST_SIZE)) {
+            result.addAll(executeQuery(namespace, buildSelectInQuery(namespace, field, partition, projectedFields)));
+        }
+        return result;
+    }
+
+    /**
+     * @return the query selecting the entries whose value of {@code field} is one of the given non empty {@code values}
+     */
+    protected abstract AbstractSelectInQuery buildSelectInQuery(String namespace,
+                                                                Schema.Field field,
+                                                                Collection<?> values,
+                                                                List<String> projectedFields);
+
+    @Override
+    public void insertAll(Collection<? extends Storable> storables) {
+        if (!returnsGeneratedIdsOnInsert()) {
+            setReservedIds(storables);
+        }
+
+        // consecutive storables with the same insert statement are batched together so that the insertion order is kept
+        List<AbstractStorableSqlQuery> batch = new ArrayList<>();
+        boolean batchReturnsIds = false;
+        for (Storable storable : storables) {
+            AbstractStorableSqlQuery insertQuery = buildInsertQuery(storable);
+            if (insertQuery == null) {
+                executeInsertBatch(batch, batchReturnsIds);
+                batch.clear();
+                insert(storable);
+                continue;
+            }
+            boolean returnsId = returnsGeneratedIdsOnInsert() && hasNullId(storable);
+            if (!batch.isEmpty() && (batch.size() == MAX_BATCH_SIZE || returnsId != batchReturnsIds
+                    || !batch.get(0).getParametrizedSql().equals(insertQuery.getParametrizedSql()))) {
+                executeInsertBatch(batch, batchReturnsIds);
+                batch.clear();
+            }
+            batch.add(insertQuery);
+            batchReturnsIds = returnsId;
+        }
+        executeInsertBatch(batch, batchReturnsIds);
+    }
+
+    /**
+     * @return the query inserting the given storable, which is executed in a batch with the other storables given to
+     * {@link #insertAll(Collection)}. Returns null by default, in which case storables are inserted one by one with
+     * {@link #insert(Storable)}.
+     */
+    protected AbstractStorableSqlQuery buildInsertQuery(Storable storable) {
+        return null;
+    }
+
+    /**
+     * @return true if the database issues the ids of the inserted storables without an id, which are then set on them
+     */
+    protected boolean returnsGeneratedIdsOnInsert() {
+        return false;
+    }
+
+    /**
+     * @return the given number of next ids of the given namespace. Calls {@link #nextId(String)} for each of them by
+     * default, executors which can reserve several ids with one round trip override it.
+     */
+    protected List<Long> nextIds(String namespace, int count) {
+        List<Long> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(nextId(namespace));
+        }
+        return ids;
+    }
+
+    private void setReservedIds(Collection<? extends Storable> storables) {
+        Map<String, List<Storable>> storablesWithoutIdByNamespace = new LinkedHashMap<>();
+        for (Storable storable : storables) {
+            if (hasNullId(storable)) {
+                storablesWithoutIdByNamespace.computeIfAbsent(storable.getNameSpace(), x -> new ArrayList<>()).add(storable);
+            }
+        }
+        for (Map.Entry<String, List<Storable>> entry : storablesWithoutIdByNamespace.entrySet()) {
+            List<Storable> storablesWithoutId = entry.getValue();
+            List<Long> ids = nextIds(entry.getKey(), storablesWithoutId.size());
+            for (int i = 0; i < ids.size(); i++) {
+                storablesWithoutId.get(i).setId(ids.get(i));
+            }
+        }
+    }
+
+    private static boolean hasNullId(Storable storable) {
+        try {
+            return storable.getId() == null;
+        } catch (UnsupportedOperationException e) {
+            return false;
+        }
+    }
+
+    private void executeInsertBatch(List<AbstractStorableSqlQuery> insertQueries, boolean returnGeneratedKeys) {
+        if (insertQueries.isEmpty()) {
+            return;
+        }
+
+        Connection connection = null;
+        try {
+            connection = getConnection();
+            AbstractStorableSqlQuery firstQuery = insertQueries.get(0);
+            PreparedStatementBuilder preparedStatementBuilder = returnGeneratedKeys
+                    ? PreparedStatementBuilder.supportReturnGeneratedKeys(connection, config, storageDataTypeContext, firstQuery)
+                    : PreparedStatementBuilder.of(connection, config, storageDataTypeContext, firstQuery);
+            // the builder binds the parameters of each query on the same prepared statement
+            try (PreparedStatement preparedStatement = preparedStatementBuilder.getPreparedStatement(firstQuery)) {
+                preparedStatement.addBatch();
+                for (AbstractStorableSqlQuery insertQuery : insertQueries.subList(1, insertQueries.size())) {
+                    preparedStatementBuilder.getPreparedStatement(insertQuery).addBatch();
+                }
+                preparedStatement.executeBatch();
+                log.debug("Inserted batch of [{}] rows into [{}]", insertQueries.size(), firstQuery.getNamespace());
+                if (returnGeneratedKeys) {
+                    setGeneratedIds(preparedStatement, insertQueries);
+                }
+            }
+        } catch (SQLException e) {
+            throw new StorageException(e);
+        } finally {
+            if (!transactionBookKeeper.hasActiveTransaction()) {
+                closeConnection(connection);
+            }
+        }
+    }
+
+    private void setGeneratedIds(PreparedStatement preparedStatement, List<AbstractStorableSqlQuery> insertQueries) throws SQLException {
+        List<Long> ids = new ArrayList<>(insertQueries.size());
+        try (ResultSet generatedKeys = preparedStatement.getGeneratedKeys()) {
+            while (generatedKeys.next()) {
+                ids.add(generatedKeys.getLong(1));
+            }
+        }
+        // some drivers return only the key of the last row of a batch, ids can not be matched with the storables then
+        if (ids.size() != insertQueries.size()) {
+            log.warn("Driver returned [{}] generated keys for a batch of [{}] rows, ids of the inserted storables are not set",
+                     ids.size(), insertQueries.size());
+            return;
+        }
+        for (int i = 0; i < ids.size(); i++) {
+            insertQueries.get(i).getStorable().setId(ids.get(i));
+        }
+    }
+
+    @Override
+    public <T extends Storable> Collection<T> selectForShare(StorableKey storableKey, long lockTimeoutInMillis) {
+        return selectForShare(storableKey);
+    }
+
+    @Override
+    public <T extends Storable> Collection<T> selectForUpdate(StorableKey storableKey, long lockTimeoutInMillis) {
+        return selectForUpdate(storableKey);
+    }
+
     public abstract Long nextId(String namespace);
 
     public ExecutionConfig getConfig() {
@@ -114,10 +295,10 @@ public abstract class AbstractQueryExecutor implements QueryExecutor {
     @Override
     public Connection getConnection() {
         Connection connection;
-        if (transactionBookKeeper.hasActiveTransaction(Thread.currentThread().getId())) {
-            return transactionBookKeeper.getConnection(Thread.currentThread().getId());
+        if (transactionBookKeeper.hasActiveTransaction()) {
+            return transactionBookKeeper.getConnection();
         } else {
-            log.info("No active transaction is associated with the thread id : [{}] ", Thread.currentThread().getId());
+            log.info("No active transaction is associated with the scope : [{}] ", TransactionScope.current());
             connection = connectionBuilder.getConnection();
             log.debug("Created new connection: [{}], active connection size: [{}]", connection, activeConnections.size());
             activeConnections.add(connection);
@@ -143,7 +324,7 @@ public abstract class AbstractQueryExecutor implements QueryExecutor {
             log.error(e.getMessage(), e);
             throw new RuntimeException(e);
         } finally {
-            if(!transactionBookKeeper.hasActiveTransaction(Thread.currentThread().getId())) {
+            if (!transactionBookKeeper.hasActiveTransaction()) {
                 closeConnection(connection);
             }
         }
@@ -204,7 +385,7 @@ public abstract class AbstractQueryExecutor implements QueryExecutor {
                 final PreparedStatementBuilder preparedStatementBuilder = notification.getValue();
                 log.debug("Removed entry from cache [key:{}, val: {}]", notification.getKey(), preparedStatementBuilder);
                 log.debug("Cache size: {}", cache.size());
-                if(preparedStatementBuilder != null && !transactionBookKeeper.hasActiveTransaction(Thread.currentThread().getId())) {
+                if(preparedStatementBuilder != null && !transactionBookKeeper.hasActiveTransaction()) {
                     closeConnection(preparedStatementBuilder.getConnection());
                 }
             }
@@ -224,47 +405,53 @@ public abstract class AbstractQueryExecutor implements QueryExecutor {
     // =============== Methods for supporting transaction ===============
 
 
+    @Override
+    public boolean hasActiveTransaction() {
+        return transactionBookKeeper.hasActiveTransaction();
+    }
+
     @Override
     public void beginTransaction(TransactionIsolation transactionIsolationLevel) {
-        long currentThreadId = Thread.currentThread().getId();
+        TransactionScope scope = TransactionScope.current();
         try {
-            if (!transactionBookKeeper.hasActiveTransaction(currentThreadId)) {
-                Connection connection = connectionBuilder.getConnection();
-                if (transactionIsolationLevel == TransactionIsolation.JDBC_DEFAULT) {
-                    log.debug(" --- Begin transaction for thread id : {} with isolation level : {} --- ", currentThreadId, transactionIsolationLevel.name());
-                    // Use the transaction isolation as recommended by the JDBC driver
-                } else if (transactionIsolationLevel == TransactionIsolation.DATABASE_SENSITIVE) {
-                    int transactionIsolation;
-                    switch (config.getDatabaseType()) {
-                        case MYSQL:
-                            transactionIsolation = Connection.TRANSACTION_REPEATABLE_READ;
-                            break;
-                        case POSTGRESQL:
-                            transactionIsolation = Connection.TRANSACTION_REPEATABLE_READ;
-                            break;
-                        case ORACLE:
-                            transactionIsolation = Connection.TRANSACTION_SERIALIZABLE;
-                            break;
-                        default:
-                            throw new TransactionException(String.format("Failed to set transaction isolation level for unknown database : %s", config.getDatabaseType().toString()));
+            if (!transactionBookKeeper.hasActiveTransaction()) {
+                Connection connection = openTransactionConnection(scope, transactionIsolationLevel);
+                transactionBookKeeper.addTransaction(connection);
+            } else {
+                if (transactionBookKeeper.isReadOnly())
+                    throw new TransactionException("Attempted to begin a read-write transaction amidst a read only transaction");
+                reuseTransaction(scope, transactionIsolationLevel);
+            }
+        } catch (SQLException e) {
+            log.error("Failed to start transaction", e);
+            throw new TransactionException("Failed to start transaction", e);
+        }
+    }
+
+    /**
+     * Begins a read only transaction. Unlike {@link #beginTransaction(TransactionIsolation)} the connection of the
+     * transaction is opened only when a query is executed, so transactions which do not execute any query do not
+     * borrow a connection at all and their commit or rollback is not sent to the database. An active transaction of
+     * the current transaction scope is reused as it is.
+     */
+    @Override
+    public void beginReadOnlyTransaction(TransactionIsolation transactionIsolationLevel) {
+        TransactionScope scope = TransactionScope.current();
+        try {
+            if (!transactionBookKeeper.hasActiveTransaction()) {
+                log.debug(" --- Begin read only transaction for scope : {} --- ", scope);
+                transactionBookKeeper.addReadOnlyTransaction(() -> {
+                    try {
+                        Connection connection = openTransactionConnection(scope, transactionIsolationLevel);
+                        connection.setReadOnly(true);
+                        return connection;
+                    } catch (SQLException e) {
+                        log.error("Failed to open connection of read only transaction", e);
+                        throw new TransactionException("Failed to open connection of read only transaction", e);
                     }
-                    log.debug(" --- Begin transaction for thread id : {} with isolation level : {} and jdbc transaction isolation level : {} --- ",
-                            currentThreadId, transactionIsolationLevel.name(), transactionIsolation);
-                    connection.setTransactionIsolation(transactionIsolation);
-                } else {
-                    log.debug(" --- Begin transaction for thread id : {} with isolation level : {} --- ", currentThreadId, transactionIsolationLevel.name());
-                    connection.setTransactionIsolation(transactionIsolationLevel.getValue());
-                }
-                log.debug("Opened connection {}", connection);
-                activeConnections.add(connection);
-                connection.setAutoCommit(false);
-                transactionBookKeeper.addTransaction(currentThreadId, connection);
+                });
             } else {
-                log.debug(" --- Reusing transaction for thread if : {} --- ", currentThreadId);
-                if (transactionIsolationLevel != TransactionIsolation.JDBC_DEFAULT &&
-                        transactionBookKeeper.getConnection(currentThreadId).getTransactionIsolation() != transactionIsolationLevel.getValue())
-                    throw new TransactionException("Attempted to change the isolation level amidst an active transaction");
-                transactionBookKeeper.incrementNestedTransactionCount(currentThreadId);
+                reuseTransaction(scope, transactionIsolationLevel);
             }
         } catch (SQLException e) {
             log.error("Failed to start transaction", e);
@@ -272,24 +459,65 @@ public abstract class AbstractQueryExecutor implements QueryExecutor {
         }
     }
 
+    private Connection openTransactionConnection(TransactionScope scope, TransactionIsolation transactionIsolationLevel) throws SQLException {
+        Connection connection = connectionBuilder.getConnection();
+        if (transactionIsolationLevel == TransactionIsolation.JDBC_DEFAULT) {
+            log.debug(" --- Begin transaction for scope : {} with isolation level : {} --- ", scope, transactionIsolationLevel.name());
+            // Use the transaction isolation as recommended by the JDBC driver
+        } else if (transactionIsolationLevel == TransactionIsolation.DATABASE_SENSITIVE) {
+            int transactionIsolation;
+            switch (config.getDatabaseType()) {
+                case MYSQL:
+                    transactionIsolation = Connection.TRANSACTION_REPEATABLE_READ;
+                    break;
+                case POSTGRESQL:
+                    transactionIsolation = Connection.TRANSACTION_REPEATABLE_READ;
+                    break;
+                case ORACLE:
+                    transactionIsolation = Connection.TRANSACTION_SERIALIZABLE;
+                    break;
+                default:
+                    throw new TransactionException(String.format("Failed to set transaction isolation level for unknown database : %s", config.getDatabaseType().toString()));
+            }
+            log.debug(" --- Begin transaction for scope : {} with isolation level : {} and jdbc transaction isolation level : {} --- ",
+                    scope, transactionIsolationLevel.name(), transactionIsolation);
+            connection.setTransactionIsolation(transactionIsolation);
+        } else {
+            log.debug(" --- Begin transaction for scope : {} with isolation level : {} --- ", scope, transactionIsolationLevel.name());
+            connection.setTransactionIsolation(transactionIsolationLevel.getValue());
+        }
+        log.debug("Opened connection {}", connection);
+        activeConnections.add(connection);
+        connection.setAutoCommit(false);
+        return connection;
+    }
+
+    private void reuseTransaction(TransactionScope scope, TransactionIsolation transactionIsolationLevel) throws SQLException {
+        log.debug(" --- Reusing transaction for scope : {} --- ", scope);
+        // the isolation level of a read only transaction is not known before its connection is opened
+        if (transactionIsolationLevel != TransactionIsolation.JDBC_DEFAULT && transactionBookKeeper.hasConnection() &&
+                transactionBookKeeper.getConnection().getTransactionIsolation() != transactionIsolationLevel.getValue())
+            throw new TransactionException("Attempted to change the isolation level amidst an active transaction");
+        transactionBookKeeper.incrementNestedTransactionCount();
+    }
+
     @Override
     public void rollbackTransaction() {
-        long currentThreadId = Thread.currentThread().getId();
-        if (transactionBookKeeper.hasActiveTransaction(currentThreadId)) {
-            Connection connection = transactionBookKeeper.getConnection(currentThreadId);
+        TransactionScope scope = TransactionScope.current();
+        if (transactionBookKeeper.hasActiveTransaction()) {
+            Connection connection = getOpenedTransactionConnection();
             try {
-                closeTransactionIfUnused(currentThreadId, TransactionState.ROLLBACK);
-                log.debug(" --- Rolled back transaction for thread id : {} --- ", currentThreadId);
+                closeTransactionIfUnused(TransactionState.ROLLBACK);
+                log.debug(" --- Rolled back transaction for scope : {} --- ", scope);
             } catch (SQLException e) {
                 throw new TransactionException("Failed to roll back transaction", e);
             } finally {
-                if (!transactionBookKeeper.hasActiveTransaction(currentThreadId)) {
-                    transactionBookKeeper.removeTransaction(currentThreadId);
-                    closeConnection(connection);
+                if (!transactionBookKeeper.hasActiveTransaction()) {
+                    endTransaction(connection);
                 }
             }
         } else {
-            throw new TransactionException(String.format("Failed to rollback, No active transaction is associated with thread id : %s", Long.toString(currentThreadId)));
+            throw new TransactionException(String.format("Failed to rollback, No active transaction is associated with scope : %s", scope));
         }
 
     }
@@ -297,36 +525,70 @@ public abstract class AbstractQueryExecutor implements QueryExecutor {
 
     @Override
     public void commitTransaction() {
-        long currentThreadId = Thread.currentThread().getId();
-        if (transactionBookKeeper.hasActiveTransaction(currentThreadId)) {
-            Connection connection = transactionBookKeeper.getConnection(currentThreadId);
+        TransactionScope scope = TransactionScope.current();
+        if (transactionBookKeeper.hasActiveTransaction()) {
+            Connection connection = getOpenedTransactionConnection();
             try {
-                closeTransactionIfUnused(currentThreadId, TransactionState.COMMIT);
-                log.debug(" --- Committed transaction for thread id : {} --- ", currentThreadId);
+                closeTransactionIfUnused(TransactionState.COMMIT);
+                log.debug(" --- Committed transaction for scope : {} --- ", scope);
             } catch (SQLException e) {
                 throw new TransactionException("Failed to commit transaction", e);
             } finally {
-                if (!transactionBookKeeper.hasActiveTransaction(currentThreadId)) {
-                    transactionBookKeeper.removeTransaction(currentThreadId);
-                    closeConnection(connection);
+                if (!transactionBookKeeper.hasActiveTransaction()) {
+                    endTransaction(connection);
                 }
             }
         } else {
-            throw new TransactionException(String.format("Failed to commit, No active transaction is associated with thread id : %s", Long.toString(currentThreadId)));
+            throw new TransactionException(String.format("Failed to commit, No active transaction is associated with scope : %s", scope));
+        }
+    }
+
+    @Override
+    public void runAfterTransaction(Runnable action) {
+        if (transactionBookKeeper.hasActiveTransaction()) {
+            transactionBookKeeper.addCompletionAction(action);
+        } else {
+            action.run();
+        }
+    }
+
+    private void endTransaction(Connection connection) {
+        List<Runnable> completionActions = transactionBookKeeper.getCompletionActions();
+        transactionBookKeeper.removeTransaction();
+        closeConnection(connection);
+        for (Runnable action : completionActions) {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                log.error("Failed to run action after the end of the transaction", e);
+            }
         }
     }
 
-    private void closeTransactionIfUnused(long threadId, TransactionState currentTransactionState) throws SQLException {
-        long currentThreadId = Thread.currentThread().getId();
-        transactionBookKeeper.decrementNestedTransactionCount(currentThreadId, currentTransactionState);
-        if (!transactionBookKeeper.hasActiveTransaction(currentThreadId)) {
-            if (transactionBookKeeper.whereThereAnyRollbacks(currentThreadId))
-                transactionBookKeeper.getConnection(currentThreadId).rollback();
-            else if (transactionBookKeeper.whereThereAnyCommits(currentThreadId))
-                transactionBookKeeper.getConnection(currentThreadId).commit();
-            else
+    // returns null for a read only transaction which has not executed any query, so that no connection is opened for it
+    private Connection getOpenedTransactionConnection() {
+        return transactionBookKeeper.hasConnection() ? transactionBookKeeper.getConnection() : null;
+    }
+
+    private void closeTransactionIfUnused(TransactionState currentTransactionState) throws SQLException {
+        transactionBookKeeper.decrementNestedTransactionCount(currentTransactionState);
+        if (!transactionBookKeeper.hasActiveTransaction()) {
+            boolean hasConnection = transactionBookKeeper.hasConnection();
+            if (transactionBookKeeper.whereThereAnyRollbacks()) {
+                if (hasConnection)
+                    transactionBookKeeper.getConnection().rollback();
+            } else if (transactionBookKeeper.whereThereAnyCommits()) {
+                if (hasConnection)
+                    transactionBookKeeper.getConnection().commit();
+            } else
                 throw new TransactionException("Attempted to close a transaction without explicit call to commit or rollback");
-            transactionBookKeeper.getConnection(threadId).setAutoCommit(true);
+            if (hasConnection) {
+                Connection connection = transactionBookKeeper.getConnection();
+                connection.setAutoCommit(true);
+                if (transactionBookKeeper.isReadOnly()) {
+                    connection.setReadOnly(false);
+                }
+            }
         }
     }
 
@@ -350,6 +612,92 @@ public abstract class AbstractQueryExecutor implements QueryExecutor {
         return getQueryExecution(sqlBuilder).executeQuery(namespace);
     }
 
+    /**
+     * Executes the given statement, like setting a session variable, on the connection of the active transaction.
+     *
+     * @param sql statement without any parameters
+     */
+    protected void executeInActiveTransaction(String sql) {
+        Connection connection = transactionBookKeeper.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        } catch (SQLException e) {
+            throw new StorageException(e);
+        }
+    }
+
+    /**
+     * @return true if the given exception is caused by a lock not being granted within the lock timeout.
+     */
+    protected boolean isLockTimeout(StorageException e) {
+        return false;
+    }
+
+    /**
+     * @return the first {@link SQLException} in the cause chain of the given exception, null if there is none.
+     */
+    protected static SQLException getSQLException(Throwable throwable) {
+        Throwable cause = throwable;
+        while (cause != null && !(cause instanceof SQLException)) {
+            cause = cause.getCause();
+        }
+        return (SQLException) cause;
+    }
+
+    /**
+     * Runs the given locking select and returns an empty result if the lock could not be granted in time.
+     */
+    protected <T extends Storable> Collection<T> executeLockingQuery(Supplier<Collection<T>> lockingQuery) {
+        try {
+            return lockingQuery.get();
+        } catch (StorageException e) {
+            if (isLockTimeout(e)) {
+                log.debug("Lock was not granted within the lock timeout", e);
+                return Collections.emptyList();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Runs the given locking select like {@link #executeLockingQuery(Supplier)}, within a savepoint of the active
+     * transaction. A failed select is rolled back to the savepoint, so the transaction stays usable on databases like
+     * Postgres where any error aborts the whole transaction.
+     */
+    protected <T extends Storable> Collection<T> executeLockingQueryInSavepoint(Supplier<Collection<T>> lockingQuery) {
+        Connection connection = transactionBookKeeper.getConnection();
+        Savepoint savepoint;
+        try {
+            savepoint = connection.setSavepoint();
+        } catch (SQLException e) {
+            throw new StorageException(e);
+        }
+
+        Collection<T> result;
+        try {
+            result = lockingQuery.get();
+        } catch (StorageException e) {
+            try {
+                connection.rollback(savepoint);
+            } catch (SQLException rollbackException) {
+                e.addSuppressed(rollbackException);
+                throw e;
+            }
+            if (isLockTimeout(e)) {
+                log.debug("Lock was not granted within the lock timeout", e);
+                return Collections.emptyList();
+            }
+            throw e;
+        }
+
+        try {
+            connection.releaseSavepoint(savepoint);
+        } catch (SQLException e) {
+            throw new StorageException(e);
+        }
+        return result;
+    }
+
     protected QueryExecution getQueryExecution(SqlQuery sqlQuery) {
         return new QueryExecution(sqlQuery);
     }
@@ -377,7 +725,7 @@ public abstract class AbstractQueryExecutor implements QueryExecutor {
 
         void closeConn() {
             // Close every opened connection if not using cache. If using cache, cache expiry manages connections
-            if (!isCacheEnabled() && !transactionBookKeeper.hasActiveTransaction(Thread.currentThread().getId())) {
+            if (!isCacheEnabled() && !transactionBookKeeper.hasActiveTransaction()) {
                 closeConnection(connection);
             }
         }
@@ -477,20 +825,58 @@ public abstract class AbstractQueryExecutor implements QueryExecutor {
 
         private <T extends Storable> Collection<T> getStorablesFromResultSet(ResultSet resultSet, String nameSpace) {
             final Collection<T> storables = new ArrayList<>();
-            // maps contains the data to populate the state of Storable objects
-            final List<Map<String, Object>> maps = getMapsFromResultSet(resultSet);
-            if (maps != null && !maps.isEmpty()) {
-                for (Map<String, Object> map : maps) {
-                    if (map != null) {
+            StorableCodec codec = StorableCodec.of(storableFactory.getStorableClass(nameSpace));
+            if (!codec.isDefaultFromMap()) {
+                // maps contains the data to populate the state of Storable objects
+                final List<Map<String, Object>> maps = getMapsFromResultSet(resultSet);
+                if (maps != null && !maps.isEmpty()) {
+                    for (Map<String, Object> map : maps) {
+                        if (map != null) {
+                            T storable = newStorableInstance(nameSpace);
+                            storable.fromMap(map);      // populates the Storable object state
+                            storables.add(storable);
+                        }
+                    }
+                }
+                return storables;
+            }
+
+            // storables with the default fromMap are populated straight from the columns of each row
+            try {
+                if (resultSet.next()) {
+                    ResultSetMetaData rsMetadata = resultSet.getMetaData();
+                    final int columnCount = rsMetadata.getColumnCount();
+                    final String[] columnLabels = new String[columnCount];
+                    final Class[] columnJavaTypes = new Class[columnCount];
+                    for (int i = 0; i < columnCount; i++) {
+                        columnLabels[i] = rsMetadata.getColumnLabel(i + 1);
+                        columnJavaTypes[i] = Util.getJavaType(rsMetadata.getColumnType(i + 1), rsMetadata.getPrecision(i + 1));
+                    }
+                    do {
                         T storable = newStorableInstance(nameSpace);
-                        storable.fromMap(map);      // populates the Storable object state
+                        for (int i = 0; i < columnCount; i++) {
+                            Object value = convertColumnValue(columnLabels[i],
+                                                              storageDataTypeContext.getColumnValue(resultSet, columnLabels[i], columnJavaTypes[i]));
+                            if (value != null) {
+                                codec.setValue(storable, columnLabels[i], value);
+                            }
+                        }
                         storables.add(storable);
-                    }
+                    } while (resultSet.next());
                 }
+            } catch (SQLException e) {
+                log.error("Exception occurred while processing result set.", e);
             }
             return storables;
         }
 
+        /**
+         * Converts the value read from the given column to the type expected by the storables, returns the given value by default.
+         */
+        protected Object convertColumnValue(String columnLabel, Object value) {
+            return value;
+        }
+
         // returns null for empty ResultSet or ResultSet with no rows
         protected List<Map<String, Object>> getMapsFromResultSet(ResultSet resultSet) {
             List<Map<String, Object>> maps = null;
@@ -502,6 +888,7 @@ public abstract class AbstractQueryExecutor implements QueryExecutor {
                     ResultSetMetaData rsMetadata = resultSet.getMetaData();
                     do {
                         Map<String, Object> map = storageDataTypeContext.getMapWithRowContents(resultSet, rsMetadata);
+                        map.replaceAll(this::convertColumnValue);
                         maps.add(map);
                     } while (resultSet.next());
                 }
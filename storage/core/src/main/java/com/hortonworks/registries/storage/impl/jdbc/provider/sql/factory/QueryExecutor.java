@@ -15,6 +15,7 @@
 
 package com.hortonworks.registries.storage.impl.jdbc.provider.sql.factory;
 
+import com.hortonworks.registries.common.Schema;
 import com.hortonworks.registries.storage.transaction.TransactionIsolation;
 import com.hortonworks.registries.storage.OrderByField;
 import com.hortonworks.registries.storage.Storable;
@@ -43,6 +44,13 @@ public interface QueryExecutor {
      */
     void insert(Storable storable);
 
+    /**
+     * Inserts the specified {@link Storable}s in storage with as few round trips as possible, in the given order.
+     * Storables without an id get the ids issued by the storage when the driver reports them for each row, or ids
+     * reserved up front with as few round trips as possible when the storage does not issue ids.
+     */
+    void insertAll(Collection<? extends Storable> storables);
+
     /**
      * Inserts or updates the specified {@link Storable} in storage
      */
@@ -60,6 +68,13 @@ public interface QueryExecutor {
      */
     void delete(StorableKey storableKey);
 
+    /**
+     * Deletes all the entries matching the where clause of the given {@link SearchQuery} with a single statement
+     *
+     * @return the number of rows deleted
+     */
+    int delete(SearchQuery searchQuery);
+
     /**
      * @return all entries in the given namespace
      */
@@ -88,6 +103,14 @@ public interface QueryExecutor {
      */
     <T extends Storable> Collection<T> select(StorableKey storableKey, List<OrderByField> orderByFields);
 
+    /**
+     * Selects the entries in the given {@code namespace} whose value of {@code field} is one of the given {@code values}.
+     * Large collections of values are split into several IN lists.
+     *
+     * @param projectedFields names of the columns to be fetched, all columns are fetched if empty
+     * @return all entries that match any of the given values, with only the projected fields populated
+     */
+    <T extends Storable> Collection<T> selectIn(String namespace, Schema.Field field, Collection<?> values, List<String> projectedFields);
 
     /**
      * @return The next available id for the autoincrement column in the specified {@code namespace}
@@ -125,6 +148,11 @@ public interface QueryExecutor {
      */
     void beginTransaction(TransactionIsolation transactionIsolationLevel);
 
+    /**
+     *  Begins a read only transaction, which opens a connection to the storage only when a query is executed
+     */
+    void beginReadOnlyTransaction(TransactionIsolation transactionIsolationLevel);
+
 
     /**
      *  Discards the changes made to the storage layer and reverts to the last committed point
@@ -137,6 +165,12 @@ public interface QueryExecutor {
      */
     void commitTransaction();
 
+    /**
+     * Runs the given action once the active transaction of the current transaction scope is committed or rolled back,
+     * or right away if the scope has no active transaction
+     */
+    void runAfterTransaction(Runnable action);
+
     /**
      * @return all entries that match the specified {@link StorableKey} with share lock
      */
@@ -147,4 +181,25 @@ public interface QueryExecutor {
      */
     <T extends Storable> Collection<T> selectForUpdate(StorableKey storableKey);
 
+    /**
+     * Same as {@link #selectForShare(StorableKey)} but waits for the lock to be granted by the database for at most
+     * the given time when the current transaction scope has an active transaction.
+     *
+     * @return all entries that match the specified {@link StorableKey} with share lock, empty if the lock is not granted in time
+     */
+    <T extends Storable> Collection<T> selectForShare(StorableKey storableKey, long lockTimeoutInMillis);
+
+    /**
+     * Same as {@link #selectForUpdate(StorableKey)} but waits for the lock to be granted by the database for at most
+     * the given time when the current transaction scope has an active transaction.
+     *
+     * @return all entries that match the specified {@link StorableKey} with update lock, empty if the lock is not granted in time
+     */
+    <T extends Storable> Collection<T> selectForUpdate(StorableKey storableKey, long lockTimeoutInMillis);
+
+    /**
+     * @return true if the current {@link com.hortonworks.registries.storage.transaction.TransactionScope} has an active transaction
+     */
+    boolean hasActiveTransaction();
+
 }
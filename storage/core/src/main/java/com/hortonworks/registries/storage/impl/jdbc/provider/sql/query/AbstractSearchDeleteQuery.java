@@ -0,0 +1,65 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.storage.impl.jdbc.provider.sql.query;
+
+import com.google.common.collect.Lists;
+import com.hortonworks.registries.common.Schema;
+import com.hortonworks.registries.storage.PrimaryKey;
+import com.hortonworks.registries.storage.search.SearchQuery;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Deletes all the rows matching the where clause of a {@link SearchQuery} with a single statement. The order by
+ * fields and the limit of the search query are ignored.
+ */
+public abstract class AbstractSearchDeleteQuery extends AbstractSqlQuery {
+    private final String deleteSql;
+
+    public AbstractSearchDeleteQuery(SearchQuery searchQuery, Schema schema) {
+        tableName = searchQuery.getNameSpace();
+        Map<Schema.Field, Object> fieldsToValues = new LinkedHashMap<>();
+        // built up front as the prepared statements are cached by query
+        String whereClause = AbstractSelectQuery.whereClauseSql(searchQuery.getWhereClause(), schema, fieldEncloser(), fieldsToValues);
+        deleteSql = "DELETE FROM " + fieldEncloser() + tableName + fieldEncloser() + whereClause;
+        primaryKey = new PrimaryKey(fieldsToValues);
+        columns = Lists.newArrayList(fieldsToValues.keySet());
+    }
+
+    protected abstract String fieldEncloser();
+
+    @Override
+    protected String createParameterizedSql() {
+        LOG.debug(deleteSql);
+        return deleteSql;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!super.equals(o)) return false;
+
+        AbstractSearchDeleteQuery that = (AbstractSearchDeleteQuery) o;
+
+        return deleteSql.equals(that.deleteSql);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(super.hashCode(), deleteSql);
+    }
+}
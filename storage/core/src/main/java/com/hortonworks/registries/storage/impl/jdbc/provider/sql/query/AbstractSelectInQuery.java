@@ -0,0 +1,124 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.storage.impl.jdbc.provider.sql.query;
+
+import com.hortonworks.registries.common.Schema;
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Selects the rows whose value of a column is one of the given values, i.e. {@code SELECT ... WHERE col IN (?, ?, ...)}.
+ * Only the given projected columns are selected, or all of them if there are none.
+ * <p>
+ * The IN list is padded to the next of a few fixed sizes by repeating its last value, so that lists of different lengths
+ * share their statement. Two queries are equal when they result in the same parameterized sql, irrespective of the
+ * values to be bound.
+ */
+public abstract class AbstractSelectInQuery extends AbstractSqlQuery {
+    /**
+     * Sizes the IN lists are padded to, a list longer than the largest one is bound as it is.
+     */
+    private static final int[] IN_LIST_SIZES = {1, 10, 50, 100, 250, 500};
+
+    private final Schema.Field field;
+    private final List<String> projectedFields;
+    private final List<Pair<Schema.Field, Object>> bindings;
+
+    public AbstractSelectInQuery(String nameSpace, Schema.Field field, Collection<?> values, List<String> projectedFields) {
+        if (values == null || values.isEmpty()) {
+            throw new IllegalArgumentException("At least one value must be given for the IN clause");
+        }
+        this.tableName = nameSpace;
+        this.field = field;
+        this.projectedFields = projectedFields != null ? projectedFields : Collections.emptyList();
+        this.columns = Collections.singletonList(field);
+        this.bindings = new ArrayList<>(paddedSize(values.size()));
+        for (Object value : values) {
+            bindings.add(Pair.of(field, value));
+        }
+        Pair<Schema.Field, Object> last = bindings.get(bindings.size() - 1);
+        while (bindings.size() < paddedSize(values.size())) {
+            bindings.add(last);
+        }
+    }
+
+    private static int paddedSize(int size) {
+        for (int inListSize : IN_LIST_SIZES) {
+            if (size <= inListSize) {
+                return inListSize;
+            }
+        }
+        return size;
+    }
+
+    protected abstract String fieldEncloser();
+
+    /**
+     * @return the expression compared against the values in the where clause
+     */
+    protected String whereClauseColumn(Schema.Field field) {
+        return fieldEncloser() + field.getName() + fieldEncloser();
+    }
+
+    @Override
+    protected String createParameterizedSql() {
+        String fq = fieldEncloser();
+        String selectedColumns = projectedFields.isEmpty()
+                ? "*"
+                : join(projectedFields.stream().map(x -> fq + x + fq).collect(Collectors.toList()), ", ");
+
+        String sql = "SELECT " + selectedColumns + " FROM " + fq + tableName + fq
+                + " WHERE " + whereClauseColumn(field) + " IN (" + getBindVariables("?,", bindings.size()) + ")";
+        LOG.debug(sql);
+        return sql;
+    }
+
+    public List<Pair<Schema.Field, Object>> getBindings() {
+        return bindings;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        if (!super.equals(o)) return false;
+
+        AbstractSelectInQuery that = (AbstractSelectInQuery) o;
+
+        return bindings.size() == that.bindings.size() && projectedFields.equals(that.projectedFields);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = super.hashCode();
+        result = 31 * result + bindings.size();
+        result = 31 * result + projectedFields.hashCode();
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "AbstractSelectInQuery{" +
+                "field=" + field +
+                ", projectedFields=" + projectedFields +
+                ", bindings=" + bindings +
+                '}' + super.toString();
+    }
+}
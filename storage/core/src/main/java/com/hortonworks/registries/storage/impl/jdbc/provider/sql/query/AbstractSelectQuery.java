@@ -73,6 +73,12 @@ public abstract class AbstractSelectQuery extends AbstractStorableKeyQuery {
     protected abstract String getParameterizedSql();
     protected abstract String orderBySql();
 
+    /**
+     * @return the clause skipping the given number of rows of the result of a search query and limiting it to the given
+     * number of rows, which is appended after the order by clause
+     */
+    protected abstract String limitSql(int offset, int limit);
+
     @Override
     protected final String createParameterizedSql() {
         if (searchQuery != null) {
@@ -90,33 +96,8 @@ public abstract class AbstractSelectQuery extends AbstractStorableKeyQuery {
     protected String buildSqlWithSearchQuery(SearchQuery searchQuery, Schema schema) {
         String sql = "SELECT * FROM " + fieldEncloser() + tableName + fieldEncloser();
 
-        WhereClause whereClause = searchQuery.getWhereClause();
         Map<Schema.Field, Object> fieldsToValues = new LinkedHashMap<Schema.Field, Object>() {};
-        if (whereClause != null) {
-            sql += " WHERE";
-            StringBuilder clauseString = new StringBuilder();
-            for (PredicateCombinerPair predicateCombinerPair : whereClause.getPredicateCombinerPairs()) {
-                WhereClauseCombiner.Operation combinerOperation = predicateCombinerPair.getCombinerOperation();
-
-                Predicate predicate = predicateCombinerPair.getPredicate();
-                clauseString.append(generateClauseString(predicate, fieldsToValues, schema));
-                if (combinerOperation != null) {
-                    String opStr;
-                    switch (combinerOperation) {
-                        case ENCL_START:
-                            opStr = " ( ";
-                            break;
-                        case ENCL_FINISH:
-                            opStr = " ) ";
-                            break;
-                        default:
-                            opStr = " " + combinerOperation.toString();
-                    }
-                    clauseString.append(opStr);
-                }
-            }
-            sql += clauseString;
-        }
+        sql += whereClauseSql(searchQuery.getWhereClause(), schema, fieldEncloser(), fieldsToValues);
 
         List<OrderBy> orderByFields = searchQuery.getOrderByFields();
         if (orderByFields != null && !orderByFields.isEmpty()) {
@@ -128,6 +109,11 @@ public abstract class AbstractSelectQuery extends AbstractStorableKeyQuery {
             );
         }
 
+        if (searchQuery.getLimit() != null || searchQuery.getOffset() != null) {
+            sql += limitSql(searchQuery.getOffset() != null ? searchQuery.getOffset() : 0,
+                            searchQuery.getLimit() != null ? searchQuery.getLimit() : Integer.MAX_VALUE);
+        }
+
         primaryKey = new PrimaryKey(fieldsToValues);
         columns = Lists.newArrayList(fieldsToValues.keySet());
 
@@ -136,14 +122,50 @@ public abstract class AbstractSelectQuery extends AbstractStorableKeyQuery {
 
     protected abstract String fieldEncloser();
 
-    private String generateClauseString(Predicate predicate, Map<Schema.Field, Object> fieldsToValues, Schema schema) {
+    /**
+     * @return the where clause of a search query, or an empty string if the search query has no where clause. The
+     * fields compared by the clause are put with their values in {@code fieldsToValues}, in the order of their bind
+     * variables.
+     */
+    static String whereClauseSql(WhereClause whereClause,
+                                 Schema schema,
+                                 String fieldEncloser,
+                                 Map<Schema.Field, Object> fieldsToValues) {
+        if (whereClause == null) {
+            return "";
+        }
+
+        StringBuilder clauseString = new StringBuilder(" WHERE");
+        for (PredicateCombinerPair predicateCombinerPair : whereClause.getPredicateCombinerPairs()) {
+            WhereClauseCombiner.Operation combinerOperation = predicateCombinerPair.getCombinerOperation();
+
+            Predicate predicate = predicateCombinerPair.getPredicate();
+            clauseString.append(generateClauseString(predicate, fieldsToValues, schema, fieldEncloser));
+            if (combinerOperation != null) {
+                String opStr;
+                switch (combinerOperation) {
+                    case ENCL_START:
+                        opStr = " ( ";
+                        break;
+                    case ENCL_FINISH:
+                        opStr = " ) ";
+                        break;
+                    default:
+                        opStr = " " + combinerOperation.toString();
+                }
+                clauseString.append(opStr);
+            }
+        }
+        return clauseString.toString();
+    }
+
+    private static String generateClauseString(Predicate predicate, Map<Schema.Field, Object> fieldsToValues, Schema schema, String fq) {
         if(predicate == null) {
             return "";
         }
 
         String result;
         Predicate.Operation operation = predicate.getOperation();
-        String fq = fieldEncloser();
 
         Object predicateValue = predicate.getValue();
         switch (operation) {
@@ -43,6 +43,11 @@ public class SqlSelectQuery extends AbstractSelectQuery {
         return sql;
     }
 
+    @Override
+    protected String limitSql(int offset, int limit) {
+        return " LIMIT " + limit + (offset > 0 ? " OFFSET " + offset : "");
+    }
+
     // "SELECT * FROM DB.TABLE [WHERE C1 = ?, C2 = ?]"
     @Override
     protected String getParameterizedSql() {
@@ -103,6 +103,11 @@ public class DefaultStorageDataTypeContext implements StorageDataTypeContext {
         return map;
     }
 
+    @Override
+    public Object getColumnValue(ResultSet resultSet, String columnLabel, Class columnJavaType) throws SQLException {
+        return getJavaObject(columnJavaType, columnLabel, resultSet);
+    }
+
     protected int getSqlType(Schema.Type type) {
         switch (type) {
             case BOOLEAN:
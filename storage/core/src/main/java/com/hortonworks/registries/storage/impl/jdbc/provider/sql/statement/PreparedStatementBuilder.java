@@ -19,6 +19,7 @@ package com.hortonworks.registries.storage.impl.jdbc.provider.sql.statement;
 import com.hortonworks.registries.common.Schema;
 import com.hortonworks.registries.storage.exception.MalformedQueryException;
 import com.hortonworks.registries.storage.impl.jdbc.config.ExecutionConfig;
+import com.hortonworks.registries.storage.impl.jdbc.provider.sql.query.AbstractSelectInQuery;
 import com.hortonworks.registries.storage.impl.jdbc.provider.sql.query.AbstractStorableKeyQuery;
 import com.hortonworks.registries.storage.impl.jdbc.provider.sql.query.AbstractStorableSqlQuery;
 import com.hortonworks.registries.storage.impl.jdbc.provider.sql.query.AbstractStorableUpdateQuery;
@@ -164,6 +165,8 @@ public class PreparedStatementBuilder {
         // If more types become available consider subclassing instead of going with this approach, which was chosen here for simplicity
         if (sqlBuilder instanceof AbstractStorableUpdateQuery) {
             setStorableUpdatePreparedStatement((AbstractStorableUpdateQuery)sqlBuilder);
+        } else if (sqlBuilder instanceof AbstractSelectInQuery) {
+            setBindingsPreparedStatement(((AbstractSelectInQuery) sqlBuilder).getBindings());
         } else if (sqlBuilder instanceof AbstractStorableKeyQuery) {
             setStorableKeyPreparedStatement(sqlBuilder);
         } else if (sqlBuilder instanceof AbstractStorableSqlQuery) {
@@ -189,7 +192,10 @@ public class PreparedStatementBuilder {
     }
 
     private void setStorableUpdatePreparedStatement(AbstractStorableUpdateQuery updateQuery) throws SQLException {
-        List<Pair<Schema.Field, Object>> bindings = updateQuery.getBindings();
+        setBindingsPreparedStatement(updateQuery.getBindings());
+    }
+
+    private void setBindingsPreparedStatement(List<Pair<Schema.Field, Object>> bindings) throws SQLException {
         for (int i = 0; i < bindings.size(); i++) {
             Pair<Schema.Field, Object> binding = bindings.get(i);
             Schema.Type javaType = binding.getKey().getType();
@@ -36,4 +36,9 @@ public interface StorageDataTypeContext {
      */
 
     Map<String, Object> getMapWithRowContents(ResultSet resultSet, ResultSetMetaData rsMetadata) throws SQLException;
+
+    /**
+     * Given a resultSet returns the value of the given column in the current row as an instance of the given Java type
+     */
+    Object getColumnValue(ResultSet resultSet, String columnLabel, Class columnJavaType) throws SQLException;
 }
@@ -0,0 +1,213 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.storage.impl.memory;
+
+import com.hortonworks.registries.common.QueryParam;
+import com.hortonworks.registries.common.util.ReflectionHelper;
+import com.hortonworks.registries.storage.PrimaryKey;
+import com.hortonworks.registries.storage.Storable;
+import com.hortonworks.registries.storage.annotation.SearchableField;
+import com.hortonworks.registries.storage.catalog.StorableCodec;
+import com.hortonworks.registries.storage.exception.StorageException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Storables of a namespace in {@link InMemoryStorageManager} with hash based secondary indexes on their fields.
+ * <p>
+ * Fields annotated with {@link SearchableField} are indexed upfront, any other field is indexed when it is queried
+ * for the first time. Indexes map the string value of a field, which is what {@link QueryParam}s are compared with,
+ * to the primary keys of the storables having that value and they are maintained on every put and remove.
+ */
+class InMemoryNamespace {
+    private static final Logger LOG = LoggerFactory.getLogger(InMemoryNamespace.class);
+
+    private final ConcurrentHashMap<PrimaryKey, Storable> storables = new ConcurrentHashMap<>();
+    // field name -> string value of the field -> primary keys of the storables with that value
+    private final Map<String, Map<String, Set<PrimaryKey>>> indexes = new HashMap<>();
+    // values with which a storable is indexed, as storables may be modified in place before they are updated
+    private final Map<PrimaryKey, Map<String, String>> indexedValues = new HashMap<>();
+
+    InMemoryNamespace(Class<?> storableClass) {
+        for (Class<?> clazz = storableClass; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+            for (Field field : clazz.getDeclaredFields()) {
+                if (field.getAnnotation(SearchableField.class) != null) {
+                    indexes.put(field.getName(), new HashMap<>());
+                }
+            }
+        }
+    }
+
+    Collection<Storable> values() {
+        return storables.values();
+    }
+
+    Storable get(PrimaryKey primaryKey) {
+        return storables.get(primaryKey);
+    }
+
+    boolean contains(PrimaryKey primaryKey) {
+        return storables.containsKey(primaryKey);
+    }
+
+    synchronized void put(PrimaryKey primaryKey, Storable storable) {
+        storables.put(primaryKey, storable);
+        unindex(primaryKey);
+        index(primaryKey, storable);
+    }
+
+    synchronized Storable remove(PrimaryKey primaryKey) {
+        unindex(primaryKey);
+        return storables.remove(primaryKey);
+    }
+
+    /**
+     * @return storables matching all the given query params, looked up in the index of the most selective of them
+     */
+    synchronized List<Storable> find(List<QueryParam> queryParams) {
+        if (queryParams.isEmpty()) {
+            return new ArrayList<>(storables.values());
+        }
+
+        Set<PrimaryKey> candidates = null;
+        for (QueryParam queryParam : queryParams) {
+            Set<PrimaryKey> primaryKeys = getOrCreateIndex(queryParam.getName()).get(queryParam.getValue());
+            if (primaryKeys == null) {
+                return new ArrayList<>();
+            }
+            if (candidates == null || primaryKeys.size() < candidates.size()) {
+                candidates = primaryKeys;
+            }
+        }
+
+        List<Storable> result = new ArrayList<>(candidates.size());
+        for (PrimaryKey primaryKey : candidates) {
+            Storable storable = storables.get(primaryKey);
+            if (storable != null && matches(storable, queryParams)) {
+                result.add(storable);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return storables whose given field has one of the given string values
+     */
+    synchronized List<Storable> findIn(String fieldName, Collection<String> values) {
+        Map<String, Set<PrimaryKey>> index = getOrCreateIndex(fieldName);
+        List<Storable> result = new ArrayList<>();
+        for (String value : values) {
+            for (PrimaryKey primaryKey : index.getOrDefault(value, Collections.emptySet())) {
+                Storable storable = storables.get(primaryKey);
+                if (storable != null && value.equals(toIndexValue(storable, fieldName))) {
+                    result.add(storable);
+                }
+            }
+        }
+        return result;
+    }
+
+    private boolean matches(Storable storable, List<QueryParam> queryParams) {
+        for (QueryParam queryParam : queryParams) {
+            if (!queryParam.getValue().equals(toIndexValue(storable, queryParam.getName()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Map<String, Set<PrimaryKey>> getOrCreateIndex(String fieldName) {
+        Map<String, Set<PrimaryKey>> index = indexes.get(fieldName);
+        if (index == null) {
+            LOG.debug("Creating index on field [{}]", fieldName);
+            index = new HashMap<>();
+            indexes.put(fieldName, index);
+            for (Map.Entry<PrimaryKey, Storable> entry : storables.entrySet()) {
+                addToIndex(fieldName, index, entry.getKey(), entry.getValue());
+            }
+        }
+        return index;
+    }
+
+    private void index(PrimaryKey primaryKey, Storable storable) {
+        for (Map.Entry<String, Map<String, Set<PrimaryKey>>> entry : indexes.entrySet()) {
+            addToIndex(entry.getKey(), entry.getValue(), primaryKey, storable);
+        }
+    }
+
+    private void addToIndex(String fieldName, Map<String, Set<PrimaryKey>> index, PrimaryKey primaryKey, Storable storable) {
+        String value = toIndexValue(storable, fieldName);
+        if (value != null) {
+            index.computeIfAbsent(value, x -> new HashSet<>()).add(primaryKey);
+            indexedValues.computeIfAbsent(primaryKey, x -> new HashMap<>()).put(fieldName, value);
+        }
+    }
+
+    private void unindex(PrimaryKey primaryKey) {
+        Map<String, String> values = indexedValues.remove(primaryKey);
+        if (values != null) {
+            for (Map.Entry<String, String> entry : values.entrySet()) {
+                Map<String, Set<PrimaryKey>> index = indexes.get(entry.getKey());
+                Set<PrimaryKey> primaryKeys = index.get(entry.getValue());
+                if (primaryKeys != null) {
+                    primaryKeys.remove(primaryKey);
+                    if (primaryKeys.isEmpty()) {
+                        index.remove(entry.getValue());
+                    }
+                }
+            }
+        }
+    }
+
+    // returns null when the field value is null or it can not be accessed, such storables never match a query param.
+    private static String toIndexValue(Storable storable, String fieldName) {
+        try {
+            Object value = getFieldValue(storable, fieldName);
+            return value != null ? value.toString() : null;
+        } catch (StorageException e) {
+            LOG.error("FAILED to invoke getter for field {} , is your field name correct?", fieldName, e);
+            return null;
+        }
+    }
+
+    /**
+     * Returns the value of the given field, with the getter resolved by {@link StorableCodec} for instance fields
+     * and by reflection for any other property.
+     */
+    static Object getFieldValue(Storable storable, String fieldName) {
+        StorableCodec codec = StorableCodec.of(storable.getClass());
+        if (codec.hasGetter(fieldName)) {
+            return codec.getValue(storable, fieldName);
+        }
+        try {
+            return ReflectionHelper.invokeGetter(fieldName, storable);
+        } catch (NoSuchMethodException | InvocationTargetException | IllegalAccessException e) {
+            throw new StorageException(e);
+        }
+    }
+}
@@ -18,7 +18,6 @@ package com.hortonworks.registries.storage.impl.memory;
 
 import com.google.common.collect.Lists;
 import com.hortonworks.registries.common.QueryParam;
-import com.hortonworks.registries.common.util.ReflectionHelper;
 import com.hortonworks.registries.storage.OrderByField;
 import com.hortonworks.registries.storage.PrimaryKey;
 import com.hortonworks.registries.storage.Storable;
@@ -26,26 +25,30 @@ import com.hortonworks.registries.storage.StorableKey;
 import com.hortonworks.registries.storage.StorageManager;
 import com.hortonworks.registries.storage.exception.AlreadyExistsException;
 import com.hortonworks.registries.storage.exception.StorageException;
+import com.hortonworks.registries.storage.search.OrderBy;
+import com.hortonworks.registries.storage.search.Predicate;
 import com.hortonworks.registries.storage.search.SearchQuery;
+import com.hortonworks.registries.storage.search.WhereClause;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 //TODO: The synchronization is broken right now, so all the methods don't guarantee the semantics as described in the interface.
 public class InMemoryStorageManager implements StorageManager {
     private static final Logger LOG = LoggerFactory.getLogger(InMemoryStorageManager.class);
 
-    private final ConcurrentHashMap<String, ConcurrentHashMap<PrimaryKey, Storable>> storageMap = new ConcurrentHashMap<String, ConcurrentHashMap<PrimaryKey, Storable>>();
+    private final ConcurrentHashMap<String, InMemoryNamespace> storageMap = new ConcurrentHashMap<>();
     private final ConcurrentHashMap<String, AtomicLong> sequenceMap = new ConcurrentHashMap<>();
-    private final ConcurrentHashMap<String, Class<?>> nameSpaceClassMap = new ConcurrentHashMap<String, Class<?>>();
 
     @Override
     public void init(Map<String, Object> properties) {
@@ -67,62 +70,34 @@ public class InMemoryStorageManager implements StorageManager {
 
     @Override
     public <T extends Storable> T remove(StorableKey key) throws StorageException {
-        if (storageMap.containsKey(key.getNameSpace())) {
-            return (T) storageMap.get(key.getNameSpace()).remove(key.getPrimaryKey());
-        }
-        return null;
+        InMemoryNamespace storables = storageMap.get(key.getNameSpace());
+        return storables != null ? (T) storables.remove(key.getPrimaryKey()) : null;
     }
 
     @Override
     public void addOrUpdate(Storable storable) {
         String namespace = storable.getNameSpace();
         PrimaryKey id = storable.getPrimaryKey();
-        if (!storageMap.containsKey(namespace)) {
-            storageMap.putIfAbsent(namespace, new ConcurrentHashMap<PrimaryKey, Storable>());
-            nameSpaceClassMap.putIfAbsent(namespace, storable.getClass());
-        }
-        if (!storageMap.get(namespace).containsKey(id)) {
+        InMemoryNamespace storables = storageMap.computeIfAbsent(namespace, x -> new InMemoryNamespace(storable.getClass()));
+        if (!storables.contains(id)) {
             nextId(namespace);
         }
-        storageMap.get(namespace).put(id, storable);
+        storables.put(id, storable);
     }
 
     @Override
     public void update(Storable storable) {
-        String namespace = storable.getNameSpace();
-        PrimaryKey pk = storable.getPrimaryKey();
-        if (!storageMap.containsKey(namespace)) {
+        InMemoryNamespace storables = storageMap.get(storable.getNameSpace());
+        if (storables == null) {
             throw new StorageException("Row could not be updated");
         }
-        storageMap.get(namespace).put(pk, storable);
+        storables.put(storable.getPrimaryKey(), storable);
     }
 
     @Override
     public <T extends Storable> T get(StorableKey key) throws StorageException {
-        return storageMap.containsKey(key.getNameSpace())
-                ? (T) storageMap.get(key.getNameSpace()).get(key.getPrimaryKey())
-                : null;
-    }
-
-    /**
-     * Uses reflection to query the field or the method. Assumes
-     * a public getXXX method is available to get the field value.
-     */
-    private boolean matches(Storable val, List<QueryParam> queryParams, Class<?> clazz) {
-        Object fieldValue;
-        boolean res = true;
-            for (QueryParam qp : queryParams) {
-                try {
-                    fieldValue = ReflectionHelper.invokeGetter(qp.name, val);
-                    if (!fieldValue.toString().equals(qp.value)) {
-                        return false;
-                    }
-                } catch (InvocationTargetException | NoSuchMethodException | IllegalAccessException e) {
-                    LOG.error("FAILED to invoke getter for query param {} , is your param name correct?", qp.getName(), e);
-                    return false;
-                }
-            }
-        return res;
+        InMemoryNamespace storables = storageMap.get(key.getNameSpace());
+        return storables != null ? (T) storables.get(key.getPrimaryKey()) : null;
     }
 
     public <T extends Storable> Collection<T> find(final String namespace,
@@ -140,67 +115,110 @@ public class InMemoryStorageManager implements StorageManager {
             Collection<T> collection = list(namespace);
             storables = Lists.newArrayList(collection);
         } else {
-            Class<?> clazz = nameSpaceClassMap.get(namespace);
-            if (clazz != null) {
-                Map<PrimaryKey, Storable> storableMap = storageMap.get(namespace);
-                if (storableMap != null) {
-                    for (Storable val : storableMap.values()) {
-                        if (matches(val, queryParams, clazz)) {
-                            storables.add((T) val);
-                        }
-                    }
-                }
+            InMemoryNamespace namespaceStorables = storageMap.get(namespace);
+            if (namespaceStorables != null) {
+                storables = (List<T>) namespaceStorables.find(queryParams);
             }
         }
 
+        sort(storables, orderByFields);
+
+        return storables;
+    }
+
+    private static <T extends Storable> void sort(List<T> storables, List<OrderByField> orderByFields) {
         if (orderByFields != null && !orderByFields.isEmpty()) {
             storables.sort((storable1, storable2) -> {
-                try {
-                    for (OrderByField orderByField : orderByFields) {
-                        Comparable value1 = ReflectionHelper.invokeGetter(orderByField.getFieldName(), storable1);
-                        Comparable value2 = ReflectionHelper.invokeGetter(orderByField.getFieldName(), storable2);
-                        int compareTo;
-                        // same values continue
-                        if(value1 == value2) {
-                            continue;
-                        } else if(value1 == null) {
-                            // value2 is non null
-                            compareTo = -1;
-                        } else if(value2 == null) {
-                            // value1 is non null
-                            compareTo = 1;
-                        } else {
-                            // both value and value2 non null
-                            compareTo = value1.compareTo(value2);
-                        }
-
-                        if (compareTo == 0) {
-                            continue;
-                        }
-                        return orderByField.isDescending() ? -compareTo : compareTo;
+                for (OrderByField orderByField : orderByFields) {
+                    Comparable value1 = (Comparable) InMemoryNamespace.getFieldValue(storable1, orderByField.getFieldName());
+                    Comparable value2 = (Comparable) InMemoryNamespace.getFieldValue(storable2, orderByField.getFieldName());
+                    int compareTo;
+                    // same values continue
+                    if(value1 == value2) {
+                        continue;
+                    } else if(value1 == null) {
+                        // value2 is non null
+                        compareTo = -1;
+                    } else if(value2 == null) {
+                        // value1 is non null
+                        compareTo = 1;
+                    } else {
+                        // both value and value2 non null
+                        compareTo = value1.compareTo(value2);
+                    }
+
+                    if (compareTo == 0) {
+                        continue;
                     }
-                } catch (Exception e) {
-                    throw new RuntimeException(e);
+                    return orderByField.isDescending() ? -compareTo : compareTo;
                 }
 
                 // all group by fields are matched means equal
                 return 0;
             });
         }
+    }
 
-        return storables;
+    @Override
+    public <T extends Storable> Collection<T> findIn(String namespace,
+                                                     String fieldName,
+                                                     Collection<?> values,
+                                                     List<String> projectedFields) throws StorageException {
+        InMemoryNamespace storables = storageMap.get(namespace);
+        if (storables == null || values == null || values.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Set<String> stringValues = values.stream().map(String::valueOf).collect(Collectors.toCollection(LinkedHashSet::new));
+        return (Collection<T>) storables.findIn(fieldName, stringValues);
     }
 
     @Override
     public <T extends Storable> Collection<T> search(SearchQuery searchQuery) {
-        LOG.warn("This storage manager does not support search query, returning all instances with the given namespace [{}]", searchQuery.getNameSpace());
-        return list(searchQuery.getNameSpace());
+        InMemoryNamespace storables = storageMap.get(searchQuery.getNameSpace());
+        if (storables == null) {
+            return new ArrayList<>();
+        }
+
+        List<T> result = new ArrayList<>();
+        WhereClause whereClause = searchQuery.getWhereClause();
+        if (whereClause == null) {
+            result.addAll((Collection<T>) storables.values());
+        } else {
+            // narrow down the candidates with an index when all the results must match an equality predicate
+            Predicate eqPredicate = WhereClauseEvaluator.getRequiredStringEqPredicate(whereClause);
+            Collection<Storable> candidates = eqPredicate != null
+                    ? storables.find(Collections.singletonList(new QueryParam(eqPredicate.getField(), (String) eqPredicate.getValue())))
+                    : storables.values();
+            WhereClauseEvaluator.Condition condition = WhereClauseEvaluator.of(whereClause);
+            for (Storable storable : candidates) {
+                if (condition.matches(storable)) {
+                    result.add((T) storable);
+                }
+            }
+        }
+
+        List<OrderBy> orderByFields = searchQuery.getOrderByFields();
+        if (orderByFields != null) {
+            sort(result, orderByFields.stream()
+                                      .map(x -> OrderByField.of(x.getFieldName(), !x.isAsc()))
+                                      .collect(Collectors.toList()));
+        }
+
+        int offset = searchQuery.getOffset() != null ? Math.min(searchQuery.getOffset(), result.size()) : 0;
+        Integer limit = searchQuery.getLimit();
+        if (offset > 0 || (limit != null && limit < result.size())) {
+            int end = limit != null ? (int) Math.min((long) offset + limit, result.size()) : result.size();
+            return new ArrayList<>(result.subList(offset, end));
+        }
+
+        return result;
     }
 
     @Override
     public <T extends Storable> Collection<T> list(String namespace) throws StorageException {
-        return storageMap.containsKey(namespace)
-                ? (Collection<T>) storageMap.get(namespace).values() : Collections.<T>emptyList();
+        InMemoryNamespace storables = storageMap.get(namespace);
+        return storables != null ? (Collection<T>) storables.values() : Collections.<T>emptyList();
     }
 
     @Override
@@ -0,0 +1,163 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.storage.impl.memory;
+
+import com.hortonworks.registries.storage.Storable;
+import com.hortonworks.registries.storage.search.Predicate;
+import com.hortonworks.registries.storage.search.PredicateCombinerPair;
+import com.hortonworks.registries.storage.search.WhereClause;
+import com.hortonworks.registries.storage.search.WhereClauseCombiner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Evaluates a {@link WhereClause} against storables with the same semantics as the sql generated for it by the jdbc
+ * storage providers, i.e. AND takes precedence over OR and null field values do not match any predicate.
+ */
+class WhereClauseEvaluator {
+
+    interface Condition {
+        boolean matches(Storable storable);
+    }
+
+    // predicates and combiner operations in the order they appear in the sql
+    private final List<Object> tokens = new ArrayList<>();
+    private final Condition condition;
+    private int position;
+
+    private WhereClauseEvaluator(WhereClause whereClause) {
+        for (PredicateCombinerPair predicateCombinerPair : whereClause.getPredicateCombinerPairs()) {
+            if (predicateCombinerPair.getPredicate() != null) {
+                tokens.add(predicateCombinerPair.getPredicate());
+            }
+            if (predicateCombinerPair.getCombinerOperation() != null) {
+                tokens.add(predicateCombinerPair.getCombinerOperation());
+            }
+        }
+        condition = tokens.isEmpty() ? storable -> true : parseOr();
+        if (position != tokens.size()) {
+            throw new IllegalArgumentException("Invalid where clause: " + whereClause);
+        }
+    }
+
+    static Condition of(WhereClause whereClause) {
+        return new WhereClauseEvaluator(whereClause).condition;
+    }
+
+    /**
+     * @return an EQ predicate with a string value which must be matched by all the results of the given where clause,
+     * or null if there is no such predicate.
+     */
+    static Predicate getRequiredStringEqPredicate(WhereClause whereClause) {
+        Predicate result = null;
+        for (PredicateCombinerPair predicateCombinerPair : whereClause.getPredicateCombinerPairs()) {
+            if (predicateCombinerPair.getCombinerOperation() == WhereClauseCombiner.Operation.OR) {
+                return null;
+            }
+            Predicate predicate = predicateCombinerPair.getPredicate();
+            if (result == null && predicate != null
+                    && predicate.getOperation() == Predicate.Operation.EQ && predicate.getValue() instanceof String) {
+                result = predicate;
+            }
+        }
+        return result;
+    }
+
+    private Condition parseOr() {
+        Condition left = parseAnd();
+        while (accept(WhereClauseCombiner.Operation.OR)) {
+            Condition first = left;
+            Condition second = parseAnd();
+            left = storable -> first.matches(storable) || second.matches(storable);
+        }
+        return left;
+    }
+
+    private Condition parseAnd() {
+        Condition left = parsePrimary();
+        while (accept(WhereClauseCombiner.Operation.AND)) {
+            Condition first = left;
+            Condition second = parsePrimary();
+            left = storable -> first.matches(storable) && second.matches(storable);
+        }
+        return left;
+    }
+
+    private Condition parsePrimary() {
+        if (accept(WhereClauseCombiner.Operation.ENCL_START)) {
+            Condition enclosed = parseOr();
+            if (!accept(WhereClauseCombiner.Operation.ENCL_FINISH)) {
+                throw new IllegalArgumentException("Unbalanced enclosure in where clause at " + position);
+            }
+            return enclosed;
+        }
+        if (position < tokens.size() && tokens.get(position) instanceof Predicate) {
+            Predicate predicate = (Predicate) tokens.get(position++);
+            return storable -> evaluate(predicate, InMemoryNamespace.getFieldValue(storable, predicate.getField()));
+        }
+        throw new IllegalArgumentException("Expected a predicate in where clause at " + position);
+    }
+
+    private boolean accept(WhereClauseCombiner.Operation operation) {
+        if (position < tokens.size() && tokens.get(position) == operation) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean evaluate(Predicate predicate, Object fieldValue) {
+        Object value = predicate.getValue();
+        if (fieldValue == null || value == null) {
+            return false;
+        }
+        switch (predicate.getOperation()) {
+            case CONTAINS:
+                return fieldValue.toString().contains(value.toString());
+            case EQ:
+                return compare(fieldValue, value) == 0;
+            case GT:
+                return compare(fieldValue, value) > 0;
+            case GTE:
+                return compare(fieldValue, value) >= 0;
+            case LT:
+                return compare(fieldValue, value) < 0;
+            case LTE:
+                return compare(fieldValue, value) <= 0;
+            default:
+                throw new IllegalArgumentException("Given operation " + predicate.getOperation() + " is not supported!");
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compare(Object fieldValue, Object value) {
+        if (fieldValue instanceof Number && value instanceof Number) {
+            if (isIntegral(fieldValue) && isIntegral(value)) {
+                return Long.compare(((Number) fieldValue).longValue(), ((Number) value).longValue());
+            }
+            return Double.compare(((Number) fieldValue).doubleValue(), ((Number) value).doubleValue());
+        }
+        if (fieldValue instanceof Comparable && fieldValue.getClass().isInstance(value)) {
+            return ((Comparable<Object>) fieldValue).compareTo(value);
+        }
+        return fieldValue.toString().compareTo(value.toString());
+    }
+
+    private static boolean isIntegral(Object value) {
+        return value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte;
+    }
+}
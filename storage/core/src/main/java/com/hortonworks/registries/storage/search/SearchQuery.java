@@ -33,6 +33,8 @@ public class SearchQuery implements Serializable {
     private String nameSpace;
     private List<OrderBy> orderByFields;
     private WhereClause whereClause;
+    private Integer limit;
+    private Integer offset;
 
     private SearchQuery() {
     }
@@ -62,6 +64,36 @@ public class SearchQuery implements Serializable {
         return this;
     }
 
+    /**
+     * Limits the result to the given number of storables. Together with a {@code gt} predicate on the last returned key
+     * and ordering by that key, this can be used to fetch a large result page by page.
+     */
+    public SearchQuery limit(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit should not be negative: " + limit);
+        }
+        if (this.limit != null) {
+            throw new IllegalArgumentException("limit is already defined for this search query.");
+        }
+        this.limit = limit;
+        return this;
+    }
+
+    /**
+     * Skips the given number of storables before the result starts. Unlike a keyset page the storage still has to step
+     * over the skipped rows, but they are neither transferred nor materialized.
+     */
+    public SearchQuery offset(int offset) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("offset should not be negative: " + offset);
+        }
+        if (this.offset != null) {
+            throw new IllegalArgumentException("offset is already defined for this search query.");
+        }
+        this.offset = offset;
+        return this;
+    }
+
     public String getNameSpace() {
         return nameSpace;
     }
@@ -74,12 +106,22 @@ public class SearchQuery implements Serializable {
         return whereClause;
     }
 
+    public Integer getLimit() {
+        return limit;
+    }
+
+    public Integer getOffset() {
+        return offset;
+    }
+
     @Override
     public String toString() {
         return "SearchQuery{" +
                 "nameSpace='" + nameSpace + '\'' +
                 ", orderByFields=" + orderByFields +
                 ", clause=" + whereClause +
+                ", limit=" + limit +
+                ", offset=" + offset +
                 '}';
     }
 
@@ -93,7 +135,9 @@ public class SearchQuery implements Serializable {
         if (nameSpace != null ? !nameSpace.equals(that.nameSpace) : that.nameSpace != null) return false;
         if (orderByFields != null ? !orderByFields.equals(that.orderByFields) : that.orderByFields != null)
             return false;
-        return whereClause != null ? whereClause.equals(that.whereClause) : that.whereClause == null;
+        if (whereClause != null ? !whereClause.equals(that.whereClause) : that.whereClause != null) return false;
+        if (limit != null ? !limit.equals(that.limit) : that.limit != null) return false;
+        return offset != null ? offset.equals(that.offset) : that.offset == null;
     }
 
     @Override
@@ -101,6 +145,8 @@ public class SearchQuery implements Serializable {
         int result = nameSpace != null ? nameSpace.hashCode() : 0;
         result = 31 * result + (orderByFields != null ? orderByFields.hashCode() : 0);
         result = 31 * result + (whereClause != null ? whereClause.hashCode() : 0);
+        result = 31 * result + (limit != null ? limit.hashCode() : 0);
+        result = 31 * result + (offset != null ? offset.hashCode() : 0);
         return result;
     }
 
@@ -19,61 +19,102 @@ package com.hortonworks.registries.storage.transaction;
 import com.hortonworks.registries.storage.exception.TransactionException;
 
 import java.sql.Connection;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.List;
+import java.util.function.Supplier;
 
+/**
+ * Keeps track of the transactions of a query executor, which are held by the current {@link TransactionScope}.
+ */
 public class TransactionBookKeeper {
 
-    protected final ConcurrentHashMap<Long, TransactionContext> threadIdToConnectionMap = new ConcurrentHashMap<>();
+    public boolean hasActiveTransaction() {
+        TransactionContext transactionContext = getContext();
+        return transactionContext != null && transactionContext.getNestedTransactionCount() != 0;
+    }
 
-    public boolean hasActiveTransaction(Long threadId) {
-        return threadIdToConnectionMap.containsKey(threadId) && threadIdToConnectionMap.get(threadId).getNestedTransactionCount() != 0;
+    public Connection getConnection() {
+        return getContext().getConnection();
     }
 
-    public Connection getConnection(Long threadId) {
-        return threadIdToConnectionMap.get(threadId).getConnection();
+    public void addTransaction(Connection connection) {
+        addContext(new TransactionContext(connection));
     }
 
-    public void addTransaction(Long threadId, Connection connection) {
-        if (!threadIdToConnectionMap.containsKey(threadId)) {
-            threadIdToConnectionMap.put(threadId, new TransactionContext(connection));
-        } else {
-            throw new TransactionException(String.format("A transaction is already associated with thread id : %s", Long.toString(threadId)));
+    /**
+     * Adds a read only transaction whose connection is opened with the given supplier only when it is first used.
+     */
+    public void addReadOnlyTransaction(Supplier<Connection> connectionSupplier) {
+        addContext(new TransactionContext(connectionSupplier));
+    }
+
+    private void addContext(TransactionContext transactionContext) {
+        TransactionScope scope = TransactionScope.current();
+        if (scope.putContextIfAbsent(this, transactionContext) != null) {
+            throw new TransactionException(String.format("A transaction is already associated with scope : %s", scope));
         }
     }
 
-    public void incrementNestedTransactionCount(Long threadId) {
-        if (threadIdToConnectionMap.containsKey(threadId)) {
-            TransactionContext transactionContext = threadIdToConnectionMap.get(threadId);
-            transactionContext.incrementNestedTransactionCount();
-            threadIdToConnectionMap.put(threadId, transactionContext);
-        } else
-            throw new TransactionException(String.format("No transaction is associated with thread id : %s", Long.toString(threadId)));
+    /**
+     * @return true if the connection of the current transaction is opened
+     */
+    public boolean hasConnection() {
+        TransactionContext transactionContext = getContext();
+        return transactionContext != null && transactionContext.hasConnection();
     }
 
-    public void decrementNestedTransactionCount(Long threadId, TransactionState transactionState) {
-        if (threadIdToConnectionMap.containsKey(threadId)) {
-            TransactionContext transactionContext = threadIdToConnectionMap.get(threadId);
-            transactionContext.decrementNestedTransactionCount();
-            if (transactionContext.getNestedTransactionCount() < 0)
-                throw new TransactionException("Transaction was rolledback/committed more than necessary");
-            transactionContext.recordState(transactionState);
-        } else
-            throw new TransactionException(String.format("No transaction is associated with thread id : %s", Long.toString(threadId)));
+    public boolean isReadOnly() {
+        TransactionContext transactionContext = getContext();
+        return transactionContext != null && transactionContext.isReadOnly();
     }
 
-    public boolean whereThereAnyRollbacks(Long threadId) {
-        return (threadIdToConnectionMap.get(threadId).getTransactionState() & TransactionState.ROLLBACK.value) == TransactionState.ROLLBACK.value;
+    public void incrementNestedTransactionCount() {
+        getExistingContext().incrementNestedTransactionCount();
+    }
+
+    public void decrementNestedTransactionCount(TransactionState transactionState) {
+        TransactionContext transactionContext = getExistingContext();
+        transactionContext.decrementNestedTransactionCount();
+        if (transactionContext.getNestedTransactionCount() < 0)
+            throw new TransactionException("Transaction was rolledback/committed more than necessary");
+        transactionContext.recordState(transactionState);
+    }
+
+    /**
+     * Adds an action to run once the transaction of the current scope is committed or rolled back.
+     */
+    public void addCompletionAction(Runnable action) {
+        getExistingContext().addCompletionAction(action);
+    }
+
+    public List<Runnable> getCompletionActions() {
+        return getExistingContext().getCompletionActions();
+    }
+
+    public boolean whereThereAnyRollbacks() {
+        return (getExistingContext().getTransactionState() & TransactionState.ROLLBACK.value) == TransactionState.ROLLBACK.value;
+    }
+
+    public boolean whereThereAnyCommits() {
+        return (getExistingContext().getTransactionState() & TransactionState.COMMIT.value) == TransactionState.COMMIT.value;
+    }
+
+    public void removeTransaction() {
+        TransactionScope scope = TransactionScope.current();
+        if (scope.removeContext(this) == null) {
+            throw new TransactionException(String.format("No transaction is associated with scope : %s", scope));
+        }
     }
 
-    public boolean whereThereAnyCommits(Long threadId) {
-        return (threadIdToConnectionMap.get(threadId).getTransactionState() & TransactionState.COMMIT.value) == TransactionState.COMMIT.value;
+    private TransactionContext getContext() {
+        return TransactionScope.current().getContext(this);
     }
 
-    public void removeTransaction(Long threadId) {
-        if(threadIdToConnectionMap.containsKey(threadId)) {
-            threadIdToConnectionMap.remove(threadId);
-        } else {
-            throw new TransactionException(String.format("No transaction is associated with thread id : %s", Long.toString(threadId)));
+    private TransactionContext getExistingContext() {
+        TransactionScope scope = TransactionScope.current();
+        TransactionContext transactionContext = scope.getContext(this);
+        if (transactionContext == null) {
+            throw new TransactionException(String.format("No transaction is associated with scope : %s", scope));
         }
+        return transactionContext;
     }
 }
@@ -17,14 +17,31 @@
 package com.hortonworks.registries.storage.transaction;
 
 import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
 
 public class TransactionContext {
     private int nestedTransactionCount = 1;
-    private final Connection connection;
+    private Connection connection;
+    private final Supplier<Connection> connectionSupplier;
+    private final boolean readOnly;
     private int transactionState = TransactionState.INITIALIZED.value;
+    private final List<Runnable> completionActions = new ArrayList<>();
 
     public TransactionContext(Connection connection) {
         this.connection = connection;
+        this.connectionSupplier = null;
+        this.readOnly = false;
+    }
+
+    /**
+     * Creates the context of a read only transaction, whose connection is opened with the given supplier when it is
+     * first used.
+     */
+    public TransactionContext(Supplier<Connection> connectionSupplier) {
+        this.connectionSupplier = connectionSupplier;
+        this.readOnly = true;
     }
 
     public void incrementNestedTransactionCount() {
@@ -36,9 +53,23 @@ public class TransactionContext {
     }
 
     public Connection getConnection() {
+        if (this.connection == null && this.connectionSupplier != null) {
+            this.connection = connectionSupplier.get();
+        }
         return this.connection;
     }
 
+    /**
+     * @return true if the connection of this transaction is opened
+     */
+    public boolean hasConnection() {
+        return this.connection != null;
+    }
+
+    public boolean isReadOnly() {
+        return this.readOnly;
+    }
+
     public int getNestedTransactionCount() {
         return this.nestedTransactionCount;
     }
@@ -50,4 +81,15 @@ public class TransactionContext {
     public void recordState(TransactionState state) {
         transactionState |= state.value;
     }
+
+    public void addCompletionAction(Runnable action) {
+        completionActions.add(action);
+    }
+
+    /**
+     * @return the actions to run once this transaction is committed or rolled back, in the order they were added
+     */
+    public List<Runnable> getCompletionActions() {
+        return completionActions;
+    }
 }
@@ -0,0 +1,96 @@
+/**
+ * Copyright 2017-2019 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package com.hortonworks.registries.storage.transaction;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Carries the transactions of a unit of work, like a web request, independently of the threads executing it.
+ * <p>
+ * Transactions are looked up in the scope which is current for the executing thread. A scope is made current with
+ * {@link #bind()} until the returned binding is closed, so a unit of work can continue on another thread, e.g. in
+ * asynchronous resource methods or {@code CompletableFuture} stages, with the same transactions and locks. A scope must
+ * not be used by more than one thread at a time. Threads without a bound scope use a scope of their own, so
+ * transactions which are not explicitly scoped are bound to their thread.
+ */
+public final class TransactionScope {
+
+    private static final ThreadLocal<TransactionScope> BOUND_SCOPE = new ThreadLocal<>();
+    private static final ThreadLocal<TransactionScope> THREAD_SCOPE = ThreadLocal.withInitial(TransactionScope::new);
+
+    // each book keeper has at most one transaction in a scope
+    private final ConcurrentHashMap<TransactionBookKeeper, TransactionContext> contexts = new ConcurrentHashMap<>();
+
+    /**
+     * @return the scope bound to the current thread, or the scope of the current thread if none is bound
+     */
+    public static TransactionScope current() {
+        TransactionScope scope = BOUND_SCOPE.get();
+        return scope != null ? scope : THREAD_SCOPE.get();
+    }
+
+    /**
+     * Makes this scope the current one of the current thread until the returned binding is closed, when the previously
+     * bound scope is restored.
+     */
+    public Binding bind() {
+        Binding binding = new Binding(BOUND_SCOPE.get());
+        BOUND_SCOPE.set(this);
+        return binding;
+    }
+
+    TransactionContext getContext(TransactionBookKeeper bookKeeper) {
+        return contexts.get(bookKeeper);
+    }
+
+    TransactionContext putContextIfAbsent(TransactionBookKeeper bookKeeper, TransactionContext context) {
+        return contexts.putIfAbsent(bookKeeper, context);
+    }
+
+    TransactionContext removeContext(TransactionBookKeeper bookKeeper) {
+        return contexts.remove(bookKeeper);
+    }
+
+    @Override
+    public String toString() {
+        return "TransactionScope@" + Integer.toHexString(System.identityHashCode(this));
+    }
+
+    /**
+     * Binding of a scope to a thread, which must be closed by the same thread.
+     */
+    public static final class Binding implements AutoCloseable {
+        private final TransactionScope previous;
+        private boolean closed;
+
+        private Binding(TransactionScope previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                if (previous != null) {
+                    BOUND_SCOPE.set(previous);
+                } else {
+                    BOUND_SCOPE.remove();
+                }
+            }
+        }
+    }
+}
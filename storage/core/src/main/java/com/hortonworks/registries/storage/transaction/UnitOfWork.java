@@ -33,4 +33,10 @@ import static java.lang.annotation.RetentionPolicy.RUNTIME;
 public @interface UnitOfWork {
     boolean transactional() default true;
     TransactionIsolation transactionIsolation() default TransactionIsolation.APPLICATION_DEFAULT;
+
+    /**
+     * Resource methods which only read from the storage can run in a read only transaction, which does not borrow
+     * a connection unless a query is executed, e.g. when the result is served from a cache.
+     */
+    boolean readOnly() default false;
 }
\ No newline at end of file
@@ -0,0 +1,126 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.storage.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands out the ids of each namespace from blocks of ids reserved with a single round trip to the storage.
+ * <p>
+ * Ids of the current block of a namespace are taken with an atomic increment, the storage is accessed only
+ * when the block is exhausted. Ids of a block which are not handed out before the process stops are never used,
+ * so the ids of a namespace may have gaps and are not ordered across processes sharing the storage.
+ */
+public class BlockIdAllocator {
+    private static final Logger LOG = LoggerFactory.getLogger(BlockIdAllocator.class);
+
+    /**
+     * Reserves blocks of ids in the storage, which must not be handed out by anyone else.
+     */
+    public interface BlockSource {
+        /**
+         * @return a newly reserved block of ids of the given namespace
+         */
+        IdBlock reserve(String namespace);
+    }
+
+    private final BlockSource blockSource;
+    private final ConcurrentMap<String, IdBlock> blocks = new ConcurrentHashMap<>();
+    // blocks of a namespace are reserved one at a time, without waiting for the reservations of other namespaces
+    private final ConcurrentMap<String, Object> reserveLocks = new ConcurrentHashMap<>();
+
+    public BlockIdAllocator(BlockSource blockSource) {
+        this.blockSource = blockSource;
+    }
+
+    /**
+     * @return the next id of the given namespace, reserving a new block of ids if the current one is exhausted
+     */
+    public Long nextId(String namespace) {
+        IdBlock block = blocks.get(namespace);
+        while (true) {
+            if (block != null) {
+                long id = block.next.getAndIncrement();
+                if (id <= block.last) {
+                    return id;
+                }
+            }
+            block = replaceBlock(namespace, block);
+        }
+    }
+
+    /**
+     * @return the given number of next ids of the given namespace, taken from the current block at once and reserving
+     * as many new blocks as needed for the remaining ones
+     */
+    public List<Long> nextIds(String namespace, int count) {
+        List<Long> ids = new ArrayList<>(count);
+        IdBlock block = blocks.get(namespace);
+        while (true) {
+            if (block != null) {
+                long first = block.next.getAndAdd(count - ids.size());
+                for (long id = first; id <= block.last && ids.size() < count; id++) {
+                    ids.add(id);
+                }
+                if (ids.size() == count) {
+                    return ids;
+                }
+            }
+            block = replaceBlock(namespace, block);
+        }
+    }
+
+    private IdBlock replaceBlock(String namespace, IdBlock exhaustedBlock) {
+        synchronized (reserveLocks.computeIfAbsent(namespace, x -> new Object())) {
+            IdBlock block = blocks.get(namespace);
+            // another thread may have already replaced it
+            if (block == exhaustedBlock) {
+                block = blockSource.reserve(namespace);
+                LOG.debug("Reserved ids [{}] for namespace [{}]", block, namespace);
+                blocks.put(namespace, block);
+            }
+            return block;
+        }
+    }
+
+    /**
+     * Range of ids, both bounds inclusive.
+     */
+    public static final class IdBlock {
+        private final AtomicLong next;
+        private final long last;
+
+        public IdBlock(long first, long last) {
+            if (first > last) {
+                throw new IllegalArgumentException("Invalid block of ids [" + first + ", " + last + "]");
+            }
+            this.next = new AtomicLong(first);
+            this.last = last;
+        }
+
+        @Override
+        public String toString() {
+            return "[" + next.get() + ", " + last + "]";
+        }
+    }
+}
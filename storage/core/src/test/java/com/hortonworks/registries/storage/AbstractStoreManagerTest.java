@@ -38,7 +38,9 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public abstract class AbstractStoreManagerTest {
     protected static final Logger log = LoggerFactory.getLogger(AbstractStoreManagerTest.class);
@@ -115,6 +117,20 @@ public abstract class AbstractStoreManagerTest {
         }
     }
 
+    @Test
+    public void testAddAll_DistinctStorables_AllAdded() {
+        for (StorableTest test : storableTests) {
+            Map<StorableKey, Storable> storables = new LinkedHashMap<>();
+            for (Storable storable : test.getStorableList()) {
+                storables.putIfAbsent(storable.getStorableKey(), storable);
+            }
+            getStorageManager().addAll(storables.values());
+            for (Storable storable : storables.values()) {
+                Assert.assertEquals(storable, getStorageManager().get(storable.getStorableKey()));
+            }
+        }
+    }
+
     @Test
     public void testRemove_NonExistentStorable_null() {
         for (StorableTest test : storableTests) {
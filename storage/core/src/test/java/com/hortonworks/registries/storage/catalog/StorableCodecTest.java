@@ -0,0 +1,124 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.storage.catalog;
+
+import com.hortonworks.registries.storage.PrimaryKey;
+import com.hortonworks.registries.storage.Storable;
+import com.hortonworks.registries.storage.exception.StorageException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+public class StorableCodecTest {
+
+    @Test
+    public void testToMapAndFromMap() {
+        TestStorable storable = new TestStorable();
+        storable.setId(1L);
+        storable.setName("name-1");
+        storable.setCount(10);
+
+        Map<String, Object> map = storable.toMap();
+        Assert.assertEquals(3, map.size());
+        Assert.assertEquals(1L, map.get("id"));
+        Assert.assertEquals("name-1", map.get("name"));
+        Assert.assertEquals(10, map.get("count"));
+
+        Map<String, Object> withNulls = new HashMap<>(map);
+        withNulls.put("name", null);
+        TestStorable copy = (TestStorable) new TestStorable().fromMap(withNulls);
+        Assert.assertEquals(Long.valueOf(1L), copy.getId());
+        Assert.assertNull(copy.getName());
+        Assert.assertEquals(Integer.valueOf(10), copy.getCount());
+    }
+
+    @Test
+    public void testSetterAcceptingSuperType() {
+        TestStorable storable = new TestStorable();
+        StorableCodec codec = StorableCodec.of(TestStorable.class);
+        codec.setValue(storable, "name", "name-1");
+        Assert.assertEquals("name-1", storable.getName());
+        codec.setValue(storable, "name", new StringBuilder("name-2"));
+        Assert.assertEquals("sequence:name-2", storable.getName());
+    }
+
+    @Test(expected = StorageException.class)
+    public void testNoMatchingSetter() {
+        new TestStorable().fromMap(Collections.singletonMap("count", "not-an-integer"));
+    }
+
+    @Test
+    public void testDefaultFromMap() {
+        Assert.assertTrue(StorableCodec.of(TestStorable.class).isDefaultFromMap());
+        Assert.assertFalse(StorableCodec.of(CustomFromMapStorable.class).isDefaultFromMap());
+    }
+
+    public static class TestStorable extends AbstractStorable {
+        private Long id;
+        private String name;
+        private Integer count;
+
+        @Override
+        public String getNameSpace() {
+            return "test_storable";
+        }
+
+        @Override
+        public PrimaryKey getPrimaryKey() {
+            return null;
+        }
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Integer getCount() {
+            return count;
+        }
+
+        public void setCount(Integer count) {
+            this.count = count;
+        }
+
+        public void setName(CharSequence name) {
+            this.name = "sequence:" + name;
+        }
+    }
+
+    public static class CustomFromMapStorable extends TestStorable {
+        @Override
+        public Storable fromMap(Map<String, Object> map) {
+            return super.fromMap(map);
+        }
+    }
+}
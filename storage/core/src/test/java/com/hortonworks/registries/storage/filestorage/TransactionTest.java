@@ -37,6 +37,10 @@ import java.io.InputStreamReader;
 import java.io.Reader;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 public class TransactionTest {
 
@@ -95,6 +99,34 @@ public class TransactionTest {
         }
     }
 
+    @Test
+    public void testActionsRunAfterTransaction() throws Exception {
+        List<String> actions = new ArrayList<>();
+
+        transactionManager.beginTransaction(TransactionIsolation.SERIALIZABLE);
+        transactionManager.runAfterTransaction(() -> actions.add("committed"));
+        // a nested transaction ends with the outermost one
+        transactionManager.beginTransaction(TransactionIsolation.SERIALIZABLE);
+        transactionManager.runAfterTransaction(() -> actions.add("nested"));
+        transactionManager.commitTransaction();
+        Assert.assertTrue(actions.isEmpty());
+        transactionManager.commitTransaction();
+        Assert.assertEquals(Arrays.asList("committed", "nested"), actions);
+
+        actions.clear();
+        transactionManager.beginTransaction(TransactionIsolation.SERIALIZABLE);
+        transactionManager.runAfterTransaction(() -> {
+            throw new IllegalStateException("failed action");
+        });
+        transactionManager.runAfterTransaction(() -> actions.add("rolled back"));
+        transactionManager.rollbackTransaction();
+        Assert.assertEquals(Collections.singletonList("rolled back"), actions);
+
+        actions.clear();
+        transactionManager.runAfterTransaction(() -> actions.add("no transaction"));
+        Assert.assertEquals(Collections.singletonList("no transaction"), actions);
+    }
+
     private void runScript(String fileName) throws SQLException, IOException {
         Connection connection = null;
         try {
@@ -21,11 +21,14 @@ import com.hortonworks.registries.storage.AbstractStoreManagerTest;
 import com.hortonworks.registries.storage.Storable;
 import com.hortonworks.registries.storage.StorableTest;
 import com.hortonworks.registries.storage.StorageManager;
+import com.hortonworks.registries.storage.TransactionManager;
+import com.hortonworks.registries.storage.exception.TransactionException;
 import com.hortonworks.registries.storage.impl.jdbc.connection.ConnectionBuilder;
 import com.hortonworks.registries.storage.impl.jdbc.provider.sql.factory.QueryExecutor;
 import com.hortonworks.registries.storage.search.OrderBy;
 import com.hortonworks.registries.storage.search.SearchQuery;
 import com.hortonworks.registries.storage.search.WhereClause;
+import com.hortonworks.registries.storage.transaction.TransactionIsolation;
 import org.h2.tools.RunScript;
 import org.junit.After;
 import org.junit.Assert;
@@ -119,6 +122,27 @@ public abstract class JdbcStorageManagerIntegrationTest extends AbstractStoreMan
         }
     }
 
+    @Test
+    public void testReadOnlyTransaction() {
+        TransactionManager transactionManager = (TransactionManager) jdbcStorageManager;
+        // the borrowing of the connection is checked by ReadOnlyTransactionTest
+        for (StorableTest test : storableTests) {
+            test.addAllToStorage();
+            transactionManager.beginReadOnlyTransaction(TransactionIsolation.JDBC_DEFAULT);
+            try {
+                Assert.assertFalse(getStorageManager().list(test.getNameSpace()).isEmpty());
+                try {
+                    transactionManager.beginTransaction(TransactionIsolation.JDBC_DEFAULT);
+                    Assert.fail("A read-write transaction should not be nested in a read only transaction");
+                } catch (TransactionException e) {
+                    // expected
+                }
+            } finally {
+                transactionManager.commitTransaction();
+            }
+        }
+    }
+
     @Test
     public void testFindOrderBy() {
         super.testFindOrderBy();
@@ -0,0 +1,73 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.storage.impl.jdbc;
+
+import com.hortonworks.registries.common.Schema;
+import com.hortonworks.registries.storage.PrimaryKey;
+import com.hortonworks.registries.storage.StorableKey;
+import com.hortonworks.registries.storage.transaction.TransactionScope;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+
+public class LocalLockManagerTest {
+
+    private static final StorableKey KEY = new StorableKey("item",
+            new PrimaryKey(Collections.singletonMap(new Schema.Field("id", Schema.Type.LONG), 1L)));
+
+    private final LocalLockManager lockManager = new LocalLockManager();
+
+    @Test
+    public void testLocksAreHeldByScope() throws Exception {
+        TransactionScope scope = new TransactionScope();
+        try (TransactionScope.Binding binding = scope.bind()) {
+            Assert.assertTrue(lockManager.tryLock(KEY, true, 0));
+            // reentrant for the same scope
+            Assert.assertTrue(lockManager.tryLock(KEY, false, 0));
+        }
+
+        // the scope of another thread can not acquire it
+        Assert.assertFalse(CompletableFuture.supplyAsync(() -> tryLock(false)).get());
+
+        // the unit of work continues on another thread and releases its locks there
+        CompletableFuture.runAsync(() -> {
+            try (TransactionScope.Binding binding = scope.bind()) {
+                lockManager.unlockAll();
+            }
+        }).get();
+
+        Assert.assertTrue(tryLock(true));
+        lockManager.unlockAll();
+    }
+
+    @Test
+    public void testReadLocksAreShared() throws Exception {
+        Assert.assertTrue(tryLock(false));
+        Assert.assertTrue(CompletableFuture.supplyAsync(() -> tryLock(false)).get());
+        Assert.assertFalse(CompletableFuture.supplyAsync(() -> tryLock(true)).get());
+        lockManager.unlockAll();
+    }
+
+    private boolean tryLock(boolean exclusive) {
+        try {
+            return lockManager.tryLock(KEY, exclusive, 0);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
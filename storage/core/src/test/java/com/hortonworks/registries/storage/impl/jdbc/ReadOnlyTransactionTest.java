@@ -0,0 +1,163 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.storage.impl.jdbc;
+
+import com.hortonworks.registries.storage.filestorage.FileBlob;
+import com.hortonworks.registries.storage.impl.jdbc.config.ExecutionConfig;
+import com.hortonworks.registries.storage.impl.jdbc.config.HikariBasicConfig;
+import com.hortonworks.registries.storage.impl.jdbc.connection.ConnectionBuilder;
+import com.hortonworks.registries.storage.impl.jdbc.connection.HikariCPConnectionBuilder;
+import com.hortonworks.registries.storage.impl.jdbc.provider.mysql.factory.MySqlExecutor;
+import com.hortonworks.registries.storage.transaction.TransactionIsolation;
+import com.hortonworks.registries.storage.util.StorageUtils;
+import com.zaxxer.hikari.HikariConfig;
+import org.h2.tools.RunScript;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.InputStreamReader;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checks on H2 when a read only transaction borrows its connection from the {@link ConnectionBuilder} and in which
+ * state it gives it back.
+ */
+public class ReadOnlyTransactionTest {
+
+    private static final String H2_URL = "jdbc:h2:mem:read_only;MODE=MySQL;DATABASE_TO_UPPER=false;DB_CLOSE_DELAY=-1";
+    private static final String FILE_NAME = "read-only";
+
+    private HikariCPConnectionBuilder connectionBuilder;
+    private JdbcStorageManager storageManager;
+    // the calls of the storage manager to borrow, switch to read only and release a connection
+    private final List<String> connectionCalls = new ArrayList<>();
+
+    @Before
+    public void setUp() throws Exception {
+        Map<String, Object> config = HikariBasicConfig.getH2HikariConfig();
+        config.put("dataSource.URL", H2_URL);
+        connectionBuilder = new HikariCPConnectionBuilder(config);
+        storageManager = new JdbcStorageManager(new MySqlExecutor(new ExecutionConfig(-1), new RecordingConnectionBuilder()));
+        storageManager.registerStorables(StorageUtils.getStorableEntities());
+        runScript("create_fileblob.sql");
+        try (Connection connection = connectionBuilder.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("INSERT INTO fileblob (name, version, data, timestamp) VALUES ('" + FILE_NAME + "', 0, X'010203', 0)");
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        runScript("drop_fileblob.sql");
+        connectionBuilder.cleanup();
+    }
+
+    @Test
+    public void testNoConnectionIsBorrowedWithoutQuery() {
+        storageManager.beginReadOnlyTransaction(TransactionIsolation.JDBC_DEFAULT);
+        storageManager.commitTransaction();
+        storageManager.beginReadOnlyTransaction(TransactionIsolation.JDBC_DEFAULT);
+        storageManager.rollbackTransaction();
+
+        Assert.assertEquals(Collections.emptyList(), connectionCalls);
+    }
+
+    @Test
+    public void testConnectionIsBorrowedForFirstQueryAndReleasedWritable() {
+        storageManager.beginReadOnlyTransaction(TransactionIsolation.JDBC_DEFAULT);
+        try {
+            Assert.assertEquals(Collections.emptyList(), connectionCalls);
+
+            FileBlob fileBlob = storageManager.get(FileBlob.getStorableKey(FILE_NAME));
+            Assert.assertEquals(FILE_NAME, fileBlob.getName());
+            Assert.assertEquals(Arrays.asList("getConnection", "setReadOnly(true)"), connectionCalls);
+
+            // further queries run on the same connection
+            storageManager.get(FileBlob.getStorableKey(FILE_NAME));
+            Assert.assertEquals(Arrays.asList("getConnection", "setReadOnly(true)"), connectionCalls);
+        } finally {
+            storageManager.commitTransaction();
+        }
+
+        Assert.assertEquals(Arrays.asList("getConnection", "setReadOnly(true)", "setReadOnly(false)", "close"), connectionCalls);
+    }
+
+    @Test
+    public void testConnectionIsReleasedWritableOnRollback() {
+        storageManager.beginReadOnlyTransaction(TransactionIsolation.JDBC_DEFAULT);
+        storageManager.get(FileBlob.getStorableKey(FILE_NAME));
+        storageManager.rollbackTransaction();
+
+        Assert.assertEquals(Arrays.asList("getConnection", "setReadOnly(true)", "setReadOnly(false)", "close"), connectionCalls);
+    }
+
+    private void runScript(String fileName) throws SQLException {
+        try (Connection connection = connectionBuilder.getConnection()) {
+            RunScript.execute(connection, new InputStreamReader(getClass().getClassLoader().getResourceAsStream(fileName)));
+        }
+    }
+
+    /**
+     * Borrows the connections from the pool of the test and records the calls of interest on them.
+     */
+    private class RecordingConnectionBuilder implements ConnectionBuilder<HikariConfig> {
+
+        @Override
+        public void prepare() {
+        }
+
+        @Override
+        public Connection getConnection() {
+            Connection connection = connectionBuilder.getConnection();
+            connectionCalls.add("getConnection");
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                if (method.getName().equals("setReadOnly") || method.getName().equals("close")) {
+                    connectionCalls.add(method.getName() + "(" + (args != null ? args[0] : "") + ")");
+                } else if (method.getName().equals("equals")) {
+                    // the executor tracks its active connections by the proxies it was given
+                    return proxy == args[0];
+                } else if (method.getName().equals("hashCode")) {
+                    return System.identityHashCode(proxy);
+                }
+                try {
+                    return method.invoke(connection, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+        }
+
+        @Override
+        public HikariConfig getConfig() {
+            return connectionBuilder.getConfig();
+        }
+
+        @Override
+        public void cleanup() {
+        }
+    }
+}
@@ -21,11 +21,17 @@ import com.hortonworks.registries.common.Schema;
 import com.hortonworks.registries.storage.OrderByField;
 import com.hortonworks.registries.storage.PrimaryKey;
 import com.hortonworks.registries.storage.StorableKey;
+import com.hortonworks.registries.storage.impl.jdbc.provider.mysql.query.MySqlSearchDeleteQuery;
+import com.hortonworks.registries.storage.impl.jdbc.provider.mysql.query.MySqlSelectInQuery;
 import com.hortonworks.registries.storage.impl.jdbc.provider.mysql.query.MySqlSelectQuery;
+import com.hortonworks.registries.storage.search.OrderBy;
+import com.hortonworks.registries.storage.search.SearchQuery;
+import com.hortonworks.registries.storage.search.WhereClause;
 import org.junit.Assert;
 import org.junit.Test;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -71,4 +77,62 @@ public class MySqlSelectQueryTest {
         Assert.assertEquals("SELECT * FROM topic WHERE `foo` = ? ORDER BY `foo` DESC, ORDER BY `bar` ASC", parametrizedSql);
 
     }
+
+    @Test
+    public void testSearchQueryWithLimit() throws Exception {
+        Schema schema = new Schema();
+        schema.setFields(Arrays.asList(Schema.Field.fromString("name='id', type=LONG")));
+        SearchQuery searchQuery = SearchQuery.searchFrom(nameSpace)
+                                             .where(WhereClause.begin().gt("id", 10L).combine())
+                                             .orderBy(OrderBy.asc("id"))
+                                             .limit(5);
+        MySqlSelectQuery mySqlSelectQuery = new MySqlSelectQuery(searchQuery, schema);
+
+        Assert.assertEquals("SELECT * FROM `topic` WHERE `id` > ?  ORDER BY `id` ASC  LIMIT 5", mySqlSelectQuery.getParametrizedSql());
+    }
+
+    @Test
+    public void testSearchQueryWithOffset() throws Exception {
+        Schema schema = new Schema();
+        schema.setFields(Arrays.asList(Schema.Field.fromString("name='id', type=LONG")));
+        SearchQuery searchQuery = SearchQuery.searchFrom(nameSpace)
+                                             .orderBy(OrderBy.asc("id"))
+                                             .offset(10)
+                                             .limit(5);
+        MySqlSelectQuery mySqlSelectQuery = new MySqlSelectQuery(searchQuery, schema);
+
+        Assert.assertEquals("SELECT * FROM `topic` ORDER BY `id` ASC  LIMIT 5 OFFSET 10", mySqlSelectQuery.getParametrizedSql());
+    }
+
+    @Test
+    public void testSelectInQueryIsPadded() throws Exception {
+        Schema.Field field = new Schema.Field("id", Schema.Type.LONG);
+        MySqlSelectInQuery twoValues = new MySqlSelectInQuery(nameSpace, field, Arrays.asList(1L, 2L), null);
+        MySqlSelectInQuery threeValues = new MySqlSelectInQuery(nameSpace, field, Arrays.asList(1L, 2L, 3L), null);
+
+        Assert.assertEquals(10, twoValues.getBindings().size());
+        Assert.assertEquals(2L, twoValues.getBindings().get(9).getValue());
+        Assert.assertEquals(twoValues.getParametrizedSql(), threeValues.getParametrizedSql());
+        Assert.assertEquals(twoValues, threeValues);
+        Assert.assertNotEquals(twoValues, new MySqlSelectInQuery(nameSpace, field, Collections.nCopies(11, 1L), null));
+    }
+
+    @Test
+    public void testSearchDeleteQuery() throws Exception {
+        Schema schema = new Schema();
+        schema.setFields(Arrays.asList(Schema.Field.fromString("name='timestamp', type=LONG")));
+        SearchQuery searchQuery = SearchQuery.searchFrom(nameSpace)
+                                             .where(WhereClause.begin().lt("timestamp", 10L).combine())
+                                             .orderBy(OrderBy.asc("timestamp"));
+        MySqlSearchDeleteQuery deleteQuery = new MySqlSearchDeleteQuery(searchQuery, schema);
+
+        Assert.assertEquals("DELETE FROM `topic` WHERE `timestamp` < ? ", deleteQuery.getParametrizedSql());
+        Assert.assertEquals(10L, deleteQuery.getPrimaryKey().getFieldsToVal().get(schema.getField("timestamp")));
+
+        // the same bindings with another operator must not share the cached statement
+        SearchQuery gtQuery = SearchQuery.searchFrom(nameSpace)
+                                         .where(WhereClause.begin().gt("timestamp", 10L).combine());
+        Assert.assertNotEquals(deleteQuery, new MySqlSearchDeleteQuery(gtQuery, schema));
+        Assert.assertEquals(deleteQuery, new MySqlSearchDeleteQuery(searchQuery, schema));
+    }
 }
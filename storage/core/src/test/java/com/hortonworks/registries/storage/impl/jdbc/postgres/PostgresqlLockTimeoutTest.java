@@ -0,0 +1,147 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.storage.impl.jdbc.postgres;
+
+import com.hortonworks.registries.storage.StorableKey;
+import com.hortonworks.registries.storage.exception.StorageException;
+import com.hortonworks.registries.storage.filestorage.FileBlob;
+import com.hortonworks.registries.storage.impl.jdbc.JdbcStorageManager;
+import com.hortonworks.registries.storage.impl.jdbc.config.ExecutionConfig;
+import com.hortonworks.registries.storage.impl.jdbc.config.HikariBasicConfig;
+import com.hortonworks.registries.storage.impl.jdbc.connection.HikariCPConnectionBuilder;
+import com.hortonworks.registries.storage.impl.jdbc.provider.postgresql.factory.PostgresqlExecutor;
+import com.hortonworks.registries.storage.transaction.TransactionIsolation;
+import com.hortonworks.registries.storage.util.StorageUtils;
+import org.h2.tools.RunScript;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.InputStreamReader;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the lock timeout path of {@link PostgresqlExecutor} on H2, with the lock timeout statements of H2.
+ */
+public class PostgresqlLockTimeoutTest {
+
+    // table level locks, so that a lock held by another connection makes a locking select time out
+    private static final String H2_URL = "jdbc:h2:mem:lock_timeout;MODE=MySQL;DATABASE_TO_UPPER=false;MV_STORE=FALSE;MVCC=FALSE;DB_CLOSE_DELAY=-1";
+    private static final int H2_LOCK_TIMEOUT_ERROR_CODE = 50200;
+    private static final String FILE_NAME = "locked";
+
+    private HikariCPConnectionBuilder connectionBuilder;
+    private JdbcStorageManager storageManager;
+    private final List<String> lockTimeouts = new ArrayList<>();
+
+    @Before
+    public void setUp() throws Exception {
+        Map<String, Object> config = HikariBasicConfig.getH2HikariConfig();
+        config.put("dataSource.URL", H2_URL);
+        connectionBuilder = new HikariCPConnectionBuilder(config);
+        storageManager = new JdbcStorageManager(new H2LockTimeoutExecutor(connectionBuilder));
+        storageManager.registerStorables(StorageUtils.getStorableEntities());
+        runScript("create_fileblob.sql");
+        try (Connection connection = connectionBuilder.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("INSERT INTO fileblob (name, version, data, timestamp) VALUES ('" + FILE_NAME + "', 0, X'010203', 0)");
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        runScript("drop_fileblob.sql");
+        connectionBuilder.cleanup();
+    }
+
+    @Test
+    public void testTransactionIsUsableAfterLockTimeout() throws Exception {
+        StorableKey key = FileBlob.getStorableKey(FILE_NAME);
+        Connection lockHolder = connectionBuilder.getConnection();
+        try {
+            lockHolder.setAutoCommit(false);
+            try (Statement statement = lockHolder.createStatement()) {
+                statement.executeQuery("SELECT * FROM fileblob WHERE name = '" + FILE_NAME + "' FOR UPDATE").close();
+            }
+
+            storageManager.beginTransaction(TransactionIsolation.JDBC_DEFAULT);
+            try {
+                Assert.assertFalse(storageManager.writeLock(key, 300L, TimeUnit.MILLISECONDS));
+
+                // every lock timeout which was set is reset, also when the lock was not granted
+                Assert.assertFalse(lockTimeouts.isEmpty());
+                for (int i = 0; i < lockTimeouts.size(); i += 2) {
+                    Assert.assertEquals("reset", lockTimeouts.get(i + 1));
+                }
+
+                lockHolder.commit();
+
+                // the transaction is still usable after the lock timeout
+                FileBlob fileBlob = storageManager.get(key);
+                Assert.assertEquals(FILE_NAME, fileBlob.getName());
+                Assert.assertTrue(storageManager.writeLock(key, 300L, TimeUnit.MILLISECONDS));
+                storageManager.commitTransaction();
+            } catch (Exception e) {
+                storageManager.rollbackTransaction();
+                throw e;
+            }
+        } finally {
+            lockHolder.rollback();
+            lockHolder.close();
+        }
+
+        Assert.assertEquals(Arrays.asList("set", "reset"), lockTimeouts.subList(lockTimeouts.size() - 2, lockTimeouts.size()));
+    }
+
+    private void runScript(String fileName) throws SQLException {
+        try (Connection connection = connectionBuilder.getConnection()) {
+            RunScript.execute(connection, new InputStreamReader(getClass().getClassLoader().getResourceAsStream(fileName)));
+        }
+    }
+
+    private class H2LockTimeoutExecutor extends PostgresqlExecutor {
+
+        H2LockTimeoutExecutor(HikariCPConnectionBuilder connectionBuilder) {
+            super(new ExecutionConfig(-1), connectionBuilder);
+        }
+
+        @Override
+        protected void setLockTimeout(long lockTimeoutInMillis) {
+            lockTimeouts.add("set");
+            executeInActiveTransaction("SET LOCK_TIMEOUT " + Math.max(1L, lockTimeoutInMillis));
+        }
+
+        @Override
+        protected void resetLockTimeout() {
+            lockTimeouts.add("reset");
+            executeInActiveTransaction("SET LOCK_TIMEOUT 1000");
+        }
+
+        @Override
+        protected boolean isLockTimeout(StorageException e) {
+            SQLException sqlException = getSQLException(e);
+            return sqlException != null && sqlException.getErrorCode() == H2_LOCK_TIMEOUT_ERROR_CODE;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.storage.impl.memory;
+
+import com.hortonworks.registries.common.QueryParam;
+import com.hortonworks.registries.common.Schema;
+import com.hortonworks.registries.storage.OrderByField;
+import com.hortonworks.registries.storage.PrimaryKey;
+import com.hortonworks.registries.storage.Storable;
+import com.hortonworks.registries.storage.annotation.SearchableField;
+import com.hortonworks.registries.storage.catalog.AbstractStorable;
+import com.hortonworks.registries.storage.search.OrderBy;
+import com.hortonworks.registries.storage.search.SearchQuery;
+import com.hortonworks.registries.storage.search.WhereClause;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class InMemoryStorageManagerIndexTest {
+    private InMemoryStorageManager storageManager;
+
+    @Before
+    public void setup() {
+        storageManager = new InMemoryStorageManager();
+        storageManager.add(new Item(1L, "apple", 10L));
+        storageManager.add(new Item(2L, "banana", 20L));
+        storageManager.add(new Item(3L, "apple", 30L));
+        storageManager.add(new Item(4L, "cherry", null));
+    }
+
+    @Test
+    public void testFindWithIndexes() {
+        Assert.assertEquals(Arrays.asList(1L, 3L), sortedIds(storageManager.find(Item.NAME_SPACE,
+                                                                         Collections.singletonList(new QueryParam("name", "apple")),
+                                                                         Collections.singletonList(OrderByField.of("id")))));
+        Assert.assertEquals(Collections.singletonList(3L), sortedIds(storageManager.find(Item.NAME_SPACE,
+                                                                                   Arrays.asList(new QueryParam("name", "apple"),
+                                                                                                 new QueryParam("amount", "30")))));
+        Assert.assertTrue(storageManager.find(Item.NAME_SPACE, Collections.singletonList(new QueryParam("name", "kiwi"))).isEmpty());
+    }
+
+    @Test
+    public void testIndexesAreMaintained() {
+        Item item = storageManager.get(new Item(1L, null, null).getStorableKey());
+        item.setName("kiwi");
+        storageManager.update(item);
+        Assert.assertEquals(Collections.singletonList(3L), sortedIds(storageManager.find(Item.NAME_SPACE,
+                                                                                   Collections.singletonList(new QueryParam("name", "apple")))));
+        Assert.assertEquals(Collections.singletonList(1L), sortedIds(storageManager.find(Item.NAME_SPACE,
+                                                                                   Collections.singletonList(new QueryParam("name", "kiwi")))));
+
+        storageManager.remove(item.getStorableKey());
+        Assert.assertTrue(storageManager.find(Item.NAME_SPACE, Collections.singletonList(new QueryParam("name", "kiwi"))).isEmpty());
+
+        Assert.assertEquals(Arrays.asList(2L, 3L), sortedIds(storageManager.findIn(Item.NAME_SPACE, "amount",
+                                                                             Arrays.asList(20L, 30L, 10L), Collections.emptyList())));
+    }
+
+    @Test
+    public void testSearch() {
+        SearchQuery searchQuery = SearchQuery.searchFrom(Item.NAME_SPACE)
+                                             .where(WhereClause.begin()
+                                                               .eq("name", "banana")
+                                                               .or()
+                                                               .enclose(WhereClause.begin()
+                                                                                   .contains("name", "pp")
+                                                                                   .and()
+                                                                                   .gt("amount", 15))
+                                                               .combine())
+                                             .orderBy(OrderBy.desc("id"));
+        Assert.assertEquals(Arrays.asList(3L, 2L), ids(storageManager.search(searchQuery)));
+
+        searchQuery = SearchQuery.searchFrom(Item.NAME_SPACE)
+                                 .where(WhereClause.begin()
+                                                   .eq("name", "apple")
+                                                   .and()
+                                                   .lt("amount", 20)
+                                                   .combine());
+        Assert.assertEquals(Collections.singletonList(1L), sortedIds(storageManager.search(searchQuery)));
+
+        // null values do not match any predicate
+        searchQuery = SearchQuery.searchFrom(Item.NAME_SPACE).where(WhereClause.begin().gt("amount", 0).combine());
+        Assert.assertEquals(3, storageManager.search(searchQuery).size());
+    }
+
+    @Test
+    public void testListPage() {
+        Assert.assertEquals(Arrays.asList(1L, 2L), ids(storageManager.listPage(Item.NAME_SPACE, "id", null, 2)));
+        Assert.assertEquals(Arrays.asList(3L, 4L), ids(storageManager.listPage(Item.NAME_SPACE, "id", 2L, 2)));
+        Assert.assertTrue(storageManager.listPage(Item.NAME_SPACE, "id", 4L, 2).isEmpty());
+        Assert.assertEquals(Collections.singletonList(2L),
+                            ids(storageManager.search(SearchQuery.searchFrom(Item.NAME_SPACE)
+                                                                 .where(WhereClause.begin().eq("name", "banana").combine())
+                                                                 .limit(1))));
+    }
+
+    @Test
+    public void testSearchWithOffset() {
+        Assert.assertEquals(Arrays.asList(2L, 3L),
+                            ids(storageManager.search(SearchQuery.searchFrom(Item.NAME_SPACE)
+                                                                 .orderBy(OrderBy.asc("id"))
+                                                                 .offset(1)
+                                                                 .limit(2))));
+        Assert.assertEquals(Collections.singletonList(4L),
+                            ids(storageManager.search(SearchQuery.searchFrom(Item.NAME_SPACE)
+                                                                 .orderBy(OrderBy.asc("id"))
+                                                                 .offset(3))));
+        Assert.assertTrue(storageManager.search(SearchQuery.searchFrom(Item.NAME_SPACE).offset(10).limit(2)).isEmpty());
+    }
+
+    private static List<Long> ids(Collection<? extends Storable> storables) {
+        return storables.stream().map(Storable::getId).collect(Collectors.toList());
+    }
+
+    private static List<Long> sortedIds(Collection<? extends Storable> storables) {
+        return storables.stream().map(Storable::getId).sorted().collect(Collectors.toList());
+    }
+
+    public static class Item extends AbstractStorable {
+        public static final String NAME_SPACE = "item";
+
+        private Long id;
+        @SearchableField
+        private String name;
+        private Long amount;
+
+        public Item() {
+        }
+
+        public Item(Long id, String name, Long amount) {
+            this.id = id;
+            this.name = name;
+            this.amount = amount;
+        }
+
+        @Override
+        public String getNameSpace() {
+            return NAME_SPACE;
+        }
+
+        @Override
+        public PrimaryKey getPrimaryKey() {
+            return new PrimaryKey(Collections.singletonMap(new Schema.Field("id", Schema.Type.LONG), id));
+        }
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Long getAmount() {
+            return amount;
+        }
+
+        public void setAmount(Long amount) {
+            this.amount = amount;
+        }
+    }
+}
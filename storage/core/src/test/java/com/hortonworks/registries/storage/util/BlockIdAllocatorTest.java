@@ -0,0 +1,149 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.storage.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class BlockIdAllocatorTest {
+    private static final int BLOCK_SIZE = 10;
+
+    @Test
+    public void testIdsAreHandedOutFromBlocks() {
+        AtomicInteger reservations = new AtomicInteger();
+        AtomicLong sequence = new AtomicLong();
+        BlockIdAllocator allocator = new BlockIdAllocator(namespace -> {
+            reservations.incrementAndGet();
+            long last = sequence.addAndGet(BLOCK_SIZE);
+            return new BlockIdAllocator.IdBlock(last - BLOCK_SIZE + 1, last);
+        });
+
+        for (long i = 1; i <= 25; i++) {
+            Assert.assertEquals(Long.valueOf(i), allocator.nextId("foo"));
+        }
+        Assert.assertEquals(3, reservations.get());
+
+        // namespaces have their own blocks
+        Assert.assertEquals(Long.valueOf(31), allocator.nextId("bar"));
+        Assert.assertEquals(Long.valueOf(26), allocator.nextId("foo"));
+        Assert.assertEquals(4, reservations.get());
+    }
+
+    @Test
+    public void testNextIdsReserveOnlyTheNeededBlocks() {
+        AtomicInteger reservations = new AtomicInteger();
+        AtomicLong sequence = new AtomicLong();
+        BlockIdAllocator allocator = new BlockIdAllocator(namespace -> {
+            reservations.incrementAndGet();
+            long last = sequence.addAndGet(BLOCK_SIZE);
+            return new BlockIdAllocator.IdBlock(last - BLOCK_SIZE + 1, last);
+        });
+
+        Assert.assertEquals(Long.valueOf(1), allocator.nextId("foo"));
+        Assert.assertEquals(1, reservations.get());
+
+        // the rest of the current block and two new ones
+        List<Long> ids = allocator.nextIds("foo", 25);
+        Assert.assertEquals(25, ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            Assert.assertEquals(Long.valueOf(i + 2), ids.get(i));
+        }
+        Assert.assertEquals(3, reservations.get());
+
+        // ids of the last block which were not handed out are still used
+        Assert.assertEquals(Arrays.asList(27L, 28L, 29L, 30L), allocator.nextIds("foo", 4));
+        Assert.assertEquals(Long.valueOf(31), allocator.nextId("foo"));
+        Assert.assertEquals(4, reservations.get());
+    }
+
+    @Test
+    public void testConcurrentIdsAreUnique() throws Exception {
+        AtomicLong sequence = new AtomicLong();
+        BlockIdAllocator allocator = new BlockIdAllocator(namespace -> {
+            long last = sequence.addAndGet(BLOCK_SIZE);
+            return new BlockIdAllocator.IdBlock(last - BLOCK_SIZE + 1, last);
+        });
+
+        int threads = 8;
+        int idsPerThread = 1000;
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executorService.submit(() -> {
+                    for (int j = 0; j < idsPerThread; j++) {
+                        Assert.assertTrue(ids.add(allocator.nextId("foo")));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        Assert.assertEquals(threads * idsPerThread, ids.size());
+        Assert.assertEquals(threads * idsPerThread, sequence.get());
+    }
+
+    @Test
+    public void testReservationsOfNamespacesDoNotWaitForEachOther() throws Exception {
+        CountDownLatch slowReservationStarted = new CountDownLatch(1);
+        CountDownLatch slowReservationReleased = new CountDownLatch(1);
+        BlockIdAllocator allocator = new BlockIdAllocator(namespace -> {
+            if ("slow".equals(namespace)) {
+                slowReservationStarted.countDown();
+                try {
+                    slowReservationReleased.await();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+            return new BlockIdAllocator.IdBlock(1, BLOCK_SIZE);
+        });
+
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            Future<Long> slowId = executorService.submit(() -> allocator.nextId("slow"));
+            Assert.assertTrue(slowReservationStarted.await(10, TimeUnit.SECONDS));
+
+            // a block of another namespace is reserved while the slow reservation is still running
+            Assert.assertEquals(Long.valueOf(1), allocator.nextId("fast"));
+            Assert.assertFalse(slowId.isDone());
+
+            slowReservationReleased.countDown();
+            Assert.assertEquals(Long.valueOf(1), slowId.get(10, TimeUnit.SECONDS));
+        } finally {
+            slowReservationReleased.countDown();
+            executorService.shutdownNow();
+        }
+    }
+}
@@ -15,7 +15,6 @@
  **/
 package com.hortonworks.registries.tag.service;
 
-import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
@@ -42,15 +41,23 @@ import java.util.Map;
 import java.util.Set;
 
 /**
- * Catalog db based tag service.
+ * Catalog db based tag service. Tag hierarchies and tagged entities are resolved from a {@link TagGraph} of all the
+ * tags and their mappings, which is reloaded from the catalog db at the given refresh interval.
  */
 public class CatalogTagService implements TagService {
     private static final String TAG_NAMESPACE = new Tag().getNameSpace();
     private static final String TAG_STORABLE_MAPPING_NAMESPACE = new TagStorableMapping().getNameSpace();
+    private static final long DEFAULT_TAG_GRAPH_REFRESH_INTERVAL_MS = 60 * 1000L;
     private final StorageManager dao;
+    private final TagGraph tagGraph;
 
     public CatalogTagService(StorageManager dao) {
+        this(dao, DEFAULT_TAG_GRAPH_REFRESH_INTERVAL_MS);
+    }
+
+    public CatalogTagService(StorageManager dao, long tagGraphRefreshIntervalMs) {
         this.dao = dao;
+        this.tagGraph = new TagGraph(tagGraphRefreshIntervalMs);
         dao.registerStorables(getStorableClasses());
 
     }
@@ -75,6 +82,22 @@ public class CatalogTagService implements TagService {
         StorageUtils.ensureUnique(tag, this::listTags, QueryParam.params("name", tag.getName()));
     }
 
+    private TagGraph getTagGraph() {
+        tagGraph.loadIfNeeded(() -> dao.<Tag>list(TAG_NAMESPACE), () -> dao.<TagStorableMapping>list(TAG_STORABLE_MAPPING_NAMESPACE));
+        return tagGraph;
+    }
+
+    // the graph is reloaded after a failed update, as it may have been partially applied
+    private void updateTagGraph(Runnable update) {
+        getTagGraph();
+        try {
+            update.run();
+        } catch (RuntimeException e) {
+            tagGraph.invalidate();
+            throw e;
+        }
+    }
+
     @Override
     public Tag addTag(Tag tag) {
         if (tag.getId() == null) {
@@ -85,8 +108,11 @@ public class CatalogTagService implements TagService {
         }
         validateTag(tag);
         checkCycles(tag, tag.getTags());
-        dao.add(tag);
-        addTagsForStorable(getTaggedEntity(tag), tag.getTags());
+        updateTagGraph(() -> {
+            dao.add(tag);
+            tagGraph.putTag(tag);
+            addTagsForStorable(getTaggedEntity(tag), tag.getTags());
+        });
         return tag;
     }
 
@@ -130,18 +156,25 @@ public class CatalogTagService implements TagService {
         List<Tag> tagsToBeAdded = getTagsToBeAdded(existingTags, tag.getTags());
         List<Tag> tagsToBeRemoved = getTagsToBeRemoved(existingTags, tag.getTags());
         checkCycles(tag, tagsToBeAdded);
-        this.dao.addOrUpdate(tag);
-        updateTags(getTaggedEntity(tag), tagsToBeAdded, tagsToBeRemoved);
+        updateTagGraph(() -> {
+            this.dao.addOrUpdate(tag);
+            tagGraph.putTag(tag);
+            updateTags(getTaggedEntity(tag), tagsToBeAdded, tagsToBeRemoved);
+        });
         return tag;
     }
 
     @Override
     public Tag getTag(Long tagId) {
-        Tag tag = new Tag();
-        tag.setId(tagId);
-        Tag result = this.dao.get(new StorableKey(TAG_NAMESPACE, tag.getPrimaryKey()));
-        if (result != null) {
-            result.setTags(getTags(getTaggedEntity(result)));
+        Tag result = getTagGraph().getTag(tagId);
+        if (result == null) {
+            // it may have been added by another node since the graph was loaded
+            Tag tag = new Tag();
+            tag.setId(tagId);
+            Tag storedTag = this.dao.get(new StorableKey(TAG_NAMESPACE, tag.getPrimaryKey()));
+            if (storedTag != null) {
+                result = tagGraph.materialize(Collections.singletonList(storedTag)).get(0);
+            }
         }
         return result;
     }
@@ -153,32 +186,38 @@ public class CatalogTagService implements TagService {
             if (!getEntities(tagId, false).isEmpty()) {
                 throw new TagNotEmptyException("Tag not empty, has child entities.");
             }
-            removeTagsFromStorable(getTaggedEntity(tag), tag.getTags());
-            dao.<Tag>remove(new StorableKey(TAG_NAMESPACE, tag.getPrimaryKey()));
+            updateTagGraph(() -> {
+                removeTagsFromStorable(getTaggedEntity(tag), tag.getTags());
+                dao.<Tag>remove(new StorableKey(TAG_NAMESPACE, tag.getPrimaryKey()));
+                tagGraph.removeTag(tagId);
+            });
         }
         return tag;
     }
 
     @Override
     public Collection<Tag> listTags() {
-        return makeTags(this.dao.<Tag>list(TAG_NAMESPACE));
+        return getTagGraph().listTags();
     }
 
     @Override
     public Collection<Tag> listTags(List<QueryParam> queryParams) {
-        return makeTags(dao.<Tag>find(TAG_NAMESPACE, queryParams));
+        return getTagGraph().materialize(dao.<Tag>find(TAG_NAMESPACE, queryParams));
     }
 
     @Override
     public void addTagsForStorable(TaggedEntity taggedEntity, List<Tag> tags) {
         if (tags != null) {
-            for (Tag tag : tags) {
-                TagStorableMapping tagStorable = new TagStorableMapping();
-                tagStorable.setTagId(tag.getId());
-                tagStorable.setStorableNamespace(taggedEntity.getNamespace());
-                tagStorable.setStorableId(taggedEntity.getId());
-                this.dao.add(tagStorable);
-            }
+            updateTagGraph(() -> {
+                for (Tag tag : tags) {
+                    TagStorableMapping tagStorable = new TagStorableMapping();
+                    tagStorable.setTagId(tag.getId());
+                    tagStorable.setStorableNamespace(taggedEntity.getNamespace());
+                    tagStorable.setStorableId(taggedEntity.getId());
+                    this.dao.add(tagStorable);
+                    tagGraph.addMapping(tag.getId(), taggedEntity);
+                }
+            });
         }
     }
 
@@ -206,27 +245,22 @@ public class CatalogTagService implements TagService {
     @Override
     public void removeTagsFromStorable(TaggedEntity taggedEntity, List<Tag> tags) {
         if (tags != null) {
-            for (Tag tag : tags) {
-                TagStorableMapping tagStorable = new TagStorableMapping();
-                tagStorable.setTagId(tag.getId());
-                tagStorable.setStorableId(taggedEntity.getId());
-                tagStorable.setStorableNamespace(taggedEntity.getNamespace());
-                this.dao.remove(tagStorable.getStorableKey());
-            }
+            updateTagGraph(() -> {
+                for (Tag tag : tags) {
+                    TagStorableMapping tagStorable = new TagStorableMapping();
+                    tagStorable.setTagId(tag.getId());
+                    tagStorable.setStorableId(taggedEntity.getId());
+                    tagStorable.setStorableNamespace(taggedEntity.getNamespace());
+                    this.dao.remove(tagStorable.getStorableKey());
+                    tagGraph.removeMapping(tag.getId(), taggedEntity);
+                }
+            });
         }
     }
 
     @Override
     public List<Tag> getTags(TaggedEntity taggedEntity) {
-        List<Tag> tags = new ArrayList<>();
-        QueryParam qp1 = new QueryParam(TagStorableMapping.FIELD_STORABLE_ID,
-                                        String.valueOf(taggedEntity.getId()));
-        QueryParam qp2 = new QueryParam(TagStorableMapping.FIELD_STORABLE_NAMESPACE,
-                                        String.valueOf(taggedEntity.getNamespace()));
-        for (TagStorableMapping mapping : listTagStorableMapping(ImmutableList.of(qp1, qp2))) {
-            tags.add(getTag(mapping.getTagId()));
-        }
-        return tags;
+        return getTagGraph().getTags(taggedEntity);
     }
 
     enum State {
@@ -245,7 +279,7 @@ public class CatalogTagService implements TagService {
             throw new IllegalStateException("Cycle detected");
         } else if (tagState != State.VISITED) {
             state.put(tagId, State.VISITING);
-            for (TaggedEntity taggedEntity : getTaggedEntities(tagId)) {
+            for (TaggedEntity taggedEntity : getTagGraph().getTaggedEntities(tagId)) {
                 if (recurse && Tag.NAMESPACE.equalsIgnoreCase(taggedEntity.getNamespace())) {
                     result.addAll(getEntities(taggedEntity.getId(), recurse, state));
                 } else {
@@ -256,26 +290,4 @@ public class CatalogTagService implements TagService {
         }
         return new LinkedList<>(result);
     }
-
-    private List<TaggedEntity> getTaggedEntities(Long tagId) {
-        List<TaggedEntity> taggedEntities = new ArrayList<>();
-        QueryParam qp1 = new QueryParam(TagStorableMapping.FIELD_TAG_ID, String.valueOf(tagId));
-        for (TagStorableMapping mapping : listTagStorableMapping(ImmutableList.of(qp1))) {
-            taggedEntities.add(new TaggedEntity(mapping.getStorableNamespace(), mapping.getStorableId()));
-        }
-        return taggedEntities;
-    }
-
-    private Collection<TagStorableMapping> listTagStorableMapping(List<QueryParam> params) {
-        return dao.find(TAG_STORABLE_MAPPING_NAMESPACE, params);
-    }
-
-    private Collection<Tag> makeTags(Collection<Tag> tags) {
-        if (tags != null) {
-            for (Tag tag : tags) {
-                tag.setTags(getTags(getTaggedEntity(tag)));
-            }
-        }
-        return tags;
-    }
 }
\ No newline at end of file
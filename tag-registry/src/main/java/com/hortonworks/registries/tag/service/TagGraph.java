@@ -0,0 +1,205 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.tag.service;
+
+import com.hortonworks.registries.tag.Tag;
+import com.hortonworks.registries.tag.TagStorableMapping;
+import com.hortonworks.registries.tag.TaggedEntity;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/**
+ * In memory graph of all the tags and their mappings to tagged entities, which lets {@link CatalogTagService} resolve
+ * the parent tags of tags and the entities under tags without a storage round trip for each node of the hierarchy.
+ * <p>
+ * The graph is loaded with all the tags and mappings at once and it is kept up to date by the service on its own
+ * updates. As updates may still be rolled back with their transaction or be done by other nodes, the graph is reloaded
+ * when it is older than the given refresh interval or after it is invalidated.
+ */
+class TagGraph {
+
+    // tags without their parent tags, which are materialized from the mappings when tags are returned
+    private final Map<Long, Tag> tags = new TreeMap<>();
+    private final Map<TaggedEntity, Set<Long>> tagIdsByEntity = new HashMap<>();
+    private final Map<Long, Set<TaggedEntity>> entitiesByTagId = new HashMap<>();
+    private final long refreshIntervalMs;
+    private long loadedAt;
+    private boolean loaded;
+
+    TagGraph(long refreshIntervalMs) {
+        this.refreshIntervalMs = refreshIntervalMs;
+    }
+
+    /**
+     * Loads the graph with the given tags and mappings if it is not loaded yet, or it is older than the refresh
+     * interval.
+     */
+    synchronized void loadIfNeeded(Supplier<Collection<Tag>> tagsSupplier,
+                                   Supplier<Collection<TagStorableMapping>> mappingsSupplier) {
+        long now = System.currentTimeMillis();
+        if (loaded && now - loadedAt < refreshIntervalMs) {
+            return;
+        }
+        tags.clear();
+        tagIdsByEntity.clear();
+        entitiesByTagId.clear();
+        for (Tag tag : tagsSupplier.get()) {
+            putTag(tag);
+        }
+        for (TagStorableMapping mapping : mappingsSupplier.get()) {
+            addMapping(mapping.getTagId(), new TaggedEntity(mapping.getStorableNamespace(), mapping.getStorableId()));
+        }
+        loaded = true;
+        loadedAt = now;
+    }
+
+    synchronized void invalidate() {
+        loaded = false;
+    }
+
+    synchronized void putTag(Tag tag) {
+        tags.put(tag.getId(), copyOf(tag));
+    }
+
+    synchronized void removeTag(Long tagId) {
+        tags.remove(tagId);
+    }
+
+    synchronized void addMapping(Long tagId, TaggedEntity taggedEntity) {
+        tagIdsByEntity.computeIfAbsent(taggedEntity, x -> new LinkedHashSet<>()).add(tagId);
+        entitiesByTagId.computeIfAbsent(tagId, x -> new LinkedHashSet<>()).add(taggedEntity);
+    }
+
+    synchronized void removeMapping(Long tagId, TaggedEntity taggedEntity) {
+        removeFrom(tagIdsByEntity, taggedEntity, tagId);
+        removeFrom(entitiesByTagId, tagId, taggedEntity);
+    }
+
+    /**
+     * @return the tag with the given id and all its ancestors, or null if there is no such tag
+     */
+    synchronized Tag getTag(Long tagId) {
+        return tags.containsKey(tagId) ? materialize(tagId, new HashMap<>(), new HashSet<>()) : null;
+    }
+
+    /**
+     * @return all the tags with their ancestors, ordered by id
+     */
+    synchronized List<Tag> listTags() {
+        return materialize(tags.keySet());
+    }
+
+    /**
+     * @return the given tags with their ancestors in the graph
+     */
+    synchronized List<Tag> materialize(Collection<Tag> storedTags) {
+        Map<Long, Tag> materialized = new HashMap<>();
+        List<Tag> result = new ArrayList<>(storedTags.size());
+        for (Tag tag : storedTags) {
+            Tag copy = copyOf(tag);
+            copy.setTags(getParents(getTaggedEntity(tag.getId()), materialized, new HashSet<>()));
+            result.add(copy);
+        }
+        return result;
+    }
+
+    /**
+     * @return the tags of the given entity with their ancestors
+     */
+    synchronized List<Tag> getTags(TaggedEntity taggedEntity) {
+        return getParents(taggedEntity, new HashMap<>(), new HashSet<>());
+    }
+
+    /**
+     * @return the entities, including tags, which are directly tagged with the given tag
+     */
+    synchronized List<TaggedEntity> getTaggedEntities(Long tagId) {
+        return new ArrayList<>(entitiesByTagId.getOrDefault(tagId, Collections.emptySet()));
+    }
+
+    private List<Tag> materialize(Collection<Long> tagIds) {
+        Map<Long, Tag> materialized = new HashMap<>();
+        List<Tag> result = new ArrayList<>(tagIds.size());
+        for (Long tagId : tagIds) {
+            result.add(materialize(tagId, materialized, new HashSet<>()));
+        }
+        return result;
+    }
+
+    // parent tags are shared by the tags materialized with the same map, which is not retained by the graph
+    private Tag materialize(Long tagId, Map<Long, Tag> materialized, Set<Long> visiting) {
+        Tag result = materialized.get(tagId);
+        if (result == null) {
+            Tag tag = tags.get(tagId);
+            if (tag == null) {
+                return null;
+            }
+            if (!visiting.add(tagId)) {
+                throw new IllegalStateException("Cycle detected at tag " + tagId);
+            }
+            result = copyOf(tag);
+            result.setTags(getParents(getTaggedEntity(tagId), materialized, visiting));
+            visiting.remove(tagId);
+            materialized.put(tagId, result);
+        }
+        return result;
+    }
+
+    private List<Tag> getParents(TaggedEntity taggedEntity, Map<Long, Tag> materialized, Set<Long> visiting) {
+        Set<Long> parentIds = tagIdsByEntity.getOrDefault(taggedEntity, Collections.emptySet());
+        List<Tag> parents = new ArrayList<>(parentIds.size());
+        for (Long parentId : parentIds) {
+            Tag parent = materialize(parentId, materialized, visiting);
+            if (parent != null) {
+                parents.add(parent);
+            }
+        }
+        return parents;
+    }
+
+    private static TaggedEntity getTaggedEntity(Long tagId) {
+        return new TaggedEntity(Tag.NAMESPACE, tagId);
+    }
+
+    private static Tag copyOf(Tag tag) {
+        Tag copy = new Tag();
+        copy.setId(tag.getId());
+        copy.setName(tag.getName());
+        copy.setDescription(tag.getDescription());
+        copy.setTimestamp(tag.getTimestamp());
+        return copy;
+    }
+
+    private static <K, V> void removeFrom(Map<K, Set<V>> map, K key, V value) {
+        Set<V> values = map.get(key);
+        if (values != null) {
+            values.remove(value);
+            if (values.isEmpty()) {
+                map.remove(key);
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.tag.service;
+
+import com.hortonworks.registries.storage.impl.memory.InMemoryStorageManager;
+import com.hortonworks.registries.tag.Tag;
+import com.hortonworks.registries.tag.TaggedEntity;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+public class CatalogTagServiceTest {
+
+    private InMemoryStorageManager storageManager;
+    private CatalogTagService tagService;
+
+    @Before
+    public void setup() {
+        storageManager = new InMemoryStorageManager();
+        tagService = new CatalogTagService(storageManager);
+    }
+
+    @Test
+    public void testTagHierarchy() {
+        Tag root = tagService.addTag(createTag(1L, "root"));
+        Tag child = tagService.addTag(createTag(2L, "child", root));
+        tagService.addTag(createTag(3L, "grandchild", child));
+
+        TaggedEntity entity = new TaggedEntity("topology", 100L);
+        tagService.addTagsForStorable(entity, Collections.singletonList(tagService.getTag(3L)));
+
+        Tag grandchild = tagService.getTag(3L);
+        Assert.assertEquals("child", grandchild.getTags().get(0).getName());
+        Assert.assertEquals("root", grandchild.getTags().get(0).getTags().get(0).getName());
+        Assert.assertEquals(Collections.singletonList(grandchild), tagService.getTags(entity));
+
+        Assert.assertEquals(Collections.singletonList(new TaggedEntity(Tag.NAMESPACE, 2L)), tagService.getEntities(1L, false));
+        Assert.assertEquals(Collections.singletonList(entity), tagService.getEntities(1L, true));
+
+        List<Tag> tags = (List<Tag>) tagService.listTags();
+        Assert.assertEquals(Arrays.asList(1L, 2L, 3L), Arrays.asList(tags.get(0).getId(), tags.get(1).getId(), tags.get(2).getId()));
+        Assert.assertEquals(Collections.singletonList(root), tags.get(1).getTags());
+
+        try {
+            tagService.addOrUpdateTag(1L, createTag(1L, "root", grandchild));
+            Assert.fail("Tagging a tag with its descendant should fail");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testUpdatesAreReflected() {
+        Tag first = tagService.addTag(createTag(1L, "first"));
+        Tag second = tagService.addTag(createTag(2L, "second"));
+        tagService.addTag(createTag(3L, "child", first));
+
+        tagService.addOrUpdateTag(3L, createTag(3L, "renamed-child", second));
+        Tag child = tagService.getTag(3L);
+        Assert.assertEquals("renamed-child", child.getName());
+        Assert.assertEquals(Collections.singletonList(second), child.getTags());
+        Assert.assertTrue(tagService.getEntities(1L, true).isEmpty());
+
+        try {
+            tagService.removeTag(2L);
+            Assert.fail("Removing a tag with entities should fail");
+        } catch (TagNotEmptyException e) {
+            // expected
+        }
+        tagService.removeTag(3L);
+        tagService.removeTag(2L);
+        Assert.assertNull(tagService.getTag(2L));
+        Assert.assertEquals(Collections.singletonList(first), tagService.listTags());
+
+        // a service with a fresh graph sees the same state in the storage
+        CatalogTagService otherTagService = new CatalogTagService(storageManager);
+        Assert.assertEquals(new HashSet<>(tagService.listTags()), new HashSet<>(otherTagService.listTags()));
+    }
+
+    private Tag createTag(Long id, String name, Tag... parents) {
+        Tag tag = new Tag();
+        tag.setId(id);
+        tag.setName(name);
+        tag.setTags(Arrays.asList(parents));
+        return tag;
+    }
+}
@@ -29,6 +29,12 @@ import java.util.concurrent.ConcurrentMap;
 
 public class TransactionEventListener implements ApplicationEventListener {
 
+    /**
+     * Name of the request property with the {@link TransactionScope} of the request, which asynchronous resource methods
+     * can bind on the threads continuing the request to use its transaction.
+     */
+    public static final String TRANSACTION_SCOPE_PROPERTY = TransactionScope.class.getName();
+
     private final ConcurrentMap<ResourceMethod, Optional<UnitOfWork>> methodMap = new ConcurrentHashMap<>();
     private final TransactionManager transactionManager;
     private final boolean runWithTxnIfNotConfigured;
@@ -78,6 +84,8 @@ public class TransactionEventListener implements ApplicationEventListener {
         private final TransactionIsolation defaultTransactionIsolation;
         private boolean useTransactionForUnitOfWork = true;
         private boolean isTransactionActive = false;
+        private final TransactionScope transactionScope = new TransactionScope();
+        private TransactionScope.Binding resourceMethodBinding;
 
         public UnitOfWorkEventListener(ConcurrentMap<ResourceMethod, Optional<UnitOfWork>> methodMap,
                                        TransactionManager transactionManager,
@@ -95,7 +103,11 @@ public class TransactionEventListener implements ApplicationEventListener {
 
             if (eventType == RequestEvent.Type.RESOURCE_METHOD_START) {
 
-                // Start transaction before invoking the resource method for the request
+                // Start transaction before invoking the resource method for the request, in the scope of the request
+                // which stays bound to the invoking thread until the resource method is finished.
+
+                event.getContainerRequest().setProperty(TRANSACTION_SCOPE_PROPERTY, transactionScope);
+                resourceMethodBinding = transactionScope.bind();
 
                 Optional<UnitOfWork> unitOfWork = methodMap.computeIfAbsent(event.getUriInfo()
                                                                                  .getMatchedResourceMethod(),
@@ -116,9 +128,18 @@ public class TransactionEventListener implements ApplicationEventListener {
                         ).orElse(TransactionIsolation.DATABASE_SENSITIVE);
 
                 if (useTransactionForUnitOfWork) {
-                    transactionManager.beginTransaction(transactionIsolation);
+                    if (unitOfWork.map(UnitOfWork::readOnly).orElse(false)) {
+                        transactionManager.beginReadOnlyTransaction(transactionIsolation);
+                    } else {
+                        transactionManager.beginTransaction(transactionIsolation);
+                    }
                     isTransactionActive = true;
                 }
+            } else if (eventType == RequestEvent.Type.RESOURCE_METHOD_FINISHED) {
+                if (resourceMethodBinding != null) {
+                    resourceMethodBinding.close();
+                    resourceMethodBinding = null;
+                }
             } else if (eventType == RequestEvent.Type.RESP_FILTERS_START) {
 
                 // Once the response from the resource method is available we should either rollback or commit the
@@ -135,10 +156,12 @@ public class TransactionEventListener implements ApplicationEventListener {
                 // an error that E1 is not found even thought the operation of adding E1 had succeeded from the client's point of view.
 
                 if (useTransactionForUnitOfWork && isTransactionActive) {
-                    if (event.getContainerResponse().getStatus() < 400) {
-                        transactionManager.commitTransaction();
-                    } else {
-                        transactionManager.rollbackTransaction();
+                    try (TransactionScope.Binding binding = transactionScope.bind()) {
+                        if (event.getContainerResponse().getStatus() < 400) {
+                            transactionManager.commitTransaction();
+                        } else {
+                            transactionManager.rollbackTransaction();
+                        }
                     }
 
                     isTransactionActive = false;
@@ -148,7 +171,9 @@ public class TransactionEventListener implements ApplicationEventListener {
                 // Rollback the transaction in case an exception is thrown from the resource method.
 
                 if (useTransactionForUnitOfWork && isTransactionActive) {
-                    transactionManager.rollbackTransaction();
+                    try (TransactionScope.Binding binding = transactionScope.bind()) {
+                        transactionManager.rollbackTransaction();
+                    }
                     isTransactionActive = false;
                 }
             }
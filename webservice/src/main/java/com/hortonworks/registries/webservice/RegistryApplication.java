@@ -33,6 +33,7 @@ import com.hortonworks.registries.storage.StorageManager;
 import com.hortonworks.registries.storage.StorageManagerAware;
 import com.hortonworks.registries.storage.StorageProviderConfiguration;
 import io.dropwizard.Application;
+import io.dropwizard.lifecycle.Managed;
 import io.dropwizard.lifecycle.ServerLifecycleListener;
 import io.dropwizard.setup.Bootstrap;
 import io.dropwizard.setup.Environment;
@@ -187,6 +188,17 @@ public class RegistryApplication extends Application<RegistryConfiguration> {
             }
 
             resourcesToRegister.addAll(moduleRegistration.getResources());
+            environment.lifecycle().manage(new Managed() {
+                @Override
+                public void start() {
+                }
+
+                @Override
+                public void stop() {
+                    LOG.info("Closing module [{}]", moduleName);
+                    moduleRegistration.close();
+                }
+            });
         }
 
         LOG.info("Registering resources to Jersey environment: [{}]", resourcesToRegister);